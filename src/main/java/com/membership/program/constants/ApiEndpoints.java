@@ -34,6 +34,8 @@ public class ApiEndpoints {
         public static final String SUBSCRIBE = "/subscribe";
         public static final String SUBSCRIPTION_CURRENT = "/subscription/current";
         public static final String SUBSCRIPTION_HISTORY = "/subscription/history";
+        public static final String SUBSCRIPTION_HISTORY_EXPORT = "/subscription/history/export";
+        public static final String SUBSCRIPTION_HISTORY_ARCHIVE = "/subscription/history/archive";
         public static final String SUBSCRIPTION_CANCEL = "/subscription/cancel";
         public static final String SUBSCRIPTION_RENEW = "/subscription/renew";
         public static final String STATUS = "/status";
@@ -53,5 +55,26 @@ public class ApiEndpoints {
         public static final String PROCESS_AUTO = "/process-auto";
         public static final String ADMIN_EVALUATE = "/admin/evaluate/{userId}";
         public static final String ADMIN_PROCESS_AUTO = "/admin/process-auto/{userId}";
+        public static final String ADMIN_EVALUATE_BULK = "/admin/evaluate/bulk";
+        public static final String ADMIN_SIMULATE = "/admin/simulate";
+        public static final String ADMIN_SHADOW_RULES = "/admin/shadow-rules";
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class Order {
+        public static final String BASE_URL = "api/v1/orders";
+
+        public static final String ADMIN_INGEST = "/admin/ingest";
+    }
+
+    @NoArgsConstructor(access = AccessLevel.PRIVATE)
+    public static class AdminJobs {
+        public static final String BASE_URL = "api/v1/admin/jobs";
+
+        public static final String RUNS = "/runs";
+        public static final String RUN_DETAIL = "/runs/detail";
+        public static final String TIER_REEVALUATION = "/tier-reevaluation";
+        public static final String JOB = "/{jobId}";
+        public static final String JOB_CANCEL = "/{jobId}/cancel";
     }
 }
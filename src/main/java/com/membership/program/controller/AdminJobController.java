@@ -0,0 +1,102 @@
+package com.membership.program.controller;
+
+import com.membership.program.constants.ApiEndpoints;
+import com.membership.program.dto.request.AdminJobRequestDTO;
+import com.membership.program.dto.response.AdminJobResponseDTO;
+import com.membership.program.dto.response.NoDataResponse;
+import com.membership.program.service.jobs.AdminJobService;
+import com.membership.program.utility.SecurityContextUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+
+@RestController
+@RequestMapping(ApiEndpoints.AdminJobs.BASE_URL)
+@RequiredArgsConstructor
+@Slf4j
+public class AdminJobController {
+
+    private final AdminJobService adminJobService;
+    private final SecurityContextUtil securityContextUtil;
+
+    /**
+     * Admin endpoint: Start a background tier re-evaluation of every user, or of one cohort
+     */
+    @PostMapping(ApiEndpoints.AdminJobs.TIER_REEVALUATION)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> submitTierReevaluation(@RequestBody(required = false) AdminJobRequestDTO request) {
+        String username = securityContextUtil.getCurrentUsername();
+        log.info("Admin {} submitting tier re-evaluation job", username);
+
+        try {
+            AdminJobResponseDTO job = adminJobService.submitTierReevaluation(
+                    request != null ? request : new AdminJobRequestDTO(), username);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (RejectedExecutionException e) {
+            NoDataResponse noDataResponse = NoDataResponse.create(
+                "Job queue is full",
+                "Too many admin jobs are queued, retry once one has finished",
+                "/api/v1/admin/jobs/tier-reevaluation"
+            );
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(noDataResponse);
+        }
+    }
+
+    /**
+     * Admin endpoint: Admin jobs accepted by this node, newest first
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getJobs() {
+        List<AdminJobResponseDTO> jobs = adminJobService.getJobs();
+
+        if (jobs.isEmpty()) {
+            NoDataResponse noDataResponse = NoDataResponse.create(
+                "No admin jobs found",
+                "No admin job has been submitted to this node recently",
+                "/api/v1/admin/jobs"
+            );
+            return ResponseEntity.ok(noDataResponse);
+        }
+
+        return ResponseEntity.ok(jobs);
+    }
+
+    /**
+     * Admin endpoint: Status, progress, throughput and partial results of a job
+     */
+    @GetMapping(ApiEndpoints.AdminJobs.JOB)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getJob(@PathVariable String jobId) {
+        return adminJobService.getJob(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(NoDataResponse.create(
+                    "Job not found",
+                    "No admin job " + jobId + " on this node",
+                    "/api/v1/admin/jobs/" + jobId
+                )));
+    }
+
+    /**
+     * Admin endpoint: Cancel a queued or running job
+     */
+    @PostMapping(ApiEndpoints.AdminJobs.JOB_CANCEL)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> cancelJob(@PathVariable String jobId) {
+        log.info("Admin cancelling job {}", jobId);
+
+        return adminJobService.cancel(jobId)
+                .<ResponseEntity<?>>map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(job))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(NoDataResponse.create(
+                    "Job not found",
+                    "No admin job " + jobId + " on this node",
+                    "/api/v1/admin/jobs/" + jobId + "/cancel"
+                )));
+    }
+}
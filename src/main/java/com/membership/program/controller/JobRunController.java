@@ -0,0 +1,65 @@
+package com.membership.program.controller;
+
+import com.membership.program.constants.ApiEndpoints;
+import com.membership.program.dto.response.JobRunSummaryResponseDTO;
+import com.membership.program.dto.response.NoDataResponse;
+import com.membership.program.service.cluster.JobRunLedger;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping(ApiEndpoints.AdminJobs.BASE_URL)
+@RequiredArgsConstructor
+@Slf4j
+public class JobRunController {
+
+    private static final int MAX_RUNS = 100;
+
+    private final JobRunLedger jobRunLedger;
+
+    /**
+     * Admin endpoint: Progress and throughput of the most recent nightly job runs
+     */
+    @GetMapping(ApiEndpoints.AdminJobs.RUNS)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRecentRuns(@RequestParam(required = false) String jobName,
+                                           @RequestParam(defaultValue = "20") int limit) {
+        log.info("Admin listing recent job runs for job: {}", jobName);
+
+        List<JobRunSummaryResponseDTO> runs = jobRunLedger.getRecentRuns(jobName, Math.max(1, Math.min(limit, MAX_RUNS)), false);
+
+        if (runs.isEmpty()) {
+            NoDataResponse noDataResponse = NoDataResponse.create(
+                "No job runs found",
+                "No scheduled job has recorded a run yet",
+                "/api/v1/admin/jobs/runs"
+            );
+            return ResponseEntity.ok(noDataResponse);
+        }
+
+        return ResponseEntity.ok(runs);
+    }
+
+    /**
+     * Admin endpoint: Per-shard progress of one job run
+     */
+    @GetMapping(ApiEndpoints.AdminJobs.RUN_DETAIL)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRun(@RequestParam String runKey) {
+        log.info("Admin getting job run {}", runKey);
+
+        return jobRunLedger.getRun(runKey, true)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(NoDataResponse.create(
+                    "Job run not found",
+                    "No job run with key " + runKey,
+                    "/api/v1/admin/jobs/runs/detail"
+                )));
+    }
+}
@@ -1,8 +1,10 @@
 package com.membership.program.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.membership.program.dto.request.SubscriptionRequestDTO;
 import com.membership.program.dto.response.MembershipPlanResponseDTO;
 import com.membership.program.dto.response.NoDataResponse;
+import com.membership.program.dto.response.SubscriptionHistoryPageDTO;
 import com.membership.program.dto.response.SubscriptionHistoryResponseDTO;
 import com.membership.program.dto.response.SubscriptionResponseDTO;
 import com.membership.program.service.MembershipService;
@@ -11,12 +13,16 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.membership.program.constants.ApiEndpoints;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -27,6 +33,7 @@ public class MembershipController {
 
     private final MembershipService membershipService;
     private final SecurityContextUtil securityContextUtil;
+    private final ObjectMapper objectMapper;
 
     /**
      * Get membership plans with optional filtering
@@ -114,17 +121,20 @@ public class MembershipController {
     }
 
     /**
-     * Get subscription history for authenticated user
+     * Get subscription history for authenticated user, a page at a time, newest first
+     * @param cursor nextCursor of the previous page; omit for the first page
      */
     @GetMapping(ApiEndpoints.Membership.SUBSCRIPTION_HISTORY)
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> getUserSubscriptionHistory() {
+    public ResponseEntity<?> getUserSubscriptionHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
         Long userId = securityContextUtil.getCurrentUserId();
         log.info("Fetching subscription history for user: {}", userId);
         
-        List<SubscriptionHistoryResponseDTO> history = membershipService.getUserSubscriptionHistory(userId);
+        SubscriptionHistoryPageDTO history = membershipService.getUserSubscriptionHistory(userId, cursor, limit);
         
-        if (history.isEmpty()) {
+        if (history.getItems().isEmpty() && cursor == null) {
             NoDataResponse noDataResponse = NoDataResponse.create(
                 "No subscription history found",
                 "User has no subscription history",
@@ -136,6 +146,48 @@ public class MembershipController {
         return ResponseEntity.ok(history);
     }
 
+    /**
+     * Get the authenticated user's archived subscription history (older than the retention window),
+     * a page at a time, newest first
+     * @param cursor nextCursor of the previous page; omit for the first page
+     */
+    @GetMapping(ApiEndpoints.Membership.SUBSCRIPTION_HISTORY_ARCHIVE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<SubscriptionHistoryPageDTO> getArchivedSubscriptionHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        Long userId = securityContextUtil.getCurrentUserId();
+        log.info("Fetching archived subscription history for user: {}", userId);
+
+        return ResponseEntity.ok(membershipService.getArchivedSubscriptionHistory(userId, cursor, limit));
+    }
+
+    /**
+     * Export the authenticated user's whole subscription history, streaming one JSON entry per line
+     */
+    @GetMapping(value = ApiEndpoints.Membership.SUBSCRIPTION_HISTORY_EXPORT, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<StreamingResponseBody> exportUserSubscriptionHistory() {
+        Long userId = securityContextUtil.getCurrentUserId();
+        log.info("Exporting subscription history for user: {}", userId);
+
+        StreamingResponseBody body = outputStream -> membershipService.exportUserSubscriptionHistory(userId, page -> {
+            try {
+                for (SubscriptionHistoryResponseDTO entry : page) {
+                    outputStream.write(objectMapper.writeValueAsBytes(entry));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     /**
      * Cancel current subscription
      */
@@ -0,0 +1,35 @@
+package com.membership.program.controller;
+
+import com.membership.program.constants.ApiEndpoints;
+import com.membership.program.dto.response.OrderIngestResponseDTO;
+import com.membership.program.service.ingest.OrderIngestService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping(ApiEndpoints.Order.BASE_URL)
+@RequiredArgsConstructor
+@Slf4j
+public class OrderController {
+
+    private final OrderIngestService orderIngestService;
+
+    /**
+     * Admin endpoint: Ingest a stream of orders, one JSON object per line. Orders whose order number
+     * is already stored are skipped, so a stream can be re-sent after a failure.
+     */
+    @PostMapping(value = ApiEndpoints.Order.ADMIN_INGEST, consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrderIngestResponseDTO> ingestOrders(InputStream body) throws IOException {
+        log.info("Admin ingesting order stream");
+
+        return ResponseEntity.ok(orderIngestService.ingest(body));
+    }
+}
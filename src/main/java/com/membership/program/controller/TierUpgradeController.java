@@ -1,17 +1,33 @@
 package com.membership.program.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.membership.program.constants.ApiEndpoints;
 import com.membership.program.dto.evaluation.EvaluationResult;
 import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.request.BulkTierEvaluationRequestDTO;
+import com.membership.program.dto.request.RuleSimulationRequestDTO;
+import com.membership.program.dto.request.ShadowRuleSetRequestDTO;
+import com.membership.program.dto.response.BulkTierEvaluationResultDTO;
 import com.membership.program.dto.response.NoDataResponse;
+import com.membership.program.dto.response.RuleSimulationResponseDTO;
+import com.membership.program.dto.response.ShadowRuleReportResponseDTO;
+import com.membership.program.mapper.TierUpgradeRuleMapper;
 import com.membership.program.service.TierUpgradeService;
+import com.membership.program.service.evaluation.BulkTierEvaluationService;
+import com.membership.program.service.evaluation.ShadowRuleEvaluator;
+import com.membership.program.service.simulation.RuleImpactSimulator;
 import com.membership.program.utility.SecurityContextUtil;
+import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 
 @RestController
@@ -22,6 +38,10 @@ public class TierUpgradeController {
 
     private final TierUpgradeService tierUpgradeService;
     private final SecurityContextUtil securityContextUtil;
+    private final BulkTierEvaluationService bulkTierEvaluationService;
+    private final RuleImpactSimulator ruleImpactSimulator;
+    private final ShadowRuleEvaluator shadowRuleEvaluator;
+    private final ObjectMapper objectMapper;
 
     /**
      * Evaluate tier upgrade eligibility for current user
@@ -172,4 +192,85 @@ public class TierUpgradeController {
         tierUpgradeService.processAutomaticUpgrades(userId);
         return ResponseEntity.ok().build();
     }
+
+    /**
+     * Admin endpoint: Evaluate a list of users or a cohort, streaming one JSON result per line
+     */
+    @PostMapping(value = ApiEndpoints.TierUpgrade.ADMIN_EVALUATE_BULK, produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> evaluateTierUpgradesInBulk(@Valid @RequestBody BulkTierEvaluationRequestDTO request) {
+        log.info("Admin bulk tier evaluation for {} users, cohort: {}, tier level: {}, apply upgrades: {}",
+                request.getUserIds() != null ? request.getUserIds().size() : 0, request.getCohort(), request.getTierLevel(),
+                request.isApplyUpgrades());
+
+        bulkTierEvaluationService.validate(request);
+        StreamingResponseBody body = outputStream -> bulkTierEvaluationService.evaluate(request, batch -> {
+            try {
+                for (BulkTierEvaluationResultDTO result : batch) {
+                    outputStream.write(objectMapper.writeValueAsBytes(result));
+                    outputStream.write('\n');
+                }
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Admin endpoint: Dry-run candidate rules against every member and report how many each would upgrade
+     */
+    @PostMapping(ApiEndpoints.TierUpgrade.ADMIN_SIMULATE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RuleSimulationResponseDTO> simulateRules(@Valid @RequestBody RuleSimulationRequestDTO request) {
+        log.info("Admin simulating {} candidate tier upgrade rules (replace active rules: {})",
+                request.getRules().size(), request.isReplaceActiveRules());
+
+        return ResponseEntity.ok(ruleImpactSimulator.simulate(request));
+    }
+
+    /**
+     * Admin endpoint: Stage a rule set to evaluate in shadow next to the live rules on this node
+     */
+    @PutMapping(ApiEndpoints.TierUpgrade.ADMIN_SHADOW_RULES)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ShadowRuleReportResponseDTO> stageShadowRules(@Valid @RequestBody ShadowRuleSetRequestDTO request) {
+        log.info("Admin staging shadow rule set '{}' with {} rules", request.getLabel(), request.getRules().size());
+
+        List<TierUpgradeRuleDefinition> rules = request.getRules().stream()
+                .map(TierUpgradeRuleMapper::toDefinition)
+                .toList();
+        return ResponseEntity.ok(shadowRuleEvaluator.stage(request.getLabel(), rules, request.isReplaceActiveRules()));
+    }
+
+    /**
+     * Admin endpoint: Divergence counters and sampled divergences of the staged shadow rule set
+     */
+    @GetMapping(ApiEndpoints.TierUpgrade.ADMIN_SHADOW_RULES)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getShadowRuleReport() {
+        return shadowRuleEvaluator.getReport()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.ok(NoDataResponse.create(
+                        "No shadow rule set staged",
+                        "Stage a rule set to compare it with the live rules",
+                        "/api/v1/tier-upgrade/admin/shadow-rules")));
+    }
+
+    /**
+     * Admin endpoint: Stop shadow evaluation, returning the final report
+     */
+    @DeleteMapping(ApiEndpoints.TierUpgrade.ADMIN_SHADOW_RULES)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> clearShadowRules() {
+        log.info("Admin clearing shadow rule set");
+
+        return shadowRuleEvaluator.clear()
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.noContent().build());
+    }
 }
@@ -0,0 +1,9 @@
+package com.membership.program.dto.enums;
+
+public enum AdminJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    CANCELLED,
+    FAILED
+}
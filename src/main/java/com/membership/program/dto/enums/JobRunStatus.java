@@ -0,0 +1,6 @@
+package com.membership.program.dto.enums;
+
+public enum JobRunStatus {
+    RUNNING,
+    COMPLETED
+}
@@ -0,0 +1,8 @@
+package com.membership.program.dto.enums;
+
+public enum ShadowOutcome {
+    AGREED,
+    SHADOW_ONLY,
+    LIVE_ONLY,
+    DIFFERENT_OUTCOME
+}
@@ -0,0 +1,71 @@
+package com.membership.program.dto.evaluation;
+
+import com.membership.program.entity.UserDailyOrderMetrics;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+
+/**
+ * One user's completed orders per day for the last {@link #MAX_WINDOW_DAYS} days, indexed by
+ * days ago (0 = today). Any rolling window is summed over at most one slot per day.
+ */
+public final class DailyOrderBuckets {
+
+    public static final int MAX_WINDOW_DAYS = 365;
+
+    public static final DailyOrderBuckets EMPTY = new DailyOrderBuckets(new int[MAX_WINDOW_DAYS], new long[MAX_WINDOW_DAYS]);
+
+    private final int[] orderCounts;
+    private final long[] orderValueCents;
+
+    private DailyOrderBuckets(int[] orderCounts, long[] orderValueCents) {
+        this.orderCounts = orderCounts;
+        this.orderValueCents = orderValueCents;
+    }
+
+    public static DailyOrderBuckets of(LocalDate today, Collection<UserDailyOrderMetrics> buckets) {
+        int[] orderCounts = new int[MAX_WINDOW_DAYS];
+        long[] orderValueCents = new long[MAX_WINDOW_DAYS];
+        for (UserDailyOrderMetrics bucket : buckets) {
+            long daysAgo = ChronoUnit.DAYS.between(bucket.getBucketDate(), today);
+            if (daysAgo < 0 || daysAgo >= MAX_WINDOW_DAYS) {
+                continue;
+            }
+            orderCounts[(int) daysAgo] += bucket.getOrderCount();
+            orderValueCents[(int) daysAgo] += bucket.getOrderValue().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+        return new DailyOrderBuckets(orderCounts, orderValueCents);
+    }
+
+    /**
+     * Completed orders over the last {@code days} days, today included
+     */
+    public int orderCount(int days) {
+        int total = 0;
+        for (int day = 0; day < window(days); day++) {
+            total += orderCounts[day];
+        }
+        return total;
+    }
+
+    /**
+     * Value of completed orders over the last {@code days} days, today included
+     */
+    public BigDecimal orderValue(int days) {
+        long cents = 0;
+        for (int day = 0; day < window(days); day++) {
+            cents += orderValueCents[day];
+        }
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private static int window(int days) {
+        if (days < 1 || days > MAX_WINDOW_DAYS) {
+            throw new IllegalArgumentException("Rolling window must be between 1 and " + MAX_WINDOW_DAYS + " days: " + days);
+        }
+        return days;
+    }
+}
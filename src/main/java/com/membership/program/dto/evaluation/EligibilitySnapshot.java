@@ -0,0 +1,23 @@
+package com.membership.program.dto.evaluation;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Cached outcome of a user's tier upgrade evaluation: the best applicable rule
+ * (null when none applies) and the per-criterion results for that rule
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EligibilitySnapshot {
+
+    private long ruleSetVersion;
+    private TierUpgradeRuleDefinition bestRule;
+    private List<EvaluationResult> results;
+}
@@ -3,21 +3,52 @@ package com.membership.program.dto.evaluation;
 import com.membership.program.entity.User;
 import lombok.Builder;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
 
 import java.math.BigDecimal;
+import java.util.function.Supplier;
 
 /**
- * Simplified context information for evaluating tier upgrade criteria
+ * Simplified context information for evaluating tier upgrade criteria.
+ *
+ * Not thread-safe: the daily order buckets are memoized without synchronization, so a context
+ * handed to another thread must be a {@link #copy()}.
  */
 @Data
-@Builder
+@Builder(toBuilder = true)
 public class EvaluationContext {
     
     private Long userId;
     private User user;
+    /** Tier level the user is on, which is also the source tier of the rules that apply */
+    private Integer currentTierLevel;
     
     // Required metrics for the three rules
     private Integer totalOrderCount;
     private BigDecimal monthlyOrderValue;
     private String userCohort;
+    private Integer membershipDurationDays;
+
+    /** Loads the user's daily order buckets, only when a rolling-window criterion needs them */
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Supplier<DailyOrderBuckets> dailyOrderBucketsLoader;
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private DailyOrderBuckets dailyOrderBuckets;
+
+    public DailyOrderBuckets getDailyOrderBuckets() {
+        if (dailyOrderBuckets == null) {
+            dailyOrderBuckets = dailyOrderBucketsLoader == null ? DailyOrderBuckets.EMPTY : dailyOrderBucketsLoader.get();
+        }
+        return dailyOrderBuckets;
+    }
+
+    /**
+     * A copy for another thread, sharing the buckets if already loaded and otherwise loading its own
+     */
+    public EvaluationContext copy() {
+        return toBuilder().build();
+    }
 }
@@ -0,0 +1,10 @@
+package com.membership.program.dto.evaluation;
+
+import java.math.BigDecimal;
+
+/**
+ * Threshold of a rolling-window criterion: at least {@code minimum} over the last {@code days}
+ * days, today included
+ */
+public record RollingWindowThreshold(int days, BigDecimal minimum) {
+}
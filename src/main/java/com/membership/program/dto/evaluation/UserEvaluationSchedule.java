@@ -0,0 +1,18 @@
+package com.membership.program.dto.evaluation;
+
+import java.time.LocalDateTime;
+
+/**
+ * The fields needed to work out when a user's next scheduled tier evaluation is due
+ */
+public interface UserEvaluationSchedule {
+
+    Long getId();
+
+    Integer getTierLevel();
+
+    /** Membership start date, or account creation when not set */
+    LocalDateTime getMembershipSince();
+
+    LocalDateTime getLastTierEvaluationDate();
+}
@@ -0,0 +1,22 @@
+package com.membership.program.dto.evaluation;
+
+import java.math.BigDecimal;
+
+/**
+ * Per-user order metrics aggregated in the database, used to score users for evaluation
+ * priority without loading their orders
+ */
+public interface UserOrderMetrics {
+
+    Long getUserId();
+
+    Integer getTierLevel();
+
+    String getCohort();
+
+    /** Number of completed orders */
+    Long getOrderCount();
+
+    /** Sum of completed order amounts whose order date is in the current calendar month */
+    BigDecimal getMonthlyOrderValue();
+}
@@ -0,0 +1,27 @@
+package com.membership.program.dto.history;
+
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.membership.program.dto.enums.SubscriptionAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One line of a subscription history archive file. {@code userId} is written first so readers can
+ * skip other members' lines without parsing them.
+ */
+@JsonPropertyOrder({"userId", "id"})
+public record ArchivedHistoryEntry(Long userId,
+                                   Long id,
+                                   Long subscriptionId,
+                                   SubscriptionAction action,
+                                   String actionDescription,
+                                   String oldValue,
+                                   String newValue,
+                                   BigDecimal oldPrice,
+                                   BigDecimal newPrice,
+                                   String performedBy,
+                                   LocalDateTime performedAt,
+                                   LocalDateTime createdAt,
+                                   String metadata) {
+}
@@ -0,0 +1,32 @@
+package com.membership.program.dto.history;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a history entry shown to the member, read without loading the entity
+ */
+public interface SubscriptionHistoryEntry {
+
+    Long getId();
+
+    SubscriptionAction getAction();
+
+    String getActionDescription();
+
+    String getOldValue();
+
+    String getNewValue();
+
+    BigDecimal getOldPrice();
+
+    BigDecimal getNewPrice();
+
+    LocalDateTime getPerformedAt();
+
+    String getPerformedBy();
+
+    String getMetadata();
+}
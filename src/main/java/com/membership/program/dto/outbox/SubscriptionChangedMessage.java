@@ -0,0 +1,21 @@
+package com.membership.program.dto.outbox;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+import com.membership.program.dto.enums.SubscriptionStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload of a subscription being created, renewed, cancelled or expired, or moving tier
+ */
+public record SubscriptionChangedMessage(Long subscriptionId,
+                                         Long userId,
+                                         SubscriptionAction action,
+                                         SubscriptionStatus status,
+                                         String planName,
+                                         Integer tierLevel,
+                                         LocalDateTime expiryDate,
+                                         BigDecimal effectivePrice,
+                                         LocalDateTime changedAt) {
+}
@@ -0,0 +1,15 @@
+package com.membership.program.dto.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * Outbox payload of a tier upgrade or downgrade
+ */
+public record TierChangedMessage(Long userId,
+                                 Integer previousTierLevel,
+                                 Integer tierLevel,
+                                 Long tierId,
+                                 String tierName,
+                                 boolean automatic,
+                                 LocalDateTime changedAt) {
+}
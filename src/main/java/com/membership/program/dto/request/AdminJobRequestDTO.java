@@ -0,0 +1,18 @@
+package com.membership.program.dto.request;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Scope of an admin re-evaluation job; every user when no cohort is given
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminJobRequestDTO {
+
+    private String cohort;
+}
@@ -0,0 +1,33 @@
+package com.membership.program.dto.request;
+
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Users to evaluate in bulk: either an explicit list of ids or every user in a cohort, a tier
+ * level, or both. Such selections are read in id order; pass the last user id of a previous
+ * response as {@code afterUserId} to continue past the per-call limit.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTierEvaluationRequestDTO {
+
+    @Size(max = 100_000, message = "At most 100000 user IDs can be evaluated per call")
+    private List<Long> userIds;
+
+    private String cohort;
+
+    private Integer tierLevel;
+
+    private Long afterUserId;
+
+    /** Apply automatic upgrades for users whose best rule allows it */
+    private boolean applyUpgrades;
+}
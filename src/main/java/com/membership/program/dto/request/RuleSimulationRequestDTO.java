@@ -0,0 +1,62 @@
+package com.membership.program.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Candidate tier upgrade rules to simulate against every member. By default the candidates are
+ * evaluated alongside the active rules, a candidate carrying the id of an active rule standing in
+ * for it; with {@code replaceActiveRules} they are evaluated on their own.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RuleSimulationRequestDTO {
+
+    @NotEmpty(message = "At least one candidate rule is required")
+    @Size(max = 100, message = "At most 100 candidate rules can be simulated per call")
+    private List<@Valid CandidateRule> rules;
+
+    private boolean replaceActiveRules;
+
+    /** Reload the metrics snapshot instead of reusing a recent one */
+    private boolean refreshSnapshot;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class CandidateRule {
+
+        /** Id of the active rule this candidate would replace, if any */
+        private Long id;
+
+        private String ruleName;
+
+        @NotNull(message = "Source tier ID is required")
+        private Long sourceTierId;
+
+        @NotNull(message = "Target tier ID is required")
+        private Long targetTierId;
+
+        private boolean autoUpgrade;
+
+        private Integer minOrdersRequired;
+
+        private BigDecimal minMonthlyOrderValue;
+
+        private Integer minMembershipDurationDays;
+
+        private String cohortRestriction;
+    }
+}
@@ -0,0 +1,32 @@
+package com.membership.program.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Rule set to evaluate in shadow next to the active rules. As in a simulation, the rules are applied
+ * on top of the active rules (a rule carrying the id of an active rule stands in for it) unless
+ * {@code replaceActiveRules} is set.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShadowRuleSetRequestDTO {
+
+    private String label;
+
+    @NotEmpty(message = "At least one shadow rule is required")
+    @Size(max = 100, message = "At most 100 shadow rules can be staged")
+    @Valid
+    private List<RuleSimulationRequestDTO.CandidateRule> rules;
+
+    private boolean replaceActiveRules;
+}
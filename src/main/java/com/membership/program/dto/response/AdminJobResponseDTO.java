@@ -0,0 +1,34 @@
+package com.membership.program.dto.response;
+
+import com.membership.program.dto.enums.AdminJobStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class AdminJobResponseDTO {
+
+    private String jobId;
+    private String type;
+    private String cohort;
+    private AdminJobStatus status;
+    private String submittedBy;
+    private LocalDateTime submittedAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private String error;
+
+    // Shard progress, counters and throughput from the job_run ledger; null while queued
+    private JobRunSummaryResponseDTO progress;
+
+    // Partial results so far, capped to the most recent entries
+    private List<Long> upgradedUserIds;
+    private List<Long> failedUserIds;
+}
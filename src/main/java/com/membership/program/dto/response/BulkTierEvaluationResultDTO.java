@@ -0,0 +1,30 @@
+package com.membership.program.dto.response;
+
+import com.membership.program.dto.evaluation.EvaluationResult;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One line of a bulk tier evaluation response
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkTierEvaluationResultDTO {
+
+    private Long userId;
+    private Integer currentTierLevel;
+    private boolean eligible;
+    private Long ruleId;
+    private String ruleName;
+    private Long targetTierId;
+    private boolean autoUpgrade;
+    private boolean upgraded;
+    private List<EvaluationResult> results;
+    private String error;
+}
@@ -0,0 +1,28 @@
+package com.membership.program.dto.response;
+
+import com.membership.program.dto.enums.JobRunStatus;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRunShardResponseDTO {
+
+    private int shard;
+    private JobRunStatus status;
+    private String owner;
+    private String phase;
+    private Long cursor;
+    private long processedCount;
+    private long upgradedCount;
+    private long failedCount;
+    private LocalDateTime startedAt;
+    private LocalDateTime updatedAt;
+    private LocalDateTime finishedAt;
+}
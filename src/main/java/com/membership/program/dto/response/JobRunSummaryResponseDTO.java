@@ -0,0 +1,31 @@
+package com.membership.program.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobRunSummaryResponseDTO {
+
+    private String jobName;
+    private String runKey;
+    private int shardCount;
+    private int completedShards;
+    private int runningShards;
+    private boolean completed;
+    private LocalDateTime startedAt;
+    private LocalDateTime lastUpdatedAt;
+    private LocalDateTime finishedAt;
+    private long processedCount;
+    private long upgradedCount;
+    private long failedCount;
+    private double processedPerSecond;
+    private List<JobRunShardResponseDTO> shards;
+}
@@ -0,0 +1,38 @@
+package com.membership.program.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Outcome of an order ingest stream. Every non-blank line is counted once as inserted,
+ * duplicate (order number already stored or repeated in the stream) or rejected.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OrderIngestResponseDTO {
+
+    private long received;
+    private long inserted;
+    private long duplicates;
+    private long rejected;
+    private long durationMillis;
+    private double ordersPerSecond;
+    /** The first rejected lines, up to the configured limit */
+    private List<Rejection> rejections;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Rejection {
+        private long line;
+        private String orderNumber;
+        private String reason;
+    }
+}
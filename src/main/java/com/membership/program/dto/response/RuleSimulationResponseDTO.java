@@ -0,0 +1,78 @@
+package com.membership.program.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Outcome of simulating a rule set against a snapshot of every member's metrics. Eligibility
+ * counts compare the active rules with the simulated rule set; the histograms describe the
+ * simulated rule set only.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RuleSimulationResponseDTO {
+
+    private LocalDateTime snapshotTakenAt;
+    private long usersEvaluated;
+    private long durationMillis;
+
+    private long eligibleUnderActiveRules;
+    private long eligibleUnderSimulatedRules;
+    /** Users eligible under the simulated rules and not under the active rules */
+    private long newlyEligible;
+    /** Users eligible under the active rules and not under the simulated rules */
+    private long noLongerEligible;
+
+    /** Users the simulated rules would upgrade, by source and target tier */
+    private List<TierTransition> upgradesByTier;
+    /** Users the simulated rules would upgrade, by cohort; users without a cohort are under "NONE" */
+    private Map<String, Long> upgradesByCohort;
+    /** How far members of each candidate rule's source tier are from meeting it */
+    private List<RuleDistance> distanceToThreshold;
+    /** Active or candidate rules with criteria the snapshot cannot evaluate; counted above as never matching */
+    private List<UnsimulatedRule> unsimulatedRules;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class TierTransition {
+        private Long sourceTierId;
+        private Long targetTierId;
+        private long users;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RuleDistance {
+        private Long ruleId;
+        private String ruleName;
+        private Long sourceTierId;
+        private Long targetTierId;
+        private long membersOnSourceTier;
+        /** Members by largest relative shortfall across the rule's criteria */
+        private Map<String, Long> members;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class UnsimulatedRule {
+        private Long ruleId;
+        private String ruleName;
+        private Long sourceTierId;
+        private Long targetTierId;
+        private List<String> criteriaTypes;
+    }
+}
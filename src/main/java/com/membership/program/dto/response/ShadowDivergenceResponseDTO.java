@@ -0,0 +1,26 @@
+package com.membership.program.dto.response;
+
+import com.membership.program.dto.enums.ShadowOutcome;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShadowDivergenceResponseDTO {
+
+    private Long userId;
+    private Integer tierLevel;
+    private ShadowOutcome outcome;
+    private Long liveRuleId;
+    private Long liveTargetTierId;
+    private Long shadowRuleId;
+    private String shadowRuleName;
+    private Long shadowTargetTierId;
+    private LocalDateTime evaluatedAt;
+}
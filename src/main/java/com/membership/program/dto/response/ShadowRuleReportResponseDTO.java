@@ -0,0 +1,35 @@
+package com.membership.program.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Comparison of the staged shadow rule set with the live rules since it was staged, on this node
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ShadowRuleReportResponseDTO {
+
+    private String label;
+    private LocalDateTime stagedAt;
+    private int ruleCount;
+    private boolean replaceActiveRules;
+
+    private long evaluated;
+    private long divergent;
+    private Map<String, Long> outcomes;
+    /** Evaluations skipped because the shadow queue was full */
+    private long dropped;
+    private long failed;
+
+    /** Most recent divergences, sampled */
+    private List<ShadowDivergenceResponseDTO> sampledDivergences;
+}
@@ -0,0 +1,22 @@
+package com.membership.program.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of a member's subscription history, newest first. Pass {@code nextCursor} back to
+ * read the following page; it is null on the last page.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SubscriptionHistoryPageDTO {
+
+    private List<SubscriptionHistoryResponseDTO> items;
+    private String nextCursor;
+}
@@ -0,0 +1,76 @@
+package com.membership.program.entity;
+
+import com.membership.program.dto.enums.JobRunStatus;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Ledger entry for one shard of one cycle of a scheduled job. Updated after every chunk with the
+ * keyset cursor and counters, so a shard interrupted by a restart resumes where it left off.
+ */
+@Entity
+@Table(name = "job_run", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_job_run_run_key_shard", columnNames = {"run_key", "shard"})
+}, indexes = {
+        @Index(name = "idx_job_run_job_started", columnList = "job_name, started_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+public class JobRun {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "job_name", nullable = false, length = 100)
+    private String jobName;
+
+    @Column(name = "run_key", nullable = false, length = 150)
+    private String runKey;
+
+    @Column(name = "shard", nullable = false)
+    private int shard;
+
+    @Column(name = "shard_count", nullable = false)
+    private int shardCount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private JobRunStatus status;
+
+    @Column(name = "owner", nullable = false, length = 200)
+    private String owner;
+
+    @Column(name = "fencing_token", nullable = false)
+    private long fencingToken;
+
+    // Job-defined step within the shard and the last id it committed
+    @Column(name = "phase", length = 50)
+    private String phase;
+
+    @Column(name = "cursor_value")
+    private Long cursor;
+
+    @Column(name = "processed_count", nullable = false)
+    private long processedCount;
+
+    @Column(name = "upgraded_count", nullable = false)
+    private long upgradedCount;
+
+    @Column(name = "failed_count", nullable = false)
+    private long failedCount;
+
+    @Column(name = "started_at", nullable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+}
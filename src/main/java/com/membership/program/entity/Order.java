@@ -1,6 +1,7 @@
 package com.membership.program.entity;
 
 import com.membership.program.dto.enums.OrderStatus;
+import com.membership.program.entity.listener.OrderEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
@@ -13,6 +14,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(OrderEntityListener.class)
 @Table(name = "orders", indexes = {
         @Index(name = "idx_orders_user_id", columnList = "user_id"),
         @Index(name = "idx_orders_status", columnList = "status"),
@@ -84,6 +86,10 @@ public class Order {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    // Status as last read from / written to the database, used to detect status transitions
+    @Transient
+    private OrderStatus persistedStatus;
+
     // Business logic methods
     public BigDecimal getEffectiveAmount() {
         return finalAmount != null ? finalAmount : totalAmount;
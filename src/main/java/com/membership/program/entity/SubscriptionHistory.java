@@ -13,7 +13,8 @@ import java.time.LocalDateTime;
 @Table(name = "subscription_history", indexes = {
         @Index(name = "idx_history_subscription_id", columnList = "subscription_id"),
         @Index(name = "idx_history_action", columnList = "action"),
-        @Index(name = "idx_history_created_at", columnList = "created_at")
+        @Index(name = "idx_history_created_at", columnList = "created_at"),
+        @Index(name = "idx_history_user_performed_at", columnList = "user_id, performed_at, id")
 })
 @Data
 @NoArgsConstructor
@@ -32,6 +33,10 @@ public class SubscriptionHistory {
     @NotNull(message = "Subscription is required")
     private Subscription subscription;
 
+    // Copy of subscription.user_id, so a member's history is one range of idx_history_user_performed_at
+    @Column(name = "user_id")
+    private Long userId;
+
     @Enumerated(EnumType.STRING)
     @Column(nullable = false, length = 50)
     private SubscriptionAction action;
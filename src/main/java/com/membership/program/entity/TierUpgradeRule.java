@@ -1,6 +1,7 @@
 package com.membership.program.entity;
 
 import com.membership.program.dto.enums.UpgradeType;
+import com.membership.program.entity.listener.TierUpgradeRuleEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -12,6 +13,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(TierUpgradeRuleEntityListener.class)
 @Table(name = "tier_upgrade_rules", indexes = {
         @Index(name = "idx_rules_source_tier", columnList = "source_tier_id"),
         @Index(name = "idx_rules_target_tier", columnList = "target_tier_id"),
@@ -61,6 +63,18 @@ public class TierUpgradeRule {
     @Positive(message = "Minimum membership duration must be positive")
     private Integer minMembershipDurationDays;
 
+    /** Length of the rolling window used by the rolling order value and count thresholds */
+    @Column(name = "rolling_window_days")
+    @Positive(message = "Rolling window must be positive")
+    private Integer rollingWindowDays;
+
+    @Column(name = "min_rolling_order_value", precision = 10, scale = 2)
+    private BigDecimal minRollingOrderValue;
+
+    @Column(name = "min_rolling_order_count")
+    @Positive(message = "Minimum rolling order count must be positive")
+    private Integer minRollingOrderCount;
+
     @Column(name = "cohort_restriction", length = 100,nullable = true)
     private String cohortRestriction;
 
@@ -1,6 +1,7 @@
 package com.membership.program.entity;
 
 import com.membership.program.dto.enums.UserStatus;
+import com.membership.program.entity.listener.UserEntityListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -19,9 +20,11 @@ import java.util.List;
 import java.util.ArrayList;
 
 @Entity
+@EntityListeners(UserEntityListener.class)
 @Table(name = "users", indexes = {
         @Index(name = "idx_users_email", columnList = "email"),
-        @Index(name = "idx_users_username", columnList = "username")
+        @Index(name = "idx_users_username", columnList = "username"),
+        @Index(name = "idx_users_next_tier_evaluation", columnList = "next_tier_evaluation_at")
 })
 @Data
 @NoArgsConstructor
@@ -94,6 +97,17 @@ public class User implements UserDetails {
     @Column(name = "last_tier_evaluation_date")
     private LocalDateTime lastTierEvaluationDate;
 
+    // When the scheduled tier evaluation is next due; null until scheduled
+    @Column(name = "next_tier_evaluation_at")
+    private LocalDateTime nextTierEvaluationAt;
+
+    // Tier and cohort as last read from / written to the database, used to detect changes
+    @Transient
+    private Integer persistedTierLevel;
+
+    @Transient
+    private String persistedCohort;
+
     @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     private List<Subscription> subscriptions = new ArrayList<>();
 
@@ -141,6 +155,13 @@ public class User implements UserDetails {
         this.lastLoginAt = LocalDateTime.now();
     }
 
+    /**
+     * Start of membership for duration-based rules, falling back to account creation
+     */
+    public LocalDateTime membershipSince() {
+        return membershipStartDate != null ? membershipStartDate : createdAt;
+    }
+
     public boolean isAccountLocked() {
         return !this.accountNonLocked ||
                 (this.accountLockedUntil != null && LocalDateTime.now().isBefore(this.accountLockedUntil));
@@ -0,0 +1,42 @@
+package com.membership.program.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Completed order count and value of one user on one day (by order date). Maintained
+ * incrementally as orders complete or leave the completed state, so rolling-window metrics
+ * are summed over at most one row per day instead of scanning orders.
+ */
+@Entity
+@Table(name = "user_daily_order_metrics", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_user_daily_order_metrics_user_day", columnNames = {"user_id", "bucket_date"})
+}, indexes = {
+        @Index(name = "idx_user_daily_order_metrics_day", columnList = "bucket_date")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(of = "id")
+public class UserDailyOrderMetrics {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "bucket_date", nullable = false)
+    private LocalDate bucketDate;
+
+    @Column(name = "order_count", nullable = false)
+    private int orderCount;
+
+    @Column(name = "order_value", nullable = false, precision = 14, scale = 2)
+    private BigDecimal orderValue;
+}
@@ -0,0 +1,53 @@
+package com.membership.program.entity.listener;
+
+import com.membership.program.dto.enums.OrderStatus;
+import com.membership.program.entity.Order;
+import com.membership.program.event.OrderStatusChangedEvent;
+import com.membership.program.service.event.DomainEventBus;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+
+import java.util.Objects;
+
+/**
+ * Publishes {@link OrderStatusChangedEvent} whenever an order is inserted or its status
+ * changes, whichever code path performed the write, onto the event bus once the transaction
+ * commits. Instantiated by Hibernate through Spring's bean container so the bus can be injected.
+ */
+public class OrderEntityListener {
+
+    private final DomainEventBus eventBus;
+
+    public OrderEntityListener(DomainEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @PostLoad
+    public void onLoad(Order order) {
+        order.setPersistedStatus(order.getStatus());
+    }
+
+    @PostPersist
+    public void onInsert(Order order) {
+        publish(order, null);
+    }
+
+    @PostUpdate
+    public void onUpdate(Order order) {
+        if (!Objects.equals(order.getPersistedStatus(), order.getStatus())) {
+            publish(order, order.getPersistedStatus());
+        }
+    }
+
+    private void publish(Order order, OrderStatus previousStatus) {
+        order.setPersistedStatus(order.getStatus());
+        eventBus.publishAfterCommit(new OrderStatusChangedEvent(
+                order.getId(),
+                order.getUser().getId(),
+                previousStatus,
+                order.getStatus(),
+                order.getEffectiveAmount(),
+                order.getOrderDate()));
+    }
+}
@@ -0,0 +1,27 @@
+package com.membership.program.entity.listener;
+
+import com.membership.program.entity.TierUpgradeRule;
+import com.membership.program.event.TierUpgradeRulesChangedEvent;
+import com.membership.program.service.event.DomainEventBus;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+
+/**
+ * Publishes {@link TierUpgradeRulesChangedEvent} on any write to a tier upgrade rule
+ */
+public class TierUpgradeRuleEntityListener {
+
+    private final DomainEventBus eventBus;
+
+    public TierUpgradeRuleEntityListener(DomainEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(TierUpgradeRule rule) {
+        eventBus.publishAfterCommit(new TierUpgradeRulesChangedEvent(rule.getId()));
+    }
+}
@@ -0,0 +1,51 @@
+package com.membership.program.entity.listener;
+
+import com.membership.program.entity.User;
+import com.membership.program.event.UserCohortChangedEvent;
+import com.membership.program.event.UserCreatedEvent;
+import com.membership.program.event.UserTierChangedEvent;
+import com.membership.program.service.event.DomainEventBus;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+
+import java.util.Objects;
+
+/**
+ * Publishes creation events for new users, and tier and cohort change events by comparing the
+ * values loaded from the database with the values flushed on update.
+ */
+public class UserEntityListener {
+
+    private final DomainEventBus eventBus;
+
+    public UserEntityListener(DomainEventBus eventBus) {
+        this.eventBus = eventBus;
+    }
+
+    @PostLoad
+    public void snapshot(User user) {
+        user.setPersistedTierLevel(user.getCurrentTierLevel());
+        user.setPersistedCohort(user.getCohort());
+    }
+
+    @PostPersist
+    public void onPersist(User user) {
+        snapshot(user);
+        eventBus.publishAfterCommit(new UserCreatedEvent(user.getId(), user.getCurrentTierLevel(), user.getCohort()));
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        Integer previousTierLevel = user.getPersistedTierLevel();
+        String previousCohort = user.getPersistedCohort();
+        snapshot(user);
+
+        if (!Objects.equals(previousTierLevel, user.getCurrentTierLevel())) {
+            eventBus.publishAfterCommit(new UserTierChangedEvent(user.getId(), previousTierLevel, user.getCurrentTierLevel()));
+        }
+        if (!Objects.equals(previousCohort, user.getCohort())) {
+            eventBus.publishAfterCommit(new UserCohortChangedEvent(user.getId(), previousCohort, user.getCohort()));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.membership.program.event;
+
+import com.membership.program.dto.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Published when an order is inserted or its status changes.
+ * {@code previousStatus} is null for newly inserted orders.
+ */
+public record OrderStatusChangedEvent(Long orderId,
+                                      Long userId,
+                                      OrderStatus previousStatus,
+                                      OrderStatus status,
+                                      BigDecimal amount,
+                                      LocalDateTime orderDate) {
+
+    /**
+     * True when the change moves the order into or out of the set of orders counted
+     * by tier evaluation (completed orders).
+     */
+    public boolean affectsOrderMetrics() {
+        return (status == OrderStatus.COMPLETED) != (previousStatus == OrderStatus.COMPLETED);
+    }
+
+    public boolean isCompletion() {
+        return status == OrderStatus.COMPLETED && previousStatus != OrderStatus.COMPLETED;
+    }
+
+    public boolean isCancellation() {
+        return status == OrderStatus.CANCELLED && previousStatus != OrderStatus.CANCELLED;
+    }
+}
@@ -0,0 +1,13 @@
+package com.membership.program.event;
+
+import java.util.List;
+
+/**
+ * Published when a batch of orders is bulk-inserted without going through the {@code Order}
+ * entity, so no {@link OrderStatusChangedEvent} is published for them. The users' daily order
+ * buckets are updated by the insert itself.
+ *
+ * @param completedOrderUserIds users with at least one newly inserted completed order
+ */
+public record OrdersIngestedEvent(List<Long> completedOrderUserIds) {
+}
@@ -0,0 +1,14 @@
+package com.membership.program.event;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+import com.membership.program.dto.enums.SubscriptionStatus;
+
+/**
+ * Published when a subscription is created, renewed, cancelled or expired, or its tier changes,
+ * whether by the user or by the expiry jobs
+ */
+public record SubscriptionChangedEvent(Long subscriptionId,
+                                       Long userId,
+                                       SubscriptionAction action,
+                                       SubscriptionStatus status) {
+}
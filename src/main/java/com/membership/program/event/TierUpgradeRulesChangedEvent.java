@@ -0,0 +1,7 @@
+package com.membership.program.event;
+
+/**
+ * Published when a tier upgrade rule is created, updated or deleted
+ */
+public record TierUpgradeRulesChangedEvent(Long ruleId) {
+}
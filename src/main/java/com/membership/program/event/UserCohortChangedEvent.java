@@ -0,0 +1,7 @@
+package com.membership.program.event;
+
+/**
+ * Published when a user's cohort changes
+ */
+public record UserCohortChangedEvent(Long userId, String previousCohort, String cohort) {
+}
@@ -0,0 +1,7 @@
+package com.membership.program.event;
+
+/**
+ * Published when a user is first saved
+ */
+public record UserCreatedEvent(Long userId, Integer tierLevel, String cohort) {
+}
@@ -0,0 +1,7 @@
+package com.membership.program.event;
+
+/**
+ * Published when a user's current tier level changes
+ */
+public record UserTierChangedEvent(Long userId, Integer previousTierLevel, Integer tierLevel) {
+}
@@ -0,0 +1,16 @@
+package com.membership.program.exception;
+
+/**
+ * Raised when a cached payload cannot be decoded (unknown schema version,
+ * unexpected payload type or truncated bytes). Callers treat it as a cache miss.
+ */
+public class CachePayloadException extends RuntimeException {
+
+    public CachePayloadException(String message) {
+        super(message);
+    }
+
+    public CachePayloadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
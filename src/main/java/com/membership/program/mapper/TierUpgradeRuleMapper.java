@@ -0,0 +1,106 @@
+package com.membership.program.mapper;
+
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.RollingWindowThreshold;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.request.RuleSimulationRequestDTO;
+import com.membership.program.entity.TierUpgradeRule;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+public class TierUpgradeRuleMapper {
+
+    public static TierUpgradeRuleDefinition toDefinition(TierUpgradeRule rule) {
+        List<CriteriaDefinition> criteria = toCriteria(rule.getMinOrdersRequired(), rule.getMinMonthlyOrderValue(),
+                rule.getMinMembershipDurationDays(), rule.getCohortRestriction());
+        
+        // Add rolling-window criteria if a window is set
+        if (rule.getRollingWindowDays() != null && rule.getMinRollingOrderValue() != null) {
+            criteria.add(CriteriaDefinition.builder()
+                    .criteriaType("ROLLING_ORDER_VALUE")
+                    .value(new RollingWindowThreshold(rule.getRollingWindowDays(), rule.getMinRollingOrderValue()))
+                    .logicalCondition("AND")
+                    .build());
+        }
+        if (rule.getRollingWindowDays() != null && rule.getMinRollingOrderCount() != null) {
+            criteria.add(CriteriaDefinition.builder()
+                    .criteriaType("ROLLING_ORDER_COUNT")
+                    .value(new RollingWindowThreshold(rule.getRollingWindowDays(), BigDecimal.valueOf(rule.getMinRollingOrderCount())))
+                    .logicalCondition("AND")
+                    .build());
+        }
+        
+        return TierUpgradeRuleDefinition.builder()
+                .id(rule.getId())
+                .ruleName(rule.getRuleName())
+                .ruleDescription(rule.getRuleDescription())
+                .sourceTierId(rule.getSourceTier().getId())
+                .targetTierId(rule.getTargetTier().getId())
+                .autoUpgrade(rule.isAutoUpgrade())
+                .active(rule.isActive())
+                .criteria(criteria)
+                .build();
+    }
+
+    /**
+     * Definition of a candidate rule that has not been saved, for impact simulation
+     */
+    public static TierUpgradeRuleDefinition toDefinition(RuleSimulationRequestDTO.CandidateRule rule) {
+        return TierUpgradeRuleDefinition.builder()
+                .id(rule.getId())
+                .ruleName(rule.getRuleName())
+                .sourceTierId(rule.getSourceTierId())
+                .targetTierId(rule.getTargetTierId())
+                .autoUpgrade(rule.isAutoUpgrade())
+                .active(true)
+                .criteria(toCriteria(rule.getMinOrdersRequired(), rule.getMinMonthlyOrderValue(),
+                        rule.getMinMembershipDurationDays(), rule.getCohortRestriction()))
+                .build();
+    }
+
+    private static List<CriteriaDefinition> toCriteria(Integer minOrdersRequired, BigDecimal minMonthlyOrderValue,
+                                                       Integer minMembershipDurationDays, String cohortRestriction) {
+        // Build criteria list from the rule's fields
+        List<CriteriaDefinition> criteria = new ArrayList<>();
+        
+        // Add ORDER_COUNT criteria if present
+        if (minOrdersRequired != null) {
+            criteria.add(CriteriaDefinition.builder()
+                    .criteriaType("ORDER_COUNT")
+                    .value(minOrdersRequired)
+                    .logicalCondition("AND")
+                    .build());
+        }
+        
+        // Add MONTHLY_ORDER_VALUE criteria if present
+        if (minMonthlyOrderValue != null) {
+            criteria.add(CriteriaDefinition.builder()
+                    .criteriaType("MONTHLY_ORDER_VALUE")
+                    .value(minMonthlyOrderValue)
+                    .logicalCondition("AND")
+                    .build());
+        }
+        
+        // Add MEMBERSHIP_DURATION criteria if present
+        if (minMembershipDurationDays != null) {
+            criteria.add(CriteriaDefinition.builder()
+                    .criteriaType("MEMBERSHIP_DURATION")
+                    .value(minMembershipDurationDays)
+                    .logicalCondition("AND")
+                    .build());
+        }
+        
+        // Add USER_COHORT criteria if present
+        if (cohortRestriction != null) {
+            criteria.add(CriteriaDefinition.builder()
+                    .criteriaType("USER_COHORT")
+                    .value(cohortRestriction)
+                    .logicalCondition("AND")
+                    .build());
+        }
+        
+        return criteria;
+    }
+}
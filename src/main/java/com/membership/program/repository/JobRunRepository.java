@@ -0,0 +1,70 @@
+package com.membership.program.repository;
+
+import com.membership.program.dto.enums.JobRunStatus;
+import com.membership.program.entity.JobRun;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface JobRunRepository extends JpaRepository<JobRun, Long> {
+
+    /**
+     * Find the ledger entry for a shard of a run, locking it for the rest of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM JobRun r WHERE r.runKey = :runKey AND r.shard = :shard")
+    Optional<JobRun> findForUpdate(@Param("runKey") String runKey, @Param("shard") int shard);
+
+    @Query("SELECT r.shard FROM JobRun r WHERE r.runKey = :runKey AND r.status = :status")
+    List<Integer> findShardsByRunKeyAndStatus(@Param("runKey") String runKey, @Param("status") JobRunStatus status);
+
+    /**
+     * Record a checkpoint, only if the caller still owns the shard
+     */
+    @Modifying
+    @Query("UPDATE JobRun r SET r.phase = :phase, r.cursor = :cursor, " +
+            "r.processedCount = r.processedCount + :processed, r.upgradedCount = r.upgradedCount + :upgraded, " +
+            "r.failedCount = r.failedCount + :failed, r.updatedAt = :now " +
+            "WHERE r.id = :id AND r.owner = :owner AND r.fencingToken = :fencingToken AND r.status = :status")
+    int checkpoint(@Param("id") Long id,
+                   @Param("owner") String owner,
+                   @Param("fencingToken") long fencingToken,
+                   @Param("status") JobRunStatus status,
+                   @Param("phase") String phase,
+                   @Param("cursor") Long cursor,
+                   @Param("processed") long processed,
+                   @Param("upgraded") long upgraded,
+                   @Param("failed") long failed,
+                   @Param("now") LocalDateTime now);
+
+    /**
+     * Runs of a job started after {@code since} that have unfinished shards and no progress since {@code staleBefore}
+     */
+    @Query("SELECT r.runKey FROM JobRun r WHERE r.jobName = :jobName AND r.startedAt > :since " +
+            "GROUP BY r.runKey " +
+            "HAVING SUM(CASE WHEN r.status = :completed THEN 1 ELSE 0 END) < MAX(r.shardCount) " +
+            "AND MAX(r.updatedAt) < :staleBefore")
+    List<String> findInterruptedRunKeys(@Param("jobName") String jobName,
+                                        @Param("completed") JobRunStatus completed,
+                                        @Param("since") LocalDateTime since,
+                                        @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT r.runKey FROM JobRun r GROUP BY r.runKey ORDER BY MIN(r.startedAt) DESC")
+    List<String> findRecentRunKeys(Pageable pageable);
+
+    @Query("SELECT r.runKey FROM JobRun r WHERE r.jobName = :jobName GROUP BY r.runKey ORDER BY MIN(r.startedAt) DESC")
+    List<String> findRecentRunKeysByJobName(@Param("jobName") String jobName, Pageable pageable);
+
+    List<JobRun> findByRunKeyInOrderByShardAsc(Collection<String> runKeys);
+}
@@ -0,0 +1,29 @@
+package com.membership.program.repository;
+
+import com.membership.program.entity.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Next page of pending events after ({@code afterUserId}, {@code afterId}), grouped by user and
+     * oldest first within a user
+     */
+    @Query("SELECT e FROM OutboxEvent e WHERE e.userId > :afterUserId OR (e.userId = :afterUserId AND e.id > :afterId) " +
+            "ORDER BY e.userId, e.id")
+    List<OutboxEvent> findPendingAfter(@Param("afterUserId") Long afterUserId, @Param("afterId") Long afterId,
+                                       Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
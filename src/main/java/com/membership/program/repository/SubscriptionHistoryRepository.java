@@ -1,8 +1,10 @@
 package com.membership.program.repository;
 
+import com.membership.program.dto.history.SubscriptionHistoryEntry;
 import com.membership.program.entity.SubscriptionHistory;
-import com.membership.program.dto.enums.SubscriptionAction;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,12 +15,37 @@ import java.util.List;
 @Repository
 public interface SubscriptionHistoryRepository extends JpaRepository<SubscriptionHistory, Long> {
 
+    String ENTRY_COLUMNS = "SELECT sh.id AS id, sh.action AS action, sh.actionDescription AS actionDescription, " +
+            "sh.oldValue AS oldValue, sh.newValue AS newValue, sh.oldPrice AS oldPrice, sh.newPrice AS newPrice, " +
+            "sh.performedAt AS performedAt, sh.performedBy AS performedBy, sh.metadata AS metadata " +
+            "FROM SubscriptionHistory sh ";
 
     /**
-     * Find history by user ID (through subscription)
+     * First page of a user's history, newest first
      */
-    @Query("SELECT sh FROM SubscriptionHistory sh WHERE sh.subscription.user.id = :userId " +
-           "ORDER BY sh.performedAt DESC")
-    List<SubscriptionHistory> findByUserId(@Param("userId") Long userId);
+    @Query(ENTRY_COLUMNS + "WHERE sh.userId = :userId ORDER BY sh.performedAt DESC, sh.id DESC")
+    List<SubscriptionHistoryEntry> findLatestByUserId(@Param("userId") Long userId, Pageable pageable);
 
+    /**
+     * Next page of a user's history, strictly older than ({@code performedAt}, {@code id}) in
+     * (performed_at, id) order
+     */
+    @Query(ENTRY_COLUMNS + "WHERE sh.userId = :userId AND sh.performedAt <= :performedAt " +
+            "AND (sh.performedAt < :performedAt OR sh.id < :id) " +
+            "ORDER BY sh.performedAt DESC, sh.id DESC")
+    List<SubscriptionHistoryEntry> findByUserIdBefore(@Param("userId") Long userId,
+                                                      @Param("performedAt") LocalDateTime performedAt,
+                                                      @Param("id") Long id,
+                                                      Pageable pageable);
+
+    /**
+     * Copy the owning user onto up to {@code limit} entries written before the user_id column existed
+     *
+     * @return number of entries updated
+     */
+    @Modifying
+    @Query(value = "UPDATE subscription_history h SET user_id = s.user_id FROM subscriptions s " +
+            "WHERE h.subscription_id = s.id " +
+            "AND h.id IN (SELECT id FROM subscription_history WHERE user_id IS NULL LIMIT :limit)", nativeQuery = true)
+    int backfillUserIds(@Param("limit") int limit);
 }
@@ -2,7 +2,10 @@ package com.membership.program.repository;
 
 import com.membership.program.entity.Subscription;
 import com.membership.program.dto.enums.SubscriptionStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -21,12 +24,37 @@ public interface SubscriptionRepository extends JpaRepository<Subscription, Long
     @Query("SELECT s FROM Subscription s WHERE s.user.id = :userId AND s.status = 'ACTIVE' AND s.expiryDate > :now ORDER BY s.expiryDate DESC")
     Optional<Subscription> findCurrentActiveSubscription(@Param("userId") Long userId, @Param("now") LocalDateTime now);
 
+    /**
+     * Find ids of a user's subscriptions that are still ACTIVE but past their expiry date
+     */
+    @Query("SELECT s.id FROM Subscription s WHERE s.user.id = :userId AND s.status = 'ACTIVE' AND s.expiryDate <= :now")
+    List<Long> findLapsedActiveSubscriptionIds(@Param("userId") Long userId, @Param("now") LocalDateTime now);
+
     /**
      * Find all expired subscriptions that need processing
      */
     @Query("SELECT s FROM Subscription s WHERE s.status = 'ACTIVE' AND s.expiryDate <= :now")
     List<Subscription> findExpiredSubscriptions(@Param("now") LocalDateTime now);
 
+    /**
+     * Find the next page of ids of expired subscriptions that need processing, for users in one id shard,
+     * in id order after {@code afterId}
+     */
+    @Query("SELECT s.id FROM Subscription s WHERE s.status = 'ACTIVE' AND s.expiryDate <= :now " +
+            "AND MOD(s.user.id, :shardCount) = :shard AND s.id > :afterId ORDER BY s.id")
+    List<Long> findExpiredSubscriptionIds(@Param("now") LocalDateTime now,
+                                          @Param("shard") int shard,
+                                          @Param("shardCount") int shardCount,
+                                          @Param("afterId") Long afterId,
+                                          Pageable pageable);
+
+    /**
+     * Find a subscription with its plan, locking the row for the rest of the transaction
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Subscription s JOIN FETCH s.plan WHERE s.id = :id")
+    Optional<Subscription> findByIdForUpdate(@Param("id") Long id);
+
     /**
      * Find all subscriptions expiring within the next specified days
      */
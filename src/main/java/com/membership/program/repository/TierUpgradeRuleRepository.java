@@ -17,4 +17,10 @@ public interface TierUpgradeRuleRepository extends JpaRepository<TierUpgradeRule
      */
     List<TierUpgradeRule> findBySourceTierIdAndActiveTrue(Long sourceTierId);
 
+    /**
+     * Find all active rules with their source and target tiers loaded
+     */
+    @Query("SELECT r FROM TierUpgradeRule r JOIN FETCH r.sourceTier JOIN FETCH r.targetTier WHERE r.active = true")
+    List<TierUpgradeRule> findAllActiveWithTiers();
+
 }
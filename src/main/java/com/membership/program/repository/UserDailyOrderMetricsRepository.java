@@ -0,0 +1,70 @@
+package com.membership.program.repository;
+
+import com.membership.program.entity.UserDailyOrderMetrics;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface UserDailyOrderMetricsRepository extends JpaRepository<UserDailyOrderMetrics, Long> {
+
+    /** First key of the two-key advisory locks taken on a day's buckets */
+    int DAY_LOCK_SPACE = 4_101;
+
+    /**
+     * Buckets of one user from {@code from} onwards
+     */
+    @Query("SELECT m FROM UserDailyOrderMetrics m WHERE m.userId = :userId AND m.bucketDate >= :from")
+    List<UserDailyOrderMetrics> findByUserIdFrom(@Param("userId") Long userId, @Param("from") LocalDate from);
+
+    @Query(value = "SELECT EXISTS (SELECT 1 FROM user_daily_order_metrics)", nativeQuery = true)
+    boolean hasAnyBuckets();
+
+    /**
+     * Take the transaction-scoped lock on one day's buckets. Every rewrite of a day's buckets
+     * holds it, so a rewrite reads the orders only after the previous one has committed.
+     */
+    @Query(value = "SELECT 1 FROM pg_advisory_xact_lock(" + DAY_LOCK_SPACE + ", :epochDay)", nativeQuery = true)
+    Integer lockDay(@Param("epochDay") int epochDay);
+
+    @Modifying
+    @Query("DELETE FROM UserDailyOrderMetrics m WHERE m.bucketDate = :day")
+    int deleteDay(@Param("day") LocalDate day);
+
+    @Modifying
+    @Query("DELETE FROM UserDailyOrderMetrics m WHERE m.bucketDate = :day AND m.userId IN :userIds")
+    int deleteDayForUsers(@Param("day") LocalDate day, @Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Recreate the buckets of one day from the completed orders placed in {@code [from, to)}
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_order_metrics (user_id, bucket_date, order_count, order_value) " +
+            "SELECT o.user_id, CAST(o.order_date AS date), COUNT(*), SUM(COALESCE(o.final_amount, o.total_amount)) " +
+            "FROM orders o WHERE o.status = 'COMPLETED' AND o.order_date >= :from AND o.order_date < :to " +
+            "GROUP BY o.user_id, CAST(o.order_date AS date)", nativeQuery = true)
+    int insertFromOrders(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * As {@link #insertFromOrders}, for the given users only
+     */
+    @Modifying
+    @Query(value = "INSERT INTO user_daily_order_metrics (user_id, bucket_date, order_count, order_value) " +
+            "SELECT o.user_id, CAST(o.order_date AS date), COUNT(*), SUM(COALESCE(o.final_amount, o.total_amount)) " +
+            "FROM orders o WHERE o.status = 'COMPLETED' AND o.order_date >= :from AND o.order_date < :to " +
+            "AND o.user_id IN (:userIds) " +
+            "GROUP BY o.user_id, CAST(o.order_date AS date)", nativeQuery = true)
+    int insertFromOrdersForUsers(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to,
+                                 @Param("userIds") Collection<Long> userIds);
+
+    @Modifying
+    @Query("DELETE FROM UserDailyOrderMetrics m WHERE m.bucketDate < :before")
+    int deleteOlderThan(@Param("before") LocalDate before);
+}
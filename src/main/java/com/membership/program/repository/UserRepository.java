@@ -1,11 +1,17 @@
 package com.membership.program.repository;
 
+import com.membership.program.dto.evaluation.UserEvaluationSchedule;
+import com.membership.program.dto.evaluation.UserOrderMetrics;
 import com.membership.program.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,5 +28,122 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     Optional<User> findByEmail(String email);
 
+    /**
+     * Completed order count and current-month order value for a batch of users, in one query.
+     * The month is bounded on both sides so future-dated orders count as they do in
+     * {@code Order#isInCurrentMonth}.
+     */
+    @Query(value = "SELECT u.id AS userId, u.current_tier_level AS tierLevel, u.cohort AS cohort, " +
+            "COUNT(o.id) AS orderCount, " +
+            "COALESCE(SUM(o.final_amount) FILTER (WHERE o.order_date >= :monthStart AND o.order_date < :nextMonthStart), 0) AS monthlyOrderValue " +
+            "FROM users u LEFT JOIN orders o ON o.user_id = u.id AND o.status = 'COMPLETED' " +
+            "WHERE u.id IN (:userIds) " +
+            "GROUP BY u.id, u.current_tier_level, u.cohort", nativeQuery = true)
+    List<UserOrderMetrics> findOrderMetricsByUserIds(@Param("userIds") List<Long> userIds,
+                                                     @Param("monthStart") LocalDateTime monthStart,
+                                                     @Param("nextMonthStart") LocalDateTime nextMonthStart);
+
+    /**
+     * Users in one id shard whose scheduled tier evaluation is due, in id order after {@code afterId}
+     */
+    @Query("SELECT u.id AS id, u.currentTierLevel AS tierLevel, " +
+            "COALESCE(u.membershipStartDate, u.createdAt) AS membershipSince, " +
+            "u.lastTierEvaluationDate AS lastTierEvaluationDate " +
+            "FROM User u WHERE u.nextTierEvaluationAt <= :now AND MOD(u.id, :shardCount) = :shard " +
+            "AND u.id > :afterId ORDER BY u.id")
+    List<UserEvaluationSchedule> findDueForTierEvaluation(@Param("now") LocalDateTime now,
+                                                          @Param("shard") int shard,
+                                                          @Param("shardCount") int shardCount,
+                                                          @Param("afterId") Long afterId,
+                                                          Pageable pageable);
+
+    /**
+     * Users in one id shard on the given tiers that have no scheduled tier evaluation yet, in id order after {@code afterId}
+     */
+    @Query("SELECT u.id AS id, u.currentTierLevel AS tierLevel, " +
+            "COALESCE(u.membershipStartDate, u.createdAt) AS membershipSince, " +
+            "u.lastTierEvaluationDate AS lastTierEvaluationDate " +
+            "FROM User u WHERE u.nextTierEvaluationAt IS NULL AND u.currentTierLevel IN :tierLevels " +
+            "AND MOD(u.id, :shardCount) = :shard AND u.id > :afterId ORDER BY u.id")
+    List<UserEvaluationSchedule> findUnscheduledForTierEvaluation(@Param("tierLevels") Collection<Integer> tierLevels,
+                                                                  @Param("shard") int shard,
+                                                                  @Param("shardCount") int shardCount,
+                                                                  @Param("afterId") Long afterId,
+                                                                  Pageable pageable);
+
+    /**
+     * Current tier of each of the given users
+     */
+    @Query("SELECT u.id AS id, u.currentTierLevel AS tierLevel, " +
+            "COALESCE(u.membershipStartDate, u.createdAt) AS membershipSince, " +
+            "u.lastTierEvaluationDate AS lastTierEvaluationDate " +
+            "FROM User u WHERE u.id IN :userIds")
+    List<UserEvaluationSchedule> findEvaluationSchedulesByIds(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Next page of ids of users in a cohort, in id order after {@code afterId}
+     */
+    @Query("SELECT u.id FROM User u WHERE u.cohort = :cohort AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsByCohort(@Param("cohort") String cohort, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Ids of users on a tier level, in id order after {@code afterId}
+     */
+    @Query("SELECT u.id FROM User u WHERE u.currentTierLevel = :tierLevel AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsByTierLevel(@Param("tierLevel") Integer tierLevel, @Param("afterId") Long afterId, Pageable pageable);
+
+    /**
+     * Ids of users in a cohort on a tier level, in id order after {@code afterId}
+     */
+    @Query("SELECT u.id FROM User u WHERE u.cohort = :cohort AND u.currentTierLevel = :tierLevel " +
+            "AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsByCohortAndTierLevel(@Param("cohort") String cohort,
+                                           @Param("tierLevel") Integer tierLevel,
+                                           @Param("afterId") Long afterId,
+                                           Pageable pageable);
+
+    /**
+     * Next page of ids of users in one id shard, in id order after {@code afterId}
+     */
+    @Query("SELECT u.id FROM User u WHERE MOD(u.id, :shardCount) = :shard AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsInShard(@Param("shard") int shard,
+                              @Param("shardCount") int shardCount,
+                              @Param("afterId") Long afterId,
+                              Pageable pageable);
+
+    /**
+     * Next page of ids of users in a cohort and one id shard, in id order after {@code afterId}
+     */
+    @Query("SELECT u.id FROM User u WHERE u.cohort = :cohort AND MOD(u.id, :shardCount) = :shard " +
+            "AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsInShardByCohort(@Param("cohort") String cohort,
+                                      @Param("shard") int shard,
+                                      @Param("shardCount") int shardCount,
+                                      @Param("afterId") Long afterId,
+                                      Pageable pageable);
+
+    /**
+     * Record a scheduled evaluation for users still on {@code tierLevel} and set when they are next due
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.lastTierEvaluationDate = :evaluatedAt, u.nextTierEvaluationAt = :nextEvaluationAt " +
+            "WHERE u.id IN :userIds AND u.currentTierLevel = :tierLevel")
+    int recordTierEvaluation(@Param("userIds") Collection<Long> userIds,
+                             @Param("tierLevel") Integer tierLevel,
+                             @Param("evaluatedAt") LocalDateTime evaluatedAt,
+                             @Param("nextEvaluationAt") LocalDateTime nextEvaluationAt);
+
+    @Modifying
+    @Query("UPDATE User u SET u.nextTierEvaluationAt = NULL WHERE u.id = :userId")
+    int clearNextTierEvaluationAt(@Param("userId") Long userId);
+
+    /**
+     * Ids of users with a scheduled tier evaluation, in id order after {@code afterId}
+     */
+    @Query("SELECT u.id FROM User u WHERE u.nextTierEvaluationAt IS NOT NULL AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsWithNextTierEvaluationAt(@Param("afterId") Long afterId, Pageable pageable);
 
-}
\ No newline at end of file
+    @Modifying
+    @Query("UPDATE User u SET u.nextTierEvaluationAt = NULL WHERE u.id IN :userIds")
+    int clearNextTierEvaluationAt(@Param("userIds") Collection<Long> userIds);
+}
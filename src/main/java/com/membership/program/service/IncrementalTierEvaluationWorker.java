@@ -0,0 +1,90 @@
+package com.membership.program.service;
+
+import com.membership.program.service.evaluation.DirtyUserTracker;
+import com.membership.program.service.evaluation.PrioritizedEvaluationQueue;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Near-real-time tier evaluation: continuously drains users marked dirty by order
+ * completions and cohort changes and evaluates only those users. The nightly sweep in
+ * {@link TierEvaluationScheduler} remains as a reconciliation pass.
+ * Dirty users pass through {@link PrioritizedEvaluationQueue} so that, when the backlog is
+ * larger than one run can handle, users near an upgrade threshold are evaluated first.
+ */
+@Service
+@Slf4j
+public class IncrementalTierEvaluationWorker {
+
+    private final DirtyUserTracker dirtyUserTracker;
+    private final PrioritizedEvaluationQueue evaluationQueue;
+    private final TierUpgradeService tierUpgradeService;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public IncrementalTierEvaluationWorker(DirtyUserTracker dirtyUserTracker,
+                                           PrioritizedEvaluationQueue evaluationQueue,
+                                           TierUpgradeService tierUpgradeService,
+                                           @Value("${membership.tier-evaluation.incremental.enabled:true}") boolean enabled,
+                                           @Value("${membership.tier-evaluation.incremental.batch-size:200}") int batchSize,
+                                           @Value("${membership.tier-evaluation.incremental.max-batches-per-run:50}") int maxBatchesPerRun) {
+        this.dirtyUserTracker = dirtyUserTracker;
+        this.evaluationQueue = evaluationQueue;
+        this.tierUpgradeService = tierUpgradeService;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    /**
+     * Move dirty users into the priority queue, then evaluate the highest priority users in batches;
+     * runs again shortly after the previous run finishes
+     */
+    @Scheduled(fixedDelayString = "${membership.tier-evaluation.incremental.interval-ms:5000}")
+    public void processDirtyUsers() {
+        if (!enabled || (dirtyUserTracker.pendingCount() == 0 && evaluationQueue.size() == 0)) {
+            return;
+        }
+
+        int capacity = evaluationQueue.remainingCapacity();
+        while (capacity > 0 && dirtyUserTracker.pendingCount() > 0) {
+            List<Long> dirtyUserIds = dirtyUserTracker.drain(Math.min(capacity, batchSize));
+            try {
+                evaluationQueue.enqueue(dirtyUserIds);
+            } catch (Exception e) {
+                // Put them back and retry on the next run
+                dirtyUserIds.forEach(dirtyUserTracker::markDirty);
+                log.error("Error scoring users for tier evaluation: {}", e.getMessage());
+                break;
+            }
+            capacity = evaluationQueue.remainingCapacity();
+        }
+
+        int processedCount = 0;
+        int failedCount = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<Long> userIds = evaluationQueue.poll(batchSize);
+            if (userIds.isEmpty()) {
+                break;
+            }
+            for (Long userId : userIds) {
+                try {
+                    tierUpgradeService.processAutomaticUpgrades(userId);
+                    processedCount++;
+                } catch (Exception e) {
+                    // Left for the nightly reconciliation pass rather than retried in a tight loop
+                    failedCount++;
+                    log.error("Error in incremental tier evaluation for user {}: {}", userId, e.getMessage());
+                }
+            }
+        }
+
+        log.info("Incremental tier evaluation completed. Processed: {}, Failed: {}, Queued: {}, Still dirty: {}",
+                processedCount, failedCount, evaluationQueue.size(), dirtyUserTracker.pendingCount());
+    }
+}
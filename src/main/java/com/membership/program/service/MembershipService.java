@@ -2,10 +2,12 @@ package com.membership.program.service;
 
 import com.membership.program.dto.request.SubscriptionRequestDTO;
 import com.membership.program.dto.response.MembershipPlanResponseDTO;
+import com.membership.program.dto.response.SubscriptionHistoryPageDTO;
 import com.membership.program.dto.response.SubscriptionHistoryResponseDTO;
 import com.membership.program.dto.response.SubscriptionResponseDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface MembershipService {
 
@@ -33,9 +35,25 @@ public interface MembershipService {
     SubscriptionResponseDTO getCurrentSubscription(Long userId);
 
     /**
-     * Get user's subscription history
+     * Get a page of the user's subscription history, newest first
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     * @param limit page size; the default when null, capped at the maximum page size
      */
-    List<SubscriptionHistoryResponseDTO> getUserSubscriptionHistory(Long userId);
+    SubscriptionHistoryPageDTO getUserSubscriptionHistory(Long userId, String cursor, Integer limit);
+
+    /**
+     * Get a page of the user's archived subscription history (months older than the retention
+     * window), newest first. Slower than {@link #getUserSubscriptionHistory}.
+     * @param cursor {@code nextCursor} of the previous page, or null for the first page
+     */
+    SubscriptionHistoryPageDTO getArchivedSubscriptionHistory(Long userId, String cursor, Integer limit);
+
+    /**
+     * Pass the user's whole subscription history, archived months included, to {@code sink} a page
+     * at a time, newest first, without holding a transaction open between pages
+     * @return number of entries exported
+     */
+    int exportUserSubscriptionHistory(Long userId, Consumer<List<SubscriptionHistoryResponseDTO>> sink);
 
     /**
      * Cancel user's subscription
@@ -0,0 +1,20 @@
+package com.membership.program.service;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Service for renewing or expiring subscriptions that have reached their expiry date
+ */
+public interface SubscriptionExpiryService {
+
+    /**
+     * Renew (auto-renewal) or expire the subscription if it is still active and due at {@code now}.
+     * The subscription is re-read under a row lock, so concurrent callers process it at most once.
+     *
+     * @return the action taken, or empty if the subscription was no longer due
+     */
+    Optional<SubscriptionAction> processIfDue(Long subscriptionId, LocalDateTime now);
+}
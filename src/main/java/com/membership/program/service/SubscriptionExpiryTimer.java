@@ -0,0 +1,170 @@
+package com.membership.program.service;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+import com.membership.program.entity.Subscription;
+import com.membership.program.repository.SubscriptionRepository;
+import com.membership.program.service.cluster.LeaderElection;
+import com.membership.program.service.cluster.ShardedJobRunner;
+import com.membership.program.utility.HierarchicalTimingWheel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Renews or expires subscriptions close to their actual expiry time instead of in one daily batch.
+ *
+ * Upcoming expiry dates are loaded into an in-process {@link HierarchicalTimingWheel} from
+ * {@link SubscriptionRepository#findSubscriptionsExpiringSoon}, reloading a window ahead of the
+ * clock periodically. Each tick fires whatever subscriptions came due, each in its own transaction.
+ * A stale entry (renewed or cancelled since it was loaded) is re-checked in the database and skipped.
+ *
+ * Each node only loads and fires the subscriptions of users in its own shards of the
+ * {@link ShardedJobRunner} ring, refreshed on every reload; an entry whose shard has moved away
+ * since it was loaded is dropped when it comes due. The reload window reaches back one interval,
+ * so the new owner still picks up expiries it inherits. If cluster membership is unavailable,
+ * only the node that wins the reload's leader lock keeps timers for that interval.
+ * The daily pass in {@link TierEvaluationScheduler} remains as a reconciliation.
+ */
+@Service
+@Slf4j
+public class SubscriptionExpiryTimer {
+
+    private static final int WHEEL_SIZE = 64;
+    private static final int WHEEL_LEVELS = 3;
+    private static final String RELOAD_JOB = "subscription-expiry-timer";
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionExpiryService subscriptionExpiryService;
+    private final ShardedJobRunner shardedJobRunner;
+    private final LeaderElection leaderElection;
+    private final boolean enabled;
+    private final Duration lookahead;
+    private final Duration reloadInterval;
+    private final HierarchicalTimingWheel<ExpiryTimer> wheel;
+    private final Set<Integer> allShards;
+
+    private volatile Set<Integer> ownShards = Set.of();
+
+    public SubscriptionExpiryTimer(SubscriptionRepository subscriptionRepository,
+                                   SubscriptionExpiryService subscriptionExpiryService,
+                                   ShardedJobRunner shardedJobRunner,
+                                   LeaderElection leaderElection,
+                                   @Value("${membership.cluster.shards:64}") int shardCount,
+                                   @Value("${membership.subscription-expiry.timer.enabled:true}") boolean enabled,
+                                   @Value("${membership.subscription-expiry.timer.tick-ms:1000}") long tickMillis,
+                                   @Value("${membership.subscription-expiry.timer.lookahead-minutes:60}") long lookaheadMinutes,
+                                   @Value("${membership.subscription-expiry.timer.reload-interval-ms:600000}") long reloadIntervalMillis) {
+        this.subscriptionRepository = subscriptionRepository;
+        this.subscriptionExpiryService = subscriptionExpiryService;
+        this.shardedJobRunner = shardedJobRunner;
+        this.leaderElection = leaderElection;
+        this.enabled = enabled;
+        this.lookahead = Duration.ofMinutes(lookaheadMinutes);
+        this.reloadInterval = Duration.ofMillis(reloadIntervalMillis);
+        this.wheel = new HierarchicalTimingWheel<>(tickMillis, WHEEL_SIZE, WHEEL_LEVELS, System.currentTimeMillis());
+        this.allShards = IntStream.range(0, shardCount).boxed().collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Load subscriptions expiring before the end of the lookahead window. The window also reaches
+     * one reload interval into the past, so a subscription that became due between reloads is not missed.
+     */
+    @Scheduled(fixedDelayString = "${membership.subscription-expiry.timer.reload-interval-ms:600000}")
+    public void reloadUpcomingExpiries() {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            ownShards = shardedJobRunner.ownShards();
+        } catch (DataAccessException e) {
+            log.warn("Cluster membership unavailable, loading subscription expiries only on the leader: {}", e.getMessage());
+            ownShards = Set.of();
+            leaderElection.runIfLeader(RELOAD_JOB, lease -> ownShards = allShards);
+        }
+        if (ownShards.isEmpty()) {
+            return;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            List<Subscription> upcoming = subscriptionRepository.findSubscriptionsExpiringSoon(
+                    now.minus(reloadInterval), now.plus(lookahead));
+            int owned = 0;
+            int added = 0;
+            for (Subscription subscription : upcoming) {
+                ExpiryTimer timer = new ExpiryTimer(subscription.getId(), subscription.getUser().getId());
+                if (!isOwn(timer)) {
+                    continue;
+                }
+                owned++;
+                if (wheel.schedule(timer, toEpochMillis(subscription.getExpiryDate()))) {
+                    added++;
+                }
+            }
+            log.info("Loaded {} upcoming subscription expiries in {} own shards ({} new), {} scheduled in total",
+                    owned, ownShards.size(), added, wheel.size());
+        } catch (Exception e) {
+            log.error("Error loading upcoming subscription expiries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Renew or expire the subscriptions that came due since the previous tick
+     */
+    @Scheduled(fixedDelayString = "${membership.subscription-expiry.timer.tick-ms:1000}")
+    public void processDueExpiries() {
+        if (!enabled) {
+            return;
+        }
+
+        List<Long> dueSubscriptionIds = wheel.advance(System.currentTimeMillis()).stream()
+                .filter(this::isOwn)
+                .map(ExpiryTimer::subscriptionId)
+                .toList();
+        if (dueSubscriptionIds.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        int renewedCount = 0;
+        int expiredCount = 0;
+        for (Long subscriptionId : dueSubscriptionIds) {
+            try {
+                Optional<SubscriptionAction> action = subscriptionExpiryService.processIfDue(subscriptionId, now);
+                if (action.isPresent() && action.get() == SubscriptionAction.RENEWED) {
+                    renewedCount++;
+                } else if (action.isPresent()) {
+                    expiredCount++;
+                }
+            } catch (Exception e) {
+                // Left for the daily reconciliation pass
+                log.error("Error processing expiry of subscription {}: {}", subscriptionId, e.getMessage());
+            }
+        }
+        log.info("Processed {} due subscriptions. Renewed: {}, Expired: {}",
+                dueSubscriptionIds.size(), renewedCount, expiredCount);
+    }
+
+    private boolean isOwn(ExpiryTimer timer) {
+        return ownShards.contains(shardedJobRunner.shardOf(timer.userId()));
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private record ExpiryTimer(Long subscriptionId, Long userId) {
+    }
+}
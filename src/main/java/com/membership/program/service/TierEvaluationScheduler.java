@@ -1,227 +1,201 @@
 package com.membership.program.service;
 
 import com.membership.program.dto.enums.SubscriptionAction;
-import com.membership.program.entity.Subscription;
-import com.membership.program.entity.SubscriptionHistory;
-import com.membership.program.entity.User;
-import com.membership.program.repository.SubscriptionHistoryRepository;
+import com.membership.program.dto.evaluation.UserEvaluationSchedule;
 import com.membership.program.repository.SubscriptionRepository;
-import com.membership.program.repository.UserRepository;
-import com.membership.program.service.MembershipService;
+import com.membership.program.service.cluster.ShardContext;
+import com.membership.program.service.cluster.ShardedJobRunner;
+import com.membership.program.service.evaluation.PrioritizedEvaluationQueue;
+import com.membership.program.service.evaluation.TierEvaluationScheduleService;
+import com.membership.program.service.throttle.AdaptiveBatchThrottle;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
-
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Nightly reconciliation jobs. Every node takes part in each cycle, processing the user-id shards
+ * assigned to it by {@link ShardedJobRunner}. Each shard checkpoints its keyset cursor and counters
+ * after every page, so a run interrupted by a restart resumes instead of starting over. Page size,
+ * concurrency and pace follow {@link AdaptiveBatchThrottle}, which backs off while the database is busy.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class TierEvaluationScheduler {
 
+    private static final int EVALUATION_BATCH_SIZE = 200;
+    private static final String TIER_EVALUATION_JOB = "tier-evaluation";
+    private static final String SUBSCRIPTION_EXPIRY_JOB = "subscription-expiry";
+    private static final String PHASE_SCHEDULE = "schedule";
+    private static final String PHASE_EVALUATE = "evaluate";
+    private static final String PHASE_EXPIRE = "expire";
+
     private final TierUpgradeService tierUpgradeService;
-    private final UserRepository userRepository;
     private final SubscriptionRepository subscriptionRepository;
-    private final SubscriptionHistoryRepository subscriptionHistoryRepository;
-    private final MembershipService membershipService;
+    private final SubscriptionExpiryService subscriptionExpiryService;
+    private final PrioritizedEvaluationQueue evaluationQueue;
+    private final TierEvaluationScheduleService evaluationScheduleService;
+    private final ShardedJobRunner shardedJobRunner;
+    private final AdaptiveBatchThrottle batchThrottle;
 
     /**
-     * Scheduled task to evaluate tier upgrades for all users daily at 2 AM
+     * Scheduled reconciliation of tier upgrades, daily at 2 AM by default.
+     * Only users whose next evaluation is due under the cadence of their tier's rules are evaluated.
+     * Users whose metrics change are evaluated within seconds by {@link IncrementalTierEvaluationWorker};
+     * this sweep catches anything the incremental path missed (e.g. events lost on restart).
      */
-    @Scheduled(cron = "0 0 2 * * ?")
+    @Scheduled(cron = "${membership.tier-evaluation.reconciliation-cron:0 0 2 * * ?}")
     public void evaluateTierUpgradesForAllUsers() {
-        log.info("Starting scheduled tier evaluation for all users");
-        
-        try {
-            List<User> users = userRepository.findAll();
-            int processedCount = 0;
-            int upgradedCount = 0;
-
-            for (User user : users) {
-                try {
-                    // Check if user needs tier evaluation (evaluation frequency check)
-                    if (shouldEvaluateUser(user)) {
-                        // Use the new tier upgrade service to process automatic upgrades
-                        tierUpgradeService.processAutomaticUpgrades(user.getId());
-                        processedCount++;
-                        
-                        // Check if tier was actually upgraded
-                        if (userRepository.findById(user.getId())
-                                .map(u -> !u.getCurrentTierLevel().equals(user.getCurrentTierLevel()))
-                                .orElse(false)) {
-                            upgradedCount++;
-                        }
-                    }
-                } catch (Exception e) {
-                    log.error("Error evaluating tier upgrade for user {}: {}", user.getId(), e.getMessage());
-                }
-            }
-
-            log.info("Tier evaluation completed. Processed: {}, Upgraded: {}", processedCount, upgradedCount);
-        } catch (Exception e) {
-            log.error("Error in scheduled tier evaluation: {}", e.getMessage());
-        }
+        shardedJobRunner.run(TIER_EVALUATION_JOB, this::evaluateDueUsers);
     }
 
-    /**
-     * Scheduled task to process expired subscriptions daily at 3 AM
-     */
-    @Scheduled(cron = "0 0 3 * * ?")
-    public void processExpiredSubscriptions() {
-        log.info("Starting scheduled processing of expired subscriptions");
-        
-        try {
-            LocalDateTime now = LocalDateTime.now();
-            List<Subscription> expiredSubscriptions = subscriptionRepository.findExpiredSubscriptions(now);
-            
-            if (expiredSubscriptions.isEmpty()) {
-                log.info("No expired subscriptions found");
-                return;
-            }
-            
-            log.info("Found {} expired subscriptions to process", expiredSubscriptions.size());
-            
-            int renewedCount = 0;
-            int markedInactiveCount = 0;
-            
-            for (Subscription subscription : expiredSubscriptions) {
-                try {
-                    if (subscription.isAutoRenewal()) {
-                        // Auto-renew the subscription
-                        renewSubscription(subscription);
-                        renewedCount++;
-                        log.info("Auto-renewed subscription {} for user {}", subscription.getId(), subscription.getUser().getId());
-                    } else {
-                        // Mark subscription as expired
-                        markSubscriptionAsExpired(subscription);
-                        markedInactiveCount++;
-                        log.info("Marked subscription {} as expired for user {}", subscription.getId(), subscription.getUser().getId());
-                    }
-                } catch (Exception e) {
-                    log.error("Error processing expired subscription {}: {}", subscription.getId(), e.getMessage());
+    private void evaluateDueUsers(ShardContext context) {
+        int shard = context.getShard();
+        log.info("Starting scheduled tier evaluation for due users in shard {}/{}", shard, context.getShardCount());
+
+        // Phase 1: give users without a next evaluation time one; skipped once evaluation has begun
+        if (!PHASE_EVALUATE.equals(context.getPhase())) {
+            int scheduledPages = 0;
+            Long lastScheduledId = Optional.ofNullable(context.resumeCursor(PHASE_SCHEDULE)).orElse(0L);
+            while ((lastScheduledId = evaluationScheduleService.scheduleNextPage(
+                    shard, context.getShardCount(), lastScheduledId, EVALUATION_BATCH_SIZE)) != null) {
+                scheduledPages++;
+                if (!context.checkpoint(PHASE_SCHEDULE, lastScheduledId, 0, 0, 0)) {
+                    log.warn("Tier evaluation of shard {} stopped after losing its lease while scheduling", shard);
+                    return;
                 }
             }
-            
-            log.info("Expired subscription processing completed. Renewed: {}, Marked inactive: {}", 
-                    renewedCount, markedInactiveCount);
-                    
-        } catch (Exception e) {
-            log.error("Error in scheduled expired subscription processing: {}", e.getMessage());
+            if (scheduledPages > 0) {
+                log.info("Scheduled tier evaluation for {} pages of newly scheduled users", scheduledPages);
+            }
         }
-    }
 
+        // Phase 2: evaluate due users page by page, checkpointing the last user id of each page
+        LocalDateTime now = LocalDateTime.now();
+        int processedCount = 0;
+        int upgradedCount = 0;
+        Long afterId = Optional.ofNullable(context.resumeCursor(PHASE_EVALUATE)).orElse(0L);
+        List<UserEvaluationSchedule> dueUsers;
+        while (context.isActive()
+                && !(dueUsers = evaluationScheduleService.findDue(shard, context.getShardCount(), now, afterId, batchThrottle.chunkSize())).isEmpty()) {
+            afterId = dueUsers.get(dueUsers.size() - 1).getId();
+            int pageProcessed = 0;
+            int pageFailed = 0;
+
+            // Evaluate users closest to an upgrade threshold first. The page is ordered locally:
+            // the shared queue belongs to the incremental worker and is fed by every shard.
+            List<Long> orderedUserIds = evaluationQueue.prioritize(
+                    dueUsers.stream().map(UserEvaluationSchedule::getId).toList());
+            Set<Long> evaluatedUserIds = ConcurrentHashMap.newKeySet();
+            for (int from = 0; from < orderedUserIds.size(); ) {
+                int to = Math.min(from + batchThrottle.chunkSize(), orderedUserIds.size());
+                AdaptiveBatchThrottle.ChunkResult result = batchThrottle.execute(orderedUserIds.subList(from, to), userId -> {
+                    try {
+                        tierUpgradeService.processAutomaticUpgrades(userId);
+                        evaluatedUserIds.add(userId);
+                        return true;
+                    } catch (Exception e) {
+                        log.error("Error evaluating tier upgrade for user {}: {}", userId, e.getMessage());
+                        return false;
+                    }
+                });
+                pageProcessed += result.succeeded();
+                pageFailed += result.failed();
+                from = to;
+            }
 
-    /**
-     * Check if a user should be evaluated for tier upgrade
-     */
-    private boolean shouldEvaluateUser(User user) {
-        // Skip users without membership start date
-        if (user.getMembershipStartDate() == null) {
-            return false;
+            // Users that failed keep their due time and are picked up by the next run
+            List<UserEvaluationSchedule> evaluated = dueUsers.stream()
+                    .filter(user -> evaluatedUserIds.contains(user.getId()))
+                    .toList();
+            int pageUpgraded = evaluated.isEmpty() ? 0 : evaluationScheduleService.recordEvaluated(evaluated, now);
+            processedCount += pageProcessed;
+            upgradedCount += pageUpgraded;
+            if (!context.checkpoint(PHASE_EVALUATE, afterId, pageProcessed, pageUpgraded, pageFailed)) {
+                log.warn("Tier evaluation of shard {} stopped after losing its claim on the shard. Processed: {}, Upgraded: {}",
+                        shard, processedCount, upgradedCount);
+                return;
+            }
         }
 
-        // Check if enough time has passed since last evaluation
-        if (user.getLastTierEvaluationDate() != null) {
-            long daysSinceLastEvaluation = java.time.temporal.ChronoUnit.DAYS.between(
-                    user.getLastTierEvaluationDate(), LocalDateTime.now());
-            
-            // Evaluate every 30 days
-            return daysSinceLastEvaluation >= 30;
+        if (!context.isActive()) {
+            log.warn("Tier evaluation of shard {} stopped after losing its lease. Processed: {}, Upgraded: {}",
+                    shard, processedCount, upgradedCount);
+            return;
         }
-
-        // If never evaluated, check if user has been a member for at least 30 days
-        long daysSinceMembershipStart = java.time.temporal.ChronoUnit.DAYS.between(
-                user.getMembershipStartDate(), LocalDateTime.now());
-        
-        return daysSinceMembershipStart >= 30;
+        log.info("Tier evaluation of shard {} completed. Processed: {}, Upgraded: {}", shard, processedCount, upgradedCount);
     }
 
     /**
-     * Renew a subscription by extending its expiry date
+     * Scheduled reconciliation of expired subscriptions, daily at 3 AM by default.
+     * Subscriptions are renewed or expired as they come due by {@link SubscriptionExpiryTimer};
+     * this pass catches anything it missed (e.g. while the application was down).
      */
-    private void renewSubscription(Subscription subscription) {
-        try {
-            // Calculate new expiry date based on plan duration
-            LocalDateTime newExpiryDate = calculateNewExpiryDate(subscription);
-            
-            // Renew the subscription
-            subscription.renew(newExpiryDate);
-            
-            // Save the updated subscription
-            subscriptionRepository.save(subscription);
-            // Create subscription history
-            createSubscriptionHistory(subscription, SubscriptionAction.RENEWED, "Subscription renewed", subscription.getPlan().getName(), subscription.getPlan().getName(), subscription.getPlan().getPrice(), subscription.getPlan().getPrice(), "SYSTEM");
-
-
-            log.info("Subscription {} renewed successfully until {}", subscription.getId(), newExpiryDate);
-            
-        } catch (Exception e) {
-            log.error("Error renewing subscription {}: {}", subscription.getId(), e.getMessage());
-            throw new RuntimeException("Failed to renew subscription", e);
-        }
+    @Scheduled(cron = "${membership.subscription-expiry.reconciliation-cron:0 0 3 * * ?}")
+    public void processExpiredSubscriptions() {
+        shardedJobRunner.run(SUBSCRIPTION_EXPIRY_JOB, this::reconcileExpiredSubscriptions);
     }
 
-    /**
-     * Mark a subscription as expired
-     */
-    private void markSubscriptionAsExpired(Subscription subscription) {
-        try {
-            // Update subscription status to EXPIRED
-            subscription.setStatus(com.membership.program.dto.enums.SubscriptionStatus.EXPIRED);
-            
-            // Save the updated subscription
-            subscriptionRepository.save(subscription);
-
-            createSubscriptionHistory(subscription, SubscriptionAction.CANCELLED, "Subscription Cancelled", subscription.getPlan().getName(), null, subscription.getPlan().getPrice(), null, "SYSTEM");
-
-            
-            log.info("Subscription {} marked as expired", subscription.getId());
-            
-        } catch (Exception e) {
-            log.error("Error marking subscription {} as expired: {}", subscription.getId(), e.getMessage());
-            throw new RuntimeException("Failed to mark subscription as expired", e);
-        }
-    }
+    private void reconcileExpiredSubscriptions(ShardContext context) {
+        int shard = context.getShard();
+        log.info("Starting scheduled processing of expired subscriptions in shard {}/{}", shard, context.getShardCount());
 
-    /**
-     * Calculate new expiry date based on subscription plan duration
-     */
-    private LocalDateTime calculateNewExpiryDate(Subscription subscription) {
         LocalDateTime now = LocalDateTime.now();
-        
-        // Get the plan duration in months
-        int durationMonths = subscription.getPlan().getDurationMonths();
-        
-        // Calculate new expiry date
-        LocalDateTime newExpiryDate = now.plusMonths(durationMonths);
-        
-        // If the calculated date is before the current expiry date, 
-        // extend from the current expiry date instead
-        if (newExpiryDate.isBefore(subscription.getExpiryDate())) {
-            newExpiryDate = subscription.getExpiryDate().plusMonths(durationMonths);
+        AtomicInteger renewedCount = new AtomicInteger();
+        AtomicInteger markedInactiveCount = new AtomicInteger();
+        Long afterId = Optional.ofNullable(context.resumeCursor(PHASE_EXPIRE)).orElse(0L);
+        List<Long> expiredSubscriptionIds;
+
+        while (context.isActive()
+                && !(expiredSubscriptionIds = subscriptionRepository.findExpiredSubscriptionIds(
+                        now, shard, context.getShardCount(), afterId, PageRequest.of(0, batchThrottle.chunkSize()))).isEmpty()) {
+            AdaptiveBatchThrottle.ChunkResult result = batchThrottle.execute(expiredSubscriptionIds, subscriptionId -> {
+                try {
+                    Optional<SubscriptionAction> action = subscriptionExpiryService.processIfDue(subscriptionId, now);
+                    if (action.isPresent() && action.get() == SubscriptionAction.RENEWED) {
+                        renewedCount.incrementAndGet();
+                    } else if (action.isPresent()) {
+                        markedInactiveCount.incrementAndGet();
+                    }
+                    return true;
+                } catch (Exception e) {
+                    log.error("Error processing expired subscription {}: {}", subscriptionId, e.getMessage());
+                    return false;
+                }
+            });
+            afterId = expiredSubscriptionIds.get(expiredSubscriptionIds.size() - 1);
+            if (!context.checkpoint(PHASE_EXPIRE, afterId, result.succeeded(), 0, result.failed())) {
+                log.warn("Expired subscription processing of shard {} stopped after losing its claim on the shard", shard);
+                return;
+            }
+        }
+
+        if (!context.isActive()) {
+            log.warn("Expired subscription processing of shard {} stopped after losing its lease", shard);
+            return;
         }
-        
-        return newExpiryDate;
+        log.info("Expired subscription processing completed. Renewed: {}, Marked inactive: {}", 
+                renewedCount, markedInactiveCount);
     }
 
-    private void createSubscriptionHistory(Subscription subscription, SubscriptionAction action,
-                                           String description, String oldValue, String newValue, BigDecimal oldPrice, BigDecimal newPrice, String performedBy) {
-        SubscriptionHistory history = SubscriptionHistory.builder()
-                .subscription(subscription)
-                .action(action)
-                .actionDescription(description)
-                .oldValue(oldValue)
-                .newValue(newValue)
-                .oldPrice(oldPrice)
-                .newPrice(newPrice)
-                .performedBy(performedBy)
-                .performedAt(LocalDateTime.now())
-                .build();
-
-        subscriptionHistoryRepository.save(history);
+    /**
+     * Finish nightly runs left incomplete by a restart, resuming each unfinished shard from its
+     * last checkpoint in the {@code job_run} ledger
+     */
+    @Scheduled(fixedDelayString = "${membership.jobs.resume-check-ms:300000}",
+            initialDelayString = "${membership.jobs.resume-initial-delay-ms:60000}")
+    public void resumeInterruptedRuns() {
+        shardedJobRunner.resumeInterrupted(TIER_EVALUATION_JOB, this::evaluateDueUsers);
+        shardedJobRunner.resumeInterrupted(SUBSCRIPTION_EXPIRY_JOB, this::reconcileExpiredSubscriptions);
     }
 
 }
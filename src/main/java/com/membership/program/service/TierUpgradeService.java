@@ -33,8 +33,10 @@ public interface TierUpgradeService {
     
     /**
      * Process automatic tier upgrades for a user
+     *
+     * @return true if the user was upgraded
      */
-    void processAutomaticUpgrades(Long userId);
+    boolean processAutomaticUpgrades(Long userId);
     
     /**
      * Get all applicable rules for a user
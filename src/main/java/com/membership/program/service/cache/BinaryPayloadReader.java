@@ -0,0 +1,93 @@
+package com.membership.program.service.cache;
+
+import com.membership.program.exception.CachePayloadException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * Cursor over an encoded cache payload; mirror image of {@link BinaryPayloadWriter}
+ */
+class BinaryPayloadReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    BinaryPayloadReader(byte[] buffer) {
+        this.buffer = buffer;
+    }
+
+    int readByte() {
+        require(1);
+        return buffer[position++] & 0xFF;
+    }
+
+    long readVarLong() {
+        long result = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            result |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return result;
+            }
+        }
+        throw new CachePayloadException("Malformed varint in cache payload");
+    }
+
+    int readVarInt() {
+        long value = readVarLong();
+        if ((value >>> 32) != 0) {
+            throw new CachePayloadException("Varint out of int range in cache payload");
+        }
+        return (int) value;
+    }
+
+    long readSignedVarLong() {
+        long raw = readVarLong();
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    String readString() {
+        int length = readVarInt();
+        require(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    LocalDateTime readTimestamp() {
+        long micros = readSignedVarLong();
+        long seconds = Math.floorDiv(micros, 1_000_000L);
+        int nanos = (int) Math.floorMod(micros, 1_000_000L) * 1_000;
+        return LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC);
+    }
+
+    BigDecimal readDecimal() {
+        long header = readVarLong();
+        boolean big = (header & 1) != 0;
+        long zigZagScale = header >>> 1;
+        int scale = (int) ((zigZagScale >>> 1) ^ -(zigZagScale & 1));
+        if (big) {
+            int length = readVarInt();
+            require(length);
+            byte[] bytes = new byte[length];
+            System.arraycopy(buffer, position, bytes, 0, length);
+            position += length;
+            return new BigDecimal(new BigInteger(bytes), scale);
+        }
+        return BigDecimal.valueOf(readSignedVarLong(), scale);
+    }
+
+    boolean hasRemaining() {
+        return position < buffer.length;
+    }
+
+    private void require(int length) {
+        if (length < 0 || position + length > buffer.length) {
+            throw new CachePayloadException("Truncated cache payload");
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.membership.program.service.cache;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Growable byte buffer with the primitive encodings used by the cache codec:
+ * LEB128 varints, zig-zag signed varints, length-prefixed UTF-8 strings,
+ * epoch-microsecond timestamps and scale/unscaled decimals.
+ */
+class BinaryPayloadWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    BinaryPayloadWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    /**
+     * Unsigned LEB128 varint; values below 128 take a single byte
+     */
+    void writeVarLong(long value) {
+        ensureCapacity(10);
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarInt(int value) {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    /**
+     * Zig-zag varint so small negative numbers stay small
+     */
+    void writeSignedVarLong(long value) {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeString(String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(bytes.length);
+        writeBytes(bytes);
+    }
+
+    /**
+     * Timestamps are written as microseconds since the epoch (UTC), which is the
+     * precision PostgreSQL stores, so values read from the database round-trip exactly.
+     */
+    void writeTimestamp(LocalDateTime value) {
+        long seconds = value.toEpochSecond(ZoneOffset.UTC);
+        long micros = Math.addExact(Math.multiplyExact(seconds, 1_000_000L), value.getNano() / 1_000);
+        writeSignedVarLong(micros);
+    }
+
+    /**
+     * Decimals are written as a header varint ((zigzag scale) << 1 | big flag) followed by
+     * the unscaled value, either as a zig-zag varint or, when it does not fit a long,
+     * as length-prefixed two's-complement bytes.
+     */
+    void writeDecimal(BigDecimal value) {
+        BigInteger unscaled = value.unscaledValue();
+        int scale = value.scale();
+        long zigZagScale = ((scale << 1) ^ (scale >> 31)) & 0xFFFFFFFFL;
+        boolean big = unscaled.bitLength() > 63;
+        writeVarLong((zigZagScale << 1) | (big ? 1 : 0));
+        if (big) {
+            byte[] bytes = unscaled.toByteArray();
+            writeVarInt(bytes.length);
+            writeBytes(bytes);
+        } else {
+            writeSignedVarLong(unscaled.longValue());
+        }
+    }
+
+    void writeBytes(byte[] bytes) {
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int additional) {
+        if (position + additional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + additional));
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.membership.program.service.cache;
+
+import com.membership.program.dto.enums.SubscriptionStatus;
+import com.membership.program.dto.enums.UserStatus;
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.EligibilitySnapshot;
+import com.membership.program.dto.evaluation.EvaluationResult;
+import com.membership.program.dto.evaluation.RollingWindowThreshold;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.response.SubscriptionResponseDTO;
+import com.membership.program.dto.response.UserResponseDTO;
+import com.membership.program.exception.CachePayloadException;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Compact, schema-versioned binary codec for objects cached in Redis.
+ *
+ * Every payload starts with a schema version byte and a payload type byte. Objects are
+ * written as a presence bitmask (one bit per nullable field, plus the boolean values)
+ * followed by the present fields in declaration order. Ids and counters are varints,
+ * enums and recurring strings are dictionary codes and timestamps are epoch microseconds.
+ *
+ * Any change to the field layout must bump {@link #SCHEMA_VERSION}; payloads written with
+ * another version are rejected with {@link CachePayloadException} and treated as misses.
+ */
+@Component
+public class CachePayloadCodec {
+
+    public static final int SCHEMA_VERSION = 2;
+
+    private static final int TYPE_SUBSCRIPTION = 1;
+    private static final int TYPE_USER = 2;
+    private static final int TYPE_EVALUATION_RESULTS = 3;
+    private static final int TYPE_ELIGIBILITY = 4;
+
+    private static final int VALUE_NULL = 0;
+    private static final int VALUE_INT = 1;
+    private static final int VALUE_LONG = 2;
+    private static final int VALUE_DECIMAL = 3;
+    private static final int VALUE_STRING = 4;
+    private static final int VALUE_FALSE = 5;
+    private static final int VALUE_TRUE = 6;
+    private static final int VALUE_DOUBLE = 7;
+    private static final int VALUE_ROLLING_WINDOW = 8;
+
+    private static final EnumDictionary<SubscriptionStatus> SUBSCRIPTION_STATUS = new EnumDictionary<>(
+            SubscriptionStatus.class,
+            SubscriptionStatus.ACTIVE, SubscriptionStatus.EXPIRED, SubscriptionStatus.CANCELLED);
+
+    private static final EnumDictionary<UserStatus> USER_STATUS = new EnumDictionary<>(
+            UserStatus.class,
+            UserStatus.ACTIVE, UserStatus.INACTIVE, UserStatus.SUSPENDED);
+
+    private static final StringDictionary ROLES = new StringDictionary("ROLE_USER", "ROLE_ADMIN");
+
+    private static final StringDictionary CRITERIA_TYPES = new StringDictionary(
+            "ORDER_COUNT", "MONTHLY_ORDER_VALUE", "USER_COHORT", "MEMBERSHIP_DURATION",
+            "ROLLING_ORDER_VALUE", "ROLLING_ORDER_COUNT");
+
+    private static final StringDictionary LOGICAL_CONDITIONS = new StringDictionary("AND", "OR");
+
+    private static final StringDictionary EVALUATION_STRINGS = new StringDictionary(
+            "Criteria passed", "NULL", "UNSUPPORTED", "ERROR", "Invalid value type", "Invalid rolling window");
+
+    // ===== SUBSCRIPTIONS =====
+
+    public byte[] encodeSubscription(SubscriptionResponseDTO dto) {
+        BinaryPayloadWriter writer = header(TYPE_SUBSCRIPTION, 96);
+        writer.writeVarLong(new Presence()
+                .add(dto.getId()).add(dto.getUserId()).add(dto.getUsername())
+                .add(dto.getPlanId()).add(dto.getPlanName())
+                .add(dto.getTierId()).add(dto.getTierName()).add(dto.getTierLevel())
+                .add(dto.getStatus()).add(dto.getStartDate()).add(dto.getExpiryDate())
+                .add(dto.getActualPrice()).add(dto.getDiscountedPrice()).add(dto.getEffectivePrice())
+                .add(dto.getCancellationReason()).add(dto.getCancelledAt()).add(dto.getCancelledBy())
+                .add(dto.getCreatedAt()).add(dto.getUpdatedAt())
+                .flag(dto.isAutoRenewal())
+                .mask());
+
+        if (dto.getId() != null) writer.writeVarLong(dto.getId());
+        if (dto.getUserId() != null) writer.writeVarLong(dto.getUserId());
+        if (dto.getUsername() != null) writer.writeString(dto.getUsername());
+        if (dto.getPlanId() != null) writer.writeVarLong(dto.getPlanId());
+        if (dto.getPlanName() != null) writer.writeString(dto.getPlanName());
+        if (dto.getTierId() != null) writer.writeVarLong(dto.getTierId());
+        if (dto.getTierName() != null) writer.writeString(dto.getTierName());
+        if (dto.getTierLevel() != null) writer.writeSignedVarLong(dto.getTierLevel());
+        if (dto.getStatus() != null) writer.writeVarInt(SUBSCRIPTION_STATUS.encode(dto.getStatus()));
+        if (dto.getStartDate() != null) writer.writeTimestamp(dto.getStartDate());
+        if (dto.getExpiryDate() != null) writer.writeTimestamp(dto.getExpiryDate());
+        if (dto.getActualPrice() != null) writer.writeDecimal(dto.getActualPrice());
+        if (dto.getDiscountedPrice() != null) writer.writeDecimal(dto.getDiscountedPrice());
+        if (dto.getEffectivePrice() != null) writer.writeDecimal(dto.getEffectivePrice());
+        if (dto.getCancellationReason() != null) writer.writeString(dto.getCancellationReason());
+        if (dto.getCancelledAt() != null) writer.writeTimestamp(dto.getCancelledAt());
+        if (dto.getCancelledBy() != null) writer.writeString(dto.getCancelledBy());
+        if (dto.getCreatedAt() != null) writer.writeTimestamp(dto.getCreatedAt());
+        if (dto.getUpdatedAt() != null) writer.writeTimestamp(dto.getUpdatedAt());
+        return writer.toByteArray();
+    }
+
+    public SubscriptionResponseDTO decodeSubscription(byte[] payload) {
+        BinaryPayloadReader reader = open(payload, TYPE_SUBSCRIPTION);
+        long mask = reader.readVarLong();
+        SubscriptionResponseDTO dto = new SubscriptionResponseDTO();
+        if (has(mask, 0)) dto.setId(reader.readVarLong());
+        if (has(mask, 1)) dto.setUserId(reader.readVarLong());
+        if (has(mask, 2)) dto.setUsername(reader.readString());
+        if (has(mask, 3)) dto.setPlanId(reader.readVarLong());
+        if (has(mask, 4)) dto.setPlanName(reader.readString());
+        if (has(mask, 5)) dto.setTierId(reader.readVarLong());
+        if (has(mask, 6)) dto.setTierName(reader.readString());
+        if (has(mask, 7)) dto.setTierLevel((int) reader.readSignedVarLong());
+        if (has(mask, 8)) dto.setStatus(SUBSCRIPTION_STATUS.decode(reader.readVarInt()));
+        if (has(mask, 9)) dto.setStartDate(reader.readTimestamp());
+        if (has(mask, 10)) dto.setExpiryDate(reader.readTimestamp());
+        if (has(mask, 11)) dto.setActualPrice(reader.readDecimal());
+        if (has(mask, 12)) dto.setDiscountedPrice(reader.readDecimal());
+        if (has(mask, 13)) dto.setEffectivePrice(reader.readDecimal());
+        if (has(mask, 14)) dto.setCancellationReason(reader.readString());
+        if (has(mask, 15)) dto.setCancelledAt(reader.readTimestamp());
+        if (has(mask, 16)) dto.setCancelledBy(reader.readString());
+        if (has(mask, 17)) dto.setCreatedAt(reader.readTimestamp());
+        if (has(mask, 18)) dto.setUpdatedAt(reader.readTimestamp());
+        dto.setAutoRenewal(has(mask, 19));
+        return dto;
+    }
+
+    // ===== USERS =====
+
+    public byte[] encodeUser(UserResponseDTO dto) {
+        BinaryPayloadWriter writer = header(TYPE_USER, 96);
+        writer.writeVarLong(new Presence()
+                .add(dto.getId()).add(dto.getUsername()).add(dto.getEmail())
+                .add(dto.getFirstName()).add(dto.getLastName()).add(dto.getStatus())
+                .add(dto.getCreatedAt()).add(dto.getUpdatedAt()).add(dto.getLastLoginAt())
+                .add(dto.getFailedLoginAttempts()).add(dto.getAccountLockedUntil()).add(dto.getRoles())
+                .flag(dto.isAccountNonExpired()).flag(dto.isAccountNonLocked())
+                .flag(dto.isCredentialsNonExpired()).flag(dto.isEnabled())
+                .mask());
+
+        if (dto.getId() != null) writer.writeVarLong(dto.getId());
+        if (dto.getUsername() != null) writer.writeString(dto.getUsername());
+        if (dto.getEmail() != null) writer.writeString(dto.getEmail());
+        if (dto.getFirstName() != null) writer.writeString(dto.getFirstName());
+        if (dto.getLastName() != null) writer.writeString(dto.getLastName());
+        if (dto.getStatus() != null) writer.writeVarInt(USER_STATUS.encode(dto.getStatus()));
+        if (dto.getCreatedAt() != null) writer.writeTimestamp(dto.getCreatedAt());
+        if (dto.getUpdatedAt() != null) writer.writeTimestamp(dto.getUpdatedAt());
+        if (dto.getLastLoginAt() != null) writer.writeTimestamp(dto.getLastLoginAt());
+        if (dto.getFailedLoginAttempts() != null) writer.writeSignedVarLong(dto.getFailedLoginAttempts());
+        if (dto.getAccountLockedUntil() != null) writer.writeTimestamp(dto.getAccountLockedUntil());
+        if (dto.getRoles() != null) {
+            writer.writeVarInt(dto.getRoles().size());
+            for (String role : dto.getRoles()) {
+                ROLES.write(writer, role);
+            }
+        }
+        return writer.toByteArray();
+    }
+
+    public UserResponseDTO decodeUser(byte[] payload) {
+        BinaryPayloadReader reader = open(payload, TYPE_USER);
+        long mask = reader.readVarLong();
+        UserResponseDTO dto = new UserResponseDTO();
+        if (has(mask, 0)) dto.setId(reader.readVarLong());
+        if (has(mask, 1)) dto.setUsername(reader.readString());
+        if (has(mask, 2)) dto.setEmail(reader.readString());
+        if (has(mask, 3)) dto.setFirstName(reader.readString());
+        if (has(mask, 4)) dto.setLastName(reader.readString());
+        if (has(mask, 5)) dto.setStatus(USER_STATUS.decode(reader.readVarInt()));
+        if (has(mask, 6)) dto.setCreatedAt(reader.readTimestamp());
+        if (has(mask, 7)) dto.setUpdatedAt(reader.readTimestamp());
+        if (has(mask, 8)) dto.setLastLoginAt(reader.readTimestamp());
+        if (has(mask, 9)) dto.setFailedLoginAttempts((int) reader.readSignedVarLong());
+        if (has(mask, 10)) dto.setAccountLockedUntil(reader.readTimestamp());
+        if (has(mask, 11)) {
+            int count = reader.readVarInt();
+            Set<String> roles = new LinkedHashSet<>(Math.max(4, count * 2));
+            for (int i = 0; i < count; i++) {
+                roles.add(ROLES.read(reader));
+            }
+            dto.setRoles(roles);
+        }
+        dto.setAccountNonExpired(has(mask, 12));
+        dto.setAccountNonLocked(has(mask, 13));
+        dto.setCredentialsNonExpired(has(mask, 14));
+        dto.setEnabled(has(mask, 15));
+        return dto;
+    }
+
+    // ===== EVALUATION RESULTS =====
+
+    public byte[] encodeEvaluationResults(List<EvaluationResult> results) {
+        BinaryPayloadWriter writer = header(TYPE_EVALUATION_RESULTS, 16 + results.size() * 24);
+        writeEvaluationResults(writer, results);
+        return writer.toByteArray();
+    }
+
+    public List<EvaluationResult> decodeEvaluationResults(byte[] payload) {
+        return readEvaluationResults(open(payload, TYPE_EVALUATION_RESULTS));
+    }
+
+    void writeEvaluationResults(BinaryPayloadWriter writer, List<EvaluationResult> results) {
+        writer.writeVarInt(results.size());
+        for (EvaluationResult result : results) {
+            writer.writeVarLong(new Presence()
+                    .add(result.getCriteriaType()).add(result.getMessage())
+                    .flag(result.isPassed())
+                    .mask());
+            if (result.getCriteriaType() != null) CRITERIA_TYPES.write(writer, result.getCriteriaType());
+            writeValue(writer, result.getExpectedValue());
+            writeValue(writer, result.getActualValue());
+            if (result.getMessage() != null) EVALUATION_STRINGS.write(writer, result.getMessage());
+        }
+    }
+
+    List<EvaluationResult> readEvaluationResults(BinaryPayloadReader reader) {
+        int count = reader.readVarInt();
+        List<EvaluationResult> results = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            long mask = reader.readVarLong();
+            EvaluationResult.EvaluationResultBuilder builder = EvaluationResult.builder();
+            if (has(mask, 0)) builder.criteriaType(CRITERIA_TYPES.read(reader));
+            builder.expectedValue(readValue(reader));
+            builder.actualValue(readValue(reader));
+            if (has(mask, 1)) builder.message(EVALUATION_STRINGS.read(reader));
+            builder.passed(has(mask, 2));
+            results.add(builder.build());
+        }
+        return results;
+    }
+
+    // ===== ELIGIBILITY =====
+
+    public byte[] encodeEligibility(EligibilitySnapshot snapshot) {
+        List<EvaluationResult> results = snapshot.getResults() != null ? snapshot.getResults() : List.of();
+        BinaryPayloadWriter writer = header(TYPE_ELIGIBILITY, 64 + results.size() * 24);
+        writer.writeVarLong(snapshot.getRuleSetVersion());
+        TierUpgradeRuleDefinition rule = snapshot.getBestRule();
+        writer.writeByte(rule != null ? 1 : 0);
+        if (rule != null) {
+            writeRule(writer, rule);
+        }
+        writeEvaluationResults(writer, results);
+        return writer.toByteArray();
+    }
+
+    public EligibilitySnapshot decodeEligibility(byte[] payload) {
+        BinaryPayloadReader reader = open(payload, TYPE_ELIGIBILITY);
+        EligibilitySnapshot snapshot = new EligibilitySnapshot();
+        snapshot.setRuleSetVersion(reader.readVarLong());
+        if (reader.readByte() == 1) {
+            snapshot.setBestRule(readRule(reader));
+        }
+        snapshot.setResults(readEvaluationResults(reader));
+        return snapshot;
+    }
+
+    private void writeRule(BinaryPayloadWriter writer, TierUpgradeRuleDefinition rule) {
+        writer.writeVarLong(new Presence()
+                .add(rule.getId()).add(rule.getRuleName()).add(rule.getRuleDescription())
+                .add(rule.getSourceTierId()).add(rule.getTargetTierId()).add(rule.getCriteria())
+                .flag(rule.isAutoUpgrade()).flag(rule.isActive())
+                .mask());
+        if (rule.getId() != null) writer.writeVarLong(rule.getId());
+        if (rule.getRuleName() != null) writer.writeString(rule.getRuleName());
+        if (rule.getRuleDescription() != null) writer.writeString(rule.getRuleDescription());
+        if (rule.getSourceTierId() != null) writer.writeVarLong(rule.getSourceTierId());
+        if (rule.getTargetTierId() != null) writer.writeVarLong(rule.getTargetTierId());
+        if (rule.getCriteria() != null) {
+            writer.writeVarInt(rule.getCriteria().size());
+            for (CriteriaDefinition criteria : rule.getCriteria()) {
+                writer.writeVarLong(new Presence()
+                        .add(criteria.getCriteriaType()).add(criteria.getLogicalCondition())
+                        .mask());
+                if (criteria.getCriteriaType() != null) CRITERIA_TYPES.write(writer, criteria.getCriteriaType());
+                writeValue(writer, criteria.getValue());
+                if (criteria.getLogicalCondition() != null) LOGICAL_CONDITIONS.write(writer, criteria.getLogicalCondition());
+            }
+        }
+    }
+
+    private TierUpgradeRuleDefinition readRule(BinaryPayloadReader reader) {
+        long mask = reader.readVarLong();
+        TierUpgradeRuleDefinition.TierUpgradeRuleDefinitionBuilder builder = TierUpgradeRuleDefinition.builder();
+        if (has(mask, 0)) builder.id(reader.readVarLong());
+        if (has(mask, 1)) builder.ruleName(reader.readString());
+        if (has(mask, 2)) builder.ruleDescription(reader.readString());
+        if (has(mask, 3)) builder.sourceTierId(reader.readVarLong());
+        if (has(mask, 4)) builder.targetTierId(reader.readVarLong());
+        if (has(mask, 5)) {
+            int count = reader.readVarInt();
+            List<CriteriaDefinition> criteria = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long criteriaMask = reader.readVarLong();
+                CriteriaDefinition.CriteriaDefinitionBuilder criteriaBuilder = CriteriaDefinition.builder();
+                if (has(criteriaMask, 0)) criteriaBuilder.criteriaType(CRITERIA_TYPES.read(reader));
+                criteriaBuilder.value(readValue(reader));
+                if (has(criteriaMask, 1)) criteriaBuilder.logicalCondition(LOGICAL_CONDITIONS.read(reader));
+                criteria.add(criteriaBuilder.build());
+            }
+            builder.criteria(criteria);
+        }
+        builder.autoUpgrade(has(mask, 6));
+        builder.active(has(mask, 7));
+        return builder.build();
+    }
+
+    /**
+     * Criteria thresholds and actual values are untyped; keep their Java type with a tag byte
+     */
+    private void writeValue(BinaryPayloadWriter writer, Object value) {
+        if (value == null) {
+            writer.writeByte(VALUE_NULL);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            writer.writeByte(VALUE_INT);
+            writer.writeSignedVarLong(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            writer.writeByte(VALUE_LONG);
+            writer.writeSignedVarLong((Long) value);
+        } else if (value instanceof BigDecimal) {
+            writer.writeByte(VALUE_DECIMAL);
+            writer.writeDecimal((BigDecimal) value);
+        } else if (value instanceof String) {
+            writer.writeByte(VALUE_STRING);
+            EVALUATION_STRINGS.write(writer, (String) value);
+        } else if (value instanceof Boolean) {
+            writer.writeByte((Boolean) value ? VALUE_TRUE : VALUE_FALSE);
+        } else if (value instanceof Double || value instanceof Float) {
+            writer.writeByte(VALUE_DOUBLE);
+            long bits = Double.doubleToLongBits(((Number) value).doubleValue());
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                writer.writeByte((int) (bits >>> shift));
+            }
+        } else if (value instanceof RollingWindowThreshold threshold) {
+            writer.writeByte(VALUE_ROLLING_WINDOW);
+            writer.writeSignedVarLong(threshold.days());
+            writeValue(writer, threshold.minimum());
+        } else {
+            throw new CachePayloadException("Unsupported evaluation value type: " + value.getClass().getName());
+        }
+    }
+
+    private Object readValue(BinaryPayloadReader reader) {
+        int tag = reader.readByte();
+        switch (tag) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_INT:
+                return (int) reader.readSignedVarLong();
+            case VALUE_LONG:
+                return reader.readSignedVarLong();
+            case VALUE_DECIMAL:
+                return reader.readDecimal();
+            case VALUE_STRING:
+                return EVALUATION_STRINGS.read(reader);
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_DOUBLE:
+                long bits = 0;
+                for (int i = 0; i < 8; i++) {
+                    bits = (bits << 8) | reader.readByte();
+                }
+                return Double.longBitsToDouble(bits);
+            case VALUE_ROLLING_WINDOW:
+                int days = (int) reader.readSignedVarLong();
+                Object minimum = readValue(reader);
+                if (minimum != null && !(minimum instanceof BigDecimal)) {
+                    throw new CachePayloadException("Unexpected rolling window minimum " + minimum.getClass().getName());
+                }
+                return new RollingWindowThreshold(days, (BigDecimal) minimum);
+            default:
+                throw new CachePayloadException("Unknown evaluation value tag " + tag);
+        }
+    }
+
+    // ===== FRAMING =====
+
+    BinaryPayloadWriter header(int payloadType, int sizeHint) {
+        BinaryPayloadWriter writer = new BinaryPayloadWriter(sizeHint);
+        writer.writeByte(SCHEMA_VERSION);
+        writer.writeByte(payloadType);
+        return writer;
+    }
+
+    BinaryPayloadReader open(byte[] payload, int expectedType) {
+        if (payload == null || payload.length < 2) {
+            throw new CachePayloadException("Empty cache payload");
+        }
+        BinaryPayloadReader reader = new BinaryPayloadReader(payload);
+        int version = reader.readByte();
+        if (version != SCHEMA_VERSION) {
+            throw new CachePayloadException("Unsupported cache schema version " + version);
+        }
+        int type = reader.readByte();
+        if (type != expectedType) {
+            throw new CachePayloadException("Unexpected cache payload type " + type + ", expected " + expectedType);
+        }
+        return reader;
+    }
+
+    static boolean has(long mask, int bit) {
+        return (mask & (1L << bit)) != 0;
+    }
+
+    /**
+     * Accumulates one bit per field: set when the field is non-null (or, for flags, true)
+     */
+    static final class Presence {
+        private long mask;
+        private int bit;
+
+        Presence add(Object value) {
+            return flag(value != null);
+        }
+
+        Presence flag(boolean value) {
+            if (value) {
+                mask |= 1L << bit;
+            }
+            bit++;
+            return this;
+        }
+
+        long mask() {
+            return mask;
+        }
+    }
+}
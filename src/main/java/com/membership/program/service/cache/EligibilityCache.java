@@ -0,0 +1,229 @@
+package com.membership.program.service.cache;
+
+import com.membership.program.dto.evaluation.EligibilitySnapshot;
+import com.membership.program.event.OrderStatusChangedEvent;
+import com.membership.program.event.OrdersIngestedEvent;
+import com.membership.program.event.TierUpgradeRulesChangedEvent;
+import com.membership.program.event.UserCohortChangedEvent;
+import com.membership.program.event.UserTierChangedEvent;
+import com.membership.program.exception.CachePayloadException;
+import com.membership.program.service.event.DomainEventSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.LongFunction;
+
+/**
+ * Redis cache of per-user tier upgrade eligibility (best rule plus per-criterion results).
+ *
+ * Entries are stamped with the rule-set version that was current when they were computed.
+ * The version and the user's entry are read together with a single MGET, and an entry with
+ * an older version is ignored, so bumping the version invalidates every user at once.
+ * Entries are evicted, a batch of events at a time, when one of the user's orders completes or
+ * is cancelled, completed orders are bulk-ingested for the user, or the user's tier or cohort
+ * changes (events from the {@code DomainEventBus}). A TTL bounds staleness from any missed event.
+ *
+ * An eviction also bumps the user's generation counter. A miss reads the generation together
+ * with the entry and stores the computed snapshot only if the generation is unchanged
+ * (compare-and-set in a Lua script). An eviction that lands while the snapshot is being computed
+ * is therefore not overwritten with the stale result.
+ *
+ * Redis or codec failures are logged and fall through to a fresh evaluation.
+ */
+@Component
+@Slf4j
+public class EligibilityCache implements DomainEventSubscriber {
+
+    private static final String VERSION_KEY = "eligibility:rule-set-version";
+    private static final String ENTRY_KEY_PREFIX = "eligibility:user:";
+    private static final String GENERATION_KEY_PREFIX = "eligibility:generation:";
+
+    private static final RedisScript<Long> SET_IF_GENERATION = new DefaultRedisScript<>(
+            "if (redis.call('GET', KEYS[2]) or '') == ARGV[1] then "
+                    + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) "
+                    + "return 1 "
+                    + "end "
+                    + "return 0", Long.class);
+
+    // KEYS are (entry, generation) pairs
+    private static final RedisScript<Long> EVICT = new DefaultRedisScript<>(
+            "for i = 1, #KEYS, 2 do "
+                    + "redis.call('DEL', KEYS[i]) "
+                    + "redis.call('INCR', KEYS[i + 1]) "
+                    + "redis.call('PEXPIRE', KEYS[i + 1], ARGV[1]) "
+                    + "end "
+                    + "return #KEYS / 2", Long.class);
+
+    private final RedisTemplate<String, byte[]> redisTemplate;
+    private final CachePayloadCodec codec;
+    private final boolean enabled;
+    private final Duration ttl;
+    // Only touched by the event bus consumer thread
+    private final Set<Long> pendingEvictions = new HashSet<>();
+
+    public EligibilityCache(RedisTemplate<String, byte[]> binaryRedisTemplate,
+                            CachePayloadCodec codec,
+                            @Value("${membership.cache.eligibility.enabled:true}") boolean enabled,
+                            @Value("${membership.cache.eligibility.ttl-seconds:600}") long ttlSeconds) {
+        this.redisTemplate = binaryRedisTemplate;
+        this.codec = codec;
+        this.enabled = enabled;
+        this.ttl = Duration.ofSeconds(ttlSeconds);
+    }
+
+    /**
+     * Return the cached snapshot for the user, or compute it with {@code loader} (which receives
+     * the current rule-set version) and store it
+     */
+    public EligibilitySnapshot get(Long userId, LongFunction<EligibilitySnapshot> loader) {
+        if (!enabled) {
+            return loader.apply(0L);
+        }
+
+        String entryKey = entryKey(userId);
+        long ruleSetVersion = 0L;
+        byte[] generation = null;
+        boolean generationRead = false;
+        try {
+            List<byte[]> values = redisTemplate.opsForValue().multiGet(List.of(VERSION_KEY, entryKey, generationKey(userId)));
+            if (values != null && values.size() == 3) {
+                ruleSetVersion = parseVersion(values.get(0));
+                generation = values.get(2);
+                generationRead = true;
+                byte[] payload = values.get(1);
+                if (payload != null) {
+                    EligibilitySnapshot cached = codec.decodeEligibility(payload);
+                    if (cached.getRuleSetVersion() == ruleSetVersion) {
+                        log.debug("Eligibility cache hit for user {}", userId);
+                        return cached;
+                    }
+                }
+            }
+        } catch (DataAccessException | CachePayloadException | NumberFormatException e) {
+            log.warn("Eligibility cache read failed for user {}: {}", userId, e.getMessage());
+        }
+
+        EligibilitySnapshot snapshot = loader.apply(ruleSetVersion);
+        if (!generationRead) {
+            // Without the generation the write could overwrite a concurrent eviction
+            return snapshot;
+        }
+        try {
+            Long stored = redisTemplate.execute(SET_IF_GENERATION, List.of(entryKey, generationKey(userId)),
+                    generation != null ? generation : new byte[0],
+                    codec.encodeEligibility(snapshot),
+                    ascii(ttl.toMillis()));
+            if (stored == null || stored == 0L) {
+                log.debug("Eligibility of user {} changed while it was computed, not caching it", userId);
+            }
+        } catch (DataAccessException | CachePayloadException e) {
+            log.warn("Eligibility cache write failed for user {}: {}", userId, e.getMessage());
+        }
+        return snapshot;
+    }
+
+    public void evict(Long userId) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            redisTemplate.execute(EVICT, List.of(entryKey(userId), generationKey(userId)), ascii(ttl.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Eligibility cache eviction failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * Invalidate every cached entry by moving to a new rule-set version
+     */
+    public void invalidateAll() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            Long version = redisTemplate.opsForValue().increment(VERSION_KEY);
+            log.info("Tier upgrade rule set changed, eligibility cache moved to version {}", version);
+        } catch (DataAccessException e) {
+            log.warn("Eligibility cache version bump failed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public String subscriberName() {
+        return "eligibility-cache";
+    }
+
+    /**
+     * Evictions are collected over a batch of events and sent as one script call
+     */
+    @Override
+    public void onEvent(Object event, boolean endOfBatch) {
+        if (event instanceof OrderStatusChangedEvent orderStatusChanged) {
+            if (orderStatusChanged.affectsOrderMetrics() || orderStatusChanged.isCancellation()) {
+                pendingEvictions.add(orderStatusChanged.userId());
+            }
+        } else if (event instanceof OrdersIngestedEvent ordersIngested) {
+            pendingEvictions.addAll(ordersIngested.completedOrderUserIds());
+        } else if (event instanceof UserTierChangedEvent tierChanged) {
+            pendingEvictions.add(tierChanged.userId());
+        } else if (event instanceof UserCohortChangedEvent cohortChanged) {
+            pendingEvictions.add(cohortChanged.userId());
+        } else if (event instanceof TierUpgradeRulesChangedEvent rulesChanged) {
+            onTierUpgradeRulesChanged(rulesChanged);
+        }
+        if (endOfBatch && !pendingEvictions.isEmpty()) {
+            evictAll(pendingEvictions);
+            pendingEvictions.clear();
+        }
+    }
+
+    public void onTierUpgradeRulesChanged(TierUpgradeRulesChangedEvent event) {
+        invalidateAll();
+    }
+
+    private void evictAll(Set<Long> userIds) {
+        if (!enabled) {
+            return;
+        }
+        List<String> keys = new ArrayList<>(userIds.size() * 2);
+        for (Long userId : userIds) {
+            keys.add(entryKey(userId));
+            keys.add(generationKey(userId));
+        }
+        try {
+            redisTemplate.execute(EVICT, keys, ascii(ttl.toMillis()));
+        } catch (DataAccessException e) {
+            log.warn("Eligibility cache eviction failed for {} users: {}", userIds.size(), e.getMessage());
+        }
+    }
+
+    private static String entryKey(Long userId) {
+        return ENTRY_KEY_PREFIX + userId;
+    }
+
+    private static String generationKey(Long userId) {
+        return GENERATION_KEY_PREFIX + userId;
+    }
+
+    private static byte[] ascii(long value) {
+        return Long.toString(value).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static long parseVersion(byte[] raw) {
+        if (raw == null) {
+            return 0L;
+        }
+        return Long.parseLong(new String(raw, StandardCharsets.US_ASCII));
+    }
+}
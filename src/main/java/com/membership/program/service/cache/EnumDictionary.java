@@ -0,0 +1,45 @@
+package com.membership.program.service.cache;
+
+import com.membership.program.exception.CachePayloadException;
+
+import java.util.EnumMap;
+
+/**
+ * Stable enum-to-code table for the cache codec.
+ * Codes are positions in the constructor arguments rather than {@code ordinal()},
+ * so reordering an enum never changes what is stored in Redis. New constants must be
+ * appended; construction fails fast if a constant of the enum has no code.
+ */
+final class EnumDictionary<E extends Enum<E>> {
+
+    private final Class<E> type;
+    private final Object[] byCode;
+    private final EnumMap<E, Integer> codes;
+
+    @SafeVarargs
+    EnumDictionary(Class<E> type, E... entries) {
+        this.type = type;
+        this.byCode = entries.clone();
+        this.codes = new EnumMap<>(type);
+        for (int i = 0; i < entries.length; i++) {
+            codes.put(entries[i], i);
+        }
+        for (E constant : type.getEnumConstants()) {
+            if (!codes.containsKey(constant)) {
+                throw new IllegalStateException("Cache dictionary for " + type.getSimpleName()
+                        + " is missing a code for " + constant);
+            }
+        }
+    }
+
+    int encode(E value) {
+        return codes.get(value);
+    }
+
+    E decode(int code) {
+        if (code < 0 || code >= byCode.length) {
+            throw new CachePayloadException("Unknown " + type.getSimpleName() + " code " + code);
+        }
+        return type.cast(byCode[code]);
+    }
+}
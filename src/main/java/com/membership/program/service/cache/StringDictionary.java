@@ -0,0 +1,46 @@
+package com.membership.program.service.cache;
+
+import com.membership.program.exception.CachePayloadException;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Table of strings that repeat across almost every payload (role names, criteria types,
+ * evaluation messages). A known string is written as its 1-based code; anything else is
+ * written as code 0 followed by the literal. Entries are append-only.
+ */
+final class StringDictionary {
+
+    private final String[] byCode;
+    private final Map<String, Integer> codes;
+
+    StringDictionary(String... entries) {
+        this.byCode = entries.clone();
+        this.codes = new HashMap<>();
+        for (int i = 0; i < entries.length; i++) {
+            codes.put(entries[i], i + 1);
+        }
+    }
+
+    void write(BinaryPayloadWriter writer, String value) {
+        Integer code = codes.get(value);
+        if (code != null) {
+            writer.writeVarInt(code);
+        } else {
+            writer.writeVarInt(0);
+            writer.writeString(value);
+        }
+    }
+
+    String read(BinaryPayloadReader reader) {
+        int code = reader.readVarInt();
+        if (code == 0) {
+            return reader.readString();
+        }
+        if (code > byCode.length) {
+            throw new CachePayloadException("Unknown dictionary string code " + code);
+        }
+        return byCode[code - 1];
+    }
+}
@@ -0,0 +1,75 @@
+package com.membership.program.service.cluster;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Live node list kept in a Redis sorted set scored by each node's last heartbeat.
+ * A node that stops heartbeating drops out of {@link #liveNodes()} after {@code node-ttl-ms}.
+ */
+@Component
+@Slf4j
+public class ClusterMembership {
+
+    private static final String NODES_KEY = "cluster:nodes";
+
+    private final StringRedisTemplate redisTemplate;
+    private final ClusterNode clusterNode;
+    private final long nodeTtlMillis;
+
+    public ClusterMembership(StringRedisTemplate redisTemplate,
+                             ClusterNode clusterNode,
+                             @Value("${membership.cluster.node-ttl-ms:15000}") long nodeTtlMillis) {
+        this.redisTemplate = redisTemplate;
+        this.clusterNode = clusterNode;
+        this.nodeTtlMillis = nodeTtlMillis;
+    }
+
+    @Scheduled(fixedRateString = "${membership.cluster.heartbeat-ms:5000}")
+    public void heartbeat() {
+        try {
+            long now = System.currentTimeMillis();
+            redisTemplate.opsForZSet().add(NODES_KEY, clusterNode.getNodeId(), now);
+            redisTemplate.opsForZSet().removeRangeByScore(NODES_KEY, 0, now - nodeTtlMillis);
+        } catch (DataAccessException e) {
+            log.warn("Cluster heartbeat failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Nodes that have heartbeated within the TTL, always including this node
+     *
+     * @throws DataAccessException if Redis is unreachable
+     */
+    public List<String> liveNodes() {
+        Set<String> nodes = redisTemplate.opsForZSet().rangeByScore(
+                NODES_KEY, System.currentTimeMillis() - nodeTtlMillis, Double.POSITIVE_INFINITY);
+        List<String> live = new ArrayList<>(nodes != null ? nodes : Set.of());
+        if (!live.contains(clusterNode.getNodeId())) {
+            live.add(clusterNode.getNodeId());
+        }
+        return live;
+    }
+
+    public String getNodeId() {
+        return clusterNode.getNodeId();
+    }
+
+    @PreDestroy
+    public void leave() {
+        try {
+            redisTemplate.opsForZSet().remove(NODES_KEY, clusterNode.getNodeId());
+        } catch (DataAccessException e) {
+            log.warn("Could not remove node {} from the cluster list: {}", clusterNode.getNodeId(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.membership.program.service.cluster;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Identity of this application instance within the cluster
+ */
+@Component
+@Slf4j
+@Getter
+public class ClusterNode {
+
+    private final String nodeId;
+
+    public ClusterNode(@Value("${membership.cluster.node-id:}") String configuredNodeId) {
+        // Random suffix keeps ids unique when a restarted pod reuses its hostname before its old lease expires
+        String base = configuredNodeId == null || configuredNodeId.isBlank() ? "node" : configuredNodeId;
+        this.nodeId = base + "-" + UUID.randomUUID().toString().substring(0, 8);
+        log.info("Cluster node id: {}", nodeId);
+    }
+}
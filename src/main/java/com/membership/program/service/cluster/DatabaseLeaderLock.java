@@ -0,0 +1,68 @@
+package com.membership.program.service.cluster;
+
+import com.membership.program.entity.SchedulerLock;
+import com.membership.program.repository.SchedulerLockRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Leader lock on the {@code scheduler_locks} table. Each operation runs in its own transaction
+ * with the lock row held FOR UPDATE. Lease expiry uses the application clock, so leases should
+ * be much longer than the expected clock skew between nodes.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional(propagation = Propagation.REQUIRES_NEW)
+public class DatabaseLeaderLock implements LeaderLock {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+
+    @Override
+    public Optional<LeaderLease> tryAcquire(String name, String owner, Duration leaseTime) {
+        LocalDateTime now = LocalDateTime.now();
+        SchedulerLock lock = schedulerLockRepository.findByNameForUpdate(name).orElse(null);
+        if (lock == null) {
+            // A concurrent first insert fails on the primary key at commit
+            lock = SchedulerLock.builder().name(name).fencingToken(0L).build();
+        } else if (lock.getLockedUntil().isAfter(now)) {
+            return Optional.empty();
+        }
+
+        lock.setOwner(owner);
+        lock.setFencingToken(lock.getFencingToken() + 1);
+        lock.setLockedUntil(now.plus(leaseTime));
+        schedulerLockRepository.saveAndFlush(lock);
+        return Optional.of(new LeaderLease(name, owner, lock.getFencingToken(), Instant.now(), true));
+    }
+
+    @Override
+    public boolean renew(LeaderLease lease, Duration leaseTime) {
+        LocalDateTime now = LocalDateTime.now();
+        return schedulerLockRepository.findByNameForUpdate(lease.getName())
+                .filter(lock -> isHeldBy(lock, lease) && lock.getLockedUntil().isAfter(now))
+                .map(lock -> {
+                    lock.setLockedUntil(now.plus(leaseTime));
+                    return true;
+                })
+                .orElse(false);
+    }
+
+    @Override
+    public void release(LeaderLease lease, Duration remainingHold) {
+        schedulerLockRepository.findByNameForUpdate(lease.getName())
+                .filter(lock -> isHeldBy(lock, lease))
+                .ifPresent(lock -> lock.setLockedUntil(LocalDateTime.now().plus(
+                        remainingHold.isNegative() ? Duration.ZERO : remainingHold)));
+    }
+
+    private static boolean isHeldBy(SchedulerLock lock, LeaderLease lease) {
+        return lock.getOwner().equals(lease.getOwner()) && lock.getFencingToken() == lease.getFencingToken();
+    }
+}
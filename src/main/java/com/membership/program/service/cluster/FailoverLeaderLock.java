@@ -0,0 +1,55 @@
+package com.membership.program.service.cluster;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Leader lock that uses Redis and falls back to the database while Redis is unreachable.
+ * A lease is always renewed and released on the store it was acquired from.
+ *
+ * The two stores are independent, so a node that can reach only the database could overlap with
+ * one that can reach only Redis. Scheduled work therefore stays idempotent per item (row locks and
+ * re-checks) and the lock only prevents the common case of every node doing the same work.
+ */
+@Component
+@Primary
+@Slf4j
+public class FailoverLeaderLock implements LeaderLock {
+
+    private final RedisLeaderLock redisLeaderLock;
+    private final DatabaseLeaderLock databaseLeaderLock;
+
+    public FailoverLeaderLock(RedisLeaderLock redisLeaderLock, DatabaseLeaderLock databaseLeaderLock) {
+        this.redisLeaderLock = redisLeaderLock;
+        this.databaseLeaderLock = databaseLeaderLock;
+    }
+
+    @Override
+    public Optional<LeaderLease> tryAcquire(String name, String owner, Duration leaseTime) {
+        try {
+            return redisLeaderLock.tryAcquire(name, owner, leaseTime);
+        } catch (DataAccessException e) {
+            log.warn("Redis leader lock unavailable for {}, falling back to database: {}", name, e.getMessage());
+            return databaseLeaderLock.tryAcquire(name, owner, leaseTime);
+        }
+    }
+
+    @Override
+    public boolean renew(LeaderLease lease, Duration leaseTime) {
+        return delegate(lease).renew(lease, leaseTime);
+    }
+
+    @Override
+    public void release(LeaderLease lease, Duration remainingHold) {
+        delegate(lease).release(lease, remainingHold);
+    }
+
+    private LeaderLock delegate(LeaderLease lease) {
+        return lease.isFallback() ? databaseLeaderLock : redisLeaderLock;
+    }
+}
@@ -0,0 +1,179 @@
+package com.membership.program.service.cluster;
+
+import com.membership.program.dto.enums.JobRunStatus;
+import com.membership.program.dto.response.JobRunShardResponseDTO;
+import com.membership.program.dto.response.JobRunSummaryResponseDTO;
+import com.membership.program.entity.JobRun;
+import com.membership.program.repository.JobRunRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Reads and writes the {@code job_run} ledger. Writes are fenced by the owner and fencing token of
+ * the shard's lease, so a node that lost its claim cannot overwrite the new owner's progress.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class JobRunLedger {
+
+    private final JobRunRepository jobRunRepository;
+
+    /**
+     * Take over the ledger entry for a shard, creating it on first use
+     *
+     * @return the entry with its last checkpoint, or empty if the shard already completed
+     */
+    public Optional<JobRun> start(String jobName, String runKey, int shard, int shardCount, LeaderLease lease) {
+        LocalDateTime now = LocalDateTime.now();
+        JobRun run = jobRunRepository.findForUpdate(runKey, shard).orElse(null);
+        if (run == null) {
+            run = JobRun.builder()
+                    .jobName(jobName)
+                    .runKey(runKey)
+                    .shard(shard)
+                    .shardCount(shardCount)
+                    .startedAt(now)
+                    .build();
+        } else if (run.getStatus() == JobRunStatus.COMPLETED) {
+            return Optional.empty();
+        } else {
+            log.info("Resuming {} shard {} from phase {} after id {}", runKey, shard, run.getPhase(), run.getCursor());
+        }
+
+        run.setStatus(JobRunStatus.RUNNING);
+        run.setOwner(lease.getOwner());
+        run.setFencingToken(lease.getFencingToken());
+        run.setUpdatedAt(now);
+        return Optional.of(jobRunRepository.saveAndFlush(run));
+    }
+
+    /**
+     * Add a chunk's counters and move the cursor
+     *
+     * @return false if another node has taken over the shard
+     */
+    public boolean checkpoint(JobRun run, String phase, Long cursor, long processed, long upgraded, long failed) {
+        return jobRunRepository.checkpoint(run.getId(), run.getOwner(), run.getFencingToken(), JobRunStatus.RUNNING,
+                phase, cursor, processed, upgraded, failed, LocalDateTime.now()) == 1;
+    }
+
+    public boolean complete(JobRun run) {
+        JobRun current = jobRunRepository.findForUpdate(run.getRunKey(), run.getShard()).orElse(null);
+        if (current == null || !Objects.equals(current.getOwner(), run.getOwner())
+                || current.getFencingToken() != run.getFencingToken()) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        current.setStatus(JobRunStatus.COMPLETED);
+        current.setUpdatedAt(now);
+        current.setFinishedAt(now);
+        return true;
+    }
+
+    @Transactional(readOnly = true)
+    public Set<Integer> findCompletedShards(String runKey) {
+        return new HashSet<>(jobRunRepository.findShardsByRunKeyAndStatus(runKey, JobRunStatus.COMPLETED));
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> findInterruptedRunKeys(String jobName, Duration lookback, Duration staleAfter) {
+        LocalDateTime now = LocalDateTime.now();
+        return jobRunRepository.findInterruptedRunKeys(jobName, JobRunStatus.COMPLETED,
+                now.minus(lookback), now.minus(staleAfter));
+    }
+
+    /**
+     * Most recent runs, newest first, with totals and throughput across shards
+     */
+    @Transactional(readOnly = true)
+    public List<JobRunSummaryResponseDTO> getRecentRuns(String jobName, int limit, boolean includeShards) {
+        PageRequest page = PageRequest.of(0, limit);
+        List<String> runKeys = jobName == null
+                ? jobRunRepository.findRecentRunKeys(page)
+                : jobRunRepository.findRecentRunKeysByJobName(jobName, page);
+        if (runKeys.isEmpty()) {
+            return List.of();
+        }
+
+        Map<String, List<JobRun>> shardsByRun = new LinkedHashMap<>();
+        runKeys.forEach(runKey -> shardsByRun.put(runKey, new ArrayList<>()));
+        jobRunRepository.findByRunKeyInOrderByShardAsc(runKeys)
+                .forEach(run -> shardsByRun.get(run.getRunKey()).add(run));
+
+        List<JobRunSummaryResponseDTO> summaries = new ArrayList<>(runKeys.size());
+        shardsByRun.forEach((runKey, shards) -> summaries.add(summarize(runKey, shards, includeShards)));
+        return summaries;
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<JobRunSummaryResponseDTO> getRun(String runKey, boolean includeShards) {
+        List<JobRun> shards = jobRunRepository.findByRunKeyInOrderByShardAsc(List.of(runKey));
+        return shards.isEmpty() ? Optional.empty() : Optional.of(summarize(runKey, shards, includeShards));
+    }
+
+    private JobRunSummaryResponseDTO summarize(String runKey, List<JobRun> shards, boolean includeShards) {
+        JobRun first = shards.get(0);
+        int shardCount = first.getShardCount();
+        int completedShards = (int) shards.stream().filter(run -> run.getStatus() == JobRunStatus.COMPLETED).count();
+        boolean completed = completedShards >= shardCount;
+        LocalDateTime startedAt = shards.stream().map(JobRun::getStartedAt).min(Comparator.naturalOrder()).orElse(null);
+        LocalDateTime lastUpdatedAt = shards.stream().map(JobRun::getUpdatedAt).max(Comparator.naturalOrder()).orElse(null);
+        LocalDateTime finishedAt = completed
+                ? shards.stream().map(JobRun::getFinishedAt).filter(Objects::nonNull).max(Comparator.naturalOrder()).orElse(null)
+                : null;
+        long processed = shards.stream().mapToLong(JobRun::getProcessedCount).sum();
+
+        LocalDateTime end = finishedAt != null ? finishedAt : lastUpdatedAt;
+        double elapsedSeconds = startedAt != null && end != null ? Duration.between(startedAt, end).toMillis() / 1000.0 : 0;
+
+        return JobRunSummaryResponseDTO.builder()
+                .jobName(first.getJobName())
+                .runKey(runKey)
+                .shardCount(shardCount)
+                .completedShards(completedShards)
+                .runningShards(shards.size() - completedShards)
+                .completed(completed)
+                .startedAt(startedAt)
+                .lastUpdatedAt(lastUpdatedAt)
+                .finishedAt(finishedAt)
+                .processedCount(processed)
+                .upgradedCount(shards.stream().mapToLong(JobRun::getUpgradedCount).sum())
+                .failedCount(shards.stream().mapToLong(JobRun::getFailedCount).sum())
+                .processedPerSecond(elapsedSeconds > 0 ? processed / elapsedSeconds : 0)
+                .shards(includeShards ? shards.stream().map(JobRunLedger::toShardResponse).toList() : null)
+                .build();
+    }
+
+    private static JobRunShardResponseDTO toShardResponse(JobRun run) {
+        return JobRunShardResponseDTO.builder()
+                .shard(run.getShard())
+                .status(run.getStatus())
+                .owner(run.getOwner())
+                .phase(run.getPhase())
+                .cursor(run.getCursor())
+                .processedCount(run.getProcessedCount())
+                .upgradedCount(run.getUpgradedCount())
+                .failedCount(run.getFailedCount())
+                .startedAt(run.getStartedAt())
+                .updatedAt(run.getUpdatedAt())
+                .finishedAt(run.getFinishedAt())
+                .build();
+    }
+}
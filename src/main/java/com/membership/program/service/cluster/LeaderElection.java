@@ -0,0 +1,119 @@
+package com.membership.program.service.cluster;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs a scheduled job on exactly one node per cycle.
+ *
+ * The node that takes the job's leader lock runs it while a background thread renews the lease
+ * every third of its length; a node that dies stops renewing and the lock frees up within one
+ * lease. If renewal fails the lease is marked lost and the job is expected to stop at its next
+ * checkpoint. On completion the lock is held for at least {@code min-hold}, so a node whose
+ * clock fires the same cron slightly later does not run the cycle a second time.
+ */
+@Component
+@Slf4j
+public class LeaderElection {
+
+    private final LeaderLock leaderLock;
+    private final ClusterNode clusterNode;
+    private final Duration leaseTime;
+    private final Duration minHold;
+    private final ScheduledExecutorService renewalExecutor;
+
+    public LeaderElection(LeaderLock leaderLock,
+                          ClusterNode clusterNode,
+                          @Value("${membership.cluster.leader.lease-ms:30000}") long leaseMillis,
+                          @Value("${membership.cluster.leader.min-hold-ms:60000}") long minHoldMillis) {
+        this.leaderLock = leaderLock;
+        this.clusterNode = clusterNode;
+        this.leaseTime = Duration.ofMillis(leaseMillis);
+        this.minHold = Duration.ofMillis(minHoldMillis);
+        this.renewalExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "leader-lease-renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Run {@code job} if this node wins the named lock
+     *
+     * @return true if the job ran on this node
+     */
+    public boolean runIfLeader(String jobName, Consumer<LeaderLease> job) {
+        Optional<LeaderLease> acquired;
+        try {
+            acquired = leaderLock.tryAcquire(jobName, clusterNode.getNodeId(), leaseTime);
+        } catch (Exception e) {
+            log.error("Could not acquire leader lock for {}: {}", jobName, e.getMessage());
+            return false;
+        }
+        if (acquired.isEmpty()) {
+            log.debug("Skipping {}: another node holds the leader lock", jobName);
+            return false;
+        }
+
+        LeaderLease lease = acquired.get();
+        log.debug("Node {} is leader for {} with fencing token {}", lease.getOwner(), jobName, lease.getFencingToken());
+        long renewEvery = Math.max(1, leaseTime.toMillis() / 3);
+        ScheduledFuture<?> renewal = renewalExecutor.scheduleAtFixedRate(
+                () -> renew(lease), renewEvery, renewEvery, TimeUnit.MILLISECONDS);
+        try {
+            job.accept(lease);
+        } finally {
+            renewal.cancel(false);
+            release(lease);
+        }
+        return true;
+    }
+
+    private void renew(LeaderLease lease) {
+        if (!lease.isValid()) {
+            return;
+        }
+        try {
+            if (leaderLock.renew(lease, leaseTime)) {
+                lease.markRenewed(Instant.now());
+            } else {
+                lease.markLost();
+                log.warn("Lost leader lock for {} (fencing token {})", lease.getName(), lease.getFencingToken());
+            }
+        } catch (Exception e) {
+            // Keep trying until the lease would have run out anyway
+            log.warn("Failed to renew leader lock for {}: {}", lease.getName(), e.getMessage());
+            if (Duration.between(lease.getRenewedAt(), Instant.now()).compareTo(leaseTime) >= 0) {
+                lease.markLost();
+            }
+        }
+    }
+
+    private void release(LeaderLease lease) {
+        if (!lease.isValid()) {
+            return;
+        }
+        try {
+            Duration heldFor = Duration.between(lease.getAcquiredAt(), Instant.now());
+            leaderLock.release(lease, minHold.minus(heldFor));
+        } catch (Exception e) {
+            log.warn("Failed to release leader lock for {}: {}", lease.getName(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        renewalExecutor.shutdownNow();
+    }
+}
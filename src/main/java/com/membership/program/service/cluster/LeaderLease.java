@@ -0,0 +1,45 @@
+package com.membership.program.service.cluster;
+
+import lombok.Getter;
+
+import java.time.Instant;
+
+/**
+ * A held leader lock. The fencing token increases every time the lock changes hands, so work
+ * stamped with an older token can be recognised as coming from a previous leader.
+ */
+@Getter
+public class LeaderLease {
+
+    private final String name;
+    private final String owner;
+    private final long fencingToken;
+    private final Instant acquiredAt;
+    private final boolean fallback;
+    private volatile Instant renewedAt;
+    private volatile boolean lost;
+
+    public LeaderLease(String name, String owner, long fencingToken, Instant acquiredAt, boolean fallback) {
+        this.name = name;
+        this.owner = owner;
+        this.fencingToken = fencingToken;
+        this.acquiredAt = acquiredAt;
+        this.fallback = fallback;
+        this.renewedAt = acquiredAt;
+    }
+
+    /**
+     * False once renewal has failed; long-running work should stop at the next checkpoint
+     */
+    public boolean isValid() {
+        return !lost;
+    }
+
+    void markRenewed(Instant at) {
+        this.renewedAt = at;
+    }
+
+    void markLost() {
+        this.lost = true;
+    }
+}
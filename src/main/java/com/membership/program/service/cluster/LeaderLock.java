@@ -0,0 +1,27 @@
+package com.membership.program.service.cluster;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Lease-based mutual exclusion between application instances
+ */
+public interface LeaderLock {
+
+    /**
+     * Take the named lock for {@code leaseTime} if no other owner currently holds it
+     */
+    Optional<LeaderLease> tryAcquire(String name, String owner, Duration leaseTime);
+
+    /**
+     * Extend a held lease
+     *
+     * @return false if the lease had already expired or was taken over
+     */
+    boolean renew(LeaderLease lease, Duration leaseTime);
+
+    /**
+     * Release a held lease; a positive {@code remainingHold} keeps the lock that much longer instead
+     */
+    void release(LeaderLease lease, Duration remainingHold);
+}
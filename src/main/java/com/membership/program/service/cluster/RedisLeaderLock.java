@@ -0,0 +1,86 @@
+package com.membership.program.service.cluster;
+
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Leader lock on the shared Redis connection. The lock key holds {@code owner:token}; acquiring,
+ * renewing and releasing are single Lua scripts so a node can only touch a lease it still owns.
+ */
+@Component
+public class RedisLeaderLock implements LeaderLock {
+
+    private static final String KEY_PREFIX = "leader:";
+    // Fencing counters only need to outlive any lease issued from them
+    private static final long FENCE_RETENTION_MILLIS = Duration.ofDays(7).toMillis();
+
+    private static final RedisScript<Long> ACQUIRE = new DefaultRedisScript<>(
+            "if redis.call('SET', KEYS[1], ARGV[1], 'NX', 'PX', ARGV[2]) then "
+                    + "local token = redis.call('INCR', KEYS[2]) "
+                    + "redis.call('PEXPIRE', KEYS[2], ARGV[3]) "
+                    + "redis.call('SET', KEYS[1], ARGV[1] .. ':' .. token, 'PX', ARGV[2]) "
+                    + "return token "
+                    + "end "
+                    + "return 0", Long.class);
+
+    private static final RedisScript<Long> RENEW = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+                    + "return redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "end "
+                    + "return 0", Long.class);
+
+    private static final RedisScript<Long> RELEASE = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+                    + "if tonumber(ARGV[2]) > 0 then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end "
+                    + "return redis.call('DEL', KEYS[1]) "
+                    + "end "
+                    + "return 0", Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+
+    public RedisLeaderLock(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Optional<LeaderLease> tryAcquire(String name, String owner, Duration leaseTime) {
+        Long token = redisTemplate.execute(ACQUIRE, List.of(lockKey(name), fenceKey(name)),
+                owner, String.valueOf(leaseTime.toMillis()), String.valueOf(FENCE_RETENTION_MILLIS));
+        if (token == null || token == 0L) {
+            return Optional.empty();
+        }
+        return Optional.of(new LeaderLease(name, owner, token, Instant.now(), false));
+    }
+
+    @Override
+    public boolean renew(LeaderLease lease, Duration leaseTime) {
+        Long renewed = redisTemplate.execute(RENEW, List.of(lockKey(lease.getName())),
+                lockValue(lease), String.valueOf(leaseTime.toMillis()));
+        return renewed != null && renewed == 1L;
+    }
+
+    @Override
+    public void release(LeaderLease lease, Duration remainingHold) {
+        redisTemplate.execute(RELEASE, List.of(lockKey(lease.getName())),
+                lockValue(lease), String.valueOf(Math.max(0, remainingHold.toMillis())));
+    }
+
+    private static String lockKey(String name) {
+        return KEY_PREFIX + name;
+    }
+
+    private static String fenceKey(String name) {
+        return KEY_PREFIX + name + ":fence";
+    }
+
+    private static String lockValue(LeaderLease lease) {
+        return lease.getOwner() + ":" + lease.getFencingToken();
+    }
+}
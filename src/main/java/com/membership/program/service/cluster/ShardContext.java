@@ -0,0 +1,72 @@
+package com.membership.program.service.cluster;
+
+import com.membership.program.entity.JobRun;
+
+/**
+ * One shard of a job run as seen by the task processing it: the shard coordinates, the last
+ * checkpoint recorded in the {@code job_run} ledger, and a way to record the next one.
+ */
+public class ShardContext {
+
+    private final JobRunLedger ledger;
+    private final JobRun run;
+    private final LeaderLease lease;
+
+    ShardContext(JobRunLedger ledger, JobRun run, LeaderLease lease) {
+        this.ledger = ledger;
+        this.run = run;
+        this.lease = lease;
+    }
+
+    public int getShard() {
+        return run.getShard();
+    }
+
+    public int getShardCount() {
+        return run.getShardCount();
+    }
+
+    public String getRunKey() {
+        return run.getRunKey();
+    }
+
+    /**
+     * Phase of the last checkpoint, or null if the shard has not checkpointed yet
+     */
+    public String getPhase() {
+        return run.getPhase();
+    }
+
+    /**
+     * Cursor to resume {@code phase} from: the last committed id if the shard was interrupted
+     * during that phase, otherwise null
+     */
+    public Long resumeCursor(String phase) {
+        return phase.equals(run.getPhase()) ? run.getCursor() : null;
+    }
+
+    /**
+     * False once this node no longer owns the shard; the task should return at its next checkpoint
+     */
+    public boolean isActive() {
+        return lease.isValid();
+    }
+
+    /**
+     * Record a committed chunk: the phase and last id processed, plus the counters for the chunk
+     *
+     * @return false if another node has taken over the shard, in which case the task should stop
+     */
+    public boolean checkpoint(String phase, Long cursor, long processed, long upgraded, long failed) {
+        if (!lease.isValid()) {
+            return false;
+        }
+        if (!ledger.checkpoint(run, phase, cursor, processed, upgraded, failed)) {
+            lease.markLost();
+            return false;
+        }
+        run.setPhase(phase);
+        run.setCursor(cursor);
+        return true;
+    }
+}
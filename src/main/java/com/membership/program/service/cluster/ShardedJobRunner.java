@@ -0,0 +1,238 @@
+package com.membership.program.service.cluster;
+
+import com.membership.program.entity.JobRun;
+import com.membership.program.utility.ConsistentHashRing;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Spreads one cycle of a scheduled job across every live node.
+ *
+ * The user-id space is split into a fixed number of shards ({@code userId % shardCount}) and each
+ * shard is assigned to a node by a consistent hash ring over {@link ClusterMembership#liveNodes()}.
+ * Every node runs the same cycle: it works through its own shards first, then helps with any shard
+ * still pending. A shard is claimed through {@link LeaderElection}, so it is processed by one node
+ * at a time. Progress is checkpointed in the {@code job_run} ledger ({@link JobRunLedger}) and a
+ * shard is pending until its ledger entry is completed. The ring is rebuilt before every shard,
+ * so shards move to nodes that join, and a shard whose node dies mid-run is taken over once its
+ * claim lease runs out and resumes from its last checkpoint.
+ *
+ * A cycle that no node finishes (e.g. every node restarted) is picked up again by
+ * {@link #resumeInterrupted}. If Redis is unavailable at the start of a cycle the job falls back
+ * to running all shards on the single node that wins the run's leader lock.
+ */
+@Component
+@Slf4j
+public class ShardedJobRunner {
+
+    private static final int VIRTUAL_NODES_PER_NODE = 64;
+
+    private final ClusterMembership clusterMembership;
+    private final LeaderElection leaderElection;
+    private final JobRunLedger jobRunLedger;
+    private final int shardCount;
+    private final long waitMillis;
+    private final Duration maxRunDuration;
+    private final Duration resumeWindow;
+    private final Duration staleAfter;
+
+    public ShardedJobRunner(ClusterMembership clusterMembership,
+                            LeaderElection leaderElection,
+                            JobRunLedger jobRunLedger,
+                            @Value("${membership.cluster.shards:64}") int shardCount,
+                            @Value("${membership.cluster.shard-wait-ms:5000}") long waitMillis,
+                            @Value("${membership.cluster.max-run-minutes:360}") long maxRunMinutes,
+                            @Value("${membership.jobs.resume-window-hours:24}") long resumeWindowHours,
+                            @Value("${membership.jobs.stale-after-ms:600000}") long staleAfterMillis) {
+        this.clusterMembership = clusterMembership;
+        this.leaderElection = leaderElection;
+        this.jobRunLedger = jobRunLedger;
+        this.shardCount = shardCount;
+        this.waitMillis = waitMillis;
+        this.maxRunDuration = Duration.ofMinutes(maxRunMinutes);
+        this.resumeWindow = Duration.ofHours(resumeWindowHours);
+        this.staleAfter = Duration.ofMillis(staleAfterMillis);
+    }
+
+    /**
+     * Work on one shard. Implementations should resume from the context's last checkpoint,
+     * checkpoint after every committed page, and return early once a checkpoint fails. An
+     * exception leaves the shard unfinished in the ledger, to be retried by {@link #resumeInterrupted}.
+     */
+    @FunctionalInterface
+    public interface ShardTask {
+        void process(ShardContext context);
+    }
+
+    /**
+     * Run this node's part of the current cycle of {@code jobName}. All nodes call this from the
+     * same cron trigger; the cycle is identified by the trigger time rounded to the minute.
+     */
+    public void run(String jobName, ShardTask task) {
+        run(jobName, jobName + ":" + LocalDateTime.now().plusSeconds(30).truncatedTo(ChronoUnit.MINUTES), task, () -> false);
+    }
+
+    /**
+     * Finish recent cycles of {@code jobName} that still have unfinished shards and have made no
+     * progress for a while, resuming each shard from its last checkpoint
+     */
+    public void resumeInterrupted(String jobName, ShardTask task) {
+        List<String> runKeys;
+        try {
+            runKeys = jobRunLedger.findInterruptedRunKeys(jobName, resumeWindow, staleAfter);
+        } catch (DataAccessException e) {
+            log.warn("Could not look up interrupted runs of {}: {}", jobName, e.getMessage());
+            return;
+        }
+        for (String runKey : runKeys) {
+            log.info("Resuming interrupted run {}", runKey);
+            run(jobName, runKey, task, () -> false);
+        }
+    }
+
+    /**
+     * Run all pending shards of the run {@code runKey}, stopping between shards once {@code cancelled}
+     * returns true. A shard whose task returns after cancellation is left unfinished in the ledger.
+     */
+    public void run(String jobName, String runKey, ShardTask task, BooleanSupplier cancelled) {
+        try {
+            clusterMembership.liveNodes();
+        } catch (DataAccessException e) {
+            log.warn("Cluster membership unavailable for {}, running unsharded on the leader: {}", jobName, e.getMessage());
+            leaderElection.runIfLeader(runKey, lease -> {
+                Set<Integer> completed = jobRunLedger.findCompletedShards(runKey);
+                // A failed shard is skipped; the run stays incomplete and is resumed later
+                for (int shard = 0; shard < shardCount && lease.isValid() && !cancelled.getAsBoolean(); shard++) {
+                    if (!completed.contains(shard)) {
+                        processShard(jobName, runKey, shard, lease, task, cancelled);
+                    }
+                }
+            });
+            return;
+        }
+
+        long deadline = System.currentTimeMillis() + maxRunDuration.toMillis();
+        int processedShards = 0;
+        Set<Integer> failedShards = new HashSet<>();
+        while (System.currentTimeMillis() < deadline) {
+            List<Integer> pending;
+            ConsistentHashRing ring;
+            try {
+                pending = pendingShards(runKey);
+                ring = new ConsistentHashRing(clusterMembership.liveNodes(), VIRTUAL_NODES_PER_NODE);
+            } catch (DataAccessException e) {
+                log.error("Lost cluster state during {}, stopping after {} shards: {}", runKey, processedShards, e.getMessage());
+                return;
+            }
+            // Shards that failed here are not retried in this pass; the run is resumed later instead
+            pending.removeAll(failedShards);
+            if (pending.isEmpty() || cancelled.getAsBoolean()) {
+                break;
+            }
+
+            // Own shards first, then any shard another node has not claimed
+            List<Integer> candidates = new ArrayList<>(pending.size());
+            pending.stream().filter(shard -> isOwnShard(ring, shard)).forEach(candidates::add);
+            pending.stream().filter(shard -> !isOwnShard(ring, shard)).forEach(candidates::add);
+
+            boolean claimed = false;
+            for (Integer shard : candidates) {
+                if (leaderElection.runIfLeader(runKey + ":shard:" + shard, lease -> {
+                    if (!processShard(jobName, runKey, shard, lease, task, cancelled)) {
+                        failedShards.add(shard);
+                    }
+                })) {
+                    processedShards++;
+                    claimed = true;
+                    break;
+                }
+            }
+
+            if (!claimed) {
+                // Everything left is being worked on elsewhere; wait in case one of those nodes dies
+                try {
+                    Thread.sleep(waitMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+        if (!failedShards.isEmpty()) {
+            log.warn("Node {} left shards {} of {} unfinished after they failed", clusterMembership.getNodeId(), failedShards, runKey);
+        }
+        log.info("Node {} finished its part of {} after {} shards", clusterMembership.getNodeId(), runKey, processedShards);
+    }
+
+    /**
+     * @return false if the task failed, leaving the shard at its last checkpoint
+     */
+    boolean processShard(String jobName, String runKey, int shard, LeaderLease lease, ShardTask task,
+                         BooleanSupplier cancelled) {
+        Optional<JobRun> run = jobRunLedger.start(jobName, runKey, shard, shardCount, lease);
+        if (run.isEmpty()) {
+            // Completed by another node between listing pending shards and claiming this one
+            return true;
+        }
+        try {
+            task.process(new ShardContext(jobRunLedger, run.get(), lease));
+        } catch (RuntimeException e) {
+            log.error("Shard {} of {} failed and was left unfinished", shard, runKey, e);
+            return false;
+        }
+        if (lease.isValid() && !cancelled.getAsBoolean() && !jobRunLedger.complete(run.get())) {
+            log.warn("Shard {} of {} was taken over before it could be marked complete", shard, runKey);
+        }
+        return true;
+    }
+
+    /**
+     * Shards the ring currently assigns to this node, for work that is spread by shard without a run
+     *
+     * @throws DataAccessException if cluster membership is unavailable
+     */
+    public Set<Integer> ownShards() {
+        ConsistentHashRing ring = new ConsistentHashRing(clusterMembership.liveNodes(), VIRTUAL_NODES_PER_NODE);
+        Set<Integer> own = new HashSet<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (isOwnShard(ring, shard)) {
+                own.add(shard);
+            }
+        }
+        return own;
+    }
+
+    /**
+     * The shard a user belongs to, matching {@code MOD(user_id, shardCount)} in the shard queries
+     */
+    public int shardOf(long userId) {
+        return (int) (userId % shardCount);
+    }
+
+    private List<Integer> pendingShards(String runKey) {
+        Set<Integer> done = jobRunLedger.findCompletedShards(runKey);
+        List<Integer> pending = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            if (!done.contains(shard)) {
+                pending.add(shard);
+            }
+        }
+        return pending;
+    }
+
+    private boolean isOwnShard(ConsistentHashRing ring, int shard) {
+        return clusterMembership.getNodeId().equals(ring.nodeFor("shard:" + shard));
+    }
+}
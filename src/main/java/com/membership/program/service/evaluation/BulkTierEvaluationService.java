@@ -0,0 +1,186 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.evaluation.UserEvaluationSchedule;
+import com.membership.program.dto.evaluation.UserOrderMetrics;
+import com.membership.program.dto.request.BulkTierEvaluationRequestDTO;
+import com.membership.program.dto.response.BulkTierEvaluationResultDTO;
+import com.membership.program.exception.MembershipException;
+import com.membership.program.repository.UserRepository;
+import com.membership.program.service.TierUpgradeService;
+import com.membership.program.service.index.MemberBitmapIndex;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates many users per call for admin campaigns. Users are processed in batches: each batch
+ * costs two aggregate queries (tier and membership dates, order metrics) and reuses the in-memory
+ * rule catalog, and its results are handed to the caller before the next batch is read, so memory
+ * stays bounded by the batch size however many users are evaluated.
+ */
+@Service
+@Slf4j
+public class BulkTierEvaluationService {
+
+    private final UserRepository userRepository;
+    private final TierUpgradeRuleCatalog ruleCatalog;
+    private final EvaluationContextBuilder contextBuilder;
+    private final RuleEvaluationService ruleEvaluationService;
+    private final TierUpgradeService tierUpgradeService;
+    private final MemberBitmapIndex memberIndex;
+    private final int batchSize;
+    private final int maxUsers;
+
+    public BulkTierEvaluationService(UserRepository userRepository,
+                                     TierUpgradeRuleCatalog ruleCatalog,
+                                     EvaluationContextBuilder contextBuilder,
+                                     RuleEvaluationService ruleEvaluationService,
+                                     TierUpgradeService tierUpgradeService,
+                                     MemberBitmapIndex memberIndex,
+                                     @Value("${membership.tier-evaluation.bulk.batch-size:500}") int batchSize,
+                                     @Value("${membership.tier-evaluation.bulk.max-users:100000}") int maxUsers) {
+        this.userRepository = userRepository;
+        this.ruleCatalog = ruleCatalog;
+        this.contextBuilder = contextBuilder;
+        this.ruleEvaluationService = ruleEvaluationService;
+        this.tierUpgradeService = tierUpgradeService;
+        this.memberIndex = memberIndex;
+        this.batchSize = batchSize;
+        this.maxUsers = maxUsers;
+    }
+
+    /**
+     * Reject a request before any results are streamed
+     */
+    public void validate(BulkTierEvaluationRequestDTO request) {
+        boolean hasIds = request.getUserIds() != null && !request.getUserIds().isEmpty();
+        boolean hasSelection = cohort(request) != null || request.getTierLevel() != null;
+        if (hasIds == hasSelection) {
+            throw new MembershipException("Provide either a list of user IDs or a cohort and/or tier level");
+        }
+        if (hasIds && request.getUserIds().size() > maxUsers) {
+            throw new MembershipException("At most " + maxUsers + " users can be evaluated per call");
+        }
+    }
+
+    /**
+     * Evaluate the requested users, passing each batch of results to {@code sink} as soon as it is ready.
+     * Cohort and tier selections are read from the member index once it is built, and stop after the
+     * per-call limit of users.
+     *
+     * @return number of users evaluated
+     */
+    public int evaluate(BulkTierEvaluationRequestDTO request, Consumer<List<BulkTierEvaluationResultDTO>> sink) {
+        validate(request);
+        int evaluated = 0;
+
+        if (request.getUserIds() != null && !request.getUserIds().isEmpty()) {
+            List<Long> userIds = new ArrayList<>(new LinkedHashSet<>(request.getUserIds()));
+            for (int from = 0; from < userIds.size(); from += batchSize) {
+                List<Long> batch = userIds.subList(from, Math.min(from + batchSize, userIds.size()));
+                sink.accept(evaluateBatch(batch, request.isApplyUpgrades()));
+                evaluated += batch.size();
+            }
+        } else {
+            String cohort = cohort(request);
+            // Take the selection from the member index once, so paging does not re-run the set operation
+            RoaringBitmap members = memberIndex.isReady() ? memberIndex.members(request.getTierLevel(), cohort) : null;
+            Long afterId = request.getAfterUserId() != null ? request.getAfterUserId() : 0L;
+            List<Long> batch;
+            while (evaluated < maxUsers
+                    && !(batch = nextSelectedIds(members, cohort, request.getTierLevel(), afterId,
+                            Math.min(batchSize, maxUsers - evaluated))).isEmpty()) {
+                sink.accept(evaluateBatch(batch, request.isApplyUpgrades()));
+                evaluated += batch.size();
+                afterId = batch.get(batch.size() - 1);
+            }
+        }
+
+        log.info("Bulk tier evaluation finished for {} users (upgrades {})", evaluated,
+                request.isApplyUpgrades() ? "applied" : "not applied");
+        return evaluated;
+    }
+
+    private List<Long> nextSelectedIds(RoaringBitmap members, String cohort, Integer tierLevel, Long afterId, int limit) {
+        if (members != null) {
+            return MemberBitmapIndex.page(members, afterId, limit);
+        }
+        PageRequest page = PageRequest.of(0, limit);
+        if (cohort != null && tierLevel != null) {
+            return userRepository.findIdsByCohortAndTierLevel(cohort, tierLevel, afterId, page);
+        }
+        return cohort != null
+                ? userRepository.findIdsByCohort(cohort, afterId, page)
+                : userRepository.findIdsByTierLevel(tierLevel, afterId, page);
+    }
+
+    private static String cohort(BulkTierEvaluationRequestDTO request) {
+        return request.getCohort() != null && !request.getCohort().isBlank() ? request.getCohort() : null;
+    }
+
+    private List<BulkTierEvaluationResultDTO> evaluateBatch(List<Long> userIds, boolean applyUpgrades) {
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        Map<Long, UserEvaluationSchedule> schedules = userRepository.findEvaluationSchedulesByIds(userIds).stream()
+                .collect(Collectors.toMap(UserEvaluationSchedule::getId, Function.identity()));
+        Map<Long, UserOrderMetrics> metrics = userRepository.findOrderMetricsByUserIds(userIds, monthStart, monthStart.plusMonths(1)).stream()
+                .collect(Collectors.toMap(UserOrderMetrics::getUserId, Function.identity()));
+
+        List<BulkTierEvaluationResultDTO> results = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            UserEvaluationSchedule schedule = schedules.get(userId);
+            if (schedule == null || metrics.get(userId) == null) {
+                results.add(BulkTierEvaluationResultDTO.builder().userId(userId).error("User not found").build());
+                continue;
+            }
+            try {
+                results.add(evaluateUser(schedule, metrics.get(userId), applyUpgrades));
+            } catch (Exception e) {
+                log.error("Error in bulk tier evaluation for user {}: {}", userId, e.getMessage());
+                results.add(BulkTierEvaluationResultDTO.builder()
+                        .userId(userId).currentTierLevel(schedule.getTierLevel()).error(e.getMessage()).build());
+            }
+        }
+        return results;
+    }
+
+    private BulkTierEvaluationResultDTO evaluateUser(UserEvaluationSchedule schedule, UserOrderMetrics metrics, boolean applyUpgrades) {
+        EvaluationContext context = contextBuilder.buildContext(metrics, schedule.getMembershipSince());
+        RuleIndex ruleIndex = ruleCatalog.getRuleIndex(schedule.getTierLevel().longValue());
+        Optional<TierUpgradeRuleDefinition> bestRule = ruleEvaluationService.findBestApplicableRule(ruleIndex, context);
+
+        BulkTierEvaluationResultDTO.BulkTierEvaluationResultDTOBuilder result = BulkTierEvaluationResultDTO.builder()
+                .userId(schedule.getId())
+                .currentTierLevel(schedule.getTierLevel())
+                .eligible(bestRule.isPresent())
+                .results(bestRule.map(rule -> ruleEvaluationService.evaluateRule(rule, context)).orElse(List.of()));
+        if (bestRule.isEmpty()) {
+            return result.build();
+        }
+
+        TierUpgradeRuleDefinition rule = bestRule.get();
+        result.ruleId(rule.getId())
+                .ruleName(rule.getRuleName())
+                .targetTierId(rule.getTargetTierId())
+                .autoUpgrade(rule.isAutoUpgrade());
+        if (applyUpgrades && rule.isAutoUpgrade()) {
+            // Re-evaluated from fresh data inside the upgrade; joins any upgrade already running for the user
+            result.upgraded(tierUpgradeService.processAutomaticUpgrades(schedule.getId()));
+        }
+        return result.build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.DailyOrderBuckets;
+import com.membership.program.event.OrderStatusChangedEvent;
+import com.membership.program.repository.UserDailyOrderMetricsRepository;
+import com.membership.program.service.cluster.LeaderElection;
+import com.membership.program.service.cluster.LeaderLease;
+import com.membership.program.service.event.DomainEventSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Keeps the per-user daily order buckets behind the rolling-window criteria.
+ *
+ * When an order moves into or out of the completed state, the bucket for the order's day is
+ * recomputed from the orders table. Changes arrive from the event bus after the order change
+ * commits. The affected buckets are collected over a batch of events and rewritten in one
+ * transaction. Every rewrite of a day, whether from events or from reconciliation, deletes and
+ * re-inserts the buckets while holding that day's advisory lock. Rewrites therefore never
+ * interleave, and an event arriving after a rebuild cannot count its order twice. Buckets whose
+ * rewrite fails are retried with the next batch.
+ *
+ * The hourly reconciliation rebuilds the most recent days, backfills everything on first run and
+ * prunes buckets older than the retention. A nightly pass rebuilds the whole retention window,
+ * one day per transaction, to catch events the bus dropped.
+ */
+@Service
+@Slf4j
+public class DailyOrderMetricsService implements DomainEventSubscriber {
+
+    private static final String RECONCILE_JOB = "daily-order-metrics-reconcile";
+    private static final String FULL_RECONCILE_JOB = "daily-order-metrics-full-reconcile";
+
+    private final UserDailyOrderMetricsRepository repository;
+    private final LeaderElection leaderElection;
+    private final TransactionTemplate transactionTemplate;
+    private final int retentionDays;
+    private final int reconcileDays;
+    // Users with changed orders by order day; only touched by the event bus consumer thread
+    private final TreeMap<LocalDate, Set<Long>> pendingDays = new TreeMap<>();
+
+    public DailyOrderMetricsService(UserDailyOrderMetricsRepository repository,
+                                    LeaderElection leaderElection,
+                                    TransactionTemplate transactionTemplate,
+                                    @Value("${membership.order-metrics.retention-days:400}") int retentionDays,
+                                    @Value("${membership.order-metrics.reconcile-days:2}") int reconcileDays) {
+        this.repository = repository;
+        this.leaderElection = leaderElection;
+        this.transactionTemplate = transactionTemplate;
+        this.retentionDays = Math.max(retentionDays, DailyOrderBuckets.MAX_WINDOW_DAYS);
+        this.reconcileDays = Math.max(1, reconcileDays);
+    }
+
+    /**
+     * The user's buckets for the longest supported window
+     */
+    public DailyOrderBuckets loadBuckets(Long userId) {
+        LocalDate today = LocalDate.now();
+        return DailyOrderBuckets.of(today,
+                repository.findByUserIdFrom(userId, today.minusDays(DailyOrderBuckets.MAX_WINDOW_DAYS - 1L)));
+    }
+
+    @Override
+    public String subscriberName() {
+        return "daily-order-metrics";
+    }
+
+    @Override
+    public void onEvent(Object event, boolean endOfBatch) {
+        if (event instanceof OrderStatusChangedEvent orderStatusChanged) {
+            collect(orderStatusChanged);
+        }
+        if (endOfBatch && !pendingDays.isEmpty()) {
+            try {
+                // Days in ascending order, as every writer takes the day locks
+                transactionTemplate.executeWithoutResult(status -> pendingDays.forEach((day, userIds) -> {
+                    repository.lockDay((int) day.toEpochDay());
+                    repository.deleteDayForUsers(day, userIds);
+                    repository.insertFromOrdersForUsers(day.atStartOfDay(), day.plusDays(1).atStartOfDay(), userIds);
+                }));
+                pendingDays.clear();
+            } catch (RuntimeException e) {
+                // Recomputing is idempotent, so the buckets are simply tried again with the next batch
+                log.warn("Could not update daily order buckets of {} days, retrying with the next batch: {}",
+                        pendingDays.size(), e.getMessage());
+            }
+        }
+    }
+
+    private void collect(OrderStatusChangedEvent event) {
+        if (!event.affectsOrderMetrics() || event.orderDate() == null) {
+            return;
+        }
+        pendingDays.computeIfAbsent(event.orderDate().toLocalDate(), day -> new HashSet<>()).add(event.userId());
+    }
+
+    /**
+     * Rebuild recent buckets from the completed orders and drop expired ones, on one node at a time
+     */
+    @Scheduled(fixedDelayString = "${membership.order-metrics.reconcile-ms:3600000}",
+            initialDelayString = "${membership.order-metrics.reconcile-initial-delay-ms:60000}")
+    public void reconcile() {
+        leaderElection.runIfLeader(RECONCILE_JOB, lease -> {
+            try {
+                LocalDate today = LocalDate.now();
+                boolean backfill = !repository.hasAnyBuckets();
+                LocalDate from = today.minusDays(backfill ? retentionDays - 1L : reconcileDays - 1L);
+                int rebuilt = rebuild(from, today, lease);
+                Integer pruned = transactionTemplate.execute(status ->
+                        repository.deleteOlderThan(today.minusDays(retentionDays - 1L)));
+                log.info("{} daily order buckets from {}: {} rebuilt, {} expired buckets pruned",
+                        backfill ? "Backfilled" : "Reconciled", from, rebuilt, pruned);
+            } catch (Exception e) {
+                log.error("Error reconciling daily order buckets: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Rebuild every bucket in the retention window, nightly by default, on one node at a time
+     */
+    @Scheduled(cron = "${membership.order-metrics.full-reconcile-cron:0 30 4 * * ?}")
+    public void reconcileRetentionWindow() {
+        leaderElection.runIfLeader(FULL_RECONCILE_JOB, lease -> {
+            try {
+                LocalDate today = LocalDate.now();
+                LocalDate from = today.minusDays(retentionDays - 1L);
+                int rebuilt = rebuild(from, today, lease);
+                log.info("Rebuilt {} daily order buckets from {}", rebuilt, from);
+            } catch (Exception e) {
+                log.error("Error rebuilding daily order buckets: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Rebuild the days from {@code from} to {@code to}, each day in its own transaction,
+     * stopping early if the lease is lost
+     *
+     * @return number of buckets written
+     */
+    private int rebuild(LocalDate from, LocalDate to, LeaderLease lease) {
+        int rebuilt = 0;
+        for (LocalDate day = from; !day.isAfter(to) && lease.isValid(); day = day.plusDays(1)) {
+            LocalDate current = day;
+            Integer written = transactionTemplate.execute(status -> {
+                repository.lockDay((int) current.toEpochDay());
+                repository.deleteDay(current);
+                return repository.insertFromOrders(current.atStartOfDay(), current.plusDays(1).atStartOfDay());
+            });
+            rebuilt += written == null ? 0 : written;
+        }
+        return rebuilt;
+    }
+}
@@ -0,0 +1,70 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.event.OrderStatusChangedEvent;
+import com.membership.program.event.OrdersIngestedEvent;
+import com.membership.program.event.UserCohortChangedEvent;
+import com.membership.program.utility.ConcurrentIdBitSet;
+import com.membership.program.service.event.DomainEventSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Tracks users whose tier evaluation inputs changed since they were last evaluated.
+ * Order completions (including bulk-ingested orders) and cohort changes published on the
+ * {@code DomainEventBus} mark the user; the incremental evaluation worker drains the set in batches.
+ */
+@Component
+@Slf4j
+public class DirtyUserTracker implements DomainEventSubscriber {
+
+    private final ConcurrentIdBitSet dirtyUsers = new ConcurrentIdBitSet();
+
+    public void markDirty(Long userId) {
+        if (userId != null && dirtyUsers.add(userId)) {
+            log.debug("User {} marked for tier re-evaluation", userId);
+        }
+    }
+
+    /**
+     * Remove and return up to {@code maxUsers} dirty user ids, lowest id first
+     */
+    public List<Long> drain(int maxUsers) {
+        return dirtyUsers.drain(maxUsers);
+    }
+
+    public int pendingCount() {
+        return dirtyUsers.size();
+    }
+
+    @Override
+    public String subscriberName() {
+        return "dirty-users";
+    }
+
+    @Override
+    public void onEvent(Object event, boolean endOfBatch) {
+        if (event instanceof OrderStatusChangedEvent orderStatusChanged) {
+            onOrderStatusChanged(orderStatusChanged);
+        } else if (event instanceof OrdersIngestedEvent ordersIngested) {
+            onOrdersIngested(ordersIngested);
+        } else if (event instanceof UserCohortChangedEvent cohortChanged) {
+            onUserCohortChanged(cohortChanged);
+        }
+    }
+
+    public void onOrderStatusChanged(OrderStatusChangedEvent event) {
+        if (event.isCompletion()) {
+            markDirty(event.userId());
+        }
+    }
+
+    public void onOrdersIngested(OrdersIngestedEvent event) {
+        event.completedOrderUserIds().forEach(this::markDirty);
+    }
+
+    public void onUserCohortChanged(UserCohortChangedEvent event) {
+        markDirty(event.userId());
+    }
+}
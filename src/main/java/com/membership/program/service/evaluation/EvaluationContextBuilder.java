@@ -1,6 +1,7 @@
 package com.membership.program.service.evaluation;
 
 import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.UserOrderMetrics;
 import com.membership.program.dto.enums.OrderStatus;
 import com.membership.program.entity.Order;
 import com.membership.program.entity.User;
@@ -11,6 +12,7 @@ import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 /**
@@ -22,6 +24,7 @@ import java.util.List;
 public class EvaluationContextBuilder {
     
     private final OrderRepository orderRepository;
+    private final DailyOrderMetricsService dailyOrderMetricsService;
     
     /**
      * Build evaluation context for a user with only required metrics
@@ -41,22 +44,44 @@ public class EvaluationContextBuilder {
         return EvaluationContext.builder()
                 .userId(user.getId())
                 .user(user)
+                .currentTierLevel(user.getCurrentTierLevel())
                 .totalOrderCount(totalOrderCount)
                 .monthlyOrderValue(monthlyOrderValue)
                 .userCohort(user.getCohort())
+                .membershipDurationDays(calculateMembershipDurationDays(user))
+                .dailyOrderBucketsLoader(() -> dailyOrderMetricsService.loadBuckets(user.getId()))
                 .build();
     }
     
+    /**
+     * Build evaluation context from order metrics already aggregated in the database, for batches
+     * of users evaluated without loading their entities or orders
+     */
+    public EvaluationContext buildContext(UserOrderMetrics metrics, LocalDateTime membershipSince) {
+        return EvaluationContext.builder()
+                .userId(metrics.getUserId())
+                .currentTierLevel(metrics.getTierLevel())
+                .totalOrderCount(metrics.getOrderCount() == null ? 0 : metrics.getOrderCount().intValue())
+                .monthlyOrderValue(metrics.getMonthlyOrderValue() == null ? BigDecimal.ZERO : metrics.getMonthlyOrderValue())
+                .userCohort(metrics.getCohort())
+                .membershipDurationDays(membershipSince == null ? 0 : (int) ChronoUnit.DAYS.between(membershipSince, LocalDateTime.now()))
+                .dailyOrderBucketsLoader(() -> dailyOrderMetricsService.loadBuckets(metrics.getUserId()))
+                .build();
+    }
+    
+    /**
+     * Value of orders placed this month, by order date: ingested orders are often back-dated,
+     * so the time the row was stored says nothing about when the order was placed
+     */
     private BigDecimal calculateMonthlyOrderValue(List<Order> orders) {
-        LocalDateTime now = LocalDateTime.now();
-        
         return orders.stream()
-                .filter(order -> isInCurrentMonth(order.getCreatedAt(), now))
+                .filter(Order::isInCurrentMonth)
                 .map(Order::getEffectiveAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
     }
     
-    private boolean isInCurrentMonth(LocalDateTime date, LocalDateTime now) {
-        return date.getYear() == now.getYear() && date.getMonth() == now.getMonth();
+    private int calculateMembershipDurationDays(User user) {
+        LocalDateTime since = user.membershipSince();
+        return since == null ? 0 : (int) ChronoUnit.DAYS.between(since, LocalDateTime.now());
     }
 }
@@ -0,0 +1,204 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.evaluation.UserOrderMetrics;
+import com.membership.program.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ObjDoubleConsumer;
+
+/**
+ * Orders pending tier evaluations so users close to an upgrade threshold are evaluated first.
+ *
+ * Each user is scored from aggregated order metrics against the active rules for their tier.
+ * The distance to a rule is the largest relative shortfall across its order count and monthly
+ * value thresholds (0 means the thresholds are already met); the user's distance is the smallest
+ * across rules they are eligible for by cohort. Users already meeting a rule come first, then
+ * users within the configured margin ordered by distance, then the long tail in arrival order.
+ * Users with no rule they could satisfy are not queued at all.
+ */
+@Component
+@Slf4j
+public class PrioritizedEvaluationQueue {
+
+    static final int BAND_QUALIFIES = 0;
+    static final int BAND_NEAR_THRESHOLD = 1;
+    static final int BAND_LONG_TAIL = 2;
+
+    private static final Comparator<Candidate> PRIORITY = Comparator
+            .comparingInt(Candidate::band)
+            .thenComparingDouble(candidate -> candidate.band() == BAND_LONG_TAIL ? 0.0 : candidate.distance())
+            .thenComparingLong(Candidate::sequence);
+
+    private final UserRepository userRepository;
+    private final TierUpgradeRuleCatalog ruleCatalog;
+    private final double margin;
+    private final int maxQueuedUsers;
+    private final int metricsBatchSize;
+
+    private final PriorityBlockingQueue<Candidate> queue = new PriorityBlockingQueue<>(1024, PRIORITY);
+    private final Set<Long> queuedUserIds = ConcurrentHashMap.newKeySet();
+    private final AtomicLong sequence = new AtomicLong();
+
+    public PrioritizedEvaluationQueue(UserRepository userRepository,
+                                      TierUpgradeRuleCatalog ruleCatalog,
+                                      @Value("${membership.tier-evaluation.priority.margin:0.2}") double margin,
+                                      @Value("${membership.tier-evaluation.priority.max-queued-users:100000}") int maxQueuedUsers,
+                                      @Value("${membership.tier-evaluation.priority.metrics-batch-size:500}") int metricsBatchSize) {
+        this.userRepository = userRepository;
+        this.ruleCatalog = ruleCatalog;
+        this.margin = margin;
+        this.maxQueuedUsers = maxQueuedUsers;
+        this.metricsBatchSize = metricsBatchSize;
+    }
+
+    /**
+     * Score and queue the given users; users already queued are skipped
+     *
+     * @return number of users added to the queue
+     */
+    public int enqueue(Collection<Long> userIds) {
+        List<Long> pending = userIds.stream()
+                .filter(userId -> !queuedUserIds.contains(userId))
+                .distinct()
+                .toList();
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        AtomicInteger added = new AtomicInteger();
+        score(pending, (userId, distance) -> {
+            if (!Double.isInfinite(distance) && queuedUserIds.add(userId)) {
+                queue.add(new Candidate(userId, band(distance), distance, sequence.incrementAndGet()));
+                added.incrementAndGet();
+            }
+        });
+        log.debug("Queued {} of {} users for prioritized tier evaluation", added.get(), userIds.size());
+        return added.get();
+    }
+
+    /**
+     * Order the given users by priority without queueing them, for callers that work through
+     * their own page of users. Users with no rule they could satisfy, or without order metrics,
+     * are kept at the end in their original order.
+     */
+    public List<Long> prioritize(List<Long> userIds) {
+        List<Long> distinct = userIds.stream().distinct().toList();
+        List<Candidate> scored = new ArrayList<>(distinct.size());
+        Set<Long> scoredUserIds = new HashSet<>();
+        score(distinct, (userId, distance) -> {
+            if (!Double.isInfinite(distance) && scoredUserIds.add(userId)) {
+                scored.add(new Candidate(userId, band(distance), distance, scored.size()));
+            }
+        });
+        scored.sort(PRIORITY);
+
+        List<Long> ordered = new ArrayList<>(distinct.size());
+        for (Candidate candidate : scored) {
+            ordered.add(candidate.userId());
+        }
+        for (Long userId : distinct) {
+            if (!scoredUserIds.contains(userId)) {
+                ordered.add(userId);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Remove and return up to {@code maxUsers} user ids, highest priority first
+     */
+    public List<Long> poll(int maxUsers) {
+        List<Candidate> candidates = new ArrayList<>(Math.min(maxUsers, queue.size()));
+        queue.drainTo(candidates, maxUsers);
+        List<Long> userIds = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates) {
+            queuedUserIds.remove(candidate.userId());
+            userIds.add(candidate.userId());
+        }
+        return userIds;
+    }
+
+    public int size() {
+        return queue.size();
+    }
+
+    public int remainingCapacity() {
+        return Math.max(0, maxQueuedUsers - queue.size());
+    }
+
+    private void score(List<Long> userIds, ObjDoubleConsumer<Long> sink) {
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        for (int from = 0; from < userIds.size(); from += metricsBatchSize) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + metricsBatchSize, userIds.size()));
+            for (UserOrderMetrics metrics : userRepository.findOrderMetricsByUserIds(chunk, monthStart, monthStart.plusMonths(1))) {
+                sink.accept(metrics.getUserId(), distance(metrics,
+                        ruleCatalog.getRulesForSourceTier(metrics.getTierLevel().longValue())));
+            }
+        }
+    }
+
+    int band(double distance) {
+        if (distance == 0.0) {
+            return BAND_QUALIFIES;
+        }
+        return distance <= margin ? BAND_NEAR_THRESHOLD : BAND_LONG_TAIL;
+    }
+
+    /**
+     * Smallest relative shortfall to any rule the user could satisfy, or infinity if none
+     */
+    static double distance(UserOrderMetrics metrics, List<TierUpgradeRuleDefinition> rules) {
+        double best = Double.POSITIVE_INFINITY;
+        for (TierUpgradeRuleDefinition rule : rules) {
+            double ruleDistance = 0.0;
+            for (CriteriaDefinition criterion : rule.getCriteria()) {
+                ruleDistance = Math.max(ruleDistance, shortfall(criterion, metrics));
+            }
+            best = Math.min(best, ruleDistance);
+        }
+        return best;
+    }
+
+    private static double shortfall(CriteriaDefinition criterion, UserOrderMetrics metrics) {
+        Object threshold = criterion.getValue();
+        switch (criterion.getCriteriaType()) {
+            case "ORDER_COUNT":
+                return relativeGap(((Number) threshold).doubleValue(), metrics.getOrderCount());
+            case "MONTHLY_ORDER_VALUE":
+                BigDecimal value = metrics.getMonthlyOrderValue();
+                return relativeGap(((Number) threshold).doubleValue(), value != null ? value.doubleValue() : 0.0);
+            case "USER_COHORT":
+                return threshold.equals(metrics.getCohort()) ? 0.0 : Double.POSITIVE_INFINITY;
+            default:
+                // Unknown criteria cannot be scored cheaply; treat them as satisfied
+                return 0.0;
+        }
+    }
+
+    private static double relativeGap(double threshold, double actual) {
+        if (threshold <= 0 || actual >= threshold) {
+            return 0.0;
+        }
+        return (threshold - actual) / threshold;
+    }
+
+    record Candidate(long userId, int band, double distance, long sequence) {
+    }
+}
@@ -27,6 +27,11 @@ public interface RuleEvaluationService {
      */
     Optional<TierUpgradeRuleDefinition> findBestApplicableRule(List<TierUpgradeRuleDefinition> rules, EvaluationContext context);
     
+    /**
+     * Find the best applicable rule for a user from an index, without evaluating every rule
+     */
+    Optional<TierUpgradeRuleDefinition> findBestApplicableRule(RuleIndex index, EvaluationContext context);
+    
     /**
      * Get detailed evaluation results for a rule
      */
@@ -19,6 +19,7 @@ import java.util.stream.Collectors;
 public class RuleEvaluationServiceImpl implements RuleEvaluationService {
     
     private final List<CriteriaEvaluator> criteriaEvaluators;
+    private final ShadowRuleEvaluator shadowRuleEvaluator;
     
     @Override
     public List<EvaluationResult> evaluateRule(TierUpgradeRuleDefinition rule, EvaluationContext context) {
@@ -47,10 +48,29 @@ public class RuleEvaluationServiceImpl implements RuleEvaluationService {
         return allPassed;
     }
     
+    /**
+     * Also hands the decision to {@link ShadowRuleEvaluator}, which compares it with any staged
+     * shadow rule set in the background; the returned rule is always chosen from {@code rules} alone
+     */
     @Override
     public Optional<TierUpgradeRuleDefinition> findBestApplicableRule(List<TierUpgradeRuleDefinition> rules, EvaluationContext context) {
         log.debug("Finding best applicable rule for user: {}", context.getUserId());
         
+        Optional<TierUpgradeRuleDefinition> bestRule = selectBestRule(rules, context);
+        shadowRuleEvaluator.submit(context, rules, bestRule, this::selectBestRule);
+        return bestRule;
+    }
+    
+    @Override
+    public Optional<TierUpgradeRuleDefinition> findBestApplicableRule(RuleIndex index, EvaluationContext context) {
+        log.debug("Finding best applicable rule for user {} from the rule index", context.getUserId());
+        
+        Optional<TierUpgradeRuleDefinition> bestRule = index.findBest(context, rule -> isRuleEligible(rule, context));
+        shadowRuleEvaluator.submit(context, index.getRules(), bestRule, this::selectBestRule);
+        return bestRule;
+    }
+    
+    private Optional<TierUpgradeRuleDefinition> selectBestRule(List<TierUpgradeRuleDefinition> rules, EvaluationContext context) {
         return rules.stream()
                 .filter(rule -> rule.isActive())
                 .filter(rule -> isRuleEligible(rule, context))
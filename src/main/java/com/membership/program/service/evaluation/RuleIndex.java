@@ -0,0 +1,245 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Index over the active rules of one source tier, answering "which rule should this user get"
+ * without evaluating every rule.
+ *
+ * Rules are grouped by cohort restriction (plus one group for rules open to every cohort), then by
+ * target tier, highest first. Within a target tier, rules are sorted by minimum order count, so the
+ * rules a user's order count satisfies form a prefix found by binary search; prefix minima of the
+ * monthly value and membership duration thresholds reject a prefix that cannot contain a match
+ * before any rule in it is checked. The search stops at the first target tier with a match.
+ *
+ * The result is the rule {@link RuleEvaluationService#findBestApplicableRule(List, EvaluationContext)}
+ * would return for {@link #getRules()}: the highest target tier, ties going to the earliest rule in
+ * the list. Rules with criteria the index does not understand are kept aside and checked with the
+ * full evaluation, only when they could still beat the indexed winner.
+ */
+public final class RuleIndex {
+
+    public static final RuleIndex EMPTY = new RuleIndex(List.of());
+
+    private static final long NO_ORDER_COUNT = Long.MIN_VALUE + 1;
+
+    private final List<TierUpgradeRuleDefinition> rules;
+    private final Map<String, TargetBucket[]> byCohort = new HashMap<>();
+    private final TargetBucket[] anyCohort;
+    private final IndexedRule[] residual;
+
+    public RuleIndex(List<TierUpgradeRuleDefinition> rules) {
+        this.rules = List.copyOf(rules);
+
+        Map<String, List<IndexedRule>> cohortRules = new HashMap<>();
+        List<IndexedRule> openRules = new ArrayList<>();
+        List<IndexedRule> residualRules = new ArrayList<>();
+        for (int position = 0; position < this.rules.size(); position++) {
+            TierUpgradeRuleDefinition rule = this.rules.get(position);
+            if (!rule.isActive()) {
+                continue;
+            }
+            IndexedRule indexed = IndexedRule.of(rule, position);
+            if (indexed == null) {
+                residualRules.add(new IndexedRule(rule, position, 0, null, 0, null));
+            } else if (indexed.cohort != null) {
+                cohortRules.computeIfAbsent(indexed.cohort, cohort -> new ArrayList<>()).add(indexed);
+            } else {
+                openRules.add(indexed);
+            }
+        }
+        cohortRules.forEach((cohort, group) -> byCohort.put(cohort, buckets(group)));
+        this.anyCohort = buckets(openRules);
+        this.residual = residualRules.stream()
+                .sorted(Comparator.comparing((IndexedRule rule) -> rule.rule.getTargetTierId()).reversed()
+                        .thenComparingInt(rule -> rule.position))
+                .toArray(IndexedRule[]::new);
+    }
+
+    /**
+     * Rules the index was built from, in their original order
+     */
+    public List<TierUpgradeRuleDefinition> getRules() {
+        return rules;
+    }
+
+    /**
+     * Best applicable rule for the user described by {@code context}
+     *
+     * @param fullEvaluation decides rules whose criteria are not indexed
+     */
+    public Optional<TierUpgradeRuleDefinition> findBest(EvaluationContext context,
+                                                        Predicate<TierUpgradeRuleDefinition> fullEvaluation) {
+        long orders = context.getTotalOrderCount() != null ? context.getTotalOrderCount() : NO_ORDER_COUNT;
+        BigDecimal value = context.getMonthlyOrderValue() != null ? context.getMonthlyOrderValue() : BigDecimal.ZERO;
+        int days = context.getMembershipDurationDays() != null ? context.getMembershipDurationDays() : 0;
+
+        IndexedRule best = best(anyCohort, orders, value, days, null);
+        if (context.getUserCohort() != null) {
+            best = best(byCohort.get(context.getUserCohort()), orders, value, days, best);
+        }
+        for (IndexedRule candidate : residual) {
+            if (best != null && (candidate.targetTierId() < best.targetTierId()
+                    || (candidate.targetTierId() == best.targetTierId() && candidate.position > best.position))) {
+                break;
+            }
+            if (fullEvaluation.test(candidate.rule)) {
+                best = candidate;
+            }
+        }
+        return Optional.ofNullable(best).map(indexed -> indexed.rule);
+    }
+
+    private static IndexedRule best(TargetBucket[] buckets, long orders, BigDecimal value, int days, IndexedRule best) {
+        if (buckets == null) {
+            return best;
+        }
+        for (TargetBucket bucket : buckets) {
+            if (best != null && bucket.targetTierId < best.targetTierId()) {
+                break;
+            }
+            IndexedRule match = bucket.find(orders, value, days);
+            if (match != null && (best == null || bucket.targetTierId > best.targetTierId() || match.position < best.position)) {
+                return match;
+            }
+        }
+        return best;
+    }
+
+    private static TargetBucket[] buckets(List<IndexedRule> group) {
+        Map<Long, List<IndexedRule>> byTarget = new HashMap<>();
+        group.forEach(rule -> byTarget.computeIfAbsent(rule.targetTierId(), target -> new ArrayList<>()).add(rule));
+        return byTarget.entrySet().stream()
+                .sorted(Map.Entry.<Long, List<IndexedRule>>comparingByKey().reversed())
+                .map(entry -> new TargetBucket(entry.getKey(), entry.getValue()))
+                .toArray(TargetBucket[]::new);
+    }
+
+    /**
+     * Rules of one cohort group and target tier, sorted by minimum order count
+     */
+    private static final class TargetBucket {
+
+        private final long targetTierId;
+        private final IndexedRule[] rules;
+        private final long[] minOrders;
+        private final BigDecimal[] prefixMinValue;
+        private final int[] prefixMinDays;
+
+        private TargetBucket(long targetTierId, List<IndexedRule> rules) {
+            this.targetTierId = targetTierId;
+            this.rules = rules.stream()
+                    .sorted(Comparator.comparingLong((IndexedRule rule) -> rule.minOrders).thenComparingInt(rule -> rule.position))
+                    .toArray(IndexedRule[]::new);
+            this.minOrders = new long[this.rules.length];
+            this.prefixMinValue = new BigDecimal[this.rules.length];
+            this.prefixMinDays = new int[this.rules.length];
+            for (int i = 0; i < this.rules.length; i++) {
+                IndexedRule rule = this.rules[i];
+                minOrders[i] = rule.minOrders;
+                prefixMinValue[i] = i == 0 ? rule.minValue : min(prefixMinValue[i - 1], rule.minValue);
+                prefixMinDays[i] = i == 0 ? rule.minDays : Math.min(prefixMinDays[i - 1], rule.minDays);
+            }
+        }
+
+        /**
+         * Earliest listed rule of this bucket the user satisfies, or null
+         */
+        private IndexedRule find(long orders, BigDecimal value, int days) {
+            int end = upperBound(orders);
+            if (end == 0 || !satisfies(prefixMinValue[end - 1], value) || prefixMinDays[end - 1] > days) {
+                return null;
+            }
+            IndexedRule match = null;
+            for (int i = 0; i < end; i++) {
+                IndexedRule rule = rules[i];
+                if ((match == null || rule.position < match.position)
+                        && satisfies(rule.minValue, value) && rule.minDays <= days) {
+                    match = rule;
+                }
+            }
+            return match;
+        }
+
+        /**
+         * Number of rules whose minimum order count is at most {@code orders}
+         */
+        private int upperBound(long orders) {
+            int index = Arrays.binarySearch(minOrders, orders);
+            if (index < 0) {
+                return -index - 1;
+            }
+            while (index < minOrders.length && minOrders[index] == orders) {
+                index++;
+            }
+            return index;
+        }
+
+        private static boolean satisfies(BigDecimal threshold, BigDecimal value) {
+            return threshold == null || value.compareTo(threshold) >= 0;
+        }
+
+        private static BigDecimal min(BigDecimal left, BigDecimal right) {
+            if (left == null || right == null) {
+                return null;
+            }
+            return left.min(right);
+        }
+    }
+
+    /**
+     * A rule reduced to its thresholds. Absent criteria are the weakest threshold: no minimum
+     * order count, a null monthly value, no minimum duration and a null cohort.
+     */
+    private record IndexedRule(TierUpgradeRuleDefinition rule, int position, long minOrders, BigDecimal minValue,
+                               int minDays, String cohort) {
+
+        private long targetTierId() {
+            return rule.getTargetTierId();
+        }
+
+        /**
+         * Thresholds of {@code rule}, or null if it has criteria only the evaluators can decide
+         */
+        private static IndexedRule of(TierUpgradeRuleDefinition rule, int position) {
+            long minOrders = Long.MIN_VALUE;
+            BigDecimal minValue = null;
+            int minDays = Integer.MIN_VALUE;
+            String cohort = null;
+            for (CriteriaDefinition criterion : rule.getCriteria() != null ? rule.getCriteria() : List.<CriteriaDefinition>of()) {
+                Object threshold = criterion.getValue();
+                String type = criterion.getCriteriaType() != null ? criterion.getCriteriaType() : "";
+                if (type.equals("USER_COHORT") && threshold instanceof String expected) {
+                    if (cohort != null && !cohort.equals(expected)) {
+                        return null;
+                    }
+                    cohort = expected;
+                } else if (!(threshold instanceof Number number)) {
+                    return null;
+                } else if (type.equals("ORDER_COUNT")) {
+                    minOrders = Math.max(minOrders, number.intValue());
+                } else if (type.equals("MONTHLY_ORDER_VALUE")) {
+                    BigDecimal expected = new BigDecimal(number.toString());
+                    minValue = minValue == null ? expected : minValue.max(expected);
+                } else if (type.equals("MEMBERSHIP_DURATION")) {
+                    minDays = Math.max(minDays, number.intValue());
+                } else {
+                    return null;
+                }
+            }
+            return new IndexedRule(rule, position, minOrders, minValue, minDays, cohort);
+        }
+    }
+}
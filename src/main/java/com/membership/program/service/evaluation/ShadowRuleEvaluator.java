@@ -0,0 +1,263 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.enums.ShadowOutcome;
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.response.ShadowDivergenceResponseDTO;
+import com.membership.program.dto.response.ShadowRuleReportResponseDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+/**
+ * Evaluates a staged candidate rule set in shadow next to the live rules, to see how a rule change
+ * would behave on real traffic before it is activated.
+ *
+ * Every live best-rule decision made while a shadow set is staged is handed to a small background
+ * pool, which evaluates the shadow rules against the same context and compares the outcomes. The
+ * live decision is never changed and the caller never waits: when the shadow queue is full the
+ * comparison is dropped and counted. Outcomes are counted per staged set and published as the
+ * {@code membership.shadow-rules.evaluations} counter; a sample of divergences is kept in a bounded
+ * buffer of the most recent ones. Decisions served from the eligibility cache are not re-evaluated,
+ * so they are not compared.
+ *
+ * The shadow set and its statistics are held by the node it was staged on.
+ */
+@Component
+@Slf4j
+public class ShadowRuleEvaluator {
+
+    private final MeterRegistry meterRegistry;
+    private final double sampleRate;
+    private final int bufferSize;
+    private final ThreadPoolExecutor executor;
+
+    private volatile ShadowRuleSet shadowRuleSet;
+
+    public ShadowRuleEvaluator(MeterRegistry meterRegistry,
+                               @Value("${membership.shadow-rules.threads:1}") int threads,
+                               @Value("${membership.shadow-rules.queue-capacity:10000}") int queueCapacity,
+                               @Value("${membership.shadow-rules.sample-rate:0.1}") double sampleRate,
+                               @Value("${membership.shadow-rules.buffer-size:500}") int bufferSize) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.bufferSize = bufferSize;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "shadow-rules");
+                    thread.setDaemon(true);
+                    return thread;
+                }, (task, pool) -> {
+                    ShadowRuleSet current = shadowRuleSet;
+                    if (current != null) {
+                        current.dropped.increment();
+                    }
+                    meterRegistry.counter("membership.shadow-rules.dropped").increment();
+                });
+    }
+
+    /**
+     * Replace the staged shadow rule set, resetting its statistics
+     */
+    public ShadowRuleReportResponseDTO stage(String label, List<TierUpgradeRuleDefinition> rules, boolean replaceActiveRules) {
+        ShadowRuleSet staged = new ShadowRuleSet(label, rules, replaceActiveRules, LocalDateTime.now());
+        shadowRuleSet = staged;
+        log.info("Staged shadow rule set '{}' with {} rules (replace active rules: {})", label, rules.size(), replaceActiveRules);
+        return report(staged);
+    }
+
+    /**
+     * Stop shadow evaluation
+     *
+     * @return report of the rule set that was staged, if any
+     */
+    public Optional<ShadowRuleReportResponseDTO> clear() {
+        ShadowRuleSet cleared = shadowRuleSet;
+        shadowRuleSet = null;
+        if (cleared != null) {
+            log.info("Cleared shadow rule set '{}' after {} evaluations", cleared.label, cleared.evaluated.sum());
+        }
+        return Optional.ofNullable(cleared).map(this::report);
+    }
+
+    public Optional<ShadowRuleReportResponseDTO> getReport() {
+        return Optional.ofNullable(shadowRuleSet).map(this::report);
+    }
+
+    /**
+     * Queue a shadow evaluation of the live decision {@code liveBest}, made from {@code liveRules} for
+     * {@code context}. Returns immediately; does nothing when no shadow rule set is staged.
+     *
+     * @param selector picks the best rule from a rule list, as the live evaluation does
+     */
+    public void submit(EvaluationContext context,
+                       List<TierUpgradeRuleDefinition> liveRules,
+                       Optional<TierUpgradeRuleDefinition> liveBest,
+                       BiFunction<List<TierUpgradeRuleDefinition>, EvaluationContext, Optional<TierUpgradeRuleDefinition>> selector) {
+        ShadowRuleSet staged = shadowRuleSet;
+        if (staged == null) {
+            return;
+        }
+        Integer tierLevel = context.getCurrentTierLevel();
+        if (tierLevel == null && !liveRules.isEmpty()) {
+            tierLevel = liveRules.get(0).getSourceTierId().intValue();
+        }
+        if (tierLevel == null) {
+            return;
+        }
+        int sourceTier = tierLevel;
+        // The live evaluation keeps using its context; the pool thread gets a copy of its own
+        EvaluationContext shadowContext = context.copy();
+        executor.execute(() -> compare(staged, sourceTier, shadowContext, liveRules, liveBest, selector));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void compare(ShadowRuleSet staged, int tierLevel, EvaluationContext context,
+                         List<TierUpgradeRuleDefinition> liveRules,
+                         Optional<TierUpgradeRuleDefinition> liveBest,
+                         BiFunction<List<TierUpgradeRuleDefinition>, EvaluationContext, Optional<TierUpgradeRuleDefinition>> selector) {
+        try {
+            Optional<TierUpgradeRuleDefinition> shadowBest = selector.apply(staged.rulesFor(tierLevel, liveRules), context);
+            ShadowOutcome outcome = outcome(liveBest, shadowBest);
+            if (outcome != ShadowOutcome.AGREED && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                staged.sample(ShadowDivergenceResponseDTO.builder()
+                        .userId(context.getUserId())
+                        .tierLevel(tierLevel)
+                        .outcome(outcome)
+                        .liveRuleId(liveBest.map(TierUpgradeRuleDefinition::getId).orElse(null))
+                        .liveTargetTierId(liveBest.map(TierUpgradeRuleDefinition::getTargetTierId).orElse(null))
+                        .shadowRuleId(shadowBest.map(TierUpgradeRuleDefinition::getId).orElse(null))
+                        .shadowRuleName(shadowBest.map(TierUpgradeRuleDefinition::getRuleName).orElse(null))
+                        .shadowTargetTierId(shadowBest.map(TierUpgradeRuleDefinition::getTargetTierId).orElse(null))
+                        .evaluatedAt(LocalDateTime.now())
+                        .build(), bufferSize);
+            }
+            staged.outcomes.get(outcome).increment();
+            staged.evaluated.increment();
+            meterRegistry.counter("membership.shadow-rules.evaluations", "outcome", outcome.name()).increment();
+        } catch (Exception e) {
+            staged.failed.increment();
+            log.debug("Shadow rule evaluation failed for user {}: {}", context.getUserId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Rules only diverge where they would change a tier differently: a different target tier, or
+     * the same target with a different automatic-upgrade setting
+     */
+    static ShadowOutcome outcome(Optional<TierUpgradeRuleDefinition> live, Optional<TierUpgradeRuleDefinition> shadow) {
+        if (live.isEmpty()) {
+            return shadow.isEmpty() ? ShadowOutcome.AGREED : ShadowOutcome.SHADOW_ONLY;
+        }
+        if (shadow.isEmpty()) {
+            return ShadowOutcome.LIVE_ONLY;
+        }
+        boolean same = Objects.equals(live.get().getTargetTierId(), shadow.get().getTargetTierId())
+                && live.get().isAutoUpgrade() == shadow.get().isAutoUpgrade();
+        return same ? ShadowOutcome.AGREED : ShadowOutcome.DIFFERENT_OUTCOME;
+    }
+
+    private ShadowRuleReportResponseDTO report(ShadowRuleSet staged) {
+        Map<String, Long> outcomes = new LinkedHashMap<>();
+        staged.outcomes.forEach((outcome, count) -> outcomes.put(outcome.name(), count.sum()));
+        long divergent = outcomes.entrySet().stream()
+                .filter(entry -> !ShadowOutcome.AGREED.name().equals(entry.getKey()))
+                .mapToLong(Map.Entry::getValue)
+                .sum();
+        return ShadowRuleReportResponseDTO.builder()
+                .label(staged.label)
+                .stagedAt(staged.stagedAt)
+                .ruleCount(staged.ruleCount)
+                .replaceActiveRules(staged.replaceActiveRules)
+                .evaluated(staged.evaluated.sum())
+                .divergent(divergent)
+                .outcomes(outcomes)
+                .dropped(staged.dropped.sum())
+                .failed(staged.failed.sum())
+                .sampledDivergences(staged.samples())
+                .build();
+    }
+
+    private static final class ShadowRuleSet {
+
+        private final String label;
+        private final LocalDateTime stagedAt;
+        private final int ruleCount;
+        private final boolean replaceActiveRules;
+        private final Map<Long, List<TierUpgradeRuleDefinition>> rulesBySourceTier;
+        private final Set<Long> replacedRuleIds;
+        private final LongAdder evaluated = new LongAdder();
+        private final LongAdder dropped = new LongAdder();
+        private final LongAdder failed = new LongAdder();
+        private final Map<ShadowOutcome, LongAdder> outcomes = new EnumMap<>(ShadowOutcome.class);
+        private final Deque<ShadowDivergenceResponseDTO> divergences = new ArrayDeque<>();
+
+        private ShadowRuleSet(String label, List<TierUpgradeRuleDefinition> rules, boolean replaceActiveRules,
+                              LocalDateTime stagedAt) {
+            this.label = label;
+            this.stagedAt = stagedAt;
+            this.ruleCount = rules.size();
+            this.replaceActiveRules = replaceActiveRules;
+            this.rulesBySourceTier = rules.stream().collect(Collectors.groupingBy(
+                    TierUpgradeRuleDefinition::getSourceTierId, Collectors.toUnmodifiableList()));
+            this.replacedRuleIds = rules.stream().map(TierUpgradeRuleDefinition::getId)
+                    .filter(Objects::nonNull).collect(Collectors.toUnmodifiableSet());
+            for (ShadowOutcome outcome : ShadowOutcome.values()) {
+                outcomes.put(outcome, new LongAdder());
+            }
+        }
+
+        /**
+         * Shadow rules for a tier, combined with the live rules of that tier at evaluation time
+         */
+        private List<TierUpgradeRuleDefinition> rulesFor(int tierLevel, List<TierUpgradeRuleDefinition> liveRules) {
+            List<TierUpgradeRuleDefinition> shadowRules = rulesBySourceTier.getOrDefault((long) tierLevel, List.of());
+            if (replaceActiveRules) {
+                return shadowRules;
+            }
+            List<TierUpgradeRuleDefinition> combined = new ArrayList<>(liveRules.size() + shadowRules.size());
+            liveRules.stream().filter(rule -> !replacedRuleIds.contains(rule.getId())).forEach(combined::add);
+            combined.addAll(shadowRules);
+            return combined;
+        }
+
+        private synchronized void sample(ShadowDivergenceResponseDTO divergence, int bufferSize) {
+            if (divergences.size() >= bufferSize) {
+                divergences.pollFirst();
+            }
+            divergences.addLast(divergence);
+        }
+
+        private synchronized List<ShadowDivergenceResponseDTO> samples() {
+            List<ShadowDivergenceResponseDTO> newestFirst = new ArrayList<>(divergences);
+            Collections.reverse(newestFirst);
+            return newestFirst;
+        }
+    }
+}
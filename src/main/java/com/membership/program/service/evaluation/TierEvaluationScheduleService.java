@@ -0,0 +1,188 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.UserEvaluationSchedule;
+import com.membership.program.event.TierUpgradeRulesChangedEvent;
+import com.membership.program.event.UserTierChangedEvent;
+import com.membership.program.repository.UserRepository;
+import com.membership.program.service.event.DomainEventSubscriber;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@code users.next_tier_evaluation_at}, the indexed due time of each user's next
+ * scheduled tier evaluation, from the cadence of the rules for the user's current tier.
+ *
+ * A null due time means "not scheduled yet". Users are (re)scheduled when they are new, when
+ * their tier changes, and for everyone when the rules change; users on a tier with no rules
+ * are never scheduled and cost the nightly sweep nothing.
+ *
+ * Clearing everyone after a rule change touches every scheduled row, so it runs in id-ordered
+ * pages on a background thread rather than on the event bus consumer; rule changes that arrive
+ * while a clear is queued share it.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class TierEvaluationScheduleService implements DomainEventSubscriber {
+
+    private static final int CLEAR_PAGE_SIZE = 1_000;
+
+    private static final String SCHEDULE_SQL =
+            "UPDATE users SET next_tier_evaluation_at = ? WHERE id = ? AND next_tier_evaluation_at IS NULL";
+
+    private final UserRepository userRepository;
+    private final TierUpgradeRuleCatalog ruleCatalog;
+    private final TransactionTemplate transactionTemplate;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AtomicBoolean clearRequested = new AtomicBoolean();
+    private final ExecutorService clearExecutor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "evaluation-schedule-clear");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Schedule one page of users in the shard that have no due time yet, in one JDBC batch
+     *
+     * @return id of the last user in the page, or null when there is nothing left to schedule
+     */
+    public Long scheduleNextPage(int shard, int shardCount, Long afterId, int pageSize) {
+        Set<Integer> tierLevels = ruleCatalog.getSourceTierIdsWithRules().stream()
+                .map(Long::intValue)
+                .collect(Collectors.toSet());
+        if (tierLevels.isEmpty()) {
+            return null;
+        }
+
+        List<UserEvaluationSchedule> users = userRepository.findUnscheduledForTierEvaluation(
+                tierLevels, shard, shardCount, afterId, PageRequest.of(0, pageSize));
+        List<Object[]> schedules = new ArrayList<>(users.size());
+        for (UserEvaluationSchedule user : users) {
+            LocalDateTime next = ruleCatalog.nextEvaluationAt(user.getTierLevel().longValue(),
+                    user.getMembershipSince(), user.getLastTierEvaluationDate());
+            if (next != null) {
+                schedules.add(new Object[]{Timestamp.valueOf(next), user.getId()});
+            }
+        }
+        if (!schedules.isEmpty()) {
+            jdbcTemplate.batchUpdate(SCHEDULE_SQL, schedules);
+        }
+        return users.isEmpty() ? null : users.get(users.size() - 1).getId();
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserEvaluationSchedule> findDue(int shard, int shardCount, LocalDateTime now, Long afterId, int pageSize) {
+        return userRepository.findDueForTierEvaluation(now, shard, shardCount, afterId, PageRequest.of(0, pageSize));
+    }
+
+    /**
+     * Record that the given users were evaluated at {@code evaluatedAt} and move their due time
+     * forward by the cadence of their (possibly new) tier, with one update per tier
+     *
+     * @return number of users whose tier changed since {@code evaluated} was read
+     */
+    public int recordEvaluated(Collection<UserEvaluationSchedule> evaluated, LocalDateTime evaluatedAt) {
+        Map<Long, Integer> tierLevelBefore = evaluated.stream()
+                .collect(Collectors.toMap(UserEvaluationSchedule::getId, UserEvaluationSchedule::getTierLevel));
+
+        Map<Integer, List<Long>> userIdsByTier = userRepository.findEvaluationSchedulesByIds(tierLevelBefore.keySet())
+                .stream()
+                .collect(Collectors.groupingBy(UserEvaluationSchedule::getTierLevel,
+                        Collectors.mapping(UserEvaluationSchedule::getId, Collectors.toList())));
+
+        int changedCount = 0;
+        for (Map.Entry<Integer, List<Long>> tier : userIdsByTier.entrySet()) {
+            LocalDateTime next = ruleCatalog.nextEvaluationAt(tier.getKey().longValue(), null, evaluatedAt);
+            userRepository.recordTierEvaluation(tier.getValue(), tier.getKey(), evaluatedAt, next);
+            for (Long userId : tier.getValue()) {
+                if (!tier.getKey().equals(tierLevelBefore.get(userId))) {
+                    changedCount++;
+                }
+            }
+        }
+        return changedCount;
+    }
+
+    @Override
+    public String subscriberName() {
+        return "evaluation-schedule";
+    }
+
+    /**
+     * Runs outside a transaction so that events this service ignores cost nothing; the ones it
+     * handles each get their own
+     */
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onEvent(Object event, boolean endOfBatch) {
+        if (event instanceof UserTierChangedEvent tierChanged) {
+            transactionTemplate.executeWithoutResult(status -> onUserTierChanged(tierChanged));
+        } else if (event instanceof TierUpgradeRulesChangedEvent rulesChanged) {
+            onTierUpgradeRulesChanged(rulesChanged);
+        }
+    }
+
+    public void onUserTierChanged(UserTierChangedEvent event) {
+        // Rescheduled by the next sweep against the new tier's rules
+        userRepository.clearNextTierEvaluationAt(event.userId());
+    }
+
+    /**
+     * Queue a clear of every scheduled due time; everyone is rescheduled by the next sweep
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void onTierUpgradeRulesChanged(TierUpgradeRulesChangedEvent event) {
+        if (clearRequested.compareAndSet(false, true)) {
+            clearExecutor.execute(this::clearAllSchedules);
+        }
+    }
+
+    /**
+     * Clear every scheduled due time a page at a time, each page in its own transaction
+     */
+    void clearAllSchedules() {
+        // Reset first so a rule change during the clear queues another one
+        clearRequested.set(false);
+        int cleared = 0;
+        Long afterId = 0L;
+        try {
+            List<Long> userIds;
+            while (!(userIds = userRepository.findIdsWithNextTierEvaluationAt(
+                    afterId, PageRequest.of(0, CLEAR_PAGE_SIZE))).isEmpty()) {
+                List<Long> page = userIds;
+                Integer count = transactionTemplate.execute(status -> userRepository.clearNextTierEvaluationAt(page));
+                cleared += count != null ? count : 0;
+                afterId = page.get(page.size() - 1);
+            }
+            log.info("Tier upgrade rules changed, cleared {} scheduled tier evaluations", cleared);
+        } catch (Exception e) {
+            log.error("Failed to clear scheduled tier evaluations after {} users: {}", cleared, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        clearExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,197 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.entity.TierUpgradeRule;
+import com.membership.program.event.TierUpgradeRulesChangedEvent;
+import com.membership.program.mapper.TierUpgradeRuleMapper;
+import com.membership.program.repository.TierUpgradeRuleRepository;
+import com.membership.program.service.event.DomainEventSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory view of the active tier upgrade rules, grouped by source tier.
+ * Loaded on first use and dropped after commit whenever a rule changes, so evaluations
+ * share one rule load instead of querying the rules table per user.
+ *
+ * Rule change events only reach the node that made the change, so that node also bumps a
+ * rule-set version in Redis. Every node remembers the version its rules were loaded under and
+ * drops them when a periodic check sees a different one. The version is read before the rules,
+ * so a change that lands during a load is caught by the next check.
+ */
+@Component
+@Slf4j
+public class TierUpgradeRuleCatalog implements DomainEventSubscriber {
+
+    private static final String VERSION_KEY = "tier-upgrade-rules:version";
+
+    private final TierUpgradeRuleRepository tierUpgradeRuleRepository;
+    private final StringRedisTemplate redisTemplate;
+
+    private volatile Rules rules;
+
+    public TierUpgradeRuleCatalog(TierUpgradeRuleRepository tierUpgradeRuleRepository,
+                                  StringRedisTemplate redisTemplate) {
+        this.tierUpgradeRuleRepository = tierUpgradeRuleRepository;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * Active rules whose source tier is {@code sourceTierId}
+     */
+    public List<TierUpgradeRuleDefinition> getRulesForSourceTier(Long sourceTierId) {
+        return rules().definitions().getOrDefault(sourceTierId, List.of());
+    }
+
+    /**
+     * Index over the active rules whose source tier is {@code sourceTierId}
+     */
+    public RuleIndex getRuleIndex(Long sourceTierId) {
+        return rules().indexes().getOrDefault(sourceTierId, RuleIndex.EMPTY);
+    }
+
+    /**
+     * Source tiers that have at least one active rule
+     */
+    public Set<Long> getSourceTierIdsWithRules() {
+        return rules().definitions().keySet();
+    }
+
+    /**
+     * When a user on the given source tier is next due for scheduled evaluation: the earliest
+     * due time across the tier's rules. A rule is first due once the member has been a member
+     * for its minimum duration, then every {@code evaluationFrequencyDays} after the last
+     * evaluation. Returns null when no rule applies to the tier.
+     */
+    public LocalDateTime nextEvaluationAt(Long sourceTierId, LocalDateTime membershipSince, LocalDateTime lastEvaluatedAt) {
+        LocalDateTime next = null;
+        for (RuleCadence cadence : rules().cadences().getOrDefault(sourceTierId, List.of())) {
+            LocalDateTime due;
+            if (lastEvaluatedAt != null) {
+                due = lastEvaluatedAt.plusDays(cadence.evaluationFrequencyDays());
+            } else if (membershipSince != null) {
+                due = membershipSince.plusDays(cadence.minMembershipDurationDays());
+            } else {
+                continue;
+            }
+            if (next == null || due.isBefore(next)) {
+                next = due;
+            }
+        }
+        return next;
+    }
+
+    public void invalidate() {
+        rules = null;
+    }
+
+    public void onTierUpgradeRulesChanged(TierUpgradeRulesChangedEvent event) {
+        try {
+            redisTemplate.opsForValue().increment(VERSION_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Tier upgrade rule set version bump failed, other nodes keep their rules: {}", e.getMessage());
+        }
+        invalidate();
+    }
+
+    /**
+     * Drop the loaded rules if another node has changed the rule set since they were loaded
+     */
+    @Scheduled(fixedDelayString = "${membership.rule-catalog.version-check-ms:5000}")
+    public void checkVersion() {
+        Rules current = rules;
+        if (current == null) {
+            return;
+        }
+        String version;
+        try {
+            version = redisTemplate.opsForValue().get(VERSION_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Tier upgrade rule set version check failed: {}", e.getMessage());
+            return;
+        }
+        if (!Objects.equals(version, current.version())) {
+            log.info("Tier upgrade rule set moved to version {}, reloading rules", version);
+            // Only drop the rules that were checked, not a newer load
+            synchronized (this) {
+                if (rules == current) {
+                    rules = null;
+                }
+            }
+        }
+    }
+
+    @Override
+    public String subscriberName() {
+        return "rule-catalog";
+    }
+
+    @Override
+    public void onEvent(Object event, boolean endOfBatch) {
+        if (event instanceof TierUpgradeRulesChangedEvent rulesChanged) {
+            onTierUpgradeRulesChanged(rulesChanged);
+        }
+    }
+
+    private Rules rules() {
+        Rules current = rules;
+        if (current == null) {
+            synchronized (this) {
+                current = rules;
+                if (current == null) {
+                    current = load();
+                    rules = current;
+                    log.info("Loaded tier upgrade rules for {} source tiers", current.definitions().size());
+                }
+            }
+        }
+        return current;
+    }
+
+    private Rules load() {
+        String version = null;
+        try {
+            version = redisTemplate.opsForValue().get(VERSION_KEY);
+        } catch (DataAccessException e) {
+            log.warn("Could not read the tier upgrade rule set version: {}", e.getMessage());
+        }
+        List<TierUpgradeRule> activeRules = tierUpgradeRuleRepository.findAllActiveWithTiers();
+
+        Map<Long, List<TierUpgradeRuleDefinition>> definitions = activeRules.stream()
+                .map(TierUpgradeRuleMapper::toDefinition)
+                .collect(Collectors.groupingBy(TierUpgradeRuleDefinition::getSourceTierId,
+                        Collectors.toUnmodifiableList()));
+
+        Map<Long, List<RuleCadence>> cadences = new HashMap<>();
+        for (TierUpgradeRule rule : activeRules) {
+            cadences.computeIfAbsent(rule.getSourceTier().getId(), id -> new ArrayList<>())
+                    .add(new RuleCadence(
+                            rule.getEvaluationFrequencyDays() != null ? rule.getEvaluationFrequencyDays() : 30,
+                            rule.getMinMembershipDurationDays() != null ? rule.getMinMembershipDurationDays() : 0));
+        }
+        Map<Long, RuleIndex> indexes = new HashMap<>();
+        definitions.forEach((sourceTierId, tierRules) -> indexes.put(sourceTierId, new RuleIndex(tierRules)));
+        return new Rules(version, Map.copyOf(definitions), Map.copyOf(cadences), Map.copyOf(indexes));
+    }
+
+    private record RuleCadence(int evaluationFrequencyDays, int minMembershipDurationDays) {
+    }
+
+    private record Rules(String version,
+                         Map<Long, List<TierUpgradeRuleDefinition>> definitions,
+                         Map<Long, List<RuleCadence>> cadences,
+                         Map<Long, RuleIndex> indexes) {
+    }
+}
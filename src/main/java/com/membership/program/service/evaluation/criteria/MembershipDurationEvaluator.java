@@ -0,0 +1,41 @@
+package com.membership.program.service.evaluation.criteria;
+
+import com.membership.program.service.evaluation.CriteriaEvaluator;
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.EvaluationResult;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evaluator for minimum membership duration criteria
+ */
+@Component
+public class MembershipDurationEvaluator implements CriteriaEvaluator {
+    
+    @Override
+    public String getCriteriaType() {
+        return "MEMBERSHIP_DURATION";
+    }
+    
+    @Override
+    public EvaluationResult evaluate(EvaluationContext context, Object criteriaValue) {
+        if (!(criteriaValue instanceof Number)) {
+            return EvaluationResult.failed(getCriteriaType(), criteriaValue, "Invalid value type", 
+                    "Criteria value must be a number");
+        }
+        
+        int expectedDays = ((Number) criteriaValue).intValue();
+        int actualDays = context.getMembershipDurationDays() != null ? context.getMembershipDurationDays() : 0;
+        
+        if (actualDays >= expectedDays) {
+            return EvaluationResult.passed(getCriteriaType(), expectedDays, actualDays);
+        } else {
+            return EvaluationResult.failed(getCriteriaType(), expectedDays, actualDays, 
+                    String.format("Required: %d days, Actual: %d days", expectedDays, actualDays));
+        }
+    }
+    
+    @Override
+    public boolean canHandle(String criteriaType) {
+        return "MEMBERSHIP_DURATION".equals(criteriaType);
+    }
+}
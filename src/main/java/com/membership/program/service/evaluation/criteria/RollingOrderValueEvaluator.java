@@ -0,0 +1,48 @@
+package com.membership.program.service.evaluation.criteria;
+
+import com.membership.program.service.evaluation.CriteriaEvaluator;
+import com.membership.program.dto.evaluation.DailyOrderBuckets;
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.EvaluationResult;
+import com.membership.program.dto.evaluation.RollingWindowThreshold;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+
+/**
+ * Evaluator for order value over a rolling window of days, summed from the user's daily order buckets
+ */
+@Component
+public class RollingOrderValueEvaluator implements CriteriaEvaluator {
+    
+    @Override
+    public String getCriteriaType() {
+        return "ROLLING_ORDER_VALUE";
+    }
+    
+    @Override
+    public EvaluationResult evaluate(EvaluationContext context, Object criteriaValue) {
+        if (!(criteriaValue instanceof RollingWindowThreshold threshold) || threshold.minimum() == null) {
+            return EvaluationResult.failed(getCriteriaType(), criteriaValue, "Invalid value type", 
+                    "Criteria value must be a rolling window threshold");
+        }
+        if (threshold.days() < 1 || threshold.days() > DailyOrderBuckets.MAX_WINDOW_DAYS) {
+            return EvaluationResult.failed(getCriteriaType(), criteriaValue, "Invalid rolling window", 
+                    "Rolling window must be between 1 and " + DailyOrderBuckets.MAX_WINDOW_DAYS + " days");
+        }
+        
+        BigDecimal actualValue = context.getDailyOrderBuckets().orderValue(threshold.days());
+        
+        if (actualValue.compareTo(threshold.minimum()) >= 0) {
+            return EvaluationResult.passed(getCriteriaType(), threshold, actualValue);
+        } else {
+            return EvaluationResult.failed(getCriteriaType(), threshold, actualValue, 
+                    String.format("Required: %s over %d days, Actual: %s", threshold.minimum(), threshold.days(), actualValue));
+        }
+    }
+    
+    @Override
+    public boolean canHandle(String criteriaType) {
+        return "ROLLING_ORDER_VALUE".equals(criteriaType);
+    }
+}
@@ -0,0 +1,166 @@
+package com.membership.program.service.event;
+
+import com.membership.program.utility.EventRingBuffer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-process publish/subscribe for domain events (order status changes, tier and cohort changes,
+ * subscription changes, rule changes).
+ *
+ * Events go into one preallocated {@link EventRingBuffer}. Publishing is a lock-free CAS claim and
+ * an array store: it never blocks the request thread and allocates nothing beyond the event itself. Every
+ * {@link DomainEventSubscriber} bean drains the buffer on its own thread, in batches, idling with
+ * the configured wait strategy. Subscribers therefore see events shortly after they are published
+ * rather than on the publishing thread.
+ *
+ * If the slowest subscriber falls a whole buffer behind, new events are dropped and counted in
+ * {@code membership.event-bus.dropped}. Every subscriber has a backstop for a missed event (cache
+ * TTLs, periodic rebuilds and the nightly reconciliation).
+ */
+@Component
+@Slf4j
+public class DomainEventBus implements SmartLifecycle {
+
+    private static final int MAX_IDLE_ROUNDS = 1_000;
+
+    private final ObjectProvider<DomainEventSubscriber> subscriberProvider;
+    private final MeterRegistry meterRegistry;
+    private final EventRingBuffer<Object> ringBuffer;
+    private final EventRingBuffer.WaitStrategy waitStrategy;
+    private final int maxBatch;
+    private final long parkNanos;
+    private final List<Thread> consumerThreads = new ArrayList<>();
+
+    private volatile boolean running;
+
+    public DomainEventBus(ObjectProvider<DomainEventSubscriber> subscriberProvider,
+                          MeterRegistry meterRegistry,
+                          @Value("${membership.event-bus.capacity:65536}") int capacity,
+                          @Value("${membership.event-bus.wait-strategy:SLEEPING}") EventRingBuffer.WaitStrategy waitStrategy,
+                          @Value("${membership.event-bus.max-batch:512}") int maxBatch,
+                          @Value("${membership.event-bus.park-micros:1000}") long parkMicros) {
+        this.subscriberProvider = subscriberProvider;
+        this.meterRegistry = meterRegistry;
+        this.ringBuffer = new EventRingBuffer<>(capacity);
+        this.waitStrategy = waitStrategy;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.parkNanos = TimeUnit.MICROSECONDS.toNanos(parkMicros);
+
+        Gauge.builder("membership.event-bus.backlog", ringBuffer, EventRingBuffer::backlog)
+                .description("Events not yet handled by the slowest subscriber").register(meterRegistry);
+    }
+
+    /**
+     * Publish {@code event} to every subscriber
+     *
+     * @return false if the buffer was full and the event was dropped
+     */
+    public boolean publish(Object event) {
+        if (ringBuffer.tryPublish(event)) {
+            return true;
+        }
+        meterRegistry.counter("membership.event-bus.dropped", "event", event.getClass().getSimpleName()).increment();
+        log.debug("Domain event bus full, dropped {}", event);
+        return false;
+    }
+
+    /**
+     * Publish {@code event} once the current transaction commits, or right away outside a transaction.
+     * Nothing is published if the transaction rolls back.
+     */
+    public void publishAfterCommit(Object event) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publish(event);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publish(event);
+            }
+        });
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        subscriberProvider.orderedStream().forEach(subscriber -> {
+            EventRingBuffer<Object>.Consumer consumer = ringBuffer.addConsumer();
+            Thread thread = new Thread(() -> consume(subscriber, consumer), "event-bus-" + subscriber.subscriberName());
+            thread.setDaemon(true);
+            consumerThreads.add(thread);
+            Gauge.builder("membership.event-bus.lag", consumer, EventRingBuffer.Consumer::lag)
+                    .tag("subscriber", subscriber.subscriberName()).register(meterRegistry);
+        });
+        consumerThreads.forEach(Thread::start);
+        log.info("Domain event bus started with {} subscribers, capacity {}, {} wait strategy",
+                consumerThreads.size(), ringBuffer.capacity(), waitStrategy);
+    }
+
+    /**
+     * Stop after the subscribers have handled the events already published
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        for (Thread thread : consumerThreads) {
+            try {
+                thread.join(TimeUnit.SECONDS.toMillis(10));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        consumerThreads.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Start before other lifecycle beans (e.g. schedulers) and stop after them
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+
+    private void consume(DomainEventSubscriber subscriber, EventRingBuffer<Object>.Consumer consumer) {
+        EventRingBuffer.BatchHandler<Object> handler = (event, sequence, endOfBatch) -> {
+            try {
+                subscriber.onEvent(event, endOfBatch);
+            } catch (Exception e) {
+                meterRegistry.counter("membership.event-bus.failures", "subscriber", subscriber.subscriberName()).increment();
+                log.error("Subscriber {} failed to handle {}: {}", subscriber.subscriberName(), event, e.getMessage());
+            }
+        };
+        int idleRounds = 0;
+        while (running || consumer.lag() > 0) {
+            if (consumer.drain(handler, maxBatch) > 0) {
+                idleRounds = 0;
+            } else if (!running) {
+                return;
+            } else {
+                waitStrategy.idle(idleRounds, parkNanos);
+                idleRounds = Math.min(idleRounds + 1, MAX_IDLE_ROUNDS);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.membership.program.service.event;
+
+/**
+ * Consumer of the {@link DomainEventBus}. Each subscriber gets its own thread and sees every event
+ * in publication order, in batches; {@code endOfBatch} marks the last event currently available,
+ * so a subscriber can buffer work and flush it once per batch.
+ */
+public interface DomainEventSubscriber {
+
+    /**
+     * Name of the subscriber's consumer thread and metrics tag
+     */
+    String subscriberName();
+
+    void onEvent(Object event, boolean endOfBatch);
+}
@@ -0,0 +1,39 @@
+package com.membership.program.service.history;
+
+import java.time.LocalDateTime;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A partition of {@code subscription_history} and the {@code performed_at} range it holds, from
+ * inclusive to exclusive. A null bound is open (MINVALUE / MAXVALUE); the default partition has
+ * both bounds open.
+ */
+public record HistoryPartition(String name, LocalDateTime from, LocalDateTime to, boolean isDefault) {
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FOR VALUES FROM \\((.+?)\\) TO \\((.+?)\\)");
+
+    /**
+     * @param boundExpression partition bound as printed by {@code pg_get_expr(relpartbound, oid)}
+     */
+    public static HistoryPartition parse(String name, String boundExpression) {
+        if ("DEFAULT".equals(boundExpression)) {
+            return new HistoryPartition(name, null, null, true);
+        }
+        Matcher matcher = RANGE_BOUND.matcher(boundExpression);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a range partition bound: " + boundExpression);
+        }
+        return new HistoryPartition(name, boundValue(matcher.group(1)), boundValue(matcher.group(2)), false);
+    }
+
+    private static LocalDateTime boundValue(String value) {
+        if ("MINVALUE".equals(value) || "MAXVALUE".equals(value)) {
+            return null;
+        }
+        if (value.length() < 2 || value.charAt(0) != '\'' || value.charAt(value.length() - 1) != '\'') {
+            throw new IllegalArgumentException("Not a timestamp bound: " + value);
+        }
+        return LocalDateTime.parse(value.substring(1, value.length() - 1).replace(' ', 'T'));
+    }
+}
@@ -0,0 +1,243 @@
+package com.membership.program.service.history;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.membership.program.dto.history.ArchivedHistoryEntry;
+import com.membership.program.utility.KeysetCursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Local files holding archived months of subscription history.
+ *
+ * Each archived partition becomes one gzip-compressed NDJSON file named after the partition's
+ * {@code performed_at} range. A file is written once, under a temporary name, synced and then
+ * renamed into place; archived files are never modified. Lines are sorted by user, then newest
+ * first, so a member's entries are one contiguous run and a reader stops once it has passed them.
+ * Reading still decompresses a file up to that point, which makes this the slow path for history
+ * older than the retention window.
+ */
+@Component
+public class SubscriptionHistoryArchive {
+
+    private static final String FILE_PREFIX = "history-";
+    private static final String FILE_SUFFIX = ".ndjson.gz";
+    private static final String OPEN_LOWER_BOUND = "min";
+    private static final String USER_ID_FIELD = "{\"userId\":";
+    private static final DateTimeFormatter FILE_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+
+    public SubscriptionHistoryArchive(ObjectMapper objectMapper,
+                                      @Value("${membership.subscription-history.archive-dir:data/archive/subscription-history}") String directory) {
+        this.objectMapper = objectMapper.copy()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.directory = Path.of(directory);
+    }
+
+    /**
+     * Start the archive file of {@code partition}. Entries must be appended sorted by user id,
+     * then newest first.
+     */
+    public ArchiveFileWriter newFile(HistoryPartition partition) throws IOException {
+        if (partition.to() == null) {
+            throw new IllegalArgumentException("Partition " + partition.name() + " has no upper bound");
+        }
+        Files.createDirectories(directory);
+        String name = FILE_PREFIX + (partition.from() == null ? OPEN_LOWER_BOUND : FILE_DATE.format(partition.from()))
+                + "-" + FILE_DATE.format(partition.to()) + FILE_SUFFIX;
+        return new ArchiveFileWriter(directory.resolve(name), directory.resolve(name + ".tmp"));
+    }
+
+    /**
+     * Up to {@code limit} archived entries of {@code userId}, newest first, strictly older than
+     * {@code before} when given
+     */
+    public List<ArchivedHistoryEntry> findByUser(Long userId, KeysetCursor before, int limit) {
+        List<ArchivedHistoryEntry> found = new ArrayList<>(limit);
+        for (ArchiveFile file : files()) {
+            // Every entry in the file is at or after its lower bound
+            if (before != null && file.from() != null && file.from().isAfter(before.at())) {
+                continue;
+            }
+            readUser(file.path(), userId, entry -> before == null || isBefore(entry, before), found, limit);
+            if (found.size() >= limit) {
+                break;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Pass every archived entry of {@code userId} to {@code sink}, newest first, one file at a time
+     */
+    public void forEachByUser(Long userId, Consumer<List<ArchivedHistoryEntry>> sink) {
+        for (ArchiveFile file : files()) {
+            List<ArchivedHistoryEntry> entries = new ArrayList<>();
+            readUser(file.path(), userId, entry -> true, entries, Integer.MAX_VALUE);
+            if (!entries.isEmpty()) {
+                sink.accept(entries);
+            }
+        }
+    }
+
+    private void readUser(Path path, Long userId, Predicate<ArchivedHistoryEntry> filter,
+                          List<ArchivedHistoryEntry> found, int limit) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path), BUFFER_BYTES), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null && found.size() < limit) {
+                long lineUserId = userIdOf(line);
+                if (lineUserId < userId) {
+                    continue;
+                }
+                if (lineUserId > userId) {
+                    return;
+                }
+                ArchivedHistoryEntry entry = objectMapper.readValue(line, ArchivedHistoryEntry.class);
+                if (filter.test(entry)) {
+                    found.add(entry);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read history archive " + path, e);
+        }
+    }
+
+    /**
+     * Archive files, newest range first
+     */
+    private List<ArchiveFile> files() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> paths = Files.list(directory)) {
+            return paths.map(ArchiveFile::of)
+                    .filter(file -> file != null)
+                    .sorted(Comparator.comparing(ArchiveFile::to).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list history archive " + directory, e);
+        }
+    }
+
+    private static boolean isBefore(ArchivedHistoryEntry entry, KeysetCursor cursor) {
+        int byTime = entry.performedAt().compareTo(cursor.at());
+        return byTime < 0 || (byTime == 0 && entry.id() < cursor.id());
+    }
+
+    /**
+     * User id of a line without parsing it; entries without one sort last, as in the export query
+     */
+    private static long userIdOf(String line) {
+        int end = line.indexOf(',', USER_ID_FIELD.length());
+        try {
+            return line.startsWith(USER_ID_FIELD) && end > 0
+                    ? Long.parseLong(line, USER_ID_FIELD.length(), end, 10)
+                    : Long.MAX_VALUE;
+        } catch (NumberFormatException e) {
+            return Long.MAX_VALUE;
+        }
+    }
+
+    private record ArchiveFile(Path path, LocalDateTime from, LocalDateTime to) {
+
+        static ArchiveFile of(Path path) {
+            String name = path.getFileName().toString();
+            if (!name.startsWith(FILE_PREFIX) || !name.endsWith(FILE_SUFFIX)) {
+                return null;
+            }
+            String[] bounds = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length()).split("-");
+            if (bounds.length != 2) {
+                return null;
+            }
+            LocalDateTime from = OPEN_LOWER_BOUND.equals(bounds[0]) ? null : LocalDate.parse(bounds[0], FILE_DATE).atStartOfDay();
+            return new ArchiveFile(path, from, LocalDate.parse(bounds[1], FILE_DATE).atStartOfDay());
+        }
+    }
+
+    /**
+     * Archive file being written. Nothing is visible to readers until {@link #commit()}; closing an
+     * uncommitted writer discards the file.
+     */
+    public final class ArchiveFileWriter implements Closeable {
+
+        private final Path target;
+        private final Path temporary;
+        private final FileOutputStream file;
+        private final GZIPOutputStream gzip;
+        private final OutputStream out;
+        private long count;
+        private boolean committed;
+
+        private ArchiveFileWriter(Path target, Path temporary) throws IOException {
+            this.target = target;
+            this.temporary = temporary;
+            this.file = new FileOutputStream(temporary.toFile());
+            this.gzip = new GZIPOutputStream(file, BUFFER_BYTES);
+            this.out = new BufferedOutputStream(gzip, BUFFER_BYTES);
+        }
+
+        public void append(ArchivedHistoryEntry entry) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(entry));
+            out.write('\n');
+            count++;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public Path target() {
+            return target;
+        }
+
+        /**
+         * Sync the file to disk and move it into place
+         */
+        public void commit() throws IOException {
+            out.flush();
+            gzip.finish();
+            file.getChannel().force(true);
+            file.close();
+            Files.move(temporary, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            committed = true;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!committed) {
+                file.close();
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+}
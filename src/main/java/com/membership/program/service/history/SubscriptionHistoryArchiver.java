@@ -0,0 +1,196 @@
+package com.membership.program.service.history;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+import com.membership.program.dto.history.ArchivedHistoryEntry;
+import com.membership.program.service.cluster.LeaderElection;
+import com.membership.program.service.cluster.LeaderLease;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.LongSupplier;
+
+/**
+ * Moves months of subscription history older than the retention window out of the database.
+ *
+ * On the leader, each partition whose whole range is older than {@code retention-months} is
+ * written to a {@link SubscriptionHistoryArchive} file. The partition is then detached and dropped
+ * in one transaction, which first checks that it still holds exactly the rows written. If the
+ * process stops in between, the next run rewrites the file and retries the drop.
+ *
+ * The legacy partition left by {@link SubscriptionHistoryPartitions} holds every month before the
+ * table was partitioned, so its range only leaves the window long after its oldest rows do. Its
+ * expired months are archived one file per month instead and deleted from it, oldest first,
+ * using an index on {@code performed_at} that is created for this the first time.
+ */
+@Component
+@Slf4j
+public class SubscriptionHistoryArchiver {
+
+    private static final String ARCHIVE_JOB = "subscription-history-archive";
+    private static final int FETCH_SIZE = 1000;
+
+    private final SubscriptionHistoryPartitions partitions;
+    private final SubscriptionHistoryArchive archive;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final LeaderElection leaderElection;
+    private final MeterRegistry meterRegistry;
+    private final int retentionMonths;
+
+    public SubscriptionHistoryArchiver(SubscriptionHistoryPartitions partitions,
+                                       SubscriptionHistoryArchive archive,
+                                       JdbcTemplate jdbcTemplate,
+                                       PlatformTransactionManager transactionManager,
+                                       LeaderElection leaderElection,
+                                       MeterRegistry meterRegistry,
+                                       @Value("${membership.subscription-history.retention-months:24}") int retentionMonths) {
+        this.partitions = partitions;
+        this.archive = archive;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.leaderElection = leaderElection;
+        this.meterRegistry = meterRegistry;
+        this.retentionMonths = Math.max(1, retentionMonths);
+    }
+
+    /**
+     * Archive partitions older than the retention window, daily at 4 AM by default
+     */
+    @Scheduled(cron = "${membership.subscription-history.archive-cron:0 0 4 * * ?}")
+    public void archiveExpiredPartitions() {
+        LocalDateTime cutoff = LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay();
+        leaderElection.runIfLeader(ARCHIVE_JOB, lease -> {
+            for (HistoryPartition partition : partitions.rangePartitions()) {
+                if (!lease.isValid() || partition.to() == null) {
+                    return;
+                }
+                try {
+                    if (partition.to().isAfter(cutoff)) {
+                        if (partition.from() == null) {
+                            archiveExpiredMonths(partition, cutoff, lease);
+                        }
+                        // Oldest first, so every later partition is inside the window too
+                        return;
+                    }
+                    archivePartition(partition);
+                } catch (IOException | UncheckedIOException | DataAccessException e) {
+                    log.error("Archiving subscription history partition {} failed: {}", partition.name(), e.getMessage());
+                    return;
+                }
+            }
+        });
+    }
+
+    private void archivePartition(HistoryPartition partition) throws IOException {
+        archive(partition, "", () -> {
+            jdbcTemplate.execute("ALTER TABLE " + SubscriptionHistoryPartitions.TABLE + " DETACH PARTITION " + partition.name());
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition.name(), Long.class);
+        }, () -> jdbcTemplate.execute("DROP TABLE " + partition.name()));
+    }
+
+    /**
+     * Archive and delete the months of an open-ended partition that are older than {@code cutoff}
+     */
+    private void archiveExpiredMonths(HistoryPartition partition, LocalDateTime cutoff, LeaderLease lease) throws IOException {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS " + partition.name() + "_performed_at_idx ON "
+                + partition.name() + " (performed_at)");
+        while (lease.isValid()) {
+            Timestamp oldest = jdbcTemplate.queryForObject("SELECT MIN(performed_at) FROM " + partition.name(), Timestamp.class);
+            if (oldest == null) {
+                return;
+            }
+            LocalDateTime from = oldest.toLocalDateTime().toLocalDate().withDayOfMonth(1).atStartOfDay();
+            LocalDateTime to = from.plusMonths(1);
+            if (to.isAfter(cutoff)) {
+                return;
+            }
+            String range = " WHERE performed_at >= '" + from + "' AND performed_at < '" + to + "'";
+            if (!archive(new HistoryPartition(partition.name(), from, to, false), range,
+                    () -> jdbcTemplate.update("DELETE FROM " + partition.name() + range), () -> { })) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Write the rows of {@code partition} matching {@code filter} to an archive file, then in one
+     * transaction remove them and commit the file if exactly the rows written were removed
+     *
+     * @return false if the rows changed while they were written
+     */
+    private boolean archive(HistoryPartition partition, String filter, LongSupplier remove, Runnable afterCommit)
+            throws IOException {
+        long start = System.currentTimeMillis();
+        try (SubscriptionHistoryArchive.ArchiveFileWriter writer = archive.newFile(partition)) {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement("SELECT user_id, id, subscription_id, action, "
+                        + "action_description, old_value, new_value, old_price, new_price, performed_by, performed_at, "
+                        + "created_at, metadata FROM " + partition.name() + filter
+                        + " ORDER BY user_id, performed_at DESC, id DESC");
+                statement.setFetchSize(FETCH_SIZE);
+                return statement;
+            }, rs -> {
+                try {
+                    writer.append(toEntry(rs));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+
+            long written = writer.count();
+            transactionTemplate.executeWithoutResult(status -> {
+                long removed = remove.getAsLong();
+                if (removed != written) {
+                    throw new IllegalStateException("Partition " + partition.name() + " changed while it was archived ("
+                            + removed + " rows, " + written + " written)");
+                }
+                try {
+                    writer.commit();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                afterCommit.run();
+            });
+
+            meterRegistry.counter("membership.subscription-history.archived").increment(written);
+            log.info("Archived {} subscription history entries of partition {} to {} in {}ms",
+                    written, partition.name(), writer.target(), System.currentTimeMillis() - start);
+            return true;
+        } catch (IllegalStateException e) {
+            log.warn("{}; retrying on the next run", e.getMessage());
+            return false;
+        }
+    }
+
+    private static ArchivedHistoryEntry toEntry(ResultSet rs) throws SQLException {
+        long userId = rs.getLong("user_id");
+        Long user = rs.wasNull() ? null : userId;
+        return new ArchivedHistoryEntry(user, rs.getLong("id"), rs.getLong("subscription_id"),
+                SubscriptionAction.valueOf(rs.getString("action")), rs.getString("action_description"),
+                rs.getString("old_value"), rs.getString("new_value"), rs.getBigDecimal("old_price"),
+                rs.getBigDecimal("new_price"), rs.getString("performed_by"), toLocalDateTime(rs.getTimestamp("performed_at")),
+                toLocalDateTime(rs.getTimestamp("created_at")), rs.getString("metadata"));
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,179 @@
+package com.membership.program.service.history;
+
+import com.membership.program.service.cluster.LeaderElection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Keeps {@code subscription_history} range-partitioned by {@code performed_at} month.
+ *
+ * Hibernate creates the table as a plain table. The first run converts it in one transaction:
+ * the existing table is renamed and attached as the partition for everything before the current
+ * month, after this month's rows are moved into a partition of their own. Only those rows are
+ * copied, and new entries never land in the large legacy table. Its months are later archived
+ * out of it one at a time by {@link SubscriptionHistoryArchiver}. Every run then creates any
+ * missing partition up to {@code partition-months-ahead} months out. A default partition catches
+ * rows outside every month (e.g. a skewed clock); a month whose rows already landed there cannot
+ * be created until they are moved, which is logged.
+ *
+ * Inserts and recent-history reads therefore touch only the current month's partition and its
+ * small indexes, and old months can be archived by {@link SubscriptionHistoryArchiver} as a unit.
+ */
+@Component
+@Slf4j
+public class SubscriptionHistoryPartitions {
+
+    static final String TABLE = "subscription_history";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String LEGACY_PARTITION = TABLE + "_legacy";
+    private static final String PARTITION_JOB = "subscription-history-partitions";
+    private static final DateTimeFormatter MONTH_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final String PARTITIONS_QUERY = """
+            SELECT c.relname AS name, pg_get_expr(c.relpartbound, c.oid) AS bound
+            FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+            WHERE i.inhparent = 'subscription_history'::regclass
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final LeaderElection leaderElection;
+    private final int monthsAhead;
+
+    public SubscriptionHistoryPartitions(JdbcTemplate jdbcTemplate,
+                                         PlatformTransactionManager transactionManager,
+                                         LeaderElection leaderElection,
+                                         @Value("${membership.subscription-history.partition-months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.leaderElection = leaderElection;
+        this.monthsAhead = Math.max(1, monthsAhead);
+    }
+
+    /**
+     * Partition the table if it is not yet partitioned and create the coming months' partitions,
+     * at startup and then periodically
+     */
+    @Scheduled(fixedDelayString = "${membership.subscription-history.partition-check-ms:21600000}",
+            initialDelayString = "${membership.subscription-history.partition-initial-delay-ms:0}")
+    public void maintain() {
+        leaderElection.runIfLeader(PARTITION_JOB, lease -> {
+            try {
+                if (convertToPartitioned()) {
+                    createAhead(LocalDate.now());
+                }
+            } catch (DataAccessException e) {
+                log.error("Subscription history partition maintenance failed: {}", e.getMessage());
+            }
+        });
+    }
+
+    /**
+     * Current partitions, oldest first, without the default partition
+     */
+    public List<HistoryPartition> rangePartitions() {
+        return jdbcTemplate.query(PARTITIONS_QUERY,
+                        (rs, rowNum) -> HistoryPartition.parse(rs.getString("name"), rs.getString("bound")))
+                .stream()
+                .filter(partition -> !partition.isDefault())
+                .sorted(Comparator.comparing(HistoryPartition::to, Comparator.nullsLast(Comparator.naturalOrder())))
+                .toList();
+    }
+
+    /**
+     * @return false if the table does not exist yet
+     */
+    private boolean convertToPartitioned() {
+        String kind = jdbcTemplate.queryForObject(
+                "SELECT c.relkind::text FROM pg_class c WHERE c.oid = to_regclass(?)", String.class, TABLE);
+        if (kind == null) {
+            return false;
+        }
+        if ("p".equals(kind)) {
+            return true;
+        }
+
+        LocalDate currentMonth = LocalDate.now().withDayOfMonth(1);
+        LocalDateTime cutover = currentMonth.atStartOfDay();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE " + TABLE + " IN ACCESS EXCLUSIVE MODE");
+            long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + TABLE, Long.class);
+
+            // Free the table's index names for the partitioned table, and its id generator
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_PARTITION);
+            jdbcTemplate.queryForList("SELECT indexname FROM pg_indexes WHERE tablename = ?", String.class, LEGACY_PARTITION)
+                    .forEach(index -> jdbcTemplate.execute("ALTER INDEX " + index + " RENAME TO " + legacyName(index)));
+            jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN id DROP IDENTITY IF EXISTS");
+            jdbcTemplate.execute("ALTER TABLE " + LEGACY_PARTITION + " ALTER COLUMN id DROP DEFAULT");
+
+            jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_PARTITION + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS, "
+                    + "CONSTRAINT " + TABLE + "_pkey PRIMARY KEY (id, performed_at)) PARTITION BY RANGE (performed_at)");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id ADD GENERATED BY DEFAULT AS IDENTITY (START WITH "
+                    + (maxId + 1) + ")");
+            jdbcTemplate.execute("CREATE INDEX idx_history_subscription_id ON " + TABLE + " (subscription_id)");
+            jdbcTemplate.execute("CREATE INDEX idx_history_action ON " + TABLE + " (action)");
+            jdbcTemplate.execute("CREATE INDEX idx_history_created_at ON " + TABLE + " (created_at)");
+            jdbcTemplate.execute("CREATE INDEX idx_history_user_performed_at ON " + TABLE + " (user_id, performed_at, id)");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT fk_subscription_history_subscription "
+                    + "FOREIGN KEY (subscription_id) REFERENCES subscriptions (id)");
+
+            jdbcTemplate.execute("CREATE TABLE " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+            jdbcTemplate.execute("CREATE TABLE " + monthPartition(currentMonth) + " PARTITION OF " + TABLE
+                    + " FOR VALUES FROM ('" + cutover + "') TO ('" + cutover.plusMonths(1) + "')");
+            // This month's rows (and any dated in the future) go to their own partitions before the legacy one is bounded
+            int moved = jdbcTemplate.update("INSERT INTO " + TABLE + " SELECT * FROM " + LEGACY_PARTITION
+                    + " WHERE performed_at >= '" + cutover + "'");
+            jdbcTemplate.update("DELETE FROM " + LEGACY_PARTITION + " WHERE performed_at >= '" + cutover + "'");
+            log.info("Moved {} subscription history entries of the current month out of {}", moved, LEGACY_PARTITION);
+
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ATTACH PARTITION " + LEGACY_PARTITION
+                    + " FOR VALUES FROM (MINVALUE) TO ('" + cutover + "')");
+        });
+        log.info("Partitioned {} by month; existing entries before {} are kept in {}", TABLE, cutover, LEGACY_PARTITION);
+        return true;
+    }
+
+    private void createAhead(LocalDate today) {
+        LocalDateTime covered = rangePartitions().stream()
+                .map(HistoryPartition::to)
+                .filter(to -> to != null)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+        LocalDate lastMonth = today.withDayOfMonth(1).plusMonths(monthsAhead);
+        for (LocalDate month = today.withDayOfMonth(1); !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            if (covered != null && month.atStartOfDay().isBefore(covered)) {
+                continue;
+            }
+            String partition = monthPartition(month);
+            try {
+                jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partition + " PARTITION OF " + TABLE
+                        + " FOR VALUES FROM ('" + month.atStartOfDay() + "') TO ('" + month.plusMonths(1).atStartOfDay() + "')");
+            } catch (DataAccessException e) {
+                log.error("Could not create subscription history partition {}: {}", partition, e.getMessage());
+                return;
+            }
+            log.info("Created subscription history partition {}", partition);
+        }
+    }
+
+    private static String monthPartition(LocalDate month) {
+        return TABLE + "_p" + MONTH_SUFFIX.format(month);
+    }
+
+    private static String legacyName(String index) {
+        // Postgres truncates identifiers to 63 bytes
+        return (index.length() > 56 ? index.substring(0, 56) : index) + "_legacy";
+    }
+}
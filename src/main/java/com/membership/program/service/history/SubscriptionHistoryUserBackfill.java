@@ -0,0 +1,61 @@
+package com.membership.program.service.history;
+
+import com.membership.program.repository.SubscriptionHistoryRepository;
+import com.membership.program.service.cluster.LeaderElection;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fills {@code subscription_history.user_id} for entries written before the column was added.
+ * Runs on the leader shortly after startup, a batch per transaction, and stops checking once a
+ * pass finds nothing left to fill. Until then older entries are missing from the history pages.
+ */
+@Component
+@Slf4j
+public class SubscriptionHistoryUserBackfill {
+
+    private static final String BACKFILL_JOB = "subscription-history-user-backfill";
+
+    private final SubscriptionHistoryRepository subscriptionHistoryRepository;
+    private final LeaderElection leaderElection;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    private volatile boolean complete;
+
+    public SubscriptionHistoryUserBackfill(SubscriptionHistoryRepository subscriptionHistoryRepository,
+                                           LeaderElection leaderElection,
+                                           TransactionTemplate transactionTemplate,
+                                           @Value("${membership.subscription-history.backfill-batch-size:5000}") int batchSize) {
+        this.subscriptionHistoryRepository = subscriptionHistoryRepository;
+        this.leaderElection = leaderElection;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Scheduled(initialDelayString = "${membership.subscription-history.backfill-initial-delay-ms:30000}",
+            fixedDelayString = "${membership.subscription-history.backfill-ms:600000}")
+    public void backfill() {
+        if (complete) {
+            return;
+        }
+        leaderElection.runIfLeader(BACKFILL_JOB, lease -> {
+            int total = 0;
+            Integer updated;
+            while (lease.isValid()
+                    && (updated = transactionTemplate.execute(status -> subscriptionHistoryRepository.backfillUserIds(batchSize))) != null
+                    && updated > 0) {
+                total += updated;
+            }
+            if (lease.isValid()) {
+                complete = true;
+            }
+            if (total > 0) {
+                log.info("Backfilled user_id on {} subscription history entries", total);
+            }
+        });
+    }
+}
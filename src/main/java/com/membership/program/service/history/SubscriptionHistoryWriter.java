@@ -0,0 +1,273 @@
+package com.membership.program.service.history;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+import com.membership.program.entity.SubscriptionHistory;
+import com.membership.program.repository.SubscriptionHistoryRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes subscription history entries, either in the caller's transaction or in JDBC batches off
+ * the caller's thread.
+ *
+ * Money-affecting actions ({@code membership.subscription-history.synchronous-actions}) and actions
+ * performed by a member are saved synchronously, so they commit or roll back with the change they
+ * record. Other system actions are queued once the caller's transaction commits and inserted by a
+ * flusher thread in batches of up to {@code batch-size}. With the default settings these are the
+ * {@code SYSTEM} entries of the nightly and timer-driven jobs: CANCELLED for an expired
+ * subscription, and UPGRADED, DOWNGRADED and TIER_CHANGED for automatic tier changes.
+ *
+ * Loss window: such an entry is written only after the change it records has committed, so if
+ * the process dies (rather than shutting down) before the flusher inserts it, the change stands
+ * without its history entry. At most the queued entries plus the batch being inserted are lost,
+ * i.e. up to {@code queue-capacity + batch-size} entries, normally those of the last
+ * {@code flush-ms}. Entries lost this way are not recovered. Add the action to
+ * {@code synchronous-actions} (e.g. {@code CREATED,RENEWED,CANCELLED,UPGRADED}) to trade the
+ * batching for saving it in the caller's transaction.
+ *
+ * The queue is bounded. When it is full the caller waits up to {@code max-wait-ms} for space and
+ * then inserts the entry itself, so a slow database slows the producers down instead of growing
+ * the queue. Entries still queued at shutdown are flushed before the writer stops.
+ */
+@Component
+@Slf4j
+public class SubscriptionHistoryWriter implements SmartLifecycle {
+
+    public static final String SYSTEM_ACTOR = "SYSTEM";
+
+    private static final int MAX_FLUSH_ATTEMPTS = 3;
+    private static final String INSERT_SQL = """
+            INSERT INTO subscription_history (subscription_id, user_id, action, action_description, old_value, new_value,
+                                              old_price, new_price, performed_by, performed_at, created_at, metadata)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+            """;
+
+    public enum Durability {
+        SYNCHRONOUS,
+        BATCHED
+    }
+
+    private final SubscriptionHistoryRepository subscriptionHistoryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final MeterRegistry meterRegistry;
+    private final Set<SubscriptionAction> synchronousActions;
+    private final BlockingQueue<HistoryRow> queue;
+    private final int batchSize;
+    private final long flushMillis;
+    private final long maxWaitMillis;
+
+    private volatile boolean running;
+    private Thread flusher;
+
+    public SubscriptionHistoryWriter(SubscriptionHistoryRepository subscriptionHistoryRepository,
+                                     JdbcTemplate jdbcTemplate,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${membership.subscription-history.synchronous-actions:CREATED,RENEWED}") Set<SubscriptionAction> synchronousActions,
+                                     @Value("${membership.subscription-history.queue-capacity:10000}") int queueCapacity,
+                                     @Value("${membership.subscription-history.batch-size:500}") int batchSize,
+                                     @Value("${membership.subscription-history.flush-ms:200}") long flushMillis,
+                                     @Value("${membership.subscription-history.max-wait-ms:100}") long maxWaitMillis) {
+        this.subscriptionHistoryRepository = subscriptionHistoryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.meterRegistry = meterRegistry;
+        this.synchronousActions = synchronousActions.isEmpty() ? EnumSet.noneOf(SubscriptionAction.class) : EnumSet.copyOf(synchronousActions);
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSize = Math.max(1, batchSize);
+        this.flushMillis = flushMillis;
+        this.maxWaitMillis = maxWaitMillis;
+
+        Gauge.builder("membership.subscription-history.queued", queue, BlockingQueue::size)
+                .description("History entries waiting to be flushed").register(meterRegistry);
+    }
+
+    public Durability durabilityOf(SubscriptionHistory history) {
+        return synchronousActions.contains(history.getAction()) || !SYSTEM_ACTOR.equals(history.getPerformedBy())
+                ? Durability.SYNCHRONOUS
+                : Durability.BATCHED;
+    }
+
+    /**
+     * Record {@code history} with the durability of its action
+     */
+    public void write(SubscriptionHistory history) {
+        if (durabilityOf(history) == Durability.SYNCHRONOUS) {
+            subscriptionHistoryRepository.save(history);
+            return;
+        }
+        HistoryRow row = HistoryRow.of(history);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(row);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(row);
+            }
+        });
+    }
+
+    private void enqueue(HistoryRow row) {
+        try {
+            if (running && queue.offer(row, maxWaitMillis, TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Queue full or writer stopped: insert on the caller's thread
+        meterRegistry.counter("membership.subscription-history.inline-writes").increment();
+        insert(List.of(row));
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::flushLoop, "subscription-history-writer");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    /**
+     * Stop after the queued entries have been flushed
+     */
+    @Override
+    public synchronized void stop() {
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+        try {
+            flusher.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flusher = null;
+        // Anything the flusher left behind (or enqueued while it was exiting)
+        flushQueued();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the schedulers and web server that produce history entries
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MIN_VALUE + 1000;
+    }
+
+    private void flushLoop() {
+        List<HistoryRow> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                HistoryRow first = queue.poll(flushMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                insert(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+        flushQueued();
+    }
+
+    private void flushQueued() {
+        List<HistoryRow> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            insert(batch);
+            batch.clear();
+        }
+    }
+
+    private void insert(List<HistoryRow> rows) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int attempt = 1; ; attempt++) {
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, rows, rows.size(), (ps, row) -> {
+                    ps.setLong(1, row.subscriptionId());
+                    ps.setLong(2, row.userId());
+                    ps.setString(3, row.action().name());
+                    ps.setString(4, row.actionDescription());
+                    ps.setString(5, row.oldValue());
+                    ps.setString(6, row.newValue());
+                    ps.setBigDecimal(7, row.oldPrice());
+                    ps.setBigDecimal(8, row.newPrice());
+                    ps.setString(9, row.performedBy());
+                    ps.setTimestamp(10, Timestamp.valueOf(row.performedAt()));
+                    ps.setTimestamp(11, now);
+                    ps.setString(12, row.metadata());
+                });
+                meterRegistry.counter("membership.subscription-history.written").increment(rows.size());
+                return;
+            } catch (DataAccessException e) {
+                if (attempt >= MAX_FLUSH_ATTEMPTS) {
+                    meterRegistry.counter("membership.subscription-history.lost").increment(rows.size());
+                    log.error("Could not write {} subscription history entries, giving up: {}", rows.size(), e.getMessage());
+                    rows.forEach(row -> log.error("Unwritten subscription history entry: {}", row));
+                    return;
+                }
+                log.warn("Writing {} subscription history entries failed (attempt {}): {}", rows.size(), attempt, e.getMessage());
+                try {
+                    Thread.sleep(attempt * 100L);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    /**
+     * Column values of a queued entry, detached from the persistence context it was built in
+     */
+    private record HistoryRow(Long subscriptionId,
+                              Long userId,
+                              SubscriptionAction action,
+                              String actionDescription,
+                              String oldValue,
+                              String newValue,
+                              BigDecimal oldPrice,
+                              BigDecimal newPrice,
+                              String performedBy,
+                              LocalDateTime performedAt,
+                              String metadata) {
+
+        static HistoryRow of(SubscriptionHistory history) {
+            return new HistoryRow(history.getSubscription().getId(), history.getUserId(), history.getAction(),
+                    history.getActionDescription(), history.getOldValue(), history.getNewValue(),
+                    history.getOldPrice(), history.getNewPrice(),
+                    history.getPerformedBy(), history.getPerformedAt(), history.getMetadata());
+        }
+    }
+}
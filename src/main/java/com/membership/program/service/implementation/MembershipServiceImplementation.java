@@ -1,20 +1,36 @@
 package com.membership.program.service.implementation;
 
 import com.membership.program.dto.enums.OrderStatus;
+import com.membership.program.dto.history.ArchivedHistoryEntry;
+import com.membership.program.dto.history.SubscriptionHistoryEntry;
+import com.membership.program.dto.outbox.TierChangedMessage;
 import com.membership.program.dto.request.SubscriptionRequestDTO;
 import com.membership.program.dto.response.MembershipPlanResponseDTO;
+import com.membership.program.dto.response.SubscriptionHistoryPageDTO;
 import com.membership.program.dto.response.SubscriptionHistoryResponseDTO;
 import com.membership.program.dto.response.SubscriptionResponseDTO;
 import com.membership.program.entity.*;
 import com.membership.program.dto.enums.SubscriptionAction;
 import com.membership.program.dto.enums.SubscriptionStatus;
+import com.membership.program.dto.outbox.SubscriptionChangedMessage;
 import com.membership.program.exception.MembershipException;
 import com.membership.program.exception.SubscriptionException;
 import com.membership.program.repository.*;
 import com.membership.program.service.MembershipService;
+import com.membership.program.event.SubscriptionChangedEvent;
+import com.membership.program.service.SubscriptionExpiryService;
+import com.membership.program.service.event.DomainEventBus;
+import com.membership.program.service.history.SubscriptionHistoryArchive;
+import com.membership.program.service.history.SubscriptionHistoryWriter;
+import com.membership.program.service.outbox.OutboxService;
+import com.membership.program.service.lock.UserMutationLocks;
+import com.membership.program.utility.KeysetCursor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
@@ -22,6 +38,8 @@ import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
@@ -30,12 +48,23 @@ import java.util.stream.Collectors;
 @Transactional
 public class MembershipServiceImplementation implements MembershipService {
 
+    private static final String SUBSCRIPTION_EVENT_PREFIX = "SUBSCRIPTION_";
+    private static final int DEFAULT_HISTORY_PAGE_SIZE = 50;
+    private static final int MAX_HISTORY_PAGE_SIZE = 200;
+    private static final int EXPORT_HISTORY_PAGE_SIZE = 500;
+
     private final MembershipPlanRepository membershipPlanRepository;
     private final MembershipTierRepository membershipTierRepository;
     private final SubscriptionRepository subscriptionRepository;
     private final UserRepository userRepository;
     private final OrderRepository orderRepository;
     private final SubscriptionHistoryRepository subscriptionHistoryRepository;
+    private final SubscriptionExpiryService subscriptionExpiryService;
+    private final UserMutationLocks userMutationLocks;
+    private final SubscriptionHistoryWriter subscriptionHistoryWriter;
+    private final SubscriptionHistoryArchive subscriptionHistoryArchive;
+    private final DomainEventBus domainEventBus;
+    private final OutboxService outboxService;
 
     @Override
     @Transactional(readOnly = true)
@@ -68,6 +97,7 @@ public class MembershipServiceImplementation implements MembershipService {
     @Override
     public SubscriptionResponseDTO subscribeToPlan(Long userId, SubscriptionRequestDTO request) {
         log.info("User {} subscribing to plan {} with tier {}", userId, request.getPlanId(), request.getTierId());
+        userMutationLocks.lockForTransaction(userId);
         
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new MembershipException("User not found with ID: " + userId));
@@ -83,8 +113,13 @@ public class MembershipServiceImplementation implements MembershipService {
             throw new MembershipException("Plan " + plan.getName() + " is not applicable for tier " + tier.getName());
         }
 
+        // Settle a lapsed subscription the expiry job has not reached yet: only one ACTIVE subscription per user is allowed
+        LocalDateTime now = LocalDateTime.now();
+        subscriptionRepository.findLapsedActiveSubscriptionIds(userId, now)
+                .forEach(subscriptionId -> subscriptionExpiryService.processIfDue(subscriptionId, now));
+
         // Check if user already has an active subscription
-        Optional<Subscription> existingSubscription = subscriptionRepository.findCurrentActiveSubscription(userId, LocalDateTime.now());
+        Optional<Subscription> existingSubscription = subscriptionRepository.findCurrentActiveSubscription(userId, now);
         if (existingSubscription.isPresent()) {
             throw new SubscriptionException("User already has an active subscription");
         }
@@ -105,7 +140,12 @@ public class MembershipServiceImplementation implements MembershipService {
                 .autoRenewal(request.isAutoRenewal())
                 .build();
 
-        subscription = subscriptionRepository.save(subscription);
+        try {
+            subscription = subscriptionRepository.saveAndFlush(subscription);
+        } catch (DataIntegrityViolationException e) {
+            // Another node created an active subscription for the user concurrently
+            throw new SubscriptionException("User already has an active subscription");
+        }
         
         // Update user's tier level and membership start date
         user.setCurrentTierLevel(tier.getTierLevel());
@@ -132,17 +172,83 @@ public class MembershipServiceImplementation implements MembershipService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<SubscriptionHistoryResponseDTO> getUserSubscriptionHistory(Long userId) {
+    public SubscriptionHistoryPageDTO getUserSubscriptionHistory(Long userId, String cursor, Integer limit) {
         log.info("Fetching subscription history for user: {}", userId);
-        List<SubscriptionHistory> subscriptions = subscriptionHistoryRepository.findByUserId(userId);
-        return subscriptions.stream()
-                .map(this::mapToSubscriptionHistoryResponseDTO)
-                .collect(Collectors.toList());
+        KeysetCursor after = decodeHistoryCursor(cursor);
+        int pageSize = historyPageSize(limit);
+
+        // One extra row tells whether there is a next page
+        List<SubscriptionHistoryEntry> entries = findHistoryPage(userId, after, pageSize + 1);
+        boolean hasMore = entries.size() > pageSize;
+        List<SubscriptionHistoryEntry> page = hasMore ? entries.subList(0, pageSize) : entries;
+        SubscriptionHistoryEntry last = hasMore ? page.get(page.size() - 1) : null;
+        return SubscriptionHistoryPageDTO.builder()
+                .items(page.stream().map(this::mapToSubscriptionHistoryResponseDTO).collect(Collectors.toList()))
+                .nextCursor(last != null ? new KeysetCursor(last.getPerformedAt(), last.getId()).encode() : null)
+                .build();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int exportUserSubscriptionHistory(Long userId, Consumer<List<SubscriptionHistoryResponseDTO>> sink) {
+        log.info("Exporting subscription history for user: {}", userId);
+        int exported = 0;
+        KeysetCursor after = null;
+        List<SubscriptionHistoryEntry> page;
+        while (!(page = findHistoryPage(userId, after, EXPORT_HISTORY_PAGE_SIZE)).isEmpty()) {
+            sink.accept(page.stream().map(this::mapToSubscriptionHistoryResponseDTO).collect(Collectors.toList()));
+            exported += page.size();
+            SubscriptionHistoryEntry last = page.get(page.size() - 1);
+            after = new KeysetCursor(last.getPerformedAt(), last.getId());
+        }
+
+        // Then the months moved out of the database, which are all older
+        AtomicInteger archived = new AtomicInteger();
+        subscriptionHistoryArchive.forEachByUser(userId, entries -> {
+            sink.accept(entries.stream().map(this::mapToSubscriptionHistoryResponseDTO).collect(Collectors.toList()));
+            archived.addAndGet(entries.size());
+        });
+        return exported + archived.get();
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SubscriptionHistoryPageDTO getArchivedSubscriptionHistory(Long userId, String cursor, Integer limit) {
+        log.info("Fetching archived subscription history for user: {}", userId);
+        int pageSize = historyPageSize(limit);
+        List<ArchivedHistoryEntry> entries = subscriptionHistoryArchive.findByUser(userId, decodeHistoryCursor(cursor), pageSize + 1);
+        boolean hasMore = entries.size() > pageSize;
+        List<ArchivedHistoryEntry> page = hasMore ? entries.subList(0, pageSize) : entries;
+        ArchivedHistoryEntry last = hasMore ? page.get(page.size() - 1) : null;
+        return SubscriptionHistoryPageDTO.builder()
+                .items(page.stream().map(this::mapToSubscriptionHistoryResponseDTO).collect(Collectors.toList()))
+                .nextCursor(last != null ? new KeysetCursor(last.performedAt(), last.id()).encode() : null)
+                .build();
+    }
+
+    private static KeysetCursor decodeHistoryCursor(String cursor) {
+        try {
+            return cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor) : null;
+        } catch (IllegalArgumentException e) {
+            throw new MembershipException("Invalid subscription history cursor");
+        }
+    }
+
+    private static int historyPageSize(Integer limit) {
+        return limit == null ? DEFAULT_HISTORY_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_HISTORY_PAGE_SIZE));
+    }
+
+    private List<SubscriptionHistoryEntry> findHistoryPage(Long userId, KeysetCursor after, int limit) {
+        PageRequest page = PageRequest.of(0, limit);
+        return after == null
+                ? subscriptionHistoryRepository.findLatestByUserId(userId, page)
+                : subscriptionHistoryRepository.findByUserIdBefore(userId, after.at(), after.id(), page);
     }
 
     @Override
     public SubscriptionResponseDTO cancelSubscription(Long userId, String reason) {
         log.info("Cancelling subscription for user: {} with reason: {}", userId, reason);
+        userMutationLocks.lockForTransaction(userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new MembershipException("User not found with ID: " + userId));
@@ -164,6 +270,7 @@ public class MembershipServiceImplementation implements MembershipService {
     @Override
     public SubscriptionResponseDTO upgradeTier(Long userId, Long newTierId,boolean isAutoUpgrade) {
         log.info("Upgrading tier for user: {} to tier: {}", userId, newTierId);
+        userMutationLocks.lockForTransaction(userId);
         
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new MembershipException("User not found with ID: " + userId));
@@ -179,6 +286,8 @@ public class MembershipServiceImplementation implements MembershipService {
         Integer oldTierLevel = user.getCurrentTierLevel();
         user.setCurrentTierLevel(newTier.getTierLevel());
         userRepository.save(user);
+        outboxService.record("TIER_UPGRADED", userId, new TierChangedMessage(userId, oldTierLevel, newTier.getTierLevel(),
+                newTier.getId(), newTier.getName(), isAutoUpgrade, LocalDateTime.now()));
 
         // Update current subscription if exists
         Optional<Subscription> currentSubscription = subscriptionRepository.findCurrentActiveSubscription(userId, LocalDateTime.now());
@@ -201,6 +310,7 @@ public class MembershipServiceImplementation implements MembershipService {
     @Override
     public SubscriptionResponseDTO downgradeTier(Long userId, Long newTierId,boolean isAutoDowngrade) {
         log.info("Downgrading tier for user: {} to tier: {}", userId, newTierId);
+        userMutationLocks.lockForTransaction(userId);
         
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new MembershipException("User not found with ID: " + userId));
@@ -216,6 +326,8 @@ public class MembershipServiceImplementation implements MembershipService {
         Integer oldTierLevel = user.getCurrentTierLevel();
         user.setCurrentTierLevel(newTier.getTierLevel());
         userRepository.save(user);
+        outboxService.record("TIER_DOWNGRADED", userId, new TierChangedMessage(userId, oldTierLevel, newTier.getTierLevel(),
+                newTier.getId(), newTier.getName(), isAutoDowngrade, LocalDateTime.now()));
 
         // Update current subscription if exists
         Optional<Subscription> currentSubscription = subscriptionRepository.findCurrentActiveSubscription(userId, LocalDateTime.now());
@@ -240,6 +352,7 @@ public class MembershipServiceImplementation implements MembershipService {
     @Override
     public SubscriptionResponseDTO renewSubscription(Long userId) {
         log.info("Renewing subscription for user: {}", userId);
+        userMutationLocks.lockForTransaction(userId);
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new MembershipException("User not found with ID: " + userId));
@@ -313,6 +426,7 @@ public class MembershipServiceImplementation implements MembershipService {
                                         String description, String oldValue, String newValue, BigDecimal oldPrice, BigDecimal newPrice, String performedBy) {
         SubscriptionHistory history = SubscriptionHistory.builder()
                 .subscription(subscription)
+                .userId(subscription.getUser().getId())
                 .action(action)
                 .actionDescription(description)
                 .oldValue(oldValue)
@@ -323,10 +437,16 @@ public class MembershipServiceImplementation implements MembershipService {
                 .performedAt(LocalDateTime.now())
                 .build();
         
-        subscriptionHistoryRepository.save(history);
+        subscriptionHistoryWriter.write(history);
+        domainEventBus.publishAfterCommit(new SubscriptionChangedEvent(
+                subscription.getId(), subscription.getUser().getId(), action, subscription.getStatus()));
+        outboxService.record(SUBSCRIPTION_EVENT_PREFIX + action, subscription.getUser().getId(), new SubscriptionChangedMessage(
+                subscription.getId(), subscription.getUser().getId(), action, subscription.getStatus(),
+                subscription.getPlan().getName(), subscription.getTier().getTierLevel(), subscription.getExpiryDate(),
+                subscription.getEffectivePrice(), history.getPerformedAt()));
     }
 
-    private SubscriptionHistoryResponseDTO mapToSubscriptionHistoryResponseDTO(SubscriptionHistory history) {
+    private SubscriptionHistoryResponseDTO mapToSubscriptionHistoryResponseDTO(SubscriptionHistoryEntry history) {
         return SubscriptionHistoryResponseDTO.builder()
                 .id(history.getId())
                 .action(history.getAction())
@@ -340,4 +460,19 @@ public class MembershipServiceImplementation implements MembershipService {
                 .metadata(history.getMetadata())
                 .build();
     }
+
+    private SubscriptionHistoryResponseDTO mapToSubscriptionHistoryResponseDTO(ArchivedHistoryEntry history) {
+        return SubscriptionHistoryResponseDTO.builder()
+                .id(history.id())
+                .action(history.action())
+                .actionDescription(history.actionDescription())
+                .oldValue(history.oldValue())
+                .newValue(history.newValue())
+                .oldPrice(history.oldPrice())
+                .newPrice(history.newPrice())
+                .performedAt(history.performedAt())
+                .performedBy(history.performedBy())
+                .metadata(history.metadata())
+                .build();
+    }
 }
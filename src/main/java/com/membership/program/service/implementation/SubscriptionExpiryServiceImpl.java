@@ -0,0 +1,138 @@
+package com.membership.program.service.implementation;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+import com.membership.program.dto.enums.SubscriptionStatus;
+import com.membership.program.dto.outbox.SubscriptionChangedMessage;
+import com.membership.program.entity.Subscription;
+import com.membership.program.entity.SubscriptionHistory;
+import com.membership.program.repository.SubscriptionRepository;
+import com.membership.program.event.SubscriptionChangedEvent;
+import com.membership.program.service.SubscriptionExpiryService;
+import com.membership.program.service.event.DomainEventBus;
+import com.membership.program.service.history.SubscriptionHistoryWriter;
+import com.membership.program.service.outbox.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Implementation of the subscription expiry service. Each subscription is processed in its own
+ * transaction, so one failure does not roll back the rest of a batch.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional
+public class SubscriptionExpiryServiceImpl implements SubscriptionExpiryService {
+
+    private static final String SUBSCRIPTION_EVENT_PREFIX = "SUBSCRIPTION_";
+
+    private final SubscriptionRepository subscriptionRepository;
+    private final SubscriptionHistoryWriter subscriptionHistoryWriter;
+    private final DomainEventBus domainEventBus;
+    private final OutboxService outboxService;
+
+    @Override
+    public Optional<SubscriptionAction> processIfDue(Long subscriptionId, LocalDateTime now) {
+        Subscription subscription = subscriptionRepository.findByIdForUpdate(subscriptionId).orElse(null);
+        if (subscription == null
+                || subscription.getStatus() != SubscriptionStatus.ACTIVE
+                || subscription.getExpiryDate().isAfter(now)) {
+            // Already processed elsewhere, cancelled, or renewed since it was scheduled
+            return Optional.empty();
+        }
+
+        if (subscription.isAutoRenewal()) {
+            renewSubscription(subscription);
+            log.info("Auto-renewed subscription {} for user {}", subscription.getId(), subscription.getUser().getId());
+            return Optional.of(SubscriptionAction.RENEWED);
+        }
+
+        markSubscriptionAsExpired(subscription);
+        log.info("Marked subscription {} as expired for user {}", subscription.getId(), subscription.getUser().getId());
+        return Optional.of(SubscriptionAction.CANCELLED);
+    }
+
+    /**
+     * Renew a subscription by extending its expiry date
+     */
+    private void renewSubscription(Subscription subscription) {
+        // Calculate new expiry date based on plan duration
+        LocalDateTime newExpiryDate = calculateNewExpiryDate(subscription);
+        
+        // Renew the subscription
+        subscription.renew(newExpiryDate);
+        
+        // Save the updated subscription
+        subscriptionRepository.save(subscription);
+        // Create subscription history
+        createSubscriptionHistory(subscription, SubscriptionAction.RENEWED, "Subscription renewed", subscription.getPlan().getName(), subscription.getPlan().getName(), subscription.getPlan().getPrice(), subscription.getPlan().getPrice(), "SYSTEM");
+
+        log.info("Subscription {} renewed successfully until {}", subscription.getId(), newExpiryDate);
+    }
+
+    /**
+     * Mark a subscription as expired
+     */
+    private void markSubscriptionAsExpired(Subscription subscription) {
+        // Update subscription status to EXPIRED
+        subscription.setStatus(SubscriptionStatus.EXPIRED);
+        
+        // Save the updated subscription
+        subscriptionRepository.save(subscription);
+
+        createSubscriptionHistory(subscription, SubscriptionAction.CANCELLED, "Subscription Cancelled", subscription.getPlan().getName(), null, subscription.getPlan().getPrice(), null, "SYSTEM");
+
+        log.info("Subscription {} marked as expired", subscription.getId());
+    }
+
+    /**
+     * Calculate new expiry date based on subscription plan duration
+     */
+    private LocalDateTime calculateNewExpiryDate(Subscription subscription) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        // Get the plan duration in months
+        int durationMonths = subscription.getPlan().getDurationMonths();
+        
+        // Calculate new expiry date
+        LocalDateTime newExpiryDate = now.plusMonths(durationMonths);
+        
+        // If the calculated date is before the current expiry date, 
+        // extend from the current expiry date instead
+        if (newExpiryDate.isBefore(subscription.getExpiryDate())) {
+            newExpiryDate = subscription.getExpiryDate().plusMonths(durationMonths);
+        }
+        
+        return newExpiryDate;
+    }
+
+    private void createSubscriptionHistory(Subscription subscription, SubscriptionAction action,
+                                           String description, String oldValue, String newValue, BigDecimal oldPrice, BigDecimal newPrice, String performedBy) {
+        SubscriptionHistory history = SubscriptionHistory.builder()
+                .subscription(subscription)
+                .userId(subscription.getUser().getId())
+                .action(action)
+                .actionDescription(description)
+                .oldValue(oldValue)
+                .newValue(newValue)
+                .oldPrice(oldPrice)
+                .newPrice(newPrice)
+                .performedBy(performedBy)
+                .performedAt(LocalDateTime.now())
+                .build();
+
+        subscriptionHistoryWriter.write(history);
+        domainEventBus.publishAfterCommit(new SubscriptionChangedEvent(
+                subscription.getId(), subscription.getUser().getId(), action, subscription.getStatus()));
+        outboxService.record(SUBSCRIPTION_EVENT_PREFIX + action, subscription.getUser().getId(), new SubscriptionChangedMessage(
+                subscription.getId(), subscription.getUser().getId(), action, subscription.getStatus(),
+                subscription.getPlan().getName(), subscription.getTier().getTierLevel(), subscription.getExpiryDate(),
+                subscription.getEffectivePrice(), history.getPerformedAt()));
+    }
+}
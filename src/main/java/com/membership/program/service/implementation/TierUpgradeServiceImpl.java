@@ -1,65 +1,88 @@
 package com.membership.program.service.implementation;
 
+import com.membership.program.dto.evaluation.EligibilitySnapshot;
 import com.membership.program.dto.evaluation.EvaluationContext;
 import com.membership.program.dto.evaluation.EvaluationResult;
 import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
-import com.membership.program.entity.TierUpgradeRule;
 import com.membership.program.entity.User;
-import com.membership.program.repository.TierUpgradeRuleRepository;
 import com.membership.program.repository.UserRepository;
 import com.membership.program.service.MembershipService;
 import com.membership.program.service.TierUpgradeService;
+import com.membership.program.service.cache.EligibilityCache;
 import com.membership.program.service.evaluation.EvaluationContextBuilder;
 import com.membership.program.service.evaluation.RuleEvaluationService;
-import lombok.RequiredArgsConstructor;
+import com.membership.program.service.evaluation.RuleIndex;
+import com.membership.program.service.evaluation.TierUpgradeRuleCatalog;
+import com.membership.program.utility.SingleFlight;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
-import com.membership.program.dto.evaluation.CriteriaDefinition;
-import java.util.ArrayList;
 
 /**
  * Implementation of the tier upgrade service
  */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 @Transactional
 public class TierUpgradeServiceImpl implements TierUpgradeService {
     
     private final UserRepository userRepository;
-    private final TierUpgradeRuleRepository tierUpgradeRuleRepository;
+    private final TierUpgradeRuleCatalog ruleCatalog;
     private final EvaluationContextBuilder contextBuilder;
     private final RuleEvaluationService ruleEvaluationService;
     private final MembershipService membershipService;
+    private final EligibilityCache eligibilityCache;
+    private final TransactionTemplate transactionTemplate;
+    private final SingleFlight<Long, Boolean> upgradeFlights;
+
+    @Autowired
+    public TierUpgradeServiceImpl(UserRepository userRepository,
+                                  TierUpgradeRuleCatalog ruleCatalog,
+                                  EvaluationContextBuilder contextBuilder,
+                                  RuleEvaluationService ruleEvaluationService,
+                                  MembershipService membershipService,
+                                  EligibilityCache eligibilityCache,
+                                  TransactionTemplate transactionTemplate) {
+        this(userRepository, ruleCatalog, contextBuilder, ruleEvaluationService, membershipService, eligibilityCache,
+                transactionTemplate, new SingleFlight<>());
+    }
+
+    TierUpgradeServiceImpl(UserRepository userRepository,
+                           TierUpgradeRuleCatalog ruleCatalog,
+                           EvaluationContextBuilder contextBuilder,
+                           RuleEvaluationService ruleEvaluationService,
+                           MembershipService membershipService,
+                           EligibilityCache eligibilityCache,
+                           TransactionTemplate transactionTemplate,
+                           SingleFlight<Long, Boolean> upgradeFlights) {
+        this.userRepository = userRepository;
+        this.ruleCatalog = ruleCatalog;
+        this.contextBuilder = contextBuilder;
+        this.ruleEvaluationService = ruleEvaluationService;
+        this.membershipService = membershipService;
+        this.eligibilityCache = eligibilityCache;
+        this.transactionTemplate = transactionTemplate;
+        this.upgradeFlights = upgradeFlights;
+    }
     
     @Override
     @Transactional(readOnly = true)
     public List<EvaluationResult> evaluateTierUpgrade(Long userId) {
         log.info("Evaluating tier upgrade for user: {}", userId);
         
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
-        
-        // Build evaluation context
-        EvaluationContext context = contextBuilder.buildContext(user);
-        
-        // Get applicable rules
-        List<TierUpgradeRuleDefinition> applicableRules = getApplicableRules(userId);
-        
-        // Find the best rule
-        Optional<TierUpgradeRuleDefinition> bestRule = ruleEvaluationService.findBestApplicableRule(applicableRules, context);
+        EligibilitySnapshot eligibility = eligibilityCache.get(userId, version -> computeEligibility(userId, version));
         
-        if (bestRule.isPresent()) {
-            return ruleEvaluationService.evaluateRule(bestRule.get(), context);
-        } else {
+        if (eligibility.getBestRule() == null) {
             log.info("No applicable upgrade rules found for user: {}", userId);
-            return List.of();
         }
+        return eligibility.getResults();
     }
     
     @Override
@@ -88,21 +111,26 @@ public class TierUpgradeServiceImpl implements TierUpgradeService {
     @Override
     @Transactional(readOnly = true)
     public TierUpgradeRuleDefinition getBestApplicableRule(Long userId) {
-        User user = userRepository.findById(userId)
-                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
-        
-        EvaluationContext context = contextBuilder.buildContext(user);
-        List<TierUpgradeRuleDefinition> applicableRules = getApplicableRules(userId);
-        
-        Optional<TierUpgradeRuleDefinition> bestRule = ruleEvaluationService.findBestApplicableRule(applicableRules, context);
-        return bestRule.orElse(null);
+        return eligibilityCache.get(userId, version -> computeEligibility(userId, version)).getBestRule();
     }
     
+    /**
+     * Concurrent calls for the same user (scheduler, the user and an admin) join the one already
+     * running and share its outcome. The transaction is opened inside the flight so a joining caller
+     * only returns once the upgrade has committed, and a later call sees the upgraded tier.
+     */
     @Override
-    public void processAutomaticUpgrades(Long userId) {
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public boolean processAutomaticUpgrades(Long userId) {
+        return Boolean.TRUE.equals(upgradeFlights.execute(userId,
+                () -> transactionTemplate.execute(status -> upgradeIfEligible(userId))));
+    }
+    
+    private Boolean upgradeIfEligible(Long userId) {
         log.info("Processing automatic tier upgrades for user: {}", userId);
         
-        TierUpgradeRuleDefinition bestRule = getBestApplicableRule(userId);
+        // Always evaluate fresh here: an upgrade must never be decided from a cached outcome
+        TierUpgradeRuleDefinition bestRule = computeEligibility(userId, 0L).getBestRule();
         
         if (bestRule != null && bestRule.isAutoUpgrade()) {
             log.info("Auto-upgrading user {} to tier {}", userId, bestRule.getTargetTierId());
@@ -117,12 +145,14 @@ public class TierUpgradeServiceImpl implements TierUpgradeService {
                 userRepository.save(user);
                 
                 log.info("Successfully auto-upgraded user {} to tier {}", userId, bestRule.getTargetTierId());
+                return true;
             } catch (Exception e) {
                 log.error("Error during auto-upgrade for user {}: {}", userId, e.getMessage());
             }
         } else {
             log.info("No automatic upgrade available for user: {}", userId);
         }
+        return false;
     }
     
     @Override
@@ -131,54 +161,30 @@ public class TierUpgradeServiceImpl implements TierUpgradeService {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
         
+        return getApplicableRules(user);
+    }
+    
+    private List<TierUpgradeRuleDefinition> getApplicableRules(User user) {
         // Get rules applicable to the user's current tier
-        List<TierUpgradeRule> rules = tierUpgradeRuleRepository.findBySourceTierIdAndActiveTrue(user.getCurrentTierLevel().longValue());
-        
-        return rules.stream()
-                .map(this::mapToRuleDefinition)
-                .collect(Collectors.toList());
+        return ruleCatalog.getRulesForSourceTier(user.getCurrentTierLevel().longValue());
     }
     
-    private TierUpgradeRuleDefinition mapToRuleDefinition(TierUpgradeRule rule) {
-        // Build criteria list from the rule's fields
-        List<CriteriaDefinition> criteria = new ArrayList<>();
-        
-        // Add ORDER_COUNT criteria if present
-        if (rule.getMinOrdersRequired() != null) {
-            criteria.add(CriteriaDefinition.builder()
-                    .criteriaType("ORDER_COUNT")
-                    .value(rule.getMinOrdersRequired())
-                    .logicalCondition("AND")
-                    .build());
-        }
+    /**
+     * Full evaluation: load the user, build the context, find the best rule and its criterion results
+     */
+    private EligibilitySnapshot computeEligibility(Long userId, long ruleSetVersion) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User not found with ID: " + userId));
         
-        // Add MONTHLY_ORDER_VALUE criteria if present
-        if (rule.getMinMonthlyOrderValue() != null) {
-            criteria.add(CriteriaDefinition.builder()
-                    .criteriaType("MONTHLY_ORDER_VALUE")
-                    .value(rule.getMinMonthlyOrderValue())
-                    .logicalCondition("AND")
-                    .build());
-        }
+        EvaluationContext context = contextBuilder.buildContext(user);
+        RuleIndex ruleIndex = ruleCatalog.getRuleIndex(user.getCurrentTierLevel().longValue());
         
-        // Add USER_COHORT criteria if present
-        if (rule.getCohortRestriction() != null) {
-            criteria.add(CriteriaDefinition.builder()
-                    .criteriaType("USER_COHORT")
-                    .value(rule.getCohortRestriction())
-                    .logicalCondition("AND")
-                    .build());
-        }
+        Optional<TierUpgradeRuleDefinition> bestRule = ruleEvaluationService.findBestApplicableRule(ruleIndex, context);
         
-        return TierUpgradeRuleDefinition.builder()
-                .id(rule.getId())
-                .ruleName(rule.getRuleName())
-                .ruleDescription(rule.getRuleDescription())
-                .sourceTierId(rule.getSourceTier().getId())
-                .targetTierId(rule.getTargetTier().getId())
-                .autoUpgrade(rule.isAutoUpgrade())
-                .active(rule.isActive())
-                .criteria(criteria)
+        return EligibilitySnapshot.builder()
+                .ruleSetVersion(ruleSetVersion)
+                .bestRule(bestRule.orElse(null))
+                .results(bestRule.map(rule -> ruleEvaluationService.evaluateRule(rule, context)).orElse(List.of()))
                 .build();
     }
 }
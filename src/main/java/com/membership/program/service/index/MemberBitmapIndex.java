@@ -0,0 +1,319 @@
+package com.membership.program.service.index;
+
+import com.membership.program.event.UserCohortChangedEvent;
+import com.membership.program.event.UserCreatedEvent;
+import com.membership.program.event.UserTierChangedEvent;
+import com.membership.program.service.event.DomainEventSubscriber;
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory index of user ids by tier level and by cohort, one compressed (Roaring) bitmap per
+ * value, so "members in tier X and cohort Y" is a bitmap AND instead of a scan over {@code users}.
+ *
+ * The index is built from the database when the application starts and rebuilt periodically, and
+ * kept current in between from the user created, tier changed and cohort changed events of this
+ * node after they commit. Changes made on other nodes are picked up by the next rebuild. Changes
+ * that arrive while a rebuild is reading are replayed on the rebuilt index before it replaces the
+ * old one. Until the first build completes {@link #isReady()} is false and callers should query
+ * the database instead.
+ *
+ * Bitmaps hold ids as unsigned 32-bit values, covering user ids up to 4,294,967,295. Query results
+ * are copies owned by the caller.
+ */
+@Component
+@Slf4j
+public class MemberBitmapIndex implements DomainEventSubscriber {
+
+    private static final long MAX_ID = 0xFFFF_FFFFL;
+    private static final String MEMBERS_QUERY = "SELECT id, current_tier_level, cohort FROM users";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final int fetchSize;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Bitmaps bitmaps = new Bitmaps();
+    private List<Consumer<Bitmaps>> changesDuringRebuild;
+    private volatile boolean ready;
+
+    public MemberBitmapIndex(JdbcTemplate jdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${membership.member-index.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.fetchSize = fetchSize;
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Members matching every given filter; a null filter matches everyone
+     */
+    public RoaringBitmap members(Integer tierLevel, String cohort) {
+        lock.readLock().lock();
+        try {
+            if (tierLevel != null && cohort != null) {
+                return RoaringBitmap.and(bitmaps.tier(tierLevel), bitmaps.cohort(cohort));
+            }
+            if (tierLevel != null) {
+                return bitmaps.tier(tierLevel).clone();
+            }
+            if (cohort != null) {
+                return bitmaps.cohort(cohort).clone();
+            }
+            return bitmaps.all.clone();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Members in any of the given tiers
+     */
+    public RoaringBitmap inAnyTier(Collection<Integer> tierLevels) {
+        lock.readLock().lock();
+        try {
+            return RoaringBitmap.or(tierLevels.stream().map(bitmaps::tier).iterator());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Members in any of the given cohorts
+     */
+    public RoaringBitmap inAnyCohort(Collection<String> cohorts) {
+        lock.readLock().lock();
+        try {
+            return RoaringBitmap.or(cohorts.stream().map(bitmaps::cohort).iterator());
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long count(Integer tierLevel, String cohort) {
+        lock.readLock().lock();
+        try {
+            if (tierLevel != null && cohort != null) {
+                return RoaringBitmap.andCardinality(bitmaps.tier(tierLevel), bitmaps.cohort(cohort));
+            }
+            if (tierLevel != null) {
+                return bitmaps.tier(tierLevel).getLongCardinality();
+            }
+            return cohort != null ? bitmaps.cohort(cohort).getLongCardinality() : bitmaps.all.getLongCardinality();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} ids of {@code members} greater than {@code afterId}, in ascending order,
+     * for keyset paging through a result set in batches
+     */
+    public static List<Long> page(RoaringBitmap members, long afterId, int limit) {
+        List<Long> ids = new ArrayList<>(limit);
+        if (afterId >= MAX_ID) {
+            return ids;
+        }
+        PeekableIntIterator iterator = members.getIntIterator();
+        if (afterId >= 0) {
+            iterator.advanceIfNeeded((int) (afterId + 1));
+        }
+        while (iterator.hasNext() && ids.size() < limit) {
+            ids.add(Integer.toUnsignedLong(iterator.next()));
+        }
+        return ids;
+    }
+
+    /**
+     * Rebuild every bitmap from the {@code users} table, at startup and then periodically
+     */
+    @Scheduled(fixedDelayString = "${membership.member-index.rebuild-ms:1800000}",
+            initialDelayString = "${membership.member-index.initial-delay-ms:0}")
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        Bitmaps rebuilt = new Bitmaps();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+                PreparedStatement statement = connection.prepareStatement(MEMBERS_QUERY);
+                statement.setFetchSize(fetchSize);
+                return statement;
+            }, rs -> {
+                int tierLevel = rs.getInt("current_tier_level");
+                rebuilt.add(rs.getLong("id"), rs.wasNull() ? null : tierLevel, rs.getString("cohort"));
+            }));
+        } catch (DataAccessException e) {
+            log.warn("Member index rebuild failed, keeping the previous index: {}", e.getMessage());
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            rebuilt.optimize();
+            bitmaps = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt member index of {} users, {} tiers and {} cohorts in {}ms",
+                rebuilt.all.getLongCardinality(), rebuilt.byTier.size(), rebuilt.byCohort.size(),
+                System.currentTimeMillis() - start);
+    }
+
+    @Override
+    public String subscriberName() {
+        return "member-index";
+    }
+
+    @Override
+    public void onEvent(Object event, boolean endOfBatch) {
+        if (event instanceof UserCreatedEvent userCreated) {
+            onUserCreated(userCreated);
+        } else if (event instanceof UserTierChangedEvent tierChanged) {
+            onUserTierChanged(tierChanged);
+        } else if (event instanceof UserCohortChangedEvent cohortChanged) {
+            onUserCohortChanged(cohortChanged);
+        }
+    }
+
+    public void onUserCreated(UserCreatedEvent event) {
+        apply(index -> index.add(event.userId(), event.tierLevel(), event.cohort()));
+    }
+
+    public void onUserTierChanged(UserTierChangedEvent event) {
+        apply(index -> index.moveTier(event.userId(), event.previousTierLevel(), event.tierLevel()));
+    }
+
+    public void onUserCohortChanged(UserCohortChangedEvent event) {
+        apply(index -> index.moveCohort(event.userId(), event.previousCohort(), event.cohort()));
+    }
+
+    private void apply(Consumer<Bitmaps> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(bitmaps);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * One generation of the index. Not thread-safe; guarded by the index's lock.
+     */
+    private static final class Bitmaps {
+
+        private static final RoaringBitmap EMPTY = new RoaringBitmap();
+
+        private final RoaringBitmap all = new RoaringBitmap();
+        private final Map<Integer, RoaringBitmap> byTier = new HashMap<>();
+        private final Map<String, RoaringBitmap> byCohort = new HashMap<>();
+
+        private RoaringBitmap tier(Integer tierLevel) {
+            return byTier.getOrDefault(tierLevel, EMPTY);
+        }
+
+        private RoaringBitmap cohort(String cohort) {
+            return byCohort.getOrDefault(cohort, EMPTY);
+        }
+
+        private void add(Long userId, Integer tierLevel, String cohort) {
+            if (!inRange(userId)) {
+                return;
+            }
+            int id = (int) (long) userId;
+            all.add(id);
+            if (tierLevel != null) {
+                byTier.computeIfAbsent(tierLevel, key -> new RoaringBitmap()).add(id);
+            }
+            if (cohort != null) {
+                byCohort.computeIfAbsent(cohort, key -> new RoaringBitmap()).add(id);
+            }
+        }
+
+        private void moveTier(Long userId, Integer previousTierLevel, Integer tierLevel) {
+            if (!inRange(userId)) {
+                return;
+            }
+            int id = (int) (long) userId;
+            if (previousTierLevel != null) {
+                remove(byTier, previousTierLevel, id);
+            }
+            if (tierLevel != null) {
+                byTier.computeIfAbsent(tierLevel, key -> new RoaringBitmap()).add(id);
+            }
+        }
+
+        private void moveCohort(Long userId, String previousCohort, String cohort) {
+            if (!inRange(userId)) {
+                return;
+            }
+            int id = (int) (long) userId;
+            if (previousCohort != null) {
+                remove(byCohort, previousCohort, id);
+            }
+            if (cohort != null) {
+                byCohort.computeIfAbsent(cohort, key -> new RoaringBitmap()).add(id);
+            }
+        }
+
+        private void optimize() {
+            all.runOptimize();
+            byTier.values().forEach(RoaringBitmap::runOptimize);
+            byCohort.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        private static <K> void remove(Map<K, RoaringBitmap> bitmaps, K key, int id) {
+            RoaringBitmap bitmap = bitmaps.get(key);
+            if (bitmap != null) {
+                bitmap.remove(id);
+                if (bitmap.isEmpty()) {
+                    bitmaps.remove(key);
+                }
+            }
+        }
+
+        private static boolean inRange(Long userId) {
+            return userId != null && userId >= 0 && userId <= MAX_ID;
+        }
+    }
+}
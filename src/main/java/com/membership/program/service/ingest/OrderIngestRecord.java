@@ -0,0 +1,21 @@
+package com.membership.program.service.ingest;
+
+import com.membership.program.dto.enums.OrderStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One validated line of an order ingest stream, with defaults applied
+ */
+public record OrderIngestRecord(String orderNumber,
+                                long userId,
+                                OrderStatus status,
+                                LocalDateTime orderDate,
+                                BigDecimal totalAmount,
+                                BigDecimal discountAmount,
+                                BigDecimal finalAmount,
+                                String currency,
+                                String paymentMethod,
+                                String paymentStatus) {
+}
@@ -0,0 +1,255 @@
+package com.membership.program.service.ingest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.membership.program.dto.enums.OrderStatus;
+import com.membership.program.dto.response.OrderIngestResponseDTO;
+import com.membership.program.event.OrdersIngestedEvent;
+import com.membership.program.service.event.DomainEventBus;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk order ingestion from NDJSON streams.
+ *
+ * Lines are read and validated one at a time by {@link OrderLineParser} and collected into
+ * batches. Each batch is written in one transaction by a single statement: the columns are bound
+ * as arrays and unnested, orders whose number is already stored are skipped
+ * ({@code ON CONFLICT DO NOTHING}), and the daily order buckets of the inserted completed orders
+ * are added to in the same statement. Users with new completed orders are then marked for
+ * re-evaluation through {@link OrdersIngestedEvent}. Re-sending a stream is therefore safe: only
+ * orders not stored yet are inserted and counted.
+ */
+@Service
+@Slf4j
+public class OrderIngestService {
+
+    private static final String INSERT_BATCH =
+            "WITH input AS (" +
+            "SELECT * FROM unnest(?::bigint[], ?::varchar[], ?::varchar[], ?::timestamp[], ?::numeric[], " +
+            "?::numeric[], ?::numeric[], ?::varchar[], ?::varchar[], ?::varchar[]) AS v(user_id, order_number, " +
+            "status, order_date, total_amount, discount_amount, final_amount, currency, payment_method, payment_status)" +
+            "), inserted AS (" +
+            "INSERT INTO orders (user_id, order_number, status, order_date, total_amount, discount_amount, " +
+            "final_amount, currency, payment_method, payment_status, created_at, updated_at) " +
+            "SELECT i.user_id, i.order_number, i.status, i.order_date, i.total_amount, i.discount_amount, " +
+            "i.final_amount, i.currency, i.payment_method, i.payment_status, ?, ? FROM input i " +
+            "WHERE EXISTS (SELECT 1 FROM users u WHERE u.id = i.user_id) " +
+            "ON CONFLICT (order_number) DO NOTHING " +
+            "RETURNING user_id, order_number, status, order_date, final_amount" +
+            "), buckets AS (" +
+            "INSERT INTO user_daily_order_metrics (user_id, bucket_date, order_count, order_value) " +
+            "SELECT user_id, CAST(order_date AS date), COUNT(*), SUM(final_amount) FROM inserted " +
+            "WHERE status = 'COMPLETED' GROUP BY user_id, CAST(order_date AS date) " +
+            "ORDER BY user_id, CAST(order_date AS date) " +
+            "ON CONFLICT (user_id, bucket_date) DO UPDATE SET " +
+            "order_count = user_daily_order_metrics.order_count + EXCLUDED.order_count, " +
+            "order_value = user_daily_order_metrics.order_value + EXCLUDED.order_value" +
+            ") SELECT user_id, order_number, status FROM inserted";
+
+    private static final String FIND_EXISTING = "SELECT order_number FROM orders WHERE order_number = ANY(?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final DomainEventBus eventBus;
+    private final MeterRegistry meterRegistry;
+    private final OrderLineParser lineParser;
+    private final int batchSize;
+    private final int maxReportedRejections;
+
+    public OrderIngestService(JdbcTemplate jdbcTemplate,
+                              TransactionTemplate transactionTemplate,
+                              DomainEventBus eventBus,
+                              MeterRegistry meterRegistry,
+                              ObjectMapper objectMapper,
+                              @Value("${membership.order-ingest.batch-size:2000}") int batchSize,
+                              @Value("${membership.order-ingest.max-reported-rejections:100}") int maxReportedRejections) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventBus = eventBus;
+        this.meterRegistry = meterRegistry;
+        this.lineParser = new OrderLineParser(objectMapper.getFactory());
+        this.batchSize = Math.max(1, batchSize);
+        this.maxReportedRejections = maxReportedRejections;
+    }
+
+    /**
+     * Ingest every line of {@code body}. Batches written before a database error stay committed;
+     * the error is rethrown and the stream can be re-sent.
+     */
+    public OrderIngestResponseDTO ingest(InputStream body) throws IOException {
+        long start = System.nanoTime();
+        Tally tally = new Tally();
+        Map<String, Long> batch = new HashMap<>();
+        List<OrderIngestRecord> records = new ArrayList<>(batchSize);
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8), 1 << 16);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            tally.received++;
+            OrderIngestRecord record;
+            try {
+                record = lineParser.parse(line);
+            } catch (IllegalArgumentException e) {
+                tally.reject(lineNumber, null, e.getMessage(), maxReportedRejections);
+                continue;
+            }
+            if (batch.putIfAbsent(record.orderNumber(), lineNumber) != null) {
+                tally.duplicates++;
+                continue;
+            }
+            records.add(record);
+            if (records.size() >= batchSize) {
+                writeBatch(records, batch, tally);
+                records.clear();
+                batch.clear();
+            }
+        }
+        if (!records.isEmpty()) {
+            writeBatch(records, batch, tally);
+        }
+
+        long durationMillis = (System.nanoTime() - start) / 1_000_000;
+        meterRegistry.counter("membership.orders.ingested", "outcome", "inserted").increment(tally.inserted);
+        meterRegistry.counter("membership.orders.ingested", "outcome", "duplicate").increment(tally.duplicates);
+        meterRegistry.counter("membership.orders.ingested", "outcome", "rejected").increment(tally.rejected);
+        log.info("Ingested {} orders in {}ms: {} inserted, {} duplicates, {} rejected",
+                tally.received, durationMillis, tally.inserted, tally.duplicates, tally.rejected);
+
+        return OrderIngestResponseDTO.builder()
+                .received(tally.received)
+                .inserted(tally.inserted)
+                .duplicates(tally.duplicates)
+                .rejected(tally.rejected)
+                .durationMillis(durationMillis)
+                .ordersPerSecond(tally.received * 1000.0 / Math.max(1, durationMillis))
+                .rejections(tally.rejections)
+                .build();
+    }
+
+    private void writeBatch(List<OrderIngestRecord> records, Map<String, Long> lineNumbers, Tally tally) {
+        Set<String> existing = new HashSet<>();
+        Set<String> inserted = new HashSet<>(records.size() * 2);
+        transactionTemplate.executeWithoutResult(status -> {
+            Set<Long> completedOrderUsers = new LinkedHashSet<>();
+            jdbcTemplate.query(connection -> insertStatement(connection, records), rs -> {
+                inserted.add(rs.getString("order_number"));
+                if (OrderStatus.COMPLETED.name().equals(rs.getString("status"))) {
+                    completedOrderUsers.add(rs.getLong("user_id"));
+                }
+            });
+            if (inserted.size() < records.size()) {
+                // Tell orders stored earlier apart from orders of unknown users
+                String[] skipped = records.stream().map(OrderIngestRecord::orderNumber)
+                        .filter(orderNumber -> !inserted.contains(orderNumber)).toArray(String[]::new);
+                jdbcTemplate.query(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(FIND_EXISTING);
+                    statement.setArray(1, connection.createArrayOf("varchar", skipped));
+                    return statement;
+                }, rs -> {
+                    existing.add(rs.getString("order_number"));
+                });
+            }
+            if (!completedOrderUsers.isEmpty()) {
+                eventBus.publishAfterCommit(new OrdersIngestedEvent(List.copyOf(completedOrderUsers)));
+            }
+        });
+
+        tally.inserted += inserted.size();
+        for (OrderIngestRecord record : records) {
+            if (inserted.contains(record.orderNumber())) {
+                continue;
+            }
+            if (existing.contains(record.orderNumber())) {
+                tally.duplicates++;
+            } else {
+                tally.reject(lineNumbers.get(record.orderNumber()), record.orderNumber(),
+                        "Unknown user: " + record.userId(), maxReportedRejections);
+            }
+        }
+    }
+
+    private static PreparedStatement insertStatement(Connection connection, List<OrderIngestRecord> records) throws SQLException {
+        int size = records.size();
+        Long[] userIds = new Long[size];
+        String[] orderNumbers = new String[size];
+        String[] statuses = new String[size];
+        Timestamp[] orderDates = new Timestamp[size];
+        BigDecimal[] totalAmounts = new BigDecimal[size];
+        BigDecimal[] discountAmounts = new BigDecimal[size];
+        BigDecimal[] finalAmounts = new BigDecimal[size];
+        String[] currencies = new String[size];
+        String[] paymentMethods = new String[size];
+        String[] paymentStatuses = new String[size];
+        for (int i = 0; i < size; i++) {
+            OrderIngestRecord record = records.get(i);
+            userIds[i] = record.userId();
+            orderNumbers[i] = record.orderNumber();
+            statuses[i] = record.status().name();
+            orderDates[i] = Timestamp.valueOf(record.orderDate());
+            totalAmounts[i] = record.totalAmount();
+            discountAmounts[i] = record.discountAmount();
+            finalAmounts[i] = record.finalAmount();
+            currencies[i] = record.currency();
+            paymentMethods[i] = record.paymentMethod();
+            paymentStatuses[i] = record.paymentStatus();
+        }
+
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        PreparedStatement statement = connection.prepareStatement(INSERT_BATCH);
+        statement.setArray(1, connection.createArrayOf("bigint", userIds));
+        statement.setArray(2, connection.createArrayOf("varchar", orderNumbers));
+        statement.setArray(3, connection.createArrayOf("varchar", statuses));
+        statement.setArray(4, connection.createArrayOf("timestamp", orderDates));
+        statement.setArray(5, connection.createArrayOf("numeric", totalAmounts));
+        statement.setArray(6, connection.createArrayOf("numeric", discountAmounts));
+        statement.setArray(7, connection.createArrayOf("numeric", finalAmounts));
+        statement.setArray(8, connection.createArrayOf("varchar", currencies));
+        statement.setArray(9, connection.createArrayOf("varchar", paymentMethods));
+        statement.setArray(10, connection.createArrayOf("varchar", paymentStatuses));
+        statement.setTimestamp(11, now);
+        statement.setTimestamp(12, now);
+        return statement;
+    }
+
+    private static final class Tally {
+        private long received;
+        private long inserted;
+        private long duplicates;
+        private long rejected;
+        private final List<OrderIngestResponseDTO.Rejection> rejections = new ArrayList<>();
+
+        private void reject(long line, String orderNumber, String reason, int maxReported) {
+            rejected++;
+            if (rejections.size() < maxReported) {
+                rejections.add(new OrderIngestResponseDTO.Rejection(line, orderNumber, reason));
+            }
+        }
+    }
+}
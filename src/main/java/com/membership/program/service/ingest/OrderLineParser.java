@@ -0,0 +1,178 @@
+package com.membership.program.service.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.membership.program.dto.enums.OrderStatus;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Reads one NDJSON order line with the streaming parser, field by field into a flat record, and
+ * validates it against the limits of the {@code orders} table. Unknown fields are skipped. A line
+ * that cannot be ingested throws {@link IllegalArgumentException} with the reason.
+ */
+public class OrderLineParser {
+
+    private static final int MAX_ORDER_NUMBER_LENGTH = 50;
+    private static final int MAX_TEXT_LENGTH = 50;
+    private static final int MAX_STATUS_LENGTH = 20;
+    private static final BigDecimal MAX_AMOUNT = new BigDecimal("99999999.99");
+    private static final String DEFAULT_CURRENCY = "INR";
+
+    private final JsonFactory jsonFactory;
+
+    public OrderLineParser(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    public OrderIngestRecord parse(String line) {
+        String orderNumber = null;
+        Long userId = null;
+        String status = null;
+        String orderDate = null;
+        BigDecimal totalAmount = null;
+        BigDecimal discountAmount = null;
+        BigDecimal finalAmount = null;
+        String currency = null;
+        String paymentMethod = null;
+        String paymentStatus = null;
+
+        try (JsonParser parser = jsonFactory.createParser(line)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("Line is not a JSON object");
+            }
+            String field;
+            while ((field = parser.nextFieldName()) != null) {
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "orderNumber" -> orderNumber = text(parser, token, field);
+                    case "userId" -> userId = longValue(parser, token);
+                    case "status" -> status = text(parser, token, field);
+                    case "orderDate" -> orderDate = text(parser, token, field);
+                    case "totalAmount" -> totalAmount = decimal(parser, token, field);
+                    case "discountAmount" -> discountAmount = decimal(parser, token, field);
+                    case "finalAmount" -> finalAmount = decimal(parser, token, field);
+                    case "currency" -> currency = text(parser, token, field);
+                    case "paymentMethod" -> paymentMethod = text(parser, token, field);
+                    case "paymentStatus" -> paymentStatus = text(parser, token, field);
+                    default -> parser.skipChildren();
+                }
+            }
+            if (parser.nextToken() != null) {
+                throw new IllegalArgumentException("Unexpected content after the order object");
+            }
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Unreadable line: " + e.getMessage());
+        }
+
+        if (orderNumber == null || orderNumber.isBlank() || orderNumber.length() > MAX_ORDER_NUMBER_LENGTH) {
+            throw new IllegalArgumentException("orderNumber is required and must be at most " + MAX_ORDER_NUMBER_LENGTH + " characters");
+        }
+        if (userId == null || userId <= 0) {
+            throw new IllegalArgumentException("userId is required and must be positive");
+        }
+        if (totalAmount == null || totalAmount.signum() <= 0) {
+            throw new IllegalArgumentException("totalAmount is required and must be greater than 0");
+        }
+        if (finalAmount == null) {
+            finalAmount = discountAmount == null ? totalAmount : totalAmount.subtract(discountAmount);
+        }
+        checkAmount("totalAmount", totalAmount);
+        checkAmount("finalAmount", finalAmount);
+        if (discountAmount != null) {
+            checkAmount("discountAmount", discountAmount);
+        }
+        if (currency != null && currency.length() != 3) {
+            throw new IllegalArgumentException("currency must be a 3-letter code");
+        }
+        if (paymentMethod != null && paymentMethod.length() > MAX_TEXT_LENGTH) {
+            throw new IllegalArgumentException("paymentMethod must be at most " + MAX_TEXT_LENGTH + " characters");
+        }
+        if (paymentStatus != null && paymentStatus.length() > MAX_STATUS_LENGTH) {
+            throw new IllegalArgumentException("paymentStatus must be at most " + MAX_STATUS_LENGTH + " characters");
+        }
+
+        return new OrderIngestRecord(orderNumber, userId, status(status), orderDate(orderDate),
+                totalAmount, discountAmount, finalAmount, currency == null ? DEFAULT_CURRENCY : currency,
+                paymentMethod, paymentStatus);
+    }
+
+    private static OrderStatus status(String status) {
+        if (status == null) {
+            return OrderStatus.COMPLETED;
+        }
+        try {
+            return OrderStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown status: " + status);
+        }
+    }
+
+    /**
+     * ISO local date-time, or an ISO date-time with offset converted to the server's zone
+     */
+    private static LocalDateTime orderDate(String orderDate) {
+        if (orderDate == null) {
+            throw new IllegalArgumentException("orderDate is required");
+        }
+        try {
+            return LocalDateTime.parse(orderDate);
+        } catch (DateTimeParseException e) {
+            try {
+                return OffsetDateTime.parse(orderDate).atZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+            } catch (DateTimeParseException offsetException) {
+                throw new IllegalArgumentException("orderDate must be an ISO-8601 date-time: " + orderDate);
+            }
+        }
+    }
+
+    private static void checkAmount(String field, BigDecimal amount) {
+        if (amount.signum() < 0 || amount.compareTo(MAX_AMOUNT) > 0 || amount.stripTrailingZeros().scale() > 2) {
+            throw new IllegalArgumentException(field + " must be between 0 and " + MAX_AMOUNT + " with at most 2 decimals");
+        }
+    }
+
+    private static String text(JsonParser parser, JsonToken token, String field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_STRING) {
+            throw new IllegalArgumentException(field + " must be a string");
+        }
+        return parser.getText();
+    }
+
+    private static Long longValue(JsonParser parser, JsonToken token) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.VALUE_NUMBER_INT || parser.getNumberType() == JsonParser.NumberType.BIG_INTEGER) {
+            throw new IllegalArgumentException("userId must be an integer");
+        }
+        return parser.getLongValue();
+    }
+
+    private static BigDecimal decimal(JsonParser parser, JsonToken token, String field) throws IOException {
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        try {
+            return switch (token) {
+                case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+                case VALUE_STRING -> new BigDecimal(parser.getText());
+                default -> throw new IllegalArgumentException(field + " must be a number");
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(field + " must be a number");
+        }
+    }
+}
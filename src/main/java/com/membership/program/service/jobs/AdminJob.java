@@ -0,0 +1,96 @@
+package com.membership.program.service.jobs;
+
+import com.membership.program.dto.enums.AdminJobStatus;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Future;
+
+/**
+ * In-memory state of one admin job on the node that accepted it. Shard progress and counters
+ * live in the {@code job_run} ledger under {@link #getRunKey()}.
+ */
+@Getter
+class AdminJob {
+
+    private final String id;
+    private final String type;
+    private final String cohort;
+    private final String submittedBy;
+    private final LocalDateTime submittedAt = LocalDateTime.now();
+    private final int maxPartialResults;
+    @Getter(AccessLevel.NONE)
+    private final Deque<Long> upgradedUserIds = new ArrayDeque<>();
+    @Getter(AccessLevel.NONE)
+    private final Deque<Long> failedUserIds = new ArrayDeque<>();
+
+    private volatile AdminJobStatus status = AdminJobStatus.QUEUED;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+    private volatile String error;
+    private volatile boolean cancelRequested;
+    private volatile Future<?> future;
+
+    AdminJob(String id, String type, String cohort, String submittedBy, int maxPartialResults) {
+        this.id = id;
+        this.type = type;
+        this.cohort = cohort;
+        this.submittedBy = submittedBy;
+        this.maxPartialResults = maxPartialResults;
+    }
+
+    String getRunKey() {
+        return type + ":" + id;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        status = AdminJobStatus.RUNNING;
+    }
+
+    void finished(AdminJobStatus finalStatus, String failure) {
+        error = failure;
+        status = finalStatus;
+        finishedAt = LocalDateTime.now();
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    void setFuture(Future<?> future) {
+        this.future = future;
+    }
+
+    synchronized void recordUpgraded(Long userId) {
+        append(upgradedUserIds, userId);
+    }
+
+    synchronized void recordFailed(Long userId) {
+        append(failedUserIds, userId);
+    }
+
+    synchronized List<Long> upgradedSnapshot() {
+        return new ArrayList<>(upgradedUserIds);
+    }
+
+    synchronized List<Long> failedSnapshot() {
+        return new ArrayList<>(failedUserIds);
+    }
+
+    private void append(Deque<Long> results, Long userId) {
+        if (results.size() == maxPartialResults) {
+            results.removeFirst();
+        }
+        results.addLast(userId);
+    }
+}
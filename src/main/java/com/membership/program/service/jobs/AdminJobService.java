@@ -0,0 +1,224 @@
+package com.membership.program.service.jobs;
+
+import com.membership.program.dto.enums.AdminJobStatus;
+import com.membership.program.dto.request.AdminJobRequestDTO;
+import com.membership.program.dto.response.AdminJobResponseDTO;
+import com.membership.program.dto.response.JobRunSummaryResponseDTO;
+import com.membership.program.exception.MembershipException;
+import com.membership.program.repository.UserRepository;
+import com.membership.program.service.TierUpgradeService;
+import com.membership.program.service.cluster.JobRunLedger;
+import com.membership.program.service.cluster.ShardContext;
+import com.membership.program.service.cluster.ShardedJobRunner;
+import com.membership.program.service.throttle.AdaptiveBatchThrottle;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs long admin operations, such as re-evaluating every user after a rule change, in the
+ * background on a small bounded pool separate from the request threads.
+ *
+ * A job is run through {@link ShardedJobRunner} like the nightly evaluation: users are processed
+ * shard by shard in id-ordered pages paced by {@link AdaptiveBatchThrottle}, and each page is
+ * checkpointed in the {@code job_run} ledger, which also provides the job's progress and throughput.
+ * Cancellation takes effect at the next page. Job state is kept on the node that accepted the job
+ * for a retention period after it finishes.
+ */
+@Service
+@Slf4j
+public class AdminJobService {
+
+    public static final String TIER_REEVALUATION = "admin-tier-reevaluation";
+
+    private static final String PHASE_EVALUATE = "evaluate";
+
+    private final ShardedJobRunner shardedJobRunner;
+    private final JobRunLedger jobRunLedger;
+    private final UserRepository userRepository;
+    private final TierUpgradeService tierUpgradeService;
+    private final AdaptiveBatchThrottle batchThrottle;
+    private final int maxPartialResults;
+    private final Duration retention;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, AdminJob> jobs = new ConcurrentHashMap<>();
+
+    public AdminJobService(ShardedJobRunner shardedJobRunner,
+                           JobRunLedger jobRunLedger,
+                           UserRepository userRepository,
+                           TierUpgradeService tierUpgradeService,
+                           AdaptiveBatchThrottle batchThrottle,
+                           @Value("${membership.admin-jobs.threads:2}") int threads,
+                           @Value("${membership.admin-jobs.queue-capacity:10}") int queueCapacity,
+                           @Value("${membership.admin-jobs.max-partial-results:1000}") int maxPartialResults,
+                           @Value("${membership.admin-jobs.retention-hours:24}") long retentionHours) {
+        this.shardedJobRunner = shardedJobRunner;
+        this.jobRunLedger = jobRunLedger;
+        this.userRepository = userRepository;
+        this.tierUpgradeService = tierUpgradeService;
+        this.batchThrottle = batchThrottle;
+        this.maxPartialResults = maxPartialResults;
+        this.retention = Duration.ofHours(retentionHours);
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "admin-job-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Queue a tier re-evaluation of every user, or of one cohort
+     *
+     * @throws RejectedExecutionException if the job queue is full
+     */
+    public AdminJobResponseDTO submitTierReevaluation(AdminJobRequestDTO request, String submittedBy) {
+        evictExpired();
+        String cohort = request.getCohort() != null && !request.getCohort().isBlank() ? request.getCohort() : null;
+        AdminJob job = new AdminJob(UUID.randomUUID().toString(), TIER_REEVALUATION, cohort, submittedBy, maxPartialResults);
+        jobs.put(job.getId(), job);
+        try {
+            job.setFuture(executor.submit(() -> run(job)));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            throw e;
+        }
+        log.info("Admin job {} ({}) submitted by {} for cohort {}", job.getId(), job.getType(), submittedBy, cohort);
+        return toResponse(job);
+    }
+
+    public Optional<AdminJobResponseDTO> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId)).map(this::toResponse);
+    }
+
+    public List<AdminJobResponseDTO> getJobs() {
+        evictExpired();
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(AdminJob::getSubmittedAt).reversed())
+                .map(this::toResponse)
+                .toList();
+    }
+
+    /**
+     * Ask a job to stop. A queued job is cancelled immediately; a running job stops after its current page.
+     */
+    public Optional<AdminJobResponseDTO> cancel(String jobId) {
+        AdminJob job = jobs.get(jobId);
+        if (job == null) {
+            return Optional.empty();
+        }
+        if (job.isFinished()) {
+            throw new MembershipException("Job " + jobId + " has already finished");
+        }
+        job.requestCancel();
+        if (job.getStatus() == AdminJobStatus.QUEUED && job.getFuture() != null && job.getFuture().cancel(false)) {
+            job.finished(AdminJobStatus.CANCELLED, null);
+        }
+        log.info("Cancellation requested for admin job {}", jobId);
+        return Optional.of(toResponse(job));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobs.values().forEach(AdminJob::requestCancel);
+        executor.shutdownNow();
+    }
+
+    private void run(AdminJob job) {
+        if (job.isCancelRequested()) {
+            job.finished(AdminJobStatus.CANCELLED, null);
+            return;
+        }
+        job.started();
+        try {
+            shardedJobRunner.run(job.getType(), job.getRunKey(), context -> reevaluateShard(job, context), job::isCancelRequested);
+            if (job.isCancelRequested()) {
+                job.finished(AdminJobStatus.CANCELLED, null);
+            } else if (jobRunLedger.getRun(job.getRunKey(), false).map(JobRunSummaryResponseDTO::isCompleted).orElse(false)) {
+                job.finished(AdminJobStatus.COMPLETED, null);
+            } else {
+                job.finished(AdminJobStatus.FAILED, "Not every shard could be completed; resubmit to retry");
+            }
+        } catch (Exception e) {
+            log.error("Admin job {} failed: {}", job.getId(), e.getMessage(), e);
+            job.finished(AdminJobStatus.FAILED, e.getMessage());
+        }
+        log.info("Admin job {} finished with status {}", job.getId(), job.getStatus());
+    }
+
+    private void reevaluateShard(AdminJob job, ShardContext context) {
+        Long afterId = Optional.ofNullable(context.resumeCursor(PHASE_EVALUATE)).orElse(0L);
+        List<Long> userIds;
+        while (context.isActive() && !job.isCancelRequested()
+                && !(userIds = nextPage(job, context, afterId)).isEmpty()) {
+            AtomicInteger upgraded = new AtomicInteger();
+            AdaptiveBatchThrottle.ChunkResult result = batchThrottle.execute(userIds, userId -> {
+                try {
+                    if (tierUpgradeService.processAutomaticUpgrades(userId)) {
+                        upgraded.incrementAndGet();
+                        job.recordUpgraded(userId);
+                    }
+                    return true;
+                } catch (Exception e) {
+                    log.error("Error re-evaluating tier for user {} in job {}: {}", userId, job.getId(), e.getMessage());
+                    job.recordFailed(userId);
+                    return false;
+                }
+            });
+            afterId = userIds.get(userIds.size() - 1);
+            if (!context.checkpoint(PHASE_EVALUATE, afterId, result.succeeded(), upgraded.get(), result.failed())) {
+                log.warn("Admin job {} stopped shard {} after losing its claim on the shard", job.getId(), context.getShard());
+                return;
+            }
+        }
+    }
+
+    private List<Long> nextPage(AdminJob job, ShardContext context, Long afterId) {
+        PageRequest page = PageRequest.of(0, batchThrottle.chunkSize());
+        return job.getCohort() == null
+                ? userRepository.findIdsInShard(context.getShard(), context.getShardCount(), afterId, page)
+                : userRepository.findIdsInShardByCohort(job.getCohort(), context.getShard(), context.getShardCount(), afterId, page);
+    }
+
+    private void evictExpired() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    private AdminJobResponseDTO toResponse(AdminJob job) {
+        JobRunSummaryResponseDTO progress = job.getStartedAt() == null ? null
+                : jobRunLedger.getRun(job.getRunKey(), false).orElse(null);
+        return AdminJobResponseDTO.builder()
+                .jobId(job.getId())
+                .type(job.getType())
+                .cohort(job.getCohort())
+                .status(job.getStatus())
+                .submittedBy(job.getSubmittedBy())
+                .submittedAt(job.getSubmittedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .error(job.getError())
+                .progress(progress)
+                .upgradedUserIds(job.upgradedSnapshot())
+                .failedUserIds(job.failedSnapshot())
+                .build();
+    }
+}
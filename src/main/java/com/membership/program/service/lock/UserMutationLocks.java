@@ -0,0 +1,60 @@
+package com.membership.program.service.lock;
+
+import com.membership.program.exception.SubscriptionException;
+import com.membership.program.utility.StripedLocks;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ * Serializes membership changes for a user within this process. The lock is held until the
+ * surrounding transaction completes, so the next change for the user reads the committed state of
+ * the previous one. Changes from other nodes are caught by the one-active-subscription-per-user
+ * unique index.
+ */
+@Component
+public class UserMutationLocks {
+
+    private final StripedLocks locks;
+    private final long waitMillis;
+
+    public UserMutationLocks(@Value("${membership.user-locks.stripes:1024}") int stripes,
+                             @Value("${membership.user-locks.wait-ms:5000}") long waitMillis) {
+        this.locks = new StripedLocks(stripes);
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Lock the user's stripe until the current transaction commits or rolls back
+     *
+     * @throws SubscriptionException if another change for the user does not finish in time
+     */
+    public void lockForTransaction(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("User mutation locks must be taken inside a transaction");
+        }
+
+        Lock lock = locks.get(userId);
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            throw new SubscriptionException("Another membership change for user " + userId + " is in progress, please retry");
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                lock.unlock();
+            }
+        });
+    }
+}
@@ -0,0 +1,43 @@
+package com.membership.program.service.outbox;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Keeps the most recent relayed events in memory, as a broker stand-in for local runs and tests
+ */
+@Component
+@ConditionalOnProperty(name = "membership.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final int capacity;
+    private final Deque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(@Value("${membership.outbox.memory.capacity:10000}") int capacity) {
+        this.capacity = Math.max(1, capacity);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    /**
+     * Up to {@code limit} of the most recent events, oldest first
+     */
+    public synchronized List<OutboxMessage> recent(int limit) {
+        List<OutboxMessage> all = new ArrayList<>(messages);
+        return all.subList(Math.max(0, all.size() - limit), all.size());
+    }
+}
@@ -0,0 +1,14 @@
+package com.membership.program.service.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * One outbox event as handed to an {@link OutboxSink}. {@code id} increases with every event
+ * and can be used by consumers to drop redeliveries.
+ */
+public record OutboxMessage(Long id,
+                            Long userId,
+                            String eventType,
+                            String payload,
+                            LocalDateTime createdAt) {
+}
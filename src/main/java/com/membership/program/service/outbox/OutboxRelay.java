@@ -0,0 +1,120 @@
+package com.membership.program.service.outbox;
+
+import com.membership.program.entity.OutboxEvent;
+import com.membership.program.repository.OutboxEventRepository;
+import com.membership.program.service.cluster.LeaderElection;
+import com.membership.program.service.cluster.LeaderLease;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains the outbox to the configured {@link OutboxSink}.
+ *
+ * One node at a time relays, holding the relay's leader lock for a bounded period and polling
+ * while it holds it. Each pass pages through pending events by (user id, id) (keyset), hands each
+ * page to the sink and deletes it once the sink has accepted it. A page the sink rejects stops the
+ * pass and is retried in full by the next one, so each user's events are delivered in id order, and
+ * hence in commit order, at least once. Because each pass starts from the first pending event, an
+ * event committed after a later one was already relayed is still picked up.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final String RELAY_JOB = "outbox-relay";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink sink;
+    private final LeaderElection leaderElection;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final int batchSize;
+    private final long pollMillis;
+    private final long leadershipMillis;
+
+    private volatile boolean stopped;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxSink sink,
+                       LeaderElection leaderElection,
+                       TransactionTemplate transactionTemplate,
+                       MeterRegistry meterRegistry,
+                       @Value("${membership.outbox.batch-size:500}") int batchSize,
+                       @Value("${membership.outbox.poll-ms:500}") long pollMillis,
+                       @Value("${membership.outbox.leadership-ms:120000}") long leadershipMillis) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.sink = sink;
+        this.leaderElection = leaderElection;
+        this.transactionTemplate = transactionTemplate;
+        this.meterRegistry = meterRegistry;
+        this.batchSize = Math.max(1, batchSize);
+        this.pollMillis = pollMillis;
+        this.leadershipMillis = leadershipMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${membership.outbox.poll-ms:500}")
+    public void relay() {
+        leaderElection.runIfLeader(RELAY_JOB, this::relayWhileLeader);
+    }
+
+    @PreDestroy
+    public void stop() {
+        stopped = true;
+    }
+
+    private void relayWhileLeader(LeaderLease lease) {
+        // Held past the leader lock's minimum hold, so the lock is released as soon as this returns
+        long until = System.currentTimeMillis() + leadershipMillis;
+        while (!stopped && lease.isValid() && System.currentTimeMillis() < until) {
+            if (drainPass(lease) == 0) {
+                try {
+                    Thread.sleep(pollMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * @return number of events relayed
+     */
+    int drainPass(LeaderLease lease) {
+        int relayed = 0;
+        long afterUserId = 0L;
+        long afterId = 0L;
+        List<OutboxEvent> page;
+        while (!stopped && lease.isValid()
+                && !(page = outboxEventRepository.findPendingAfter(afterUserId, afterId, PageRequest.of(0, batchSize))).isEmpty()) {
+            List<OutboxMessage> messages = page.stream()
+                    .map(event -> new OutboxMessage(event.getId(), event.getUserId(), event.getEventType(),
+                            event.getPayload(), event.getCreatedAt()))
+                    .toList();
+            try {
+                sink.publish(messages);
+            } catch (Exception e) {
+                meterRegistry.counter("membership.outbox.failures").increment();
+                log.warn("Outbox sink rejected {} events from id {}, retrying on the next pass: {}",
+                        messages.size(), messages.get(0).id(), e.getMessage());
+                return relayed;
+            }
+            List<Long> ids = messages.stream().map(OutboxMessage::id).toList();
+            transactionTemplate.executeWithoutResult(status -> outboxEventRepository.deleteByIds(ids));
+            meterRegistry.counter("membership.outbox.relayed").increment(ids.size());
+            relayed += ids.size();
+            OutboxMessage last = messages.get(messages.size() - 1);
+            afterUserId = last.userId();
+            afterId = last.id();
+        }
+        return relayed;
+    }
+}
@@ -0,0 +1,47 @@
+package com.membership.program.service.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.membership.program.entity.OutboxEvent;
+import com.membership.program.repository.OutboxEventRepository;
+import com.membership.program.service.lock.UserMutationLocks;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes events for downstream services to the transactional outbox, so an event is stored if
+ * and only if the change it describes commits.
+ *
+ * The user's {@link UserMutationLocks} stripe is held from the insert until the transaction
+ * completes, so events of one user written on this node get ids in the order their transactions
+ * commit, and the relay delivers each user's events in id order. Changes for the same user on two
+ * nodes at once are not ordered against each other; subscription changes are kept apart by the
+ * one-active-subscription-per-user unique index.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final UserMutationLocks userMutationLocks;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String eventType, Long userId, Object payload) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Outbox payload of " + eventType + " is not serializable", e);
+        }
+        // Re-entrant, so callers that already hold the user's stripe just extend it
+        userMutationLocks.lockForTransaction(userId);
+        outboxEventRepository.save(OutboxEvent.builder()
+                .userId(userId)
+                .eventType(eventType)
+                .payload(json)
+                .build());
+    }
+}
@@ -0,0 +1,17 @@
+package com.membership.program.service.outbox;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events: a local log or in-memory broker stand-in, or a message
+ * broker in production (provide another implementation as a bean and set
+ * {@code membership.outbox.sink} to a value the built-in sinks do not claim).
+ */
+public interface OutboxSink {
+
+    /**
+     * Deliver {@code messages} in order. Return only once all of them are stored durably by the
+     * destination; throw if any could not be, and the whole batch is retried.
+     */
+    void publish(List<OutboxMessage> messages) throws Exception;
+}
@@ -0,0 +1,125 @@
+package com.membership.program.service.simulation;
+
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A tier upgrade rule reduced to primitive thresholds over the columns of one {@link MetricsSnapshot}.
+ * Criteria are combined with AND, as in {@code RuleEvaluationServiceImpl}; repeated criteria of a
+ * type keep the strictest threshold. A criterion the rule evaluators would reject (unknown type,
+ * wrong value type) makes the rule unsatisfiable. Rolling-window criteria cannot be simulated,
+ * because daily buckets are not part of the snapshot. A rule using them is never counted as
+ * matching, and its {@link #unsimulatedCriteria()} lists them so the response can report it.
+ */
+final class CompiledRule {
+
+    private static final int ANY_COHORT = Integer.MIN_VALUE;
+
+    final int index;
+    final TierUpgradeRuleDefinition definition;
+    final long sourceTierId;
+    final long targetTierId;
+    private int minOrders = Integer.MIN_VALUE;
+    private long minValueCents = Long.MIN_VALUE;
+    private int minMembershipDays = Integer.MIN_VALUE;
+    private int cohortCode = ANY_COHORT;
+    private boolean unsatisfiable;
+    private final List<String> unsimulatedCriteria = new ArrayList<>();
+
+    private CompiledRule(int index, TierUpgradeRuleDefinition definition) {
+        this.index = index;
+        this.definition = definition;
+        this.sourceTierId = definition.getSourceTierId();
+        this.targetTierId = definition.getTargetTierId();
+    }
+
+    static CompiledRule compile(int index, TierUpgradeRuleDefinition definition, MetricsSnapshot snapshot) {
+        CompiledRule rule = new CompiledRule(index, definition);
+        if (definition.getCriteria() != null) {
+            definition.getCriteria().forEach(criterion -> rule.addCriterion(criterion, snapshot));
+        }
+        return rule;
+    }
+
+    private void addCriterion(CriteriaDefinition criterion, MetricsSnapshot snapshot) {
+        Object value = criterion.getValue();
+        String type = criterion.getCriteriaType() == null ? "" : criterion.getCriteriaType();
+        switch (type) {
+            case "ORDER_COUNT" -> {
+                if (value instanceof Number number) {
+                    minOrders = Math.max(minOrders, number.intValue());
+                } else {
+                    unsatisfiable = true;
+                }
+            }
+            case "MONTHLY_ORDER_VALUE" -> {
+                if (value instanceof Number number) {
+                    long cents = new BigDecimal(number.toString()).setScale(2, RoundingMode.CEILING)
+                            .unscaledValue().longValueExact();
+                    minValueCents = Math.max(minValueCents, cents);
+                } else {
+                    unsatisfiable = true;
+                }
+            }
+            case "MEMBERSHIP_DURATION" -> {
+                if (value instanceof Number number) {
+                    minMembershipDays = Math.max(minMembershipDays, number.intValue());
+                } else {
+                    unsatisfiable = true;
+                }
+            }
+            case "USER_COHORT" -> {
+                int code = value instanceof String cohort ? snapshot.cohortCode(cohort) : -2;
+                if (code < 0 || (cohortCode != ANY_COHORT && cohortCode != code)) {
+                    unsatisfiable = true;
+                }
+                cohortCode = code;
+            }
+            case "ROLLING_ORDER_VALUE", "ROLLING_ORDER_COUNT" -> {
+                unsimulatedCriteria.add(type);
+                unsatisfiable = true;
+            }
+            default -> unsatisfiable = true;
+        }
+    }
+
+    /**
+     * Criteria types of this rule that the snapshot cannot evaluate, empty if the rule is fully simulated
+     */
+    List<String> unsimulatedCriteria() {
+        return unsimulatedCriteria;
+    }
+
+    boolean matches(MetricsSnapshot snapshot, int user) {
+        return !unsatisfiable
+                && snapshot.orderCounts()[user] >= minOrders
+                && snapshot.monthlyValueCents()[user] >= minValueCents
+                && snapshot.membershipDays()[user] >= minMembershipDays
+                && (cohortCode == ANY_COHORT || snapshot.cohortCodes()[user] == cohortCode);
+    }
+
+    /**
+     * Largest relative shortfall across the rule's numeric criteria: 0 when the user qualifies,
+     * infinity when no amount of activity would make them qualify (cohort mismatch)
+     */
+    double distance(MetricsSnapshot snapshot, int user) {
+        if (unsatisfiable || (cohortCode != ANY_COHORT && snapshot.cohortCodes()[user] != cohortCode)) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double distance = relativeGap(minOrders, snapshot.orderCounts()[user]);
+        distance = Math.max(distance, relativeGap(minValueCents, snapshot.monthlyValueCents()[user]));
+        return Math.max(distance, relativeGap(minMembershipDays, snapshot.membershipDays()[user]));
+    }
+
+    private static double relativeGap(double threshold, double actual) {
+        if (threshold <= 0 || actual >= threshold) {
+            return 0.0;
+        }
+        return (threshold - actual) / threshold;
+    }
+}
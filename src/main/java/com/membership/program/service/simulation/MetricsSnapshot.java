@@ -0,0 +1,159 @@
+package com.membership.program.service.simulation;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Point-in-time copy of the metrics tier rules are evaluated against, for every user, stored as
+ * one primitive array per metric. Cohorts are dictionary-encoded: {@link #cohortCodes()} holds an
+ * index into {@link #cohortNames()}, or {@link #NO_COHORT}. Monthly order value is held in cents.
+ * Immutable once built; read concurrently by the simulation workers.
+ */
+public final class MetricsSnapshot {
+
+    public static final int NO_COHORT = -1;
+
+    private final LocalDateTime takenAt;
+    private final int size;
+    private final int maxTierLevel;
+    private final long[] userIds;
+    private final int[] tierLevels;
+    private final int[] cohortCodes;
+    private final int[] orderCounts;
+    private final long[] monthlyValueCents;
+    private final int[] membershipDays;
+    private final List<String> cohortNames;
+    private final Map<String, Integer> cohortIndex;
+
+    private MetricsSnapshot(Builder builder) {
+        this.takenAt = builder.takenAt;
+        this.size = builder.size;
+        this.maxTierLevel = builder.maxTierLevel;
+        this.userIds = Arrays.copyOf(builder.userIds, size);
+        this.tierLevels = Arrays.copyOf(builder.tierLevels, size);
+        this.cohortCodes = Arrays.copyOf(builder.cohortCodes, size);
+        this.orderCounts = Arrays.copyOf(builder.orderCounts, size);
+        this.monthlyValueCents = Arrays.copyOf(builder.monthlyValueCents, size);
+        this.membershipDays = Arrays.copyOf(builder.membershipDays, size);
+        this.cohortNames = List.copyOf(builder.cohortNames);
+        this.cohortIndex = Map.copyOf(builder.cohortIndex);
+    }
+
+    public static Builder builder(LocalDateTime takenAt, int expectedSize) {
+        return new Builder(takenAt, expectedSize);
+    }
+
+    public LocalDateTime takenAt() {
+        return takenAt;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Highest tier level of any user, or -1 if the snapshot is empty
+     */
+    public int maxTierLevel() {
+        return maxTierLevel;
+    }
+
+    public long[] userIds() {
+        return userIds;
+    }
+
+    public int[] tierLevels() {
+        return tierLevels;
+    }
+
+    public int[] cohortCodes() {
+        return cohortCodes;
+    }
+
+    public int[] orderCounts() {
+        return orderCounts;
+    }
+
+    public long[] monthlyValueCents() {
+        return monthlyValueCents;
+    }
+
+    public int[] membershipDays() {
+        return membershipDays;
+    }
+
+    public List<String> cohortNames() {
+        return cohortNames;
+    }
+
+    /**
+     * Dictionary code of {@code cohort}, or -2 if no user in the snapshot has it
+     */
+    public int cohortCode(String cohort) {
+        return cohortIndex.getOrDefault(cohort, -2);
+    }
+
+    public static final class Builder {
+
+        private final LocalDateTime takenAt;
+        private final List<String> cohortNames = new ArrayList<>();
+        private final Map<String, Integer> cohortIndex = new HashMap<>();
+        private int size;
+        private int maxTierLevel = -1;
+        private long[] userIds;
+        private int[] tierLevels;
+        private int[] cohortCodes;
+        private int[] orderCounts;
+        private long[] monthlyValueCents;
+        private int[] membershipDays;
+
+        private Builder(LocalDateTime takenAt, int expectedSize) {
+            int capacity = Math.max(16, expectedSize);
+            this.takenAt = takenAt;
+            this.userIds = new long[capacity];
+            this.tierLevels = new int[capacity];
+            this.cohortCodes = new int[capacity];
+            this.orderCounts = new int[capacity];
+            this.monthlyValueCents = new long[capacity];
+            this.membershipDays = new int[capacity];
+        }
+
+        public Builder add(long userId, int tierLevel, String cohort, int orderCount, long monthlyValueCents,
+                           int membershipDays) {
+            if (size == userIds.length) {
+                grow();
+            }
+            this.userIds[size] = userId;
+            this.tierLevels[size] = tierLevel;
+            this.maxTierLevel = Math.max(maxTierLevel, tierLevel);
+            this.cohortCodes[size] = cohort == null ? NO_COHORT
+                    : cohortIndex.computeIfAbsent(cohort, name -> {
+                        cohortNames.add(name);
+                        return cohortNames.size() - 1;
+                    });
+            this.orderCounts[size] = orderCount;
+            this.monthlyValueCents[size] = monthlyValueCents;
+            this.membershipDays[size] = membershipDays;
+            size++;
+            return this;
+        }
+
+        public MetricsSnapshot build() {
+            return new MetricsSnapshot(this);
+        }
+
+        private void grow() {
+            int capacity = size + (size >> 1);
+            userIds = Arrays.copyOf(userIds, capacity);
+            tierLevels = Arrays.copyOf(tierLevels, capacity);
+            cohortCodes = Arrays.copyOf(cohortCodes, capacity);
+            orderCounts = Arrays.copyOf(orderCounts, capacity);
+            monthlyValueCents = Arrays.copyOf(monthlyValueCents, capacity);
+            membershipDays = Arrays.copyOf(membershipDays, capacity);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.membership.program.service.simulation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Loads {@link MetricsSnapshot}s for rule simulation. The whole user base is read in one
+ * aggregate query whose rows are streamed straight into the columnar arrays, so no entities or
+ * orders are loaded. A snapshot is reused until it is older than the configured time to live.
+ */
+@Service
+@Slf4j
+public class MetricsSnapshotService {
+
+    private static final String SNAPSHOT_QUERY =
+            "SELECT u.id, COALESCE(u.current_tier_level, 0) AS tier_level, u.cohort, " +
+            "COALESCE(u.membership_start_date, u.created_at) AS membership_since, " +
+            "COALESCE(o.order_count, 0) AS order_count, COALESCE(o.monthly_value, 0) AS monthly_value " +
+            "FROM users u LEFT JOIN (" +
+            "SELECT user_id, COUNT(*) AS order_count, " +
+            "SUM(final_amount) FILTER (WHERE order_date >= ? AND order_date < ?) AS monthly_value " +
+            "FROM orders WHERE status = 'COMPLETED' GROUP BY user_id) o ON o.user_id = u.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Duration timeToLive;
+    private final int fetchSize;
+
+    private volatile MetricsSnapshot snapshot;
+
+    public MetricsSnapshotService(JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  @Value("${membership.simulation.snapshot-ttl-minutes:15}") long timeToLiveMinutes,
+                                  @Value("${membership.simulation.fetch-size:10000}") int fetchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.timeToLive = Duration.ofMinutes(timeToLiveMinutes);
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * Current snapshot, loading a new one if there is none, it has expired or {@code refresh} is set
+     */
+    public MetricsSnapshot getSnapshot(boolean refresh) {
+        MetricsSnapshot current = snapshot;
+        if (!refresh && isFresh(current)) {
+            return current;
+        }
+        LocalDateTime requestedAt = LocalDateTime.now();
+        synchronized (this) {
+            // A snapshot loaded while this caller waited is fresh enough, even for a refresh
+            current = snapshot;
+            if (!isFresh(current) || (refresh && current.takenAt().isBefore(requestedAt))) {
+                current = load();
+                snapshot = current;
+            }
+        }
+        return current;
+    }
+
+    private MetricsSnapshot load() {
+        long start = System.currentTimeMillis();
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime monthStart = LocalDate.now().withDayOfMonth(1).atStartOfDay();
+        Integer userCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Integer.class);
+        MetricsSnapshot.Builder builder = MetricsSnapshot.builder(now, userCount != null ? userCount : 0);
+
+        // Postgres only streams with a fetch size inside a transaction; otherwise it buffers every row
+        readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(SNAPSHOT_QUERY);
+            statement.setFetchSize(fetchSize);
+            statement.setTimestamp(1, Timestamp.valueOf(monthStart));
+            statement.setTimestamp(2, Timestamp.valueOf(monthStart.plusMonths(1)));
+            return statement;
+        }, rs -> {
+            Timestamp since = rs.getTimestamp("membership_since");
+            BigDecimal monthlyValue = rs.getBigDecimal("monthly_value");
+            builder.add(rs.getLong("id"),
+                    rs.getInt("tier_level"),
+                    rs.getString("cohort"),
+                    rs.getInt("order_count"),
+                    monthlyValue == null ? 0L : monthlyValue.setScale(2, RoundingMode.FLOOR).unscaledValue().longValueExact(),
+                    since == null ? 0 : (int) ChronoUnit.DAYS.between(since.toLocalDateTime(), now));
+        }));
+
+        MetricsSnapshot loaded = builder.build();
+        log.info("Loaded metrics snapshot of {} users in {}ms", loaded.size(), System.currentTimeMillis() - start);
+        return loaded;
+    }
+
+    private boolean isFresh(MetricsSnapshot candidate) {
+        return candidate != null && candidate.takenAt().plus(timeToLive).isAfter(LocalDateTime.now());
+    }
+}
@@ -0,0 +1,319 @@
+package com.membership.program.service.simulation;
+
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.request.RuleSimulationRequestDTO;
+import com.membership.program.dto.response.RuleSimulationResponseDTO;
+import com.membership.program.mapper.TierUpgradeRuleMapper;
+import com.membership.program.service.evaluation.TierUpgradeRuleCatalog;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Dry-run of a tier upgrade rule set against every member, for sizing a rule change before it is
+ * activated. Nothing is written.
+ *
+ * Rules are compiled to primitive thresholds ({@link CompiledRule}) and evaluated against a
+ * columnar {@link MetricsSnapshot}, split into fixed-size ranges of users that are tallied in
+ * parallel on a dedicated pool and merged. Each user's best rule is chosen as in
+ * {@code RuleEvaluationServiceImpl#findBestApplicableRule}: among the rules for the user's tier
+ * whose criteria all pass, the one with the highest target tier. Rules with rolling-window
+ * criteria cannot be evaluated against the snapshot and are listed as unsimulated.
+ */
+@Service
+@Slf4j
+public class RuleImpactSimulator {
+
+    static final int CHUNK_SIZE = 65_536;
+    static final String NO_COHORT = "NONE";
+    static final List<String> DISTANCE_BUCKETS = List.of(
+            "QUALIFIES", "WITHIN_10_PERCENT", "WITHIN_25_PERCENT", "WITHIN_50_PERCENT", "BEYOND_50_PERCENT", "UNREACHABLE");
+
+    private final MetricsSnapshotService snapshotService;
+    private final TierUpgradeRuleCatalog ruleCatalog;
+    private final ForkJoinPool pool;
+
+    public RuleImpactSimulator(MetricsSnapshotService snapshotService,
+                               TierUpgradeRuleCatalog ruleCatalog,
+                               @Value("${membership.simulation.parallelism:0}") int parallelism) {
+        this.snapshotService = snapshotService;
+        this.ruleCatalog = ruleCatalog;
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    public RuleSimulationResponseDTO simulate(RuleSimulationRequestDTO request) {
+        List<TierUpgradeRuleDefinition> activeRules = ruleCatalog.getSourceTierIdsWithRules().stream()
+                .flatMap(sourceTierId -> ruleCatalog.getRulesForSourceTier(sourceTierId).stream())
+                .toList();
+        List<TierUpgradeRuleDefinition> candidates = request.getRules().stream()
+                .map(TierUpgradeRuleMapper::toDefinition)
+                .toList();
+
+        List<TierUpgradeRuleDefinition> simulatedRules = new ArrayList<>();
+        if (!request.isReplaceActiveRules()) {
+            Set<Long> replacedIds = candidates.stream()
+                    .map(TierUpgradeRuleDefinition::getId).filter(Objects::nonNull).collect(Collectors.toSet());
+            activeRules.stream().filter(rule -> !replacedIds.contains(rule.getId())).forEach(simulatedRules::add);
+        }
+        simulatedRules.addAll(candidates);
+
+        MetricsSnapshot snapshot = snapshotService.getSnapshot(request.isRefreshSnapshot());
+        long start = System.currentTimeMillis();
+        RuleSimulationResponseDTO response = simulate(snapshot, activeRules, simulatedRules, candidates);
+        response.setDurationMillis(System.currentTimeMillis() - start);
+        log.info("Simulated {} candidate rules against {} users in {}ms: {} eligible now, {} under the candidates",
+                candidates.size(), snapshot.size(), response.getDurationMillis(),
+                response.getEligibleUnderActiveRules(), response.getEligibleUnderSimulatedRules());
+        return response;
+    }
+
+    RuleSimulationResponseDTO simulate(MetricsSnapshot snapshot,
+                                       List<TierUpgradeRuleDefinition> activeRules,
+                                       List<TierUpgradeRuleDefinition> simulatedRules,
+                                       List<TierUpgradeRuleDefinition> candidates) {
+        RuleSet active = new RuleSet(activeRules, snapshot);
+        RuleSet simulated = new RuleSet(simulatedRules, snapshot);
+        RuleSet candidateSet = new RuleSet(candidates, snapshot);
+        int chunks = (snapshot.size() + CHUNK_SIZE - 1) / CHUNK_SIZE;
+
+        Tally total = pool.submit(() -> IntStream.range(0, chunks).parallel()
+                        .mapToObj(chunk -> tally(snapshot, active, simulated, candidateSet, chunk * CHUNK_SIZE,
+                                Math.min(snapshot.size(), (chunk + 1) * CHUNK_SIZE)))
+                        .reduce(Tally::merge)
+                        .orElseGet(() -> new Tally(simulated.size(), snapshot.cohortNames().size(), candidateSet.size())))
+                .join();
+
+        return RuleSimulationResponseDTO.builder()
+                .snapshotTakenAt(snapshot.takenAt())
+                .usersEvaluated(snapshot.size())
+                .eligibleUnderActiveRules(total.eligibleBefore)
+                .eligibleUnderSimulatedRules(total.eligibleAfter)
+                .newlyEligible(total.newlyEligible)
+                .noLongerEligible(total.noLongerEligible)
+                .upgradesByTier(transitions(simulated, total.upgradesByRule))
+                .upgradesByCohort(cohorts(snapshot, total.upgradesByCohort))
+                .distanceToThreshold(distances(candidateSet, total.distances))
+                .unsimulatedRules(unsimulated(active, simulated))
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static Tally tally(MetricsSnapshot snapshot, RuleSet active, RuleSet simulated, RuleSet candidates,
+                               int from, int to) {
+        int noCohortSlot = snapshot.cohortNames().size();
+        Tally tally = new Tally(simulated.size(), noCohortSlot, candidates.size());
+        int[] tierLevels = snapshot.tierLevels();
+        int[] cohortCodes = snapshot.cohortCodes();
+
+        for (int user = from; user < to; user++) {
+            int tier = tierLevels[user];
+            CompiledRule before = active.best(tier, snapshot, user);
+            CompiledRule after = simulated.best(tier, snapshot, user);
+            if (before != null) {
+                tally.eligibleBefore++;
+            }
+            if (after != null) {
+                tally.eligibleAfter++;
+                tally.upgradesByRule[after.index]++;
+                int cohort = cohortCodes[user];
+                tally.upgradesByCohort[cohort == MetricsSnapshot.NO_COHORT ? noCohortSlot : cohort]++;
+                if (before == null) {
+                    tally.newlyEligible++;
+                }
+            } else if (before != null) {
+                tally.noLongerEligible++;
+            }
+            for (CompiledRule candidate : candidates.forTier(tier)) {
+                tally.distances[candidate.index][bucket(candidate, snapshot, user)]++;
+            }
+        }
+        return tally;
+    }
+
+    static int bucket(CompiledRule rule, MetricsSnapshot snapshot, int user) {
+        if (rule.matches(snapshot, user)) {
+            return 0;
+        }
+        double distance = rule.distance(snapshot, user);
+        if (Double.isInfinite(distance)) {
+            return 5;
+        }
+        if (distance <= 0.10) {
+            return 1;
+        }
+        if (distance <= 0.25) {
+            return 2;
+        }
+        return distance <= 0.50 ? 3 : 4;
+    }
+
+    private static List<RuleSimulationResponseDTO.TierTransition> transitions(RuleSet rules, long[] upgradesByRule) {
+        Map<List<Long>, Long> byTier = new TreeMap<>(Comparator.<List<Long>, Long>comparing(key -> key.get(0))
+                .thenComparing(key -> key.get(1)));
+        for (CompiledRule rule : rules.all) {
+            if (upgradesByRule[rule.index] > 0) {
+                byTier.merge(List.of(rule.sourceTierId, rule.targetTierId), upgradesByRule[rule.index], Long::sum);
+            }
+        }
+        return byTier.entrySet().stream()
+                .map(entry -> RuleSimulationResponseDTO.TierTransition.builder()
+                        .sourceTierId(entry.getKey().get(0))
+                        .targetTierId(entry.getKey().get(1))
+                        .users(entry.getValue())
+                        .build())
+                .toList();
+    }
+
+    private static Map<String, Long> cohorts(MetricsSnapshot snapshot, long[] upgradesByCohort) {
+        Map<String, Long> byCohort = new TreeMap<>();
+        for (int code = 0; code < upgradesByCohort.length; code++) {
+            if (upgradesByCohort[code] > 0) {
+                String name = code < snapshot.cohortNames().size() ? snapshot.cohortNames().get(code) : NO_COHORT;
+                byCohort.merge(name, upgradesByCohort[code], Long::sum);
+            }
+        }
+        return byCohort;
+    }
+
+    private static List<RuleSimulationResponseDTO.UnsimulatedRule> unsimulated(RuleSet active, RuleSet simulated) {
+        Set<TierUpgradeRuleDefinition> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<RuleSimulationResponseDTO.UnsimulatedRule> result = new ArrayList<>();
+        for (RuleSet rules : List.of(active, simulated)) {
+            for (CompiledRule rule : rules.all) {
+                if (!rule.unsimulatedCriteria().isEmpty() && seen.add(rule.definition)) {
+                    result.add(RuleSimulationResponseDTO.UnsimulatedRule.builder()
+                            .ruleId(rule.definition.getId())
+                            .ruleName(rule.definition.getRuleName())
+                            .sourceTierId(rule.sourceTierId)
+                            .targetTierId(rule.targetTierId)
+                            .criteriaTypes(List.copyOf(rule.unsimulatedCriteria()))
+                            .build());
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<RuleSimulationResponseDTO.RuleDistance> distances(RuleSet candidates, long[][] distances) {
+        List<RuleSimulationResponseDTO.RuleDistance> result = new ArrayList<>(candidates.size());
+        for (CompiledRule rule : candidates.all) {
+            Map<String, Long> members = new LinkedHashMap<>();
+            long total = 0;
+            for (int bucket = 0; bucket < DISTANCE_BUCKETS.size(); bucket++) {
+                members.put(DISTANCE_BUCKETS.get(bucket), distances[rule.index][bucket]);
+                total += distances[rule.index][bucket];
+            }
+            result.add(RuleSimulationResponseDTO.RuleDistance.builder()
+                    .ruleId(rule.definition.getId())
+                    .ruleName(rule.definition.getRuleName())
+                    .sourceTierId(rule.sourceTierId)
+                    .targetTierId(rule.targetTierId)
+                    .membersOnSourceTier(total)
+                    .members(members)
+                    .build());
+        }
+        return result;
+    }
+
+    /**
+     * Compiled rules indexed by source tier. User tier levels are used as source tier ids, so rules
+     * are looked up by array index rather than hashed per user.
+     */
+    private static final class RuleSet {
+
+        private static final CompiledRule[] NONE = new CompiledRule[0];
+
+        private final List<CompiledRule> all = new ArrayList<>();
+        private final CompiledRule[][] byTier;
+
+        private RuleSet(List<TierUpgradeRuleDefinition> definitions, MetricsSnapshot snapshot) {
+            TreeMap<Integer, List<CompiledRule>> grouped = new TreeMap<>();
+            for (TierUpgradeRuleDefinition definition : definitions) {
+                CompiledRule rule = CompiledRule.compile(all.size(), definition, snapshot);
+                all.add(rule);
+                // A source tier no user is on never applies
+                if (rule.sourceTierId >= 0 && rule.sourceTierId <= snapshot.maxTierLevel()) {
+                    grouped.computeIfAbsent((int) rule.sourceTierId, tier -> new ArrayList<>()).add(rule);
+                }
+            }
+            int maxTier = grouped.isEmpty() ? -1 : grouped.lastKey();
+            byTier = new CompiledRule[maxTier + 1][];
+            for (int tier = 0; tier <= maxTier; tier++) {
+                byTier[tier] = grouped.getOrDefault(tier, List.of()).toArray(NONE);
+            }
+        }
+
+        int size() {
+            return all.size();
+        }
+
+        CompiledRule[] forTier(int tier) {
+            return tier >= 0 && tier < byTier.length ? byTier[tier] : NONE;
+        }
+
+        CompiledRule best(int tier, MetricsSnapshot snapshot, int user) {
+            CompiledRule best = null;
+            for (CompiledRule rule : forTier(tier)) {
+                if ((best == null || rule.targetTierId > best.targetTierId) && rule.matches(snapshot, user)) {
+                    best = rule;
+                }
+            }
+            return best;
+        }
+    }
+
+    private static final class Tally {
+
+        private final long[] upgradesByRule;
+        private final long[] upgradesByCohort;
+        private final long[][] distances;
+        private long eligibleBefore;
+        private long eligibleAfter;
+        private long newlyEligible;
+        private long noLongerEligible;
+
+        private Tally(int ruleCount, int cohortCount, int candidateCount) {
+            this.upgradesByRule = new long[ruleCount];
+            this.upgradesByCohort = new long[cohortCount + 1];
+            this.distances = new long[candidateCount][DISTANCE_BUCKETS.size()];
+        }
+
+        private Tally merge(Tally other) {
+            eligibleBefore += other.eligibleBefore;
+            eligibleAfter += other.eligibleAfter;
+            newlyEligible += other.newlyEligible;
+            noLongerEligible += other.noLongerEligible;
+            add(upgradesByRule, other.upgradesByRule);
+            add(upgradesByCohort, other.upgradesByCohort);
+            for (int rule = 0; rule < distances.length; rule++) {
+                add(distances[rule], other.distances[rule]);
+            }
+            return this;
+        }
+
+        private static void add(long[] into, long[] from) {
+            for (int i = 0; i < into.length; i++) {
+                into[i] += from[i];
+            }
+        }
+    }
+}
@@ -0,0 +1,244 @@
+package com.membership.program.service.throttle;
+
+import com.membership.program.constants.ApiEndpoints;
+import com.membership.program.utility.AimdController;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+
+/**
+ * Paces the nightly batch jobs so they yield to online traffic.
+ *
+ * Chunk size, concurrency and a target rate (items per second) are each driven by an
+ * {@link AimdController}. Every sample interval the database is checked for congestion: p99
+ * Hikari connection wait, threads waiting for a connection, p99 latency of online requests and
+ * the average time batch items have taken. The streaming endpoints (bulk evaluation, order ingest,
+ * history export) run for minutes by design and are left out of the online latency. Any signal over its threshold halves the batch limits;
+ * when all signals are under half their threshold and batch work is running, the limits are raised
+ * by one step. In between, the limits are held.
+ *
+ * Current rate, target rate, chunk size and concurrency are published as
+ * {@code membership.batch.throttle.*} gauges.
+ */
+@Component
+@Slf4j
+public class AdaptiveBatchThrottle {
+
+    private static final String HIKARI_ACQUIRE = "hikaricp.connections.acquire";
+    private static final String HIKARI_PENDING = "hikaricp.connections.pending";
+    private static final String HTTP_REQUESTS = "http.server.requests";
+    private static final Set<String> STREAMING_URIS = Set.of(
+            "/" + ApiEndpoints.TierUpgrade.BASE_URL + ApiEndpoints.TierUpgrade.ADMIN_EVALUATE_BULK,
+            "/" + ApiEndpoints.Order.BASE_URL + ApiEndpoints.Order.ADMIN_INGEST,
+            "/" + ApiEndpoints.Membership.BASE_URL + ApiEndpoints.Membership.SUBSCRIPTION_HISTORY_EXPORT);
+    private static final double EWMA_WEIGHT = 0.3;
+
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final double acquireThresholdMillis;
+    private final double onlineThresholdMillis;
+    private final double itemLatencyThresholdMillis;
+    private final long sampleMillis;
+    private final AimdController chunkSize;
+    private final AimdController concurrency;
+    private final AimdController targetRate;
+    private final ExecutorService workers;
+
+    private volatile double currentRate;
+    private volatile double itemLatencyMillis;
+    private volatile long lastBatchActivityMillis;
+
+    public AdaptiveBatchThrottle(MeterRegistry meterRegistry,
+                                 @Value("${membership.batch-throttle.enabled:true}") boolean enabled,
+                                 @Value("${membership.batch-throttle.sample-ms:5000}") long sampleMillis,
+                                 @Value("${membership.batch-throttle.acquire-p99-threshold-ms:50}") double acquireThresholdMillis,
+                                 @Value("${membership.batch-throttle.online-p99-threshold-ms:500}") double onlineThresholdMillis,
+                                 @Value("${membership.batch-throttle.item-latency-threshold-ms:200}") double itemLatencyThresholdMillis,
+                                 @Value("${membership.batch-throttle.chunk-size.initial:200}") int initialChunkSize,
+                                 @Value("${membership.batch-throttle.chunk-size.min:20}") int minChunkSize,
+                                 @Value("${membership.batch-throttle.chunk-size.max:500}") int maxChunkSize,
+                                 @Value("${membership.batch-throttle.concurrency.initial:2}") int initialConcurrency,
+                                 @Value("${membership.batch-throttle.concurrency.max:4}") int maxConcurrency,
+                                 @Value("${membership.batch-throttle.rate.initial:200}") double initialRate,
+                                 @Value("${membership.batch-throttle.rate.min:20}") double minRate,
+                                 @Value("${membership.batch-throttle.rate.max:2000}") double maxRate) {
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.sampleMillis = sampleMillis;
+        this.acquireThresholdMillis = acquireThresholdMillis;
+        this.onlineThresholdMillis = onlineThresholdMillis;
+        this.itemLatencyThresholdMillis = itemLatencyThresholdMillis;
+        this.chunkSize = new AimdController(initialChunkSize, minChunkSize, maxChunkSize, Math.max(1, minChunkSize), 0.5);
+        this.concurrency = new AimdController(initialConcurrency, 1, maxConcurrency, 1, 0.5);
+        this.targetRate = new AimdController(initialRate, minRate, maxRate, Math.max(1, minRate), 0.5);
+        this.workers = Executors.newFixedThreadPool(maxConcurrency, runnable -> {
+            Thread thread = new Thread(runnable, "batch-worker");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("membership.batch.throttle.current-rate", () -> currentRate)
+                .description("Observed batch throughput in items per second").register(meterRegistry);
+        Gauge.builder("membership.batch.throttle.target-rate", targetRate::current)
+                .description("Batch throughput the throttle currently allows, in items per second").register(meterRegistry);
+        Gauge.builder("membership.batch.throttle.chunk-size", chunkSize::current).register(meterRegistry);
+        Gauge.builder("membership.batch.throttle.concurrency", concurrency::current).register(meterRegistry);
+    }
+
+    /**
+     * Number of items a batch job should load per page
+     */
+    public int chunkSize() {
+        return chunkSize.currentAsInt();
+    }
+
+    /**
+     * Run {@code handler} over a chunk of items at the current concurrency, then wait as long as
+     * needed to keep to the target rate. The handler reports failure by returning false.
+     */
+    public <T> ChunkResult execute(List<T> items, Predicate<T> handler) {
+        if (items.isEmpty()) {
+            return new ChunkResult(0, 0);
+        }
+        long start = System.nanoTime();
+        lastBatchActivityMillis = System.currentTimeMillis();
+
+        AtomicInteger succeeded = new AtomicInteger();
+        int parallelism = enabled ? Math.min(concurrency.currentAsInt(), items.size()) : 1;
+        if (parallelism <= 1) {
+            items.forEach(item -> {
+                if (handler.test(item)) {
+                    succeeded.incrementAndGet();
+                }
+            });
+        } else {
+            AtomicInteger next = new AtomicInteger();
+            List<Future<?>> futures = new ArrayList<>(parallelism);
+            for (int i = 0; i < parallelism; i++) {
+                futures.add(workers.submit(() -> {
+                    int index;
+                    while ((index = next.getAndIncrement()) < items.size()) {
+                        if (handler.test(items.get(index))) {
+                            succeeded.incrementAndGet();
+                        }
+                    }
+                }));
+            }
+            awaitAll(futures);
+        }
+
+        long workNanos = System.nanoTime() - start;
+        itemLatencyMillis = ewma(itemLatencyMillis, TimeUnit.NANOSECONDS.toMicros(workNanos) * parallelism / 1000.0 / items.size());
+        if (enabled) {
+            pace(items.size(), workNanos);
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        currentRate = ewma(currentRate, items.size() / Math.max(elapsedSeconds, 0.001));
+        return new ChunkResult(succeeded.get(), items.size() - succeeded.get());
+    }
+
+    /**
+     * Sample the congestion signals and move the batch limits
+     */
+    @Scheduled(fixedDelayString = "${membership.batch-throttle.sample-ms:5000}")
+    public void adjust() {
+        if (!enabled) {
+            return;
+        }
+        double acquireP99 = p99Millis(meterRegistry.find(HIKARI_ACQUIRE).timers());
+        double onlineP99 = p99Millis(meterRegistry.find(HTTP_REQUESTS).timers().stream()
+                .filter(timer -> !STREAMING_URIS.contains(timer.getId().getTag("uri")))
+                .toList());
+        double pending = meterRegistry.find(HIKARI_PENDING).gauges().stream()
+                .mapToDouble(Gauge::value).filter(value -> !Double.isNaN(value)).sum();
+        double itemLatency = itemLatencyMillis;
+
+        if (acquireP99 > acquireThresholdMillis || onlineP99 > onlineThresholdMillis
+                || pending > 0 || itemLatency > itemLatencyThresholdMillis) {
+            chunkSize.decrease();
+            concurrency.decrease();
+            targetRate.decrease();
+            log.debug("Database congested (acquire p99 {}ms, online p99 {}ms, pending {}, item {}ms), batch rate lowered to {}/s",
+                    acquireP99, onlineP99, pending, itemLatency, targetRate.currentAsInt());
+        } else if (acquireP99 < acquireThresholdMillis / 2 && onlineP99 < onlineThresholdMillis / 2
+                && itemLatency < itemLatencyThresholdMillis / 2
+                && System.currentTimeMillis() - lastBatchActivityMillis < sampleMillis * 2) {
+            // Only probe upwards while batch work is running, so an idle day does not build up a burst
+            chunkSize.increase();
+            concurrency.increase();
+            targetRate.increase();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void pace(int itemCount, long workNanos) {
+        long minimumNanos = (long) (itemCount / targetRate.current() * 1_000_000_000L);
+        long sleepMillis = TimeUnit.NANOSECONDS.toMillis(minimumNanos - workNanos);
+        if (sleepMillis > 0) {
+            try {
+                Thread.sleep(sleepMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> futures) {
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                futures.forEach(pending -> pending.cancel(true));
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Batch worker failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Highest p99 across the matching timers. Percentiles are only available for timers listed under
+     * {@code management.metrics.distribution.percentiles}; others report 0.
+     */
+    private static double p99Millis(Collection<Timer> timers) {
+        double max = 0;
+        for (Timer timer : timers) {
+            for (ValueAtPercentile value : timer.takeSnapshot().percentileValues()) {
+                if (value.percentile() == 0.99) {
+                    max = Math.max(max, value.value(TimeUnit.MILLISECONDS));
+                }
+            }
+        }
+        return max;
+    }
+
+    private static double ewma(double previous, double sample) {
+        return previous == 0 ? sample : previous + EWMA_WEIGHT * (sample - previous);
+    }
+
+    public record ChunkResult(int succeeded, int failed) {
+    }
+}
@@ -0,0 +1,44 @@
+package com.membership.program.utility;
+
+/**
+ * Additive-increase / multiplicative-decrease controller for a bounded value such as a batch
+ * size or a rate. The value grows by a fixed step while conditions are good and is cut by a
+ * factor as soon as they are not, so it converges quickly downwards and probes slowly upwards.
+ */
+public class AimdController {
+
+    private final double min;
+    private final double max;
+    private final double increaseStep;
+    private final double decreaseFactor;
+    private double current;
+
+    public AimdController(double initial, double min, double max, double increaseStep, double decreaseFactor) {
+        if (min <= 0 || max < min || increaseStep <= 0 || decreaseFactor <= 0 || decreaseFactor >= 1) {
+            throw new IllegalArgumentException("Invalid AIMD bounds");
+        }
+        this.min = min;
+        this.max = max;
+        this.increaseStep = increaseStep;
+        this.decreaseFactor = decreaseFactor;
+        this.current = Math.max(min, Math.min(max, initial));
+    }
+
+    public synchronized double increase() {
+        current = Math.min(max, current + increaseStep);
+        return current;
+    }
+
+    public synchronized double decrease() {
+        current = Math.max(min, current * decreaseFactor);
+        return current;
+    }
+
+    public synchronized double current() {
+        return current;
+    }
+
+    public int currentAsInt() {
+        return (int) Math.round(current());
+    }
+}
@@ -0,0 +1,110 @@
+package com.membership.program.utility;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock-free set of non-negative long ids stored as one bit per id.
+ *
+ * The id space is split into fixed segments of 65,536 ids (8 KB each) that are allocated on
+ * first use, so a set touching ten million sequential user ids costs about 1.2 MB no matter how
+ * often ids are re-added. Adding an id is a single CAS on one word; draining clears bits with
+ * CAS as well, so an id added concurrently with a drain is either returned or kept, never lost.
+ */
+public class ConcurrentIdBitSet {
+
+    private static final int SEGMENT_SHIFT = 16;
+    private static final int WORDS_PER_SEGMENT = (1 << SEGMENT_SHIFT) >>> 6;
+
+    private final ConcurrentHashMap<Long, AtomicLongArray> segments = new ConcurrentHashMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * @return true if the id was not already present
+     */
+    public boolean add(long id) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Id must be non-negative: " + id);
+        }
+        AtomicLongArray segment = segments.computeIfAbsent(id >>> SEGMENT_SHIFT, key -> new AtomicLongArray(WORDS_PER_SEGMENT));
+        int offset = (int) (id & ((1 << SEGMENT_SHIFT) - 1));
+        int wordIndex = offset >>> 6;
+        long bit = 1L << (offset & 63);
+
+        long word;
+        do {
+            word = segment.get(wordIndex);
+            if ((word & bit) != 0) {
+                return false;
+            }
+        } while (!segment.compareAndSet(wordIndex, word, word | bit));
+
+        size.incrementAndGet();
+        return true;
+    }
+
+    /**
+     * Remove and return up to {@code maxIds} ids in ascending order
+     */
+    public List<Long> drain(int maxIds) {
+        List<Long> drained = new ArrayList<>(Math.min(maxIds, Math.max(size.get(), 0)));
+        List<Long> segmentKeys = new ArrayList<>(segments.keySet());
+        segmentKeys.sort(null);
+
+        for (Long segmentKey : segmentKeys) {
+            AtomicLongArray segment = segments.get(segmentKey);
+            long base = segmentKey << SEGMENT_SHIFT;
+            for (int wordIndex = 0; wordIndex < WORDS_PER_SEGMENT; wordIndex++) {
+                if (drained.size() >= maxIds) {
+                    return drained;
+                }
+                long word = segment.get(wordIndex);
+                if (word == 0) {
+                    continue;
+                }
+                long taken = takeBits(word, maxIds - drained.size());
+                while (true) {
+                    long current = segment.get(wordIndex);
+                    taken &= current;
+                    if (segment.compareAndSet(wordIndex, current, current & ~taken)) {
+                        break;
+                    }
+                }
+                size.addAndGet(-Long.bitCount(taken));
+                while (taken != 0) {
+                    int bitIndex = Long.numberOfTrailingZeros(taken);
+                    drained.add(base + ((long) wordIndex << 6) + bitIndex);
+                    taken &= taken - 1;
+                }
+            }
+        }
+        return drained;
+    }
+
+    public int size() {
+        return Math.max(size.get(), 0);
+    }
+
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Lowest {@code limit} set bits of {@code word}
+     */
+    private static long takeBits(long word, int limit) {
+        if (Long.bitCount(word) <= limit) {
+            return word;
+        }
+        long taken = 0;
+        for (int i = 0; i < limit; i++) {
+            long lowest = word & -word;
+            taken |= lowest;
+            word &= word - 1;
+        }
+        return taken;
+    }
+}
@@ -0,0 +1,168 @@
+package com.membership.program.utility;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded multi-producer, multi-consumer ring buffer in the style of the LMAX Disruptor.
+ *
+ * The slot array is allocated once. A producer claims the next sequence with a CAS, stores the
+ * event in slot {@code sequence & mask} and marks the slot published with that sequence; it never
+ * takes a lock or waits for a consumer, and when every slot is still unread by the slowest consumer
+ * {@link #tryPublish} returns false instead. Publishing is lock-free rather than wait-free: a
+ * producer that loses the CAS to another producer retries, so some producer always completes but
+ * one may retry under heavy contention. Every consumer sees every event in sequence order and
+ * tracks its own position, which gates how far producers may wrap. Consumers read all events
+ * published so far in one batch and wait between batches with a {@link WaitStrategy}.
+ *
+ * Consumers must be added before the first event is published.
+ */
+public class EventRingBuffer<E> {
+
+    private final int mask;
+    private final Object[] slots;
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private final List<Consumer> consumers = new CopyOnWriteArrayList<>();
+    private volatile long gatingCache;
+
+    public EventRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("Capacity must be a power of two: " + capacity);
+        }
+        this.mask = capacity - 1;
+        this.slots = new Object[capacity];
+        this.published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+
+    public Consumer addConsumer() {
+        Consumer consumer = new Consumer(claimed.get());
+        consumers.add(consumer);
+        return consumer;
+    }
+
+    /**
+     * Publish {@code event} unless the buffer is full
+     *
+     * @return false if the slowest consumer is a full buffer behind
+     */
+    public boolean tryPublish(E event) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - gatingCache >= slots.length) {
+                long gating = minimumConsumed(sequence);
+                gatingCache = gating;
+                if (sequence - gating >= slots.length) {
+                    return false;
+                }
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        int index = (int) (sequence & mask);
+        slots[index] = event;
+        published.lazySet(index, sequence);
+        return true;
+    }
+
+    /**
+     * Events claimed but not yet read by the slowest consumer
+     */
+    public long backlog() {
+        long sequence = claimed.get();
+        return sequence - minimumConsumed(sequence);
+    }
+
+    private long minimumConsumed(long upperBound) {
+        long minimum = upperBound;
+        for (Consumer consumer : consumers) {
+            minimum = Math.min(minimum, consumer.next.get());
+        }
+        return minimum;
+    }
+
+    @FunctionalInterface
+    public interface BatchHandler<E> {
+        void onEvent(E event, long sequence, boolean endOfBatch);
+    }
+
+    /**
+     * Read position of one consumer. Only one thread may drain a given consumer.
+     */
+    public final class Consumer {
+
+        private final AtomicLong next;
+
+        private Consumer(long start) {
+            this.next = new AtomicLong(start);
+        }
+
+        /**
+         * Pass up to {@code maxBatch} consecutive published events to {@code handler}, marking the
+         * last one as the end of the batch, then release their slots to producers
+         *
+         * @return number of events read
+         */
+        @SuppressWarnings("unchecked")
+        public int drain(BatchHandler<? super E> handler, int maxBatch) {
+            long start = next.get();
+            long end = start;
+            while (end - start < maxBatch && published.get((int) (end & mask)) == end) {
+                end++;
+            }
+            long sequence = start;
+            try {
+                for (; sequence < end; sequence++) {
+                    handler.onEvent((E) slots[(int) (sequence & mask)], sequence, sequence == end - 1);
+                }
+            } finally {
+                // A handler that throws skips the failing event; the rest stay for the next drain
+                next.set(Math.min(sequence + 1, end));
+            }
+            return (int) (end - start);
+        }
+
+        public long lag() {
+            return claimed.get() - next.get();
+        }
+    }
+
+    /**
+     * How an idle consumer waits for the next event. Producers never signal consumers, so every
+     * strategy polls; they trade wake-up latency against CPU use while idle.
+     */
+    public enum WaitStrategy {
+        /** Spin on the CPU; lowest latency, burns a core per consumer */
+        BUSY_SPIN,
+        /** Spin briefly, then yield the CPU to other threads */
+        YIELDING,
+        /** Spin, then yield, then park for the configured interval; cheapest while idle */
+        SLEEPING;
+
+        private static final int SPIN_TRIES = 100;
+        private static final int YIELD_TRIES = 100;
+
+        /**
+         * Wait once after {@code idleRounds} consecutive empty polls
+         */
+        public void idle(int idleRounds, long parkNanos) {
+            if (this == BUSY_SPIN || idleRounds < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (this == YIELDING || idleRounds < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(parkNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.membership.program.utility;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hierarchical timing wheel for keyed deadlines, driven by the caller's clock.
+ *
+ * Level 0 has {@code wheelSize} buckets of one tick each; every higher level has buckets
+ * {@code wheelSize} times wider than the level below. A deadline goes into the lowest level
+ * whose range covers it, and when time reaches a higher-level bucket its entries are moved
+ * down, so scheduling and firing are O(1) per entry however far out the deadline is.
+ * Deadlines beyond the top level wait in an overflow list until the top level wraps.
+ *
+ * Scheduling a key that is already scheduled replaces its deadline. Deadlines are rounded
+ * up to the tick, so an entry never fires before its deadline and, provided {@link #advance}
+ * is called every tick, never more than one tick late.
+ */
+public class HierarchicalTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final long[] levelTicks;
+    private final List<List<Entry<K>>[]> levels = new ArrayList<>();
+    private final List<Entry<K>> overflow = new ArrayList<>();
+    private final List<K> ready = new ArrayList<>();
+    private final Map<K, Entry<K>> entries = new HashMap<>();
+    private long currentTick;
+
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levelCount, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levelCount < 1) {
+            throw new IllegalArgumentException("Invalid timing wheel dimensions");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levelTicks = new long[levelCount + 1];
+        long ticks = 1;
+        for (int level = 0; level <= levelCount; level++) {
+            levelTicks[level] = ticks;
+            ticks = Math.multiplyExact(ticks, wheelSize);
+        }
+        for (int level = 0; level < levelCount; level++) {
+            @SuppressWarnings("unchecked")
+            List<Entry<K>>[] buckets = new List[wheelSize];
+            for (int i = 0; i < wheelSize; i++) {
+                buckets[i] = new ArrayList<>();
+            }
+            levels.add(buckets);
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule {@code key} to fire at {@code deadlineMillis}, replacing any earlier schedule for it.
+     * A deadline that is already due fires on the next {@link #advance}.
+     *
+     * @return false if the key was already scheduled for the same tick
+     */
+    public synchronized boolean schedule(K key, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis);
+        Entry<K> existing = entries.get(key);
+        if (existing != null) {
+            if (existing.deadlineTick == deadlineTick) {
+                return false;
+            }
+            existing.cancelled = true;
+        }
+        Entry<K> entry = new Entry<>(key, deadlineTick);
+        entries.put(key, entry);
+        place(entry);
+        return true;
+    }
+
+    public synchronized boolean cancel(K key) {
+        Entry<K> entry = entries.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    public synchronized boolean contains(K key) {
+        return entries.containsKey(key);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Move the wheel forward to {@code nowMillis} and return the keys whose deadline has passed,
+     * in the order their ticks came due
+     */
+    public synchronized List<K> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            if (currentTick % levelTicks[levels.size()] == 0) {
+                List<Entry<K>> waiting = new ArrayList<>(overflow);
+                overflow.clear();
+                waiting.forEach(this::place);
+            }
+            for (int level = levels.size() - 1; level > 0; level--) {
+                if (currentTick % levelTicks[level] == 0) {
+                    cascade(levels.get(level), (int) ((currentTick / levelTicks[level]) % wheelSize));
+                }
+            }
+            cascade(levels.get(0), (int) (currentTick % wheelSize));
+        }
+
+        List<K> due = new ArrayList<>(ready);
+        ready.clear();
+        return due;
+    }
+
+    private void cascade(List<Entry<K>>[] buckets, int index) {
+        List<Entry<K>> bucket = buckets[index];
+        if (bucket.isEmpty()) {
+            return;
+        }
+        buckets[index] = new ArrayList<>();
+        bucket.forEach(this::place);
+    }
+
+    private void place(Entry<K> entry) {
+        if (entry.cancelled) {
+            return;
+        }
+        long delay = entry.deadlineTick - currentTick;
+        if (delay <= 0) {
+            entries.remove(entry.key);
+            ready.add(entry.key);
+            return;
+        }
+        for (int level = 0; level < levels.size(); level++) {
+            if (delay < levelTicks[level + 1]) {
+                int index = (int) ((entry.deadlineTick / levelTicks[level]) % wheelSize);
+                levels.get(level)[index].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineTick;
+        private boolean cancelled;
+
+        private Entry(K key, long deadlineTick) {
+            this.key = key;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.membership.program.utility;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls for the same key: the first caller runs the work, and callers that
+ * arrive while it is running wait for and share its result (or its exception) instead of running
+ * the work again. A call that starts after the work finished runs it afresh.
+ *
+ * Joining is a single {@link ConcurrentHashMap#putIfAbsent}, which only contends on the map bin
+ * of the key, so callers for different keys never block each other.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Consumer<K> joinListener;
+
+    public SingleFlight() {
+        this(key -> { });
+    }
+
+    /**
+     * @param joinListener called on a caller's thread once it has joined work already running for its key
+     */
+    public SingleFlight(Consumer<K> joinListener) {
+        this.joinListener = joinListener;
+    }
+
+    public V execute(K key, Supplier<V> work) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            joinListener.accept(key);
+            return join(existing);
+        }
+
+        try {
+            V value = work.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    /**
+     * Number of keys with work currently running
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private static <V> V join(CompletableFuture<V> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.membership.program.utility;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A fixed set of locks shared by key hash. Equal keys always map to the same lock, so work on one
+ * key is serialized, while different keys only contend when they happen to share a stripe.
+ * Memory stays constant however many keys are used.
+ */
+public class StripedLocks {
+
+    private final Lock[] stripes;
+    private final int mask;
+
+    public StripedLocks(int stripeCount) {
+        if (stripeCount < 1) {
+            throw new IllegalArgumentException("Stripe count must be positive");
+        }
+        int size = 1;
+        while (size < stripeCount) {
+            size <<= 1;
+        }
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+    }
+
+    public Lock get(Object key) {
+        int hash = key.hashCode();
+        // Spread the high bits so sequential ids do not cluster
+        hash ^= (hash >>> 16);
+        hash *= 0x45d9f3b;
+        hash ^= (hash >>> 16);
+        return stripes[hash & mask];
+    }
+
+    public int stripeCount() {
+        return stripes.length;
+    }
+}
@@ -0,0 +1,7 @@
+-- Constraints Hibernate's schema update cannot express, applied on startup after it
+
+-- At most one ACTIVE subscription per user; membership changes for a user are also serialized
+-- in-process, this catches concurrent changes from different nodes
+CREATE UNIQUE INDEX IF NOT EXISTS uk_subscriptions_one_active_per_user
+    ON subscriptions (user_id)
+    WHERE status = 'ACTIVE';
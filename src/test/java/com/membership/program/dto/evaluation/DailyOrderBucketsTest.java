@@ -0,0 +1,56 @@
+package com.membership.program.dto.evaluation;
+
+import com.membership.program.entity.UserDailyOrderMetrics;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DailyOrderBucketsTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    @Test
+    void sumsTheBucketsInsideTheWindow() {
+        DailyOrderBuckets buckets = DailyOrderBuckets.of(TODAY, List.of(
+                bucket(TODAY, 1, "10.50"),
+                bucket(TODAY.minusDays(6), 2, "40.00"),
+                bucket(TODAY.minusDays(7), 3, "100.25"),
+                bucket(TODAY.minusDays(29), 1, "5.00")));
+
+        assertEquals(1, buckets.orderCount(1));
+        assertEquals(new BigDecimal("10.50"), buckets.orderValue(1));
+        assertEquals(3, buckets.orderCount(7));
+        assertEquals(new BigDecimal("50.50"), buckets.orderValue(7));
+        assertEquals(7, buckets.orderCount(30));
+        assertEquals(new BigDecimal("155.75"), buckets.orderValue(30));
+    }
+
+    @Test
+    void ignoresBucketsOutsideTheLongestWindow() {
+        DailyOrderBuckets buckets = DailyOrderBuckets.of(TODAY, List.of(
+                bucket(TODAY.plusDays(1), 5, "500.00"),
+                bucket(TODAY.minusDays(DailyOrderBuckets.MAX_WINDOW_DAYS), 5, "500.00"),
+                bucket(TODAY.minusDays(DailyOrderBuckets.MAX_WINDOW_DAYS - 1), 2, "20.00"),
+                bucket(TODAY.minusDays(3), 0, "0.00")));
+
+        assertEquals(2, buckets.orderCount(DailyOrderBuckets.MAX_WINDOW_DAYS));
+        assertEquals(new BigDecimal("20.00"), buckets.orderValue(DailyOrderBuckets.MAX_WINDOW_DAYS));
+        assertEquals(0, buckets.orderCount(DailyOrderBuckets.MAX_WINDOW_DAYS - 1));
+        assertEquals(new BigDecimal("0.00"), DailyOrderBuckets.EMPTY.orderValue(30));
+    }
+
+    @Test
+    void rejectsWindowsOutsideTheSupportedRange() {
+        assertThrows(IllegalArgumentException.class, () -> DailyOrderBuckets.EMPTY.orderCount(0));
+        assertThrows(IllegalArgumentException.class, () -> DailyOrderBuckets.EMPTY.orderValue(DailyOrderBuckets.MAX_WINDOW_DAYS + 1));
+    }
+
+    private static UserDailyOrderMetrics bucket(LocalDate day, int orderCount, String orderValue) {
+        return UserDailyOrderMetrics.builder()
+                .userId(1L).bucketDate(day).orderCount(orderCount).orderValue(new BigDecimal(orderValue)).build();
+    }
+}
@@ -0,0 +1,105 @@
+package com.membership.program.service;
+
+import com.membership.program.entity.Subscription;
+import com.membership.program.entity.User;
+import com.membership.program.repository.SubscriptionRepository;
+import com.membership.program.service.cluster.LeaderElection;
+import com.membership.program.service.cluster.LeaderLease;
+import com.membership.program.service.cluster.ShardedJobRunner;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class SubscriptionExpiryTimerTest {
+
+    private final SubscriptionRepository subscriptionRepository = mock(SubscriptionRepository.class);
+    private final SubscriptionExpiryService subscriptionExpiryService = mock(SubscriptionExpiryService.class);
+    private final ShardedJobRunner shardedJobRunner = mock(ShardedJobRunner.class);
+    private final LeaderElection leaderElection = mock(LeaderElection.class);
+    private final SubscriptionExpiryTimer timer = new SubscriptionExpiryTimer(subscriptionRepository,
+            subscriptionExpiryService, shardedJobRunner, leaderElection, 4, true, 1, 60, 600_000);
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+        when(subscriptionRepository.findSubscriptionsExpiringSoon(any(), any())).thenReturn(List.of(
+                subscription(100L, 8L, due), subscription(101L, 9L, due), subscription(102L, 13L, due)));
+        when(shardedJobRunner.shardOf(anyLong())).thenAnswer(invocation -> (int) (invocation.getArgument(0, Long.class) % 4));
+        when(subscriptionExpiryService.processIfDue(anyLong(), any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void onlySubscriptionsOfUsersInOwnShardsAreFired() {
+        when(shardedJobRunner.ownShards()).thenReturn(Set.of(1));
+
+        timer.reloadUpcomingExpiries();
+        timer.processDueExpiries();
+
+        verify(subscriptionExpiryService).processIfDue(eq(101L), any());
+        verify(subscriptionExpiryService).processIfDue(eq(102L), any());
+        verify(subscriptionExpiryService, never()).processIfDue(eq(100L), any());
+    }
+
+    @Test
+    void timersWhoseShardMovedAwayAreDroppedWhenDue() throws InterruptedException {
+        LocalDateTime soon = LocalDateTime.now().plusNanos(50_000_000);
+        when(subscriptionRepository.findSubscriptionsExpiringSoon(any(), any())).thenReturn(List.of(
+                subscription(100L, 8L, soon), subscription(101L, 9L, soon)));
+        when(shardedJobRunner.ownShards()).thenReturn(Set.of(0, 1), Set.of(0));
+
+        timer.reloadUpcomingExpiries();
+        timer.reloadUpcomingExpiries();
+        Thread.sleep(100);
+        timer.processDueExpiries();
+
+        verify(subscriptionExpiryService).processIfDue(eq(100L), any());
+        verify(subscriptionExpiryService, never()).processIfDue(eq(101L), any());
+    }
+
+    @Test
+    void withoutClusterMembershipOnlyTheLeaderLoadsExpiries() {
+        when(shardedJobRunner.ownShards()).thenThrow(new QueryTimeoutException("redis down"));
+        when(leaderElection.runIfLeader(anyString(), any())).thenReturn(false);
+
+        timer.reloadUpcomingExpiries();
+
+        verify(subscriptionRepository, never()).findSubscriptionsExpiringSoon(any(), any());
+
+        doAnswer(invocation -> {
+            Consumer<LeaderLease> job = invocation.getArgument(1);
+            job.accept(mock(LeaderLease.class));
+            return true;
+        }).when(leaderElection).runIfLeader(anyString(), any());
+
+        timer.reloadUpcomingExpiries();
+        timer.processDueExpiries();
+
+        verify(subscriptionExpiryService).processIfDue(eq(100L), any());
+        verify(subscriptionExpiryService).processIfDue(eq(101L), any());
+        verify(subscriptionExpiryService).processIfDue(eq(102L), any());
+    }
+
+    private static Subscription subscription(Long id, Long userId, LocalDateTime expiryDate) {
+        return Subscription.builder()
+                .id(id)
+                .user(User.builder().id(userId).build())
+                .expiryDate(expiryDate)
+                .build();
+    }
+}
@@ -0,0 +1,94 @@
+package com.membership.program.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.membership.program.dto.response.SubscriptionResponseDTO;
+import com.membership.program.dto.response.UserResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Encode and decode speed of the cache codec against Jackson JSON. Timings are logged rather than
+ * asserted; excluded from the default build, run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+class CachePayloadCodecBenchmarkTest {
+
+    private static final int WARMUP_ITERATIONS = 20_000;
+    private static final int MEASURED_ITERATIONS = 100_000;
+
+    private final CachePayloadCodec codec = new CachePayloadCodec();
+    private final ObjectMapper json = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @Test
+    void subscriptionCodecAgainstJson() {
+        report("SubscriptionResponseDTO", codec::encodeSubscription, codec::decodeSubscription,
+                this::writeJson, bytes -> readJson(bytes, SubscriptionResponseDTO.class),
+                CachePayloadCodecTest.sampleSubscription());
+    }
+
+    @Test
+    void userCodecAgainstJson() {
+        report("UserResponseDTO", codec::encodeUser, codec::decodeUser,
+                this::writeJson, bytes -> readJson(bytes, UserResponseDTO.class),
+                CachePayloadCodecTest.sampleUser());
+    }
+
+    private <T> void report(String name,
+                            Function<T, byte[]> binaryEncode, Function<byte[], T> binaryDecode,
+                            Function<T, byte[]> jsonEncode, Function<byte[], T> jsonDecode, T value) {
+        byte[] binary = binaryEncode.apply(value);
+        byte[] text = jsonEncode.apply(value);
+        assertEquals(value, binaryDecode.apply(binary));
+
+        measure(() -> binaryEncode.apply(value), WARMUP_ITERATIONS);
+        measure(() -> jsonEncode.apply(value), WARMUP_ITERATIONS);
+        measure(() -> binaryDecode.apply(binary), WARMUP_ITERATIONS);
+        measure(() -> jsonDecode.apply(text), WARMUP_ITERATIONS);
+
+        double binaryEncodeNs = measure(() -> binaryEncode.apply(value), MEASURED_ITERATIONS);
+        double jsonEncodeNs = measure(() -> jsonEncode.apply(value), MEASURED_ITERATIONS);
+        double binaryDecodeNs = measure(() -> binaryDecode.apply(binary), MEASURED_ITERATIONS);
+        double jsonDecodeNs = measure(() -> jsonDecode.apply(text), MEASURED_ITERATIONS);
+
+        log.info(String.format("%s: size binary=%dB json=%dB (%.1fx) | encode binary=%.0fns json=%.0fns"
+                        + " | decode binary=%.0fns json=%.0fns",
+                name, binary.length, text.length, (double) text.length / binary.length,
+                binaryEncodeNs, jsonEncodeNs, binaryDecodeNs, jsonDecodeNs));
+    }
+
+    private static double measure(Supplier<Object> operation, int iterations) {
+        Object sink = null;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink = operation.get();
+        }
+        long elapsed = System.nanoTime() - start;
+        assertNotNull(sink);
+        return (double) elapsed / iterations;
+    }
+
+    private byte[] writeJson(Object value) {
+        try {
+            return json.writeValueAsBytes(value);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private <T> T readJson(byte[] bytes, Class<T> type) {
+        try {
+            return json.readValue(bytes, type);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.membership.program.service.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.membership.program.dto.enums.SubscriptionStatus;
+import com.membership.program.dto.enums.UserStatus;
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.EligibilitySnapshot;
+import com.membership.program.dto.evaluation.EvaluationResult;
+import com.membership.program.dto.evaluation.RollingWindowThreshold;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.response.SubscriptionResponseDTO;
+import com.membership.program.dto.response.UserResponseDTO;
+import com.membership.program.exception.CachePayloadException;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Round-trip checks for the cache codec, and its payload size against Jackson JSON
+ */
+class CachePayloadCodecTest {
+
+    private final CachePayloadCodec codec = new CachePayloadCodec();
+    private final ObjectMapper json = JsonMapper.builder().addModule(new JavaTimeModule()).build();
+
+    @Test
+    void subscriptionRoundTripsAndIsSmallerThanJson() throws Exception {
+        SubscriptionResponseDTO subscription = sampleSubscription();
+
+        byte[] binary = codec.encodeSubscription(subscription);
+        byte[] text = json.writeValueAsBytes(subscription);
+
+        assertEquals(subscription, codec.decodeSubscription(binary));
+        assertTrue(binary.length * 3 < text.length,
+                "binary=" + binary.length + " json=" + text.length);
+    }
+
+    @Test
+    void userRoundTripsAndIsSmallerThanJson() throws Exception {
+        UserResponseDTO user = sampleUser();
+
+        byte[] binary = codec.encodeUser(user);
+        byte[] text = json.writeValueAsBytes(user);
+
+        assertEquals(user, codec.decodeUser(binary));
+        assertTrue(binary.length * 2 < text.length,
+                "binary=" + binary.length + " json=" + text.length);
+    }
+
+    @Test
+    void evaluationResultsKeepValueTypes() {
+        List<EvaluationResult> results = List.of(
+                EvaluationResult.passed("ORDER_COUNT", 5, 12),
+                EvaluationResult.failed("MONTHLY_ORDER_VALUE", new BigDecimal("200.00"), new BigDecimal("154.35"),
+                        "Required: 200.00, Actual: 154.35"),
+                EvaluationResult.failed("USER_COHORT", "VIP", null, "User cohort is not set"),
+                EvaluationResult.passed("CUSTOM", 42L, true));
+
+        List<EvaluationResult> decoded = codec.decodeEvaluationResults(codec.encodeEvaluationResults(results));
+
+        assertEquals(results, decoded);
+        assertInstanceOf(Integer.class, decoded.get(0).getExpectedValue());
+        assertInstanceOf(BigDecimal.class, decoded.get(1).getActualValue());
+        assertInstanceOf(Long.class, decoded.get(3).getExpectedValue());
+    }
+
+    @Test
+    void eligibilitySnapshotRoundTrips() {
+        TierUpgradeRuleDefinition rule = TierUpgradeRuleDefinition.builder()
+                .id(1L)
+                .ruleName("Silver to Gold Auto-Upgrade")
+                .sourceTierId(1L)
+                .targetTierId(2L)
+                .autoUpgrade(true)
+                .active(true)
+                .criteria(List.of(
+                        CriteriaDefinition.builder().criteriaType("ORDER_COUNT").value(5).logicalCondition("AND").build(),
+                        CriteriaDefinition.builder().criteriaType("MONTHLY_ORDER_VALUE")
+                                .value(new BigDecimal("200.00")).logicalCondition("AND").build()))
+                .build();
+        EligibilitySnapshot eligible = EligibilitySnapshot.builder()
+                .ruleSetVersion(7L)
+                .bestRule(rule)
+                .results(List.of(EvaluationResult.passed("ORDER_COUNT", 5, 9)))
+                .build();
+        EligibilitySnapshot notEligible = EligibilitySnapshot.builder()
+                .ruleSetVersion(7L)
+                .results(List.of())
+                .build();
+
+        assertEquals(eligible, codec.decodeEligibility(codec.encodeEligibility(eligible)));
+        assertEquals(notEligible, codec.decodeEligibility(codec.encodeEligibility(notEligible)));
+    }
+
+    @Test
+    void rollingWindowThresholdsRoundTrip() {
+        RollingWindowThreshold threshold = new RollingWindowThreshold(30, new BigDecimal("500.00"));
+        TierUpgradeRuleDefinition rule = TierUpgradeRuleDefinition.builder()
+                .id(3L)
+                .ruleName("Rolling Spend")
+                .sourceTierId(1L)
+                .targetTierId(2L)
+                .active(true)
+                .criteria(List.of(
+                        CriteriaDefinition.builder().criteriaType("ROLLING_ORDER_VALUE")
+                                .value(threshold).logicalCondition("AND").build(),
+                        CriteriaDefinition.builder().criteriaType("ROLLING_ORDER_COUNT")
+                                .value(new RollingWindowThreshold(7, null)).logicalCondition("AND").build()))
+                .build();
+        EligibilitySnapshot snapshot = EligibilitySnapshot.builder()
+                .ruleSetVersion(3L)
+                .bestRule(rule)
+                .results(List.of(
+                        EvaluationResult.passed("ROLLING_ORDER_VALUE", threshold, new BigDecimal("612.40")),
+                        EvaluationResult.failed("ROLLING_ORDER_COUNT", new RollingWindowThreshold(400, BigDecimal.ONE),
+                                "Invalid rolling window", "Rolling window must be between 1 and 365 days")))
+                .build();
+
+        EligibilitySnapshot decoded = codec.decodeEligibility(codec.encodeEligibility(snapshot));
+
+        assertEquals(snapshot, decoded);
+        assertInstanceOf(RollingWindowThreshold.class, decoded.getResults().get(0).getExpectedValue());
+    }
+
+    @Test
+    void rejectsPayloadsFromAnotherSchemaVersionOrType() {
+        byte[] payload = codec.encodeUser(sampleUser());
+
+        assertThrows(CachePayloadException.class, () -> codec.decodeSubscription(payload));
+
+        payload[0] = (byte) (CachePayloadCodec.SCHEMA_VERSION + 1);
+        assertThrows(CachePayloadException.class, () -> codec.decodeUser(payload));
+    }
+
+    @Test
+    void timestampsAndNegativeScalesRoundTrip() {
+        SubscriptionResponseDTO subscription = SubscriptionResponseDTO.builder()
+                .startDate(LocalDateTime.of(1960, 2, 29, 23, 59, 59, 999_999_000))
+                .actualPrice(new BigDecimal("1E+3"))
+                .discountedPrice(new BigDecimal("123456789012345678901234567890.123"))
+                .build();
+
+        assertEquals(subscription, codec.decodeSubscription(codec.encodeSubscription(subscription)));
+    }
+
+    static SubscriptionResponseDTO sampleSubscription() {
+        LocalDateTime start = LocalDateTime.of(2026, 3, 14, 9, 26, 53, 589_793_000);
+        return SubscriptionResponseDTO.builder()
+                .id(1_204_331L)
+                .userId(884_120L)
+                .username("priya.sharma")
+                .planId(5L)
+                .planName("Quarterly Gold")
+                .tierId(2L)
+                .tierName("Gold")
+                .tierLevel(2)
+                .status(SubscriptionStatus.ACTIVE)
+                .startDate(start)
+                .expiryDate(start.plusMonths(3))
+                .actualPrice(new BigDecimal("119.97"))
+                .discountedPrice(new BigDecimal("101.9745"))
+                .effectivePrice(new BigDecimal("101.9745"))
+                .autoRenewal(true)
+                .createdAt(start)
+                .updatedAt(start.plusDays(12))
+                .build();
+    }
+
+    static UserResponseDTO sampleUser() {
+        LocalDateTime created = LocalDateTime.of(2025, 11, 2, 18, 4, 11, 120_000);
+        return UserResponseDTO.builder()
+                .id(884_120L)
+                .username("priya.sharma")
+                .email("priya.sharma@example.com")
+                .firstName("Priya")
+                .lastName("Sharma")
+                .status(UserStatus.ACTIVE)
+                .createdAt(created)
+                .updatedAt(created.plusDays(40))
+                .lastLoginAt(created.plusDays(40))
+                .failedLoginAttempts(0)
+                .roles(Set.of("ROLE_USER"))
+                .accountNonExpired(true)
+                .accountNonLocked(true)
+                .credentialsNonExpired(true)
+                .enabled(true)
+                .build();
+    }
+}
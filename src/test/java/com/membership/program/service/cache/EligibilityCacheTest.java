@@ -0,0 +1,91 @@
+package com.membership.program.service.cache;
+
+import com.membership.program.dto.evaluation.EligibilitySnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Runs the cache against a map standing in for Redis; the two Lua scripts are emulated by name
+ */
+class EligibilityCacheTest {
+
+    @SuppressWarnings("unchecked")
+    private final RedisTemplate<String, byte[]> redisTemplate = mock(RedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, byte[]> valueOperations = mock(ValueOperations.class);
+    private final Map<String, byte[]> redis = new HashMap<>();
+    private final EligibilityCache cache = new EligibilityCache(redisTemplate, new CachePayloadCodec(), true, 600);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(valueOperations.multiGet(anyList())).thenAnswer(invocation ->
+                ((List<String>) invocation.getArgument(0)).stream().map(redis::get).toList());
+        when(redisTemplate.execute(any(RedisScript.class), anyList(), any(Object[].class))).thenAnswer(invocation -> {
+            RedisScript<Long> script = invocation.getArgument(0);
+            List<String> keys = invocation.getArgument(1);
+            Object[] args = Arrays.copyOfRange(invocation.getArguments(), 2, invocation.getArguments().length);
+            if (script.getScriptAsString().contains("'SET'")) {
+                byte[] current = redis.getOrDefault(keys.get(1), new byte[0]);
+                if (!Arrays.equals(current, (byte[]) args[0])) {
+                    return 0L;
+                }
+                redis.put(keys.get(0), (byte[]) args[1]);
+                return 1L;
+            }
+            for (int i = 0; i < keys.size(); i += 2) {
+                redis.remove(keys.get(i));
+                byte[] generation = redis.get(keys.get(i + 1));
+                long next = generation == null ? 1 : Long.parseLong(new String(generation, StandardCharsets.US_ASCII)) + 1;
+                redis.put(keys.get(i + 1), Long.toString(next).getBytes(StandardCharsets.US_ASCII));
+            }
+            return (long) keys.size() / 2;
+        });
+    }
+
+    @Test
+    void computedSnapshotIsCachedForTheNextCall() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, version -> snapshot(version, loads));
+        cache.get(1L, version -> snapshot(version, loads));
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void evictionDuringTheLoadIsNotOverwrittenByTheStaleSnapshot() {
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get(1L, version -> {
+            cache.evict(1L);
+            return snapshot(version, loads);
+        });
+        cache.get(1L, version -> snapshot(version, loads));
+        cache.get(1L, version -> snapshot(version, loads));
+
+        assertEquals(2, loads.get());
+    }
+
+    private static EligibilitySnapshot snapshot(long version, AtomicInteger loads) {
+        loads.incrementAndGet();
+        return EligibilitySnapshot.builder().ruleSetVersion(version).results(List.of()).build();
+    }
+}
@@ -0,0 +1,93 @@
+package com.membership.program.service.cluster;
+
+import com.membership.program.dto.enums.JobRunStatus;
+import com.membership.program.entity.JobRun;
+import com.membership.program.repository.JobRunRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class JobRunLedgerTest {
+
+    private static final String RUN_KEY = "tier-evaluation:2026-10-19T02:00";
+
+    private final JobRunRepository jobRunRepository = mock(JobRunRepository.class);
+    private final JobRunLedger ledger = new JobRunLedger(jobRunRepository);
+
+    @Test
+    void takeoverMovesTheShardToTheNewLeaseAndKeepsItsCursor() {
+        JobRun existing = run("node-a", 3L);
+        existing.setPhase("evaluate");
+        existing.setCursor(4_201L);
+        when(jobRunRepository.findForUpdate(RUN_KEY, 0)).thenReturn(Optional.of(existing));
+        when(jobRunRepository.saveAndFlush(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        JobRun started = ledger.start("tier-evaluation", RUN_KEY, 0, 4, lease("node-b", 7L)).orElseThrow();
+
+        assertEquals("node-b", started.getOwner());
+        assertEquals(7L, started.getFencingToken());
+        assertEquals(4_201L, started.getCursor());
+        assertEquals(JobRunStatus.RUNNING, started.getStatus());
+    }
+
+    @Test
+    void completedShardIsNotStartedAgain() {
+        JobRun completed = run("node-a", 3L);
+        completed.setStatus(JobRunStatus.COMPLETED);
+        when(jobRunRepository.findForUpdate(RUN_KEY, 0)).thenReturn(Optional.of(completed));
+
+        assertTrue(ledger.start("tier-evaluation", RUN_KEY, 0, 4, lease("node-b", 7L)).isEmpty());
+        verify(jobRunRepository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void checkpointFromASupersededLeaseIsRejected() {
+        JobRun stale = run("node-a", 3L);
+        when(jobRunRepository.checkpoint(eq(stale.getId()), eq("node-a"), eq(3L), eq(JobRunStatus.RUNNING),
+                eq("evaluate"), eq(500L), anyLong(), anyLong(), anyLong(), any())).thenReturn(0);
+
+        assertFalse(ledger.checkpoint(stale, "evaluate", 500L, 100, 2, 0));
+    }
+
+    @Test
+    void completeFromASupersededLeaseLeavesTheNewOwnersShardRunning() {
+        JobRun current = run("node-b", 7L);
+        when(jobRunRepository.findForUpdate(RUN_KEY, 0)).thenReturn(Optional.of(current));
+
+        assertFalse(ledger.complete(run("node-a", 3L)));
+        assertFalse(ledger.complete(run("node-b", 6L)));
+        assertEquals(JobRunStatus.RUNNING, current.getStatus());
+        assertNull(current.getFinishedAt());
+
+        assertTrue(ledger.complete(run("node-b", 7L)));
+        assertEquals(JobRunStatus.COMPLETED, current.getStatus());
+        assertNotNull(current.getFinishedAt());
+    }
+
+    private static LeaderLease lease(String owner, long fencingToken) {
+        return new LeaderLease("shard", owner, fencingToken, Instant.now(), false);
+    }
+
+    private static JobRun run(String owner, long fencingToken) {
+        return JobRun.builder()
+                .id(1L)
+                .jobName("tier-evaluation")
+                .runKey(RUN_KEY)
+                .shard(0)
+                .shardCount(4)
+                .status(JobRunStatus.RUNNING)
+                .owner(owner)
+                .fencingToken(fencingToken)
+                .build();
+    }
+}
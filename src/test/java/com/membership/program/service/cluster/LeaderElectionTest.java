@@ -0,0 +1,98 @@
+package com.membership.program.service.cluster;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LeaderElectionTest {
+
+    private final InMemoryLeaderLock lock = new InMemoryLeaderLock();
+    private final LeaderElection first = new LeaderElection(lock, new ClusterNode("a"), 300, 0);
+    private final LeaderElection second = new LeaderElection(lock, new ClusterNode("b"), 300, 0);
+
+    @AfterEach
+    void tearDown() {
+        first.shutdown();
+        second.shutdown();
+    }
+
+    @Test
+    void onlyOneNodeRunsTheJobWhileTheLeaseIsHeld() {
+        AtomicBoolean secondRan = new AtomicBoolean();
+
+        boolean firstRan = first.runIfLeader("job", lease ->
+                assertFalse(second.runIfLeader("job", ignored -> secondRan.set(true))));
+
+        assertTrue(firstRan);
+        assertFalse(secondRan.get());
+        assertTrue(second.runIfLeader("job", lease -> assertEquals(2, lease.getFencingToken())));
+    }
+
+    @Test
+    void leaseIsRenewedDuringLongJobsAndMarkedLostWhenTakenOver() throws Exception {
+        first.runIfLeader("job", lease -> {
+            sleep(700);
+            assertTrue(lease.isValid(), "renewal should keep a 300ms lease alive");
+
+            lock.steal("job");
+            sleep(300);
+            assertFalse(lease.isValid());
+        });
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class InMemoryLeaderLock implements LeaderLock {
+
+        private final ConcurrentHashMap<String, LeaderLease> held = new ConcurrentHashMap<>();
+        private final ConcurrentHashMap<String, Instant> expiry = new ConcurrentHashMap<>();
+        private final AtomicLong fence = new AtomicLong();
+
+        @Override
+        public synchronized Optional<LeaderLease> tryAcquire(String name, String owner, Duration leaseTime) {
+            Instant until = expiry.get(name);
+            if (until != null && until.isAfter(Instant.now())) {
+                return Optional.empty();
+            }
+            LeaderLease lease = new LeaderLease(name, owner, fence.incrementAndGet(), Instant.now(), false);
+            held.put(name, lease);
+            expiry.put(name, Instant.now().plus(leaseTime));
+            return Optional.of(lease);
+        }
+
+        @Override
+        public synchronized boolean renew(LeaderLease lease, Duration leaseTime) {
+            if (held.get(lease.getName()) != lease) {
+                return false;
+            }
+            expiry.put(lease.getName(), Instant.now().plus(leaseTime));
+            return true;
+        }
+
+        @Override
+        public synchronized void release(LeaderLease lease, Duration remainingHold) {
+            if (held.get(lease.getName()) == lease) {
+                held.remove(lease.getName());
+                expiry.put(lease.getName(), Instant.now().plus(remainingHold.isNegative() ? Duration.ZERO : remainingHold));
+            }
+        }
+
+        synchronized void steal(String name) {
+            held.put(name, new LeaderLease(name, "intruder", fence.incrementAndGet(), Instant.now(), false));
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.membership.program.service.cluster;
+
+import com.membership.program.dto.enums.JobRunStatus;
+import com.membership.program.entity.JobRun;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ShardedJobRunnerTest {
+
+    private static final String JOB = "tier-evaluation";
+    private static final String RUN_KEY = "tier-evaluation:2026-10-19T02:00";
+
+    private final ClusterMembership clusterMembership = mock(ClusterMembership.class);
+    private final LeaderElection leaderElection = mock(LeaderElection.class);
+    private final JobRunLedger jobRunLedger = mock(JobRunLedger.class);
+    private final ShardedJobRunner runner =
+            new ShardedJobRunner(clusterMembership, leaderElection, jobRunLedger, 2, 10, 1, 24, 600_000);
+
+    private final Set<Integer> completedShards = ConcurrentHashMap.newKeySet();
+    private final AtomicLong fencingTokens = new AtomicLong();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(clusterMembership.getNodeId()).thenReturn("node-a");
+        when(clusterMembership.liveNodes()).thenReturn(List.of("node-a"));
+        when(leaderElection.runIfLeader(anyString(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Consumer.class).accept(lease());
+            return true;
+        });
+        when(jobRunLedger.findCompletedShards(RUN_KEY)).thenAnswer(invocation -> Set.copyOf(completedShards));
+        when(jobRunLedger.start(eq(JOB), eq(RUN_KEY), anyInt(), eq(2), any())).thenAnswer(invocation ->
+                Optional.of(run(invocation.getArgument(2), invocation.getArgument(4), null, null)));
+        when(jobRunLedger.complete(any())).thenAnswer(invocation -> {
+            completedShards.add(invocation.getArgument(0, JobRun.class).getShard());
+            return true;
+        });
+        when(jobRunLedger.checkpoint(any(), anyString(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(true);
+    }
+
+    @Test
+    void failedShardIsLeftUnfinishedAndNotRetriedInTheSamePass() {
+        List<Integer> attempts = new ArrayList<>();
+
+        runner.run(JOB, RUN_KEY, context -> {
+            attempts.add(context.getShard());
+            context.checkpoint("evaluate", 100L, 10, 0, 0);
+            if (context.getShard() == 0) {
+                throw new IllegalStateException("database unavailable");
+            }
+        }, () -> false);
+
+        assertEquals(Set.of(1), completedShards);
+        assertEquals(1, attempts.stream().filter(shard -> shard == 0).count());
+        verify(jobRunLedger, never()).complete(argThat(run -> run.getShard() == 0));
+    }
+
+    @Test
+    void checkpointRejectedByTheLedgerStopsTheShardWithoutCompletingIt() {
+        when(jobRunLedger.checkpoint(any(), anyString(), anyLong(), anyLong(), anyLong(), anyLong())).thenReturn(false);
+        LeaderLease lease = lease();
+        List<Boolean> observed = new ArrayList<>();
+
+        boolean succeeded = runner.processShard(JOB, RUN_KEY, 0, lease, context -> {
+            observed.add(context.checkpoint("evaluate", 100L, 10, 0, 0));
+            observed.add(context.isActive());
+        }, () -> false);
+
+        assertTrue(succeeded);
+        assertEquals(List.of(false, false), observed);
+        assertFalse(lease.isValid());
+        verify(jobRunLedger, never()).complete(any());
+    }
+
+    @Test
+    void resumedShardStartsFromItsCheckpointedCursor() {
+        LeaderLease lease = lease();
+        when(jobRunLedger.start(JOB, RUN_KEY, 1, 2, lease)).thenReturn(Optional.of(run(1, lease, "evaluate", 4_201L)));
+        List<Long> cursors = new ArrayList<>();
+
+        runner.processShard(JOB, RUN_KEY, 1, lease, context -> {
+            cursors.add(context.resumeCursor("schedule"));
+            cursors.add(context.resumeCursor("evaluate"));
+            assertTrue(context.checkpoint("evaluate", 4_401L, 200, 3, 0));
+            cursors.add(context.resumeCursor("evaluate"));
+        }, () -> false);
+
+        assertEquals(Arrays.asList(null, 4_201L, 4_401L), cursors);
+        verify(jobRunLedger).checkpoint(any(), eq("evaluate"), eq(4_401L), eq(200L), eq(3L), eq(0L));
+        assertEquals(Set.of(1), completedShards);
+    }
+
+    private LeaderLease lease() {
+        return new LeaderLease("shard", "node-a", fencingTokens.incrementAndGet(), Instant.now(), false);
+    }
+
+    private static JobRun run(int shard, LeaderLease lease, String phase, Long cursor) {
+        return JobRun.builder()
+                .id((long) shard + 1)
+                .jobName(JOB)
+                .runKey(RUN_KEY)
+                .shard(shard)
+                .shardCount(2)
+                .status(JobRunStatus.RUNNING)
+                .owner(lease.getOwner())
+                .fencingToken(lease.getFencingToken())
+                .phase(phase)
+                .cursor(cursor)
+                .build();
+    }
+}
@@ -0,0 +1,149 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.evaluation.UserEvaluationSchedule;
+import com.membership.program.dto.evaluation.UserOrderMetrics;
+import com.membership.program.dto.request.BulkTierEvaluationRequestDTO;
+import com.membership.program.dto.response.BulkTierEvaluationResultDTO;
+import com.membership.program.exception.MembershipException;
+import com.membership.program.repository.UserRepository;
+import com.membership.program.service.TierUpgradeService;
+import com.membership.program.service.index.MemberBitmapIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkTierEvaluationServiceTest {
+
+    private static final LocalDateTime MEMBER_SINCE = LocalDateTime.of(2025, 3, 1, 0, 0);
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TierUpgradeRuleCatalog ruleCatalog = mock(TierUpgradeRuleCatalog.class);
+    private final EvaluationContextBuilder contextBuilder = mock(EvaluationContextBuilder.class);
+    private final RuleEvaluationService ruleEvaluationService = mock(RuleEvaluationService.class);
+    private final TierUpgradeService tierUpgradeService = mock(TierUpgradeService.class);
+    private final MemberBitmapIndex memberIndex = mock(MemberBitmapIndex.class);
+    private final BulkTierEvaluationService bulkService = new BulkTierEvaluationService(userRepository, ruleCatalog,
+            contextBuilder, ruleEvaluationService, tierUpgradeService, memberIndex, 2, 5);
+
+    private final TierUpgradeRuleDefinition autoRule = TierUpgradeRuleDefinition.builder()
+            .id(11L).ruleName("Gold after 10 orders").sourceTierId(1L).targetTierId(2L).autoUpgrade(true).build();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(userRepository.findEvaluationSchedulesByIds(any())).thenAnswer(invocation ->
+                ((Collection<Long>) invocation.getArgument(0)).stream()
+                        .filter(userId -> userId < 100)
+                        .map(BulkTierEvaluationServiceTest::schedule)
+                        .toList());
+        when(userRepository.findOrderMetricsByUserIds(anyList(), any(), any())).thenAnswer(invocation ->
+                ((List<Long>) invocation.getArgument(0)).stream()
+                        .filter(userId -> userId < 100)
+                        .map(BulkTierEvaluationServiceTest::metrics)
+                        .toList());
+        when(contextBuilder.buildContext(any(UserOrderMetrics.class), eq(MEMBER_SINCE))).thenAnswer(invocation ->
+                EvaluationContext.builder().userId(invocation.getArgument(0, UserOrderMetrics.class).getUserId()).build());
+        when(ruleCatalog.getRuleIndex(1L)).thenReturn(RuleIndex.EMPTY);
+        // Even user ids qualify for the automatic rule
+        when(ruleEvaluationService.findBestApplicableRule(any(RuleIndex.class), any(EvaluationContext.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1, EvaluationContext.class).getUserId() % 2 == 0
+                        ? Optional.of(autoRule) : Optional.empty());
+        when(ruleEvaluationService.evaluateRule(any(), any())).thenReturn(List.of());
+        when(tierUpgradeService.processAutomaticUpgrades(any())).thenReturn(true);
+    }
+
+    @Test
+    void selectionMustBeEitherIdsOrACohortAndTier() {
+        assertThrows(MembershipException.class, () -> bulkService.validate(new BulkTierEvaluationRequestDTO()));
+        assertThrows(MembershipException.class, () -> bulkService.validate(BulkTierEvaluationRequestDTO.builder()
+                .userIds(List.of(1L)).cohort("spring-2026").build()));
+        assertThrows(MembershipException.class, () -> bulkService.validate(BulkTierEvaluationRequestDTO.builder()
+                .userIds(List.of(1L, 2L, 3L, 4L, 5L, 6L)).build()));
+        assertDoesNotThrow(() -> bulkService.validate(BulkTierEvaluationRequestDTO.builder()
+                .cohort("spring-2026").tierLevel(1).build()));
+    }
+
+    @Test
+    void listedUsersAreDedupedAndStreamedInBatches() {
+        List<List<BulkTierEvaluationResultDTO>> batches = new ArrayList<>();
+
+        int evaluated = bulkService.evaluate(BulkTierEvaluationRequestDTO.builder()
+                .userIds(List.of(2L, 3L, 2L, 404L)).applyUpgrades(true).build(), batches::add);
+
+        assertEquals(3, evaluated);
+        assertEquals(List.of(2, 1), batches.stream().map(List::size).toList());
+        BulkTierEvaluationResultDTO eligible = batches.get(0).get(0);
+        assertTrue(eligible.isEligible());
+        assertTrue(eligible.isUpgraded());
+        assertEquals(11L, eligible.getRuleId());
+        assertFalse(batches.get(0).get(1).isEligible());
+        assertEquals("User not found", batches.get(1).get(0).getError());
+        verify(tierUpgradeService).processAutomaticUpgrades(2L);
+        verify(tierUpgradeService, never()).processAutomaticUpgrades(3L);
+    }
+
+    @Test
+    void upgradesAreOnlyAppliedWhenRequested() {
+        List<BulkTierEvaluationResultDTO> results = new ArrayList<>();
+
+        bulkService.evaluate(BulkTierEvaluationRequestDTO.builder().userIds(List.of(2L)).build(), results::addAll);
+
+        assertTrue(results.get(0).isEligible());
+        assertFalse(results.get(0).isUpgraded());
+        verify(tierUpgradeService, never()).processAutomaticUpgrades(any());
+    }
+
+    @Test
+    void cohortSelectionPagesFromTheDatabaseUntilTheCallLimit() {
+        when(memberIndex.isReady()).thenReturn(false);
+        when(userRepository.findIdsByCohort(eq("spring-2026"), eq(40L), any(Pageable.class))).thenReturn(List.of(41L, 42L));
+        when(userRepository.findIdsByCohort(eq("spring-2026"), eq(42L), any(Pageable.class))).thenReturn(List.of(43L, 44L));
+        when(userRepository.findIdsByCohort(eq("spring-2026"), eq(44L), any(Pageable.class))).thenReturn(List.of(45L));
+        List<Long> evaluatedIds = new ArrayList<>();
+
+        int evaluated = bulkService.evaluate(BulkTierEvaluationRequestDTO.builder()
+                        .cohort("spring-2026").afterUserId(40L).build(),
+                batch -> batch.forEach(result -> evaluatedIds.add(result.getUserId())));
+
+        assertEquals(5, evaluated);
+        assertEquals(List.of(41L, 42L, 43L, 44L, 45L), evaluatedIds);
+        verify(userRepository, never()).findIdsByCohort(eq("spring-2026"), eq(45L), any(Pageable.class));
+    }
+
+    private static UserEvaluationSchedule schedule(Long userId) {
+        return new UserEvaluationSchedule() {
+            public Long getId() { return userId; }
+            public Integer getTierLevel() { return 1; }
+            public LocalDateTime getMembershipSince() { return MEMBER_SINCE; }
+            public LocalDateTime getLastTierEvaluationDate() { return null; }
+        };
+    }
+
+    private static UserOrderMetrics metrics(Long userId) {
+        return new UserOrderMetrics() {
+            public Long getUserId() { return userId; }
+            public Integer getTierLevel() { return 1; }
+            public String getCohort() { return "spring-2026"; }
+            public Long getOrderCount() { return 10L; }
+            public BigDecimal getMonthlyOrderValue() { return new BigDecimal("250.00"); }
+        };
+    }
+}
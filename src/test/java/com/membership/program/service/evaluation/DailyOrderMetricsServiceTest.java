@@ -0,0 +1,101 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.enums.OrderStatus;
+import com.membership.program.event.OrderStatusChangedEvent;
+import com.membership.program.repository.UserDailyOrderMetricsRepository;
+import com.membership.program.service.cluster.LeaderElection;
+import com.membership.program.service.cluster.LeaderLease;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DailyOrderMetricsServiceTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 12);
+    private static final LocalDate TUESDAY = MONDAY.plusDays(1);
+
+    private final UserDailyOrderMetricsRepository repository = mock(UserDailyOrderMetricsRepository.class);
+    private final LeaderElection leaderElection = mock(LeaderElection.class);
+    private final DailyOrderMetricsService service = new DailyOrderMetricsService(repository, leaderElection,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), 400, 2);
+
+    @Test
+    void changedBucketsAreRecomputedPerDayUnderTheDayLock() {
+        service.onEvent(completed(2L, TUESDAY), false);
+        service.onEvent(completed(1L, MONDAY), false);
+        service.onEvent(new OrderStatusChangedEvent(3L, 1L, OrderStatus.PENDING, OrderStatus.CANCELLED,
+                BigDecimal.TEN, TUESDAY.atTime(9, 0)), false);
+        service.onEvent(cancelled(1L, TUESDAY), true);
+
+        InOrder order = inOrder(repository);
+        order.verify(repository).lockDay((int) MONDAY.toEpochDay());
+        order.verify(repository).deleteDayForUsers(MONDAY, Set.of(1L));
+        order.verify(repository).insertFromOrdersForUsers(MONDAY.atStartOfDay(), TUESDAY.atStartOfDay(), Set.of(1L));
+        order.verify(repository).lockDay((int) TUESDAY.toEpochDay());
+        order.verify(repository).deleteDayForUsers(TUESDAY, Set.of(1L, 2L));
+        order.verify(repository).insertFromOrdersForUsers(TUESDAY.atStartOfDay(), TUESDAY.plusDays(1).atStartOfDay(), Set.of(1L, 2L));
+    }
+
+    @Test
+    void bucketsOfAFailedBatchAreRecomputedWithTheNextOne() {
+        when(repository.deleteDayForUsers(MONDAY, Set.of(1L)))
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn(1);
+
+        service.onEvent(completed(1L, MONDAY), true);
+        service.onEvent("unrelated", true);
+        service.onEvent("unrelated", true);
+
+        verify(repository, times(2)).deleteDayForUsers(MONDAY, Set.of(1L));
+        verify(repository, times(1)).insertFromOrdersForUsers(MONDAY.atStartOfDay(), TUESDAY.atStartOfDay(), Set.of(1L));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void retentionWindowIsRebuiltOneDayAtATimeUntilTheLeaseIsLost() {
+        LeaderLease lease = mock(LeaderLease.class);
+        when(lease.isValid()).thenReturn(true, true, true, false);
+        when(leaderElection.runIfLeader(anyString(), any())).thenAnswer(invocation -> {
+            invocation.getArgument(1, Consumer.class).accept(lease);
+            return true;
+        });
+
+        service.reconcileRetentionWindow();
+
+        LocalDate first = LocalDate.now().minusDays(399);
+        InOrder order = inOrder(repository);
+        for (LocalDate day = first; day.isBefore(first.plusDays(3)); day = day.plusDays(1)) {
+            order.verify(repository).lockDay((int) day.toEpochDay());
+            order.verify(repository).deleteDay(day);
+            order.verify(repository).insertFromOrders(day.atStartOfDay(), day.plusDays(1).atStartOfDay());
+        }
+        verify(repository, never()).deleteDay(first.plusDays(3));
+    }
+
+    private static OrderStatusChangedEvent completed(Long userId, LocalDate day) {
+        return new OrderStatusChangedEvent(userId * 100, userId, OrderStatus.PENDING, OrderStatus.COMPLETED,
+                BigDecimal.TEN, day.atTime(12, 0));
+    }
+
+    private static OrderStatusChangedEvent cancelled(Long userId, LocalDate day) {
+        return new OrderStatusChangedEvent(userId * 100 + 1, userId, OrderStatus.COMPLETED, OrderStatus.CANCELLED,
+                BigDecimal.TEN, day.atTime(18, 0));
+    }
+}
@@ -0,0 +1,49 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.enums.OrderStatus;
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.entity.Order;
+import com.membership.program.entity.User;
+import com.membership.program.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class EvaluationContextBuilderTest {
+
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final EvaluationContextBuilder contextBuilder =
+            new EvaluationContextBuilder(orderRepository, mock(DailyOrderMetricsService.class));
+
+    @Test
+    void monthlyOrderValueFollowsTheOrderDateOfBackDatedOrders() {
+        LocalDateTime ingestedAt = LocalDateTime.now();
+        User user = User.builder().id(7L).currentTierLevel(1).createdAt(ingestedAt.minusYears(1)).build();
+        when(orderRepository.findByUserIdAndStatus(7L, OrderStatus.COMPLETED)).thenReturn(List.of(
+                order("ORD-1", ingestedAt.minusMonths(2), ingestedAt, "300.00"),
+                order("ORD-2", ingestedAt.minusMonths(1), ingestedAt, "120.00"),
+                order("ORD-3", ingestedAt, ingestedAt, "45.50")));
+
+        EvaluationContext context = contextBuilder.buildContext(user);
+
+        assertEquals(3, context.getTotalOrderCount());
+        assertEquals(new BigDecimal("45.50"), context.getMonthlyOrderValue());
+    }
+
+    private static Order order(String orderNumber, LocalDateTime orderDate, LocalDateTime createdAt, String amount) {
+        return Order.builder()
+                .orderNumber(orderNumber)
+                .status(OrderStatus.COMPLETED)
+                .orderDate(orderDate)
+                .totalAmount(new BigDecimal(amount))
+                .finalAmount(new BigDecimal(amount))
+                .createdAt(createdAt)
+                .build();
+    }
+}
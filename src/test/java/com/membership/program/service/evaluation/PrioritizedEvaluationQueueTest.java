@@ -0,0 +1,117 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.evaluation.UserOrderMetrics;
+import com.membership.program.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PrioritizedEvaluationQueueTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TierUpgradeRuleCatalog ruleCatalog = mock(TierUpgradeRuleCatalog.class);
+    private PrioritizedEvaluationQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        queue = new PrioritizedEvaluationQueue(userRepository, ruleCatalog, 0.2, 1_000, 500);
+        when(ruleCatalog.getRulesForSourceTier(1L)).thenReturn(List.of(rule(10, "200.00", null)));
+        when(ruleCatalog.getRulesForSourceTier(2L)).thenReturn(List.of(rule(5, null, "VIP")));
+        when(ruleCatalog.getRulesForSourceTier(3L)).thenReturn(List.of());
+    }
+
+    @Test
+    void nearThresholdUsersAreEvaluatedBeforeTheLongTail() {
+        when(userRepository.findOrderMetricsByUserIds(anyList(), any(), any())).thenReturn(List.of(
+                metrics(1L, 1, null, 1, "10.00"),     // long tail
+                metrics(2L, 1, null, 9, "190.00"),    // 10% short
+                metrics(3L, 1, null, 2, "20.00"),     // long tail, arrives later
+                metrics(4L, 1, null, 12, "250.00"),   // already qualifies
+                metrics(5L, 1, null, 8, "200.00")));  // 20% short
+
+        assertEquals(5, queue.enqueue(List.of(1L, 2L, 3L, 4L, 5L)));
+
+        assertEquals(List.of(4L, 2L, 5L, 1L, 3L), queue.poll(10));
+        assertEquals(0, queue.size());
+    }
+
+    @Test
+    void usersWithNoReachableRuleAreNotQueued() {
+        when(userRepository.findOrderMetricsByUserIds(anyList(), any(), any())).thenReturn(List.of(
+                metrics(1L, 2, "STANDARD", 50, "0"),  // cohort can never match
+                metrics(2L, 3, null, 50, "0"),        // no rules for this tier
+                metrics(3L, 2, "VIP", 4, "0")));
+
+        assertEquals(1, queue.enqueue(List.of(1L, 2L, 3L)));
+        assertEquals(List.of(3L), queue.poll(10));
+    }
+
+    @Test
+    void queuedUsersAreNotQueuedTwice() {
+        when(userRepository.findOrderMetricsByUserIds(anyList(), any(), any()))
+                .thenReturn(List.of(metrics(1L, 1, null, 9, "0")));
+
+        assertEquals(1, queue.enqueue(List.of(1L)));
+        assertEquals(0, queue.enqueue(List.of(1L)));
+        assertEquals(List.of(1L), queue.poll(10));
+        assertEquals(1, queue.enqueue(List.of(1L)));
+    }
+
+    @Test
+    void prioritizedPagesKeepUnscorableUsersAndLeaveTheQueueAlone() {
+        when(userRepository.findOrderMetricsByUserIds(anyList(), any(), any())).thenReturn(List.of(
+                metrics(1L, 1, null, 1, "10.00"),     // long tail
+                metrics(2L, 2, "STANDARD", 50, "0"),  // cohort can never match
+                metrics(3L, 1, null, 12, "250.00"),   // already qualifies
+                metrics(4L, 1, null, 9, "190.00")));  // 10% short; user 5 has no metrics
+
+        assertEquals(List.of(3L, 4L, 1L, 2L, 5L), queue.prioritize(List.of(1L, 2L, 3L, 4L, 5L)));
+        assertEquals(0, queue.size());
+    }
+
+    private static TierUpgradeRuleDefinition rule(Integer minOrders, String minMonthlyValue, String cohort) {
+        TierUpgradeRuleDefinition rule = TierUpgradeRuleDefinition.builder()
+                .id(1L)
+                .criteria(new java.util.ArrayList<>())
+                .build();
+        if (minOrders != null) {
+            rule.getCriteria().add(CriteriaDefinition.builder().criteriaType("ORDER_COUNT").value(minOrders).build());
+        }
+        if (minMonthlyValue != null) {
+            rule.getCriteria().add(CriteriaDefinition.builder().criteriaType("MONTHLY_ORDER_VALUE")
+                    .value(new BigDecimal(minMonthlyValue)).build());
+        }
+        if (cohort != null) {
+            rule.getCriteria().add(CriteriaDefinition.builder().criteriaType("USER_COHORT").value(cohort).build());
+        }
+        return rule;
+    }
+
+    private static UserOrderMetrics metrics(Long userId, int tierLevel, String cohort, long orderCount, String monthlyValue) {
+        return new Metrics(userId, tierLevel, cohort, orderCount, new BigDecimal(monthlyValue));
+    }
+
+    private record Metrics(Long userId, Integer tierLevel, String cohort, Long orderCount, BigDecimal monthlyOrderValue)
+            implements UserOrderMetrics {
+
+        public Long getUserId() { return userId; }
+
+        public Integer getTierLevel() { return tierLevel; }
+
+        public String getCohort() { return cohort; }
+
+        public Long getOrderCount() { return orderCount; }
+
+        public BigDecimal getMonthlyOrderValue() { return monthlyOrderValue; }
+    }
+}
@@ -0,0 +1,120 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.service.evaluation.criteria.CohortEvaluator;
+import com.membership.program.service.evaluation.criteria.MembershipDurationEvaluator;
+import com.membership.program.service.evaluation.criteria.MonthlyOrderValueEvaluator;
+import com.membership.program.service.evaluation.criteria.OrderCountEvaluator;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RuleIndexTest {
+
+    private static final List<String> COHORTS = List.of("VIP", "STUDENT", "CAMPAIGN_A");
+
+    private final RuleEvaluationServiceImpl ruleEvaluationService = new RuleEvaluationServiceImpl(
+            List.of(new OrderCountEvaluator(), new MonthlyOrderValueEvaluator(), new MembershipDurationEvaluator(),
+                    new CohortEvaluator()),
+            mock(ShadowRuleEvaluator.class));
+
+    @Test
+    void indexPicksTheSameRuleAsALinearScan() {
+        Random random = new Random(42);
+        for (int round = 0; round < 50; round++) {
+            List<TierUpgradeRuleDefinition> rules = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                rules.add(randomRule(random, i));
+            }
+            RuleIndex index = new RuleIndex(rules);
+
+            for (int user = 0; user < 200; user++) {
+                EvaluationContext context = EvaluationContext.builder()
+                        .userId((long) user)
+                        .totalOrderCount(random.nextInt(60))
+                        .monthlyOrderValue(BigDecimal.valueOf(random.nextInt(100_000), 2))
+                        .membershipDurationDays(random.nextInt(400))
+                        .userCohort(random.nextInt(4) == 0 ? null : COHORTS.get(random.nextInt(COHORTS.size())))
+                        .build();
+
+                Optional<TierUpgradeRuleDefinition> expected = ruleEvaluationService.findBestApplicableRule(rules, context);
+                Optional<TierUpgradeRuleDefinition> actual = index.findBest(context,
+                        rule -> ruleEvaluationService.isRuleEligible(rule, context));
+                assertSame(expected.orElse(null), actual.orElse(null), () -> "Different rule for " + context);
+            }
+        }
+    }
+
+    @Test
+    void rulesWithUnindexedCriteriaAreOnlyEvaluatedWhenTheyCouldWin() {
+        TierUpgradeRuleDefinition gold = rule(1L, 3L, criterion("ORDER_COUNT", 5));
+        TierUpgradeRuleDefinition unknownLower = rule(2L, 2L, criterion("REFERRALS", 3));
+        TierUpgradeRuleDefinition unknownHigher = rule(3L, 4L, criterion("REFERRALS", 3));
+        RuleIndex index = new RuleIndex(List.of(gold, unknownLower, unknownHigher));
+        EvaluationContext context = EvaluationContext.builder().totalOrderCount(10).build();
+
+        List<Long> evaluated = new ArrayList<>();
+        Optional<TierUpgradeRuleDefinition> best = index.findBest(context, rule -> {
+            evaluated.add(rule.getId());
+            return false;
+        });
+
+        assertEquals(Optional.of(gold), best);
+        assertEquals(List.of(3L), evaluated);
+    }
+
+    @Test
+    void inactiveRulesAreIgnored() {
+        TierUpgradeRuleDefinition inactive = rule(1L, 3L, criterion("ORDER_COUNT", 1));
+        inactive.setActive(false);
+        RuleIndex index = new RuleIndex(List.of(inactive));
+
+        assertTrue(index.findBest(EvaluationContext.builder().totalOrderCount(10).build(), rule -> true).isEmpty());
+    }
+
+    private static TierUpgradeRuleDefinition randomRule(Random random, long id) {
+        List<CriteriaDefinition> criteria = new ArrayList<>();
+        if (random.nextInt(4) > 0) {
+            criteria.add(criterion("ORDER_COUNT", random.nextInt(50)));
+        }
+        if (random.nextBoolean()) {
+            criteria.add(criterion("MONTHLY_ORDER_VALUE", BigDecimal.valueOf(random.nextInt(80_000), 2)));
+        }
+        if (random.nextInt(3) == 0) {
+            criteria.add(criterion("MEMBERSHIP_DURATION", random.nextInt(365)));
+        }
+        if (random.nextInt(3) == 0) {
+            criteria.add(criterion("USER_COHORT", COHORTS.get(random.nextInt(COHORTS.size()))));
+        }
+        if (random.nextInt(40) == 0) {
+            criteria.add(criterion("ORDER_COUNT", random.nextInt(50)));
+        }
+        TierUpgradeRuleDefinition rule = rule(id, 2L + random.nextInt(4), criteria.toArray(CriteriaDefinition[]::new));
+        rule.setActive(random.nextInt(20) > 0);
+        return rule;
+    }
+
+    private static TierUpgradeRuleDefinition rule(Long id, Long targetTier, CriteriaDefinition... criteria) {
+        return TierUpgradeRuleDefinition.builder()
+                .id(id)
+                .ruleName("rule-" + id)
+                .sourceTierId(1L)
+                .targetTierId(targetTier)
+                .active(true)
+                .criteria(List.of(criteria))
+                .build();
+    }
+
+    private static CriteriaDefinition criterion(String type, Object value) {
+        return CriteriaDefinition.builder().criteriaType(type).value(value).logicalCondition("AND").build();
+    }
+}
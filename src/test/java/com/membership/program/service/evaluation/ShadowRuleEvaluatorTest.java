@@ -0,0 +1,114 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.enums.ShadowOutcome;
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.response.ShadowRuleReportResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ShadowRuleEvaluatorTest {
+
+    private final ShadowRuleEvaluator evaluator = new ShadowRuleEvaluator(new SimpleMeterRegistry(), 1, 100, 1.0, 10);
+
+    @AfterEach
+    void tearDown() {
+        evaluator.shutdown();
+    }
+
+    @Test
+    void nothingIsEvaluatedWithoutAStagedRuleSet() {
+        AtomicInteger selections = new AtomicInteger();
+
+        evaluator.submit(context(1L, 1), List.of(), Optional.empty(), (rules, context) -> {
+            selections.incrementAndGet();
+            return Optional.empty();
+        });
+
+        assertTrue(evaluator.getReport().isEmpty());
+        assertEquals(0, selections.get());
+    }
+
+    @Test
+    void shadowRulesAreCombinedWithTheLiveRulesAndDivergencesRecorded() throws InterruptedException {
+        TierUpgradeRuleDefinition live = rule(1L, 1, 2, true);
+        TierUpgradeRuleDefinition replacement = rule(1L, 1, 2, false);
+        TierUpgradeRuleDefinition added = rule(null, 1, 3, true);
+        evaluator.stage("v2", List.of(replacement, added), false);
+
+        List<List<TierUpgradeRuleDefinition>> shadowRuleLists = new ArrayList<>();
+        evaluator.submit(context(7L, 1), List.of(live), Optional.of(live), (rules, context) -> {
+            shadowRuleLists.add(rules);
+            return Optional.of(replacement);
+        });
+
+        ShadowRuleReportResponseDTO report = awaitEvaluations(1);
+        assertEquals(List.of(List.of(replacement, added)), shadowRuleLists);
+        assertEquals(1, report.getDivergent());
+        assertEquals(1L, report.getOutcomes().get(ShadowOutcome.DIFFERENT_OUTCOME.name()));
+        assertEquals(7L, report.getSampledDivergences().get(0).getUserId());
+    }
+
+    @Test
+    void shadowEvaluationRunsOnItsOwnCopyOfTheContext() throws InterruptedException {
+        TierUpgradeRuleDefinition live = rule(1L, 1, 2, true);
+        evaluator.stage("v2", List.of(rule(1L, 1, 2, false)), false);
+        EvaluationContext liveContext = context(7L, 1);
+
+        List<EvaluationContext> shadowContexts = new ArrayList<>();
+        evaluator.submit(liveContext, List.of(live), Optional.of(live), (rules, context) -> {
+            shadowContexts.add(context);
+            return Optional.empty();
+        });
+
+        awaitEvaluations(1);
+        assertNotSame(liveContext, shadowContexts.get(0));
+        assertEquals(liveContext, shadowContexts.get(0));
+    }
+
+    @Test
+    void outcomesCompareTargetTierAndAutoUpgrade() {
+        Optional<TierUpgradeRuleDefinition> toGold = Optional.of(rule(1L, 1, 3, true));
+
+        assertEquals(ShadowOutcome.AGREED, ShadowRuleEvaluator.outcome(Optional.empty(), Optional.empty()));
+        assertEquals(ShadowOutcome.AGREED, ShadowRuleEvaluator.outcome(toGold, Optional.of(rule(9L, 1, 3, true))));
+        assertEquals(ShadowOutcome.SHADOW_ONLY, ShadowRuleEvaluator.outcome(Optional.empty(), toGold));
+        assertEquals(ShadowOutcome.LIVE_ONLY, ShadowRuleEvaluator.outcome(toGold, Optional.empty()));
+        assertEquals(ShadowOutcome.DIFFERENT_OUTCOME, ShadowRuleEvaluator.outcome(toGold, Optional.of(rule(1L, 1, 2, true))));
+    }
+
+    private ShadowRuleReportResponseDTO awaitEvaluations(long expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        ShadowRuleReportResponseDTO report = evaluator.getReport().orElseThrow();
+        while (report.getEvaluated() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+            report = evaluator.getReport().orElseThrow();
+        }
+        assertEquals(expected, report.getEvaluated(), "shadow evaluations did not finish in time");
+        return report;
+    }
+
+    private static EvaluationContext context(Long userId, int tierLevel) {
+        return EvaluationContext.builder().userId(userId).currentTierLevel(tierLevel).build();
+    }
+
+    private static TierUpgradeRuleDefinition rule(Long id, long sourceTier, long targetTier, boolean autoUpgrade) {
+        return TierUpgradeRuleDefinition.builder()
+                .id(id)
+                .ruleName("rule-" + targetTier)
+                .sourceTierId(sourceTier)
+                .targetTierId(targetTier)
+                .autoUpgrade(autoUpgrade)
+                .active(true)
+                .criteria(List.of())
+                .build();
+    }
+}
@@ -0,0 +1,80 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.dto.evaluation.UserEvaluationSchedule;
+import com.membership.program.event.TierUpgradeRulesChangedEvent;
+import com.membership.program.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TierEvaluationScheduleServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TierUpgradeRuleCatalog ruleCatalog = mock(TierUpgradeRuleCatalog.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TierEvaluationScheduleService scheduleService = new TierEvaluationScheduleService(userRepository,
+            ruleCatalog, new TransactionTemplate(mock(PlatformTransactionManager.class)), jdbcTemplate);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pageIsScheduledInOneBatchSkippingUsersWithoutADueTime() {
+        LocalDateTime since = LocalDateTime.of(2026, 1, 1, 0, 0);
+        LocalDateTime next = LocalDateTime.of(2026, 11, 1, 0, 0);
+        when(ruleCatalog.getSourceTierIdsWithRules()).thenReturn(Set.of(1L, 2L));
+        when(userRepository.findUnscheduledForTierEvaluation(anyCollection(), eq(0), eq(4), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(schedule(4L, 1, since), schedule(8L, 2, since), schedule(12L, 1, since)));
+        when(ruleCatalog.nextEvaluationAt(eq(1L), any(), any())).thenReturn(next);
+        when(ruleCatalog.nextEvaluationAt(eq(2L), any(), any())).thenReturn(null);
+
+        Long lastId = scheduleService.scheduleNextPage(0, 4, 0L, 100);
+
+        assertEquals(12L, lastId);
+        verify(jdbcTemplate).batchUpdate(anyString(), argThat((List<Object[]> rows) -> rows.size() == 2
+                && rows.get(0)[0].equals(Timestamp.valueOf(next)) && rows.get(0)[1].equals(4L)
+                && rows.get(1)[1].equals(12L)));
+    }
+
+    @Test
+    void clearAfterARuleChangeWalksTheScheduledUsersPageByPage() {
+        List<Long> firstPage = LongStream.rangeClosed(1, 1_000).boxed().toList();
+        when(userRepository.findIdsWithNextTierEvaluationAt(eq(0L), any(Pageable.class))).thenReturn(firstPage);
+        when(userRepository.findIdsWithNextTierEvaluationAt(eq(1_000L), any(Pageable.class))).thenReturn(List.of(1_001L));
+        when(userRepository.findIdsWithNextTierEvaluationAt(eq(1_001L), any(Pageable.class))).thenReturn(List.of());
+
+        scheduleService.onEvent(new TierUpgradeRulesChangedEvent(3L), true);
+
+        verify(userRepository, timeout(5_000)).clearNextTierEvaluationAt(List.of(1_001L));
+        verify(userRepository).clearNextTierEvaluationAt(firstPage);
+        verify(userRepository, never()).clearNextTierEvaluationAt(anyLong());
+    }
+
+    private static UserEvaluationSchedule schedule(Long id, Integer tierLevel, LocalDateTime membershipSince) {
+        return new UserEvaluationSchedule() {
+            public Long getId() { return id; }
+            public Integer getTierLevel() { return tierLevel; }
+            public LocalDateTime getMembershipSince() { return membershipSince; }
+            public LocalDateTime getLastTierEvaluationDate() { return null; }
+        };
+    }
+}
@@ -0,0 +1,56 @@
+package com.membership.program.service.evaluation;
+
+import com.membership.program.event.TierUpgradeRulesChangedEvent;
+import com.membership.program.repository.TierUpgradeRuleRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.util.List;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TierUpgradeRuleCatalogTest {
+
+    private final TierUpgradeRuleRepository ruleRepository = mock(TierUpgradeRuleRepository.class);
+    private final StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final ValueOperations<String, String> valueOperations = mock(ValueOperations.class);
+    private final TierUpgradeRuleCatalog catalog = new TierUpgradeRuleCatalog(ruleRepository, redisTemplate);
+
+    @BeforeEach
+    void setUp() {
+        when(redisTemplate.opsForValue()).thenReturn(valueOperations);
+        when(ruleRepository.findAllActiveWithTiers()).thenReturn(List.of());
+    }
+
+    @Test
+    void rulesAreReloadedOnceAnotherNodeMovesTheVersion() {
+        when(valueOperations.get("tier-upgrade-rules:version")).thenReturn("3");
+        catalog.getSourceTierIdsWithRules();
+
+        catalog.checkVersion();
+        catalog.getSourceTierIdsWithRules();
+        verify(ruleRepository, times(1)).findAllActiveWithTiers();
+
+        when(valueOperations.get("tier-upgrade-rules:version")).thenReturn("4");
+        catalog.checkVersion();
+        catalog.getSourceTierIdsWithRules();
+        verify(ruleRepository, times(2)).findAllActiveWithTiers();
+    }
+
+    @Test
+    void localRuleChangeBumpsTheSharedVersion() {
+        catalog.getSourceTierIdsWithRules();
+
+        catalog.onEvent(new TierUpgradeRulesChangedEvent(5L), true);
+        catalog.getSourceTierIdsWithRules();
+
+        verify(valueOperations).increment("tier-upgrade-rules:version");
+        verify(ruleRepository, times(2)).findAllActiveWithTiers();
+    }
+}
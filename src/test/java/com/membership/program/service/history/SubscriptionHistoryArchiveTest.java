@@ -0,0 +1,103 @@
+package com.membership.program.service.history;
+
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.membership.program.dto.enums.SubscriptionAction;
+import com.membership.program.dto.history.ArchivedHistoryEntry;
+import com.membership.program.utility.KeysetCursor;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SubscriptionHistoryArchiveTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void partitionBoundsAreReadFromPostgresExpressions() {
+        HistoryPartition month = HistoryPartition.parse("subscription_history_p202401",
+                "FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-02-01 00:00:00')");
+        HistoryPartition legacy = HistoryPartition.parse("subscription_history_legacy",
+                "FOR VALUES FROM (MINVALUE) TO ('2024-01-01 00:00:00')");
+
+        assertEquals(LocalDateTime.of(2024, 1, 1, 0, 0), month.from());
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), month.to());
+        assertNull(legacy.from());
+        assertTrue(HistoryPartition.parse("subscription_history_default", "DEFAULT").isDefault());
+        assertThrows(IllegalArgumentException.class, () -> HistoryPartition.parse("t", "FOR VALUES IN (1)"));
+    }
+
+    @Test
+    void membersEntriesArePagedNewestFirstAcrossFiles() throws Exception {
+        SubscriptionHistoryArchive archive = new SubscriptionHistoryArchive(JsonMapper.builder().findAndAddModules().build(),
+                directory.toString());
+        LocalDateTime january = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime february = january.plusMonths(1);
+        write(archive, new HistoryPartition("p202401", january, february, false),
+                entry(1L, 10L, january.plusDays(20)), entry(7L, 12L, january.plusDays(9)),
+                entry(7L, 11L, january.plusDays(3)), entry(9L, 13L, january.plusDays(1)));
+        write(archive, new HistoryPartition("p202402", february, february.plusMonths(1), false),
+                entry(7L, 21L, february.plusDays(5)), entry(7L, 20L, february.plusDays(5)));
+        write(archive, new HistoryPartition("legacy", null, january, false), entry(7L, 2L, january.minusYears(1)));
+
+        List<ArchivedHistoryEntry> first = archive.findByUser(7L, null, 3);
+        assertEquals(List.of(21L, 20L, 12L), ids(first));
+
+        ArchivedHistoryEntry last = first.get(first.size() - 1);
+        List<ArchivedHistoryEntry> rest = archive.findByUser(7L, new KeysetCursor(last.performedAt(), last.id()), 10);
+        assertEquals(List.of(11L, 2L), ids(rest));
+
+        List<ArchivedHistoryEntry> exported = new ArrayList<>();
+        archive.forEachByUser(7L, exported::addAll);
+        assertEquals(List.of(21L, 20L, 12L, 11L, 2L), ids(exported));
+        assertTrue(archive.findByUser(8L, null, 10).isEmpty());
+
+        try (var files = Files.list(directory)) {
+            assertEquals(3, files.filter(path -> path.toString().endsWith(".ndjson.gz")).count());
+        }
+    }
+
+    @Test
+    void uncommittedFilesAreDiscarded() throws Exception {
+        SubscriptionHistoryArchive archive = new SubscriptionHistoryArchive(JsonMapper.builder().findAndAddModules().build(),
+                directory.toString());
+        LocalDateTime january = LocalDateTime.of(2024, 1, 1, 0, 0);
+        try (SubscriptionHistoryArchive.ArchiveFileWriter writer =
+                     archive.newFile(new HistoryPartition("p202401", january, january.plusMonths(1), false))) {
+            writer.append(entry(7L, 1L, january));
+        }
+
+        try (var files = Files.list(directory)) {
+            assertEquals(0, files.count());
+        }
+        assertTrue(archive.findByUser(7L, null, 10).isEmpty());
+    }
+
+    private static void write(SubscriptionHistoryArchive archive, HistoryPartition partition,
+                              ArchivedHistoryEntry... entries) throws Exception {
+        try (SubscriptionHistoryArchive.ArchiveFileWriter writer = archive.newFile(partition)) {
+            for (ArchivedHistoryEntry entry : entries) {
+                writer.append(entry);
+            }
+            writer.commit();
+        }
+    }
+
+    private static ArchivedHistoryEntry entry(Long userId, Long id, LocalDateTime performedAt) {
+        return new ArchivedHistoryEntry(userId, id, 100L, SubscriptionAction.RENEWED, "Subscription renewed",
+                "Monthly Gold", "Monthly Gold", new BigDecimal("39.99"), new BigDecimal("39.99"), "SYSTEM",
+                performedAt, performedAt, null);
+    }
+
+    private static List<Long> ids(List<ArchivedHistoryEntry> entries) {
+        return entries.stream().map(ArchivedHistoryEntry::id).toList();
+    }
+}
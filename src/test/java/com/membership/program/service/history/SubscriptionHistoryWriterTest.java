@@ -0,0 +1,121 @@
+package com.membership.program.service.history;
+
+import com.membership.program.dto.enums.SubscriptionAction;
+import com.membership.program.entity.Subscription;
+import com.membership.program.entity.SubscriptionHistory;
+import com.membership.program.repository.SubscriptionHistoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class SubscriptionHistoryWriterTest {
+
+    private final SubscriptionHistoryRepository repository = mock(SubscriptionHistoryRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final AtomicInteger insertedRows = new AtomicInteger();
+    private SubscriptionHistoryWriter writer;
+
+    @AfterEach
+    void tearDown() {
+        writer.stop();
+    }
+
+    @Test
+    void moneyAffectingAndMemberActionsAreSavedSynchronously() {
+        writer = newWriter(100);
+
+        assertEquals(SubscriptionHistoryWriter.Durability.SYNCHRONOUS, writer.durabilityOf(history(SubscriptionAction.RENEWED, "SYSTEM")));
+        assertEquals(SubscriptionHistoryWriter.Durability.SYNCHRONOUS, writer.durabilityOf(history(SubscriptionAction.CANCELLED, "alice")));
+        assertEquals(SubscriptionHistoryWriter.Durability.BATCHED, writer.durabilityOf(history(SubscriptionAction.CANCELLED, "SYSTEM")));
+
+        writer.write(history(SubscriptionAction.RENEWED, "SYSTEM"));
+        verify(repository).save(any());
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void queuedEntriesAreFlushedInBatchesAndDrainedOnStop() {
+        recordInserts();
+        writer = newWriter(1000);
+        writer.start();
+
+        for (int i = 0; i < 250; i++) {
+            writer.write(history(SubscriptionAction.UPGRADED, "SYSTEM"));
+        }
+        writer.stop();
+
+        assertEquals(250, insertedRows.get());
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void fullQueueIsWrittenOnTheCallersThread() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        Set<String> writerThreads = ConcurrentHashMap.newKeySet();
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    writerThreads.add(Thread.currentThread().getName());
+                    if (Thread.currentThread().getName().equals("subscription-history-writer")) {
+                        release.await(5, TimeUnit.SECONDS);
+                    }
+                    insertedRows.addAndGet(invocation.<Collection<?>>getArgument(1).size());
+                    return new int[0][];
+                });
+        writer = newWriter(1);
+        writer.start();
+
+        // The first entry holds up the flusher, the second fills the queue, the third has no room
+        writer.write(history(SubscriptionAction.DOWNGRADED, "SYSTEM"));
+        Thread.sleep(100);
+        writer.write(history(SubscriptionAction.DOWNGRADED, "SYSTEM"));
+        writer.write(history(SubscriptionAction.DOWNGRADED, "SYSTEM"));
+
+        assertTrue(writerThreads.contains(Thread.currentThread().getName()));
+        release.countDown();
+        writer.stop();
+        assertEquals(3, insertedRows.get());
+    }
+
+    @SuppressWarnings("unchecked")
+    private void recordInserts() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+                .thenAnswer(invocation -> {
+                    insertedRows.addAndGet(invocation.<Collection<?>>getArgument(1).size());
+                    return new int[0][];
+                });
+    }
+
+    private SubscriptionHistoryWriter newWriter(int queueCapacity) {
+        return new SubscriptionHistoryWriter(repository, jdbcTemplate, new SimpleMeterRegistry(),
+                Set.of(SubscriptionAction.CREATED, SubscriptionAction.RENEWED), queueCapacity, 100, 10, 10);
+    }
+
+    private static SubscriptionHistory history(SubscriptionAction action, String performedBy) {
+        Subscription subscription = new Subscription();
+        subscription.setId(1L);
+        return SubscriptionHistory.builder()
+                .subscription(subscription)
+                .userId(7L)
+                .action(action)
+                .performedBy(performedBy)
+                .performedAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,100 @@
+package com.membership.program.service.implementation;
+
+import com.membership.program.dto.evaluation.EvaluationContext;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.entity.User;
+import com.membership.program.repository.UserRepository;
+import com.membership.program.service.MembershipService;
+import com.membership.program.service.cache.EligibilityCache;
+import com.membership.program.service.evaluation.EvaluationContextBuilder;
+import com.membership.program.service.evaluation.RuleEvaluationService;
+import com.membership.program.service.evaluation.RuleIndex;
+import com.membership.program.service.evaluation.TierUpgradeRuleCatalog;
+import com.membership.program.utility.SingleFlight;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * The scheduler, the user's own call and an admin call racing on the same user must produce a
+ * single evaluation and a single upgrade.
+ */
+class TierUpgradeServiceImplConcurrencyTest {
+
+    private static final long USER_ID = 42L;
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final TierUpgradeRuleCatalog ruleCatalog = mock(TierUpgradeRuleCatalog.class);
+    private final EvaluationContextBuilder contextBuilder = mock(EvaluationContextBuilder.class);
+    private final RuleEvaluationService ruleEvaluationService = mock(RuleEvaluationService.class);
+    private final MembershipService membershipService = mock(MembershipService.class);
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    private static final int FOLLOWERS = 5;
+
+    private final CountDownLatch followersJoined = new CountDownLatch(FOLLOWERS);
+    private final TierUpgradeServiceImpl service = new TierUpgradeServiceImpl(userRepository, ruleCatalog, contextBuilder,
+            ruleEvaluationService, membershipService, mock(EligibilityCache.class), transactionTemplate,
+            new SingleFlight<>(userId -> followersJoined.countDown()));
+
+    @Test
+    void concurrentCallsForOneUserEvaluateAndUpgradeOnce() throws Exception {
+        TierUpgradeRuleDefinition rule = TierUpgradeRuleDefinition.builder()
+                .id(1L).sourceTierId(1L).targetTierId(2L).autoUpgrade(true).active(true).criteria(List.of()).build();
+        when(userRepository.findById(USER_ID)).thenReturn(Optional.of(User.builder().id(USER_ID).currentTierLevel(1).build()));
+        RuleIndex ruleIndex = new RuleIndex(List.of(rule));
+        when(ruleCatalog.getRuleIndex(1L)).thenReturn(ruleIndex);
+        when(ruleEvaluationService.findBestApplicableRule(eq(ruleIndex), any())).thenReturn(Optional.of(rule));
+        when(ruleEvaluationService.evaluateRule(any(), any())).thenReturn(List.of());
+
+        // The first evaluation holds the flight open until every follower has joined it
+        CountDownLatch evaluating = new CountDownLatch(1);
+        when(contextBuilder.buildContext(any())).thenAnswer(invocation -> {
+            evaluating.countDown();
+            assertTrue(followersJoined.await(30, TimeUnit.SECONDS));
+            return EvaluationContext.builder().build();
+        });
+
+        List<Throwable> failures = new ArrayList<>();
+        Thread leader = start(failures);
+        assertTrue(evaluating.await(30, TimeUnit.SECONDS), () -> failures.toString());
+
+        List<Thread> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(start(failures));
+        }
+
+        leader.join(30_000);
+        for (Thread follower : followers) {
+            follower.join(30_000);
+        }
+
+        assertTrue(failures.isEmpty(), failures.toString());
+        verify(contextBuilder, times(1)).buildContext(any());
+        verify(membershipService, times(1)).upgradeTier(USER_ID, 2L, true);
+    }
+
+    private Thread start(List<Throwable> failures) {
+        Thread thread = new Thread(() -> {
+            try {
+                service.processAutomaticUpgrades(USER_ID);
+            } catch (Throwable t) {
+                synchronized (failures) {
+                    failures.add(t);
+                }
+            }
+        });
+        thread.start();
+        return thread;
+    }
+}
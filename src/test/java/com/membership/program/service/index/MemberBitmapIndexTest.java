@@ -0,0 +1,78 @@
+package com.membership.program.service.index;
+
+import com.membership.program.event.UserCohortChangedEvent;
+import com.membership.program.event.UserCreatedEvent;
+import com.membership.program.event.UserTierChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class MemberBitmapIndexTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final MemberBitmapIndex index = new MemberBitmapIndex(jdbcTemplate, mock(PlatformTransactionManager.class), 1000);
+
+    @Test
+    void tierAndCohortSelectionsFollowUserChanges() {
+        index.onUserCreated(new UserCreatedEvent(1L, 1, "VIP"));
+        index.onUserCreated(new UserCreatedEvent(2L, 1, "STUDENT"));
+        index.onUserCreated(new UserCreatedEvent(3L, 2, "VIP"));
+        index.onUserCreated(new UserCreatedEvent(4L, 1, null));
+
+        assertEquals(RoaringBitmap.bitmapOf(1), index.members(1, "VIP"));
+        assertEquals(3, index.count(1, null));
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 3), index.inAnyCohort(List.of("VIP", "STUDENT")));
+
+        index.onUserTierChanged(new UserTierChangedEvent(1L, 1, 2));
+        index.onUserCohortChanged(new UserCohortChangedEvent(2L, "STUDENT", "VIP"));
+
+        assertEquals(RoaringBitmap.bitmapOf(2), index.members(1, "VIP"));
+        assertEquals(RoaringBitmap.bitmapOf(1, 3), index.members(2, "VIP"));
+        assertEquals(0, index.count(null, "STUDENT"));
+        assertEquals(RoaringBitmap.bitmapOf(1, 2, 3, 4), index.inAnyTier(List.of(1, 2)));
+    }
+
+    @Test
+    void pagesAreReadInIdOrderAfterTheCursor() {
+        RoaringBitmap members = RoaringBitmap.bitmapOf(5, 9, 12, 40, 41);
+        members.add((int) 3_000_000_000L);
+
+        assertEquals(List.of(5L, 9L), MemberBitmapIndex.page(members, 0L, 2));
+        assertEquals(List.of(12L, 40L, 41L), MemberBitmapIndex.page(members, 9L, 3));
+        assertEquals(List.of(3_000_000_000L), MemberBitmapIndex.page(members, 41L, 10));
+        assertEquals(List.of(), MemberBitmapIndex.page(members, 3_000_000_000L, 10));
+    }
+
+    @Test
+    void changesDuringARebuildAreKept() throws Exception {
+        ResultSet row = mock(ResultSet.class);
+        when(row.getLong("id")).thenReturn(1L, 2L);
+        when(row.getInt("current_tier_level")).thenReturn(1, 1);
+        when(row.getString("cohort")).thenReturn("VIP", "VIP");
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row);
+            // User 1 is upgraded after the scan has read them
+            index.onUserTierChanged(new UserTierChangedEvent(1L, 1, 2));
+            handler.processRow(row);
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        assertFalse(index.isReady());
+        index.rebuild();
+
+        assertTrue(index.isReady());
+        assertEquals(RoaringBitmap.bitmapOf(2), index.members(1, null));
+        assertEquals(RoaringBitmap.bitmapOf(1), index.members(2, "VIP"));
+    }
+}
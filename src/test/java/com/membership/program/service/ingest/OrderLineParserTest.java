@@ -0,0 +1,59 @@
+package com.membership.program.service.ingest;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.membership.program.dto.enums.OrderStatus;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OrderLineParserTest {
+
+    private final OrderLineParser parser = new OrderLineParser(new JsonFactory());
+
+    @Test
+    void readsAnOrderAndAppliesDefaults() {
+        OrderIngestRecord record = parser.parse("{\"orderNumber\":\"ORD-1\",\"userId\":42,\"orderDate\":\"2026-03-15T10:15:30\"," +
+                "\"totalAmount\":120.50,\"discountAmount\":\"20.50\",\"ignored\":{\"nested\":[1,2]}}");
+
+        assertEquals("ORD-1", record.orderNumber());
+        assertEquals(42L, record.userId());
+        assertEquals(OrderStatus.COMPLETED, record.status());
+        assertEquals(LocalDateTime.of(2026, 3, 15, 10, 15, 30), record.orderDate());
+        assertEquals(new BigDecimal("120.50"), record.totalAmount());
+        assertEquals(new BigDecimal("100.00"), record.finalAmount());
+        assertEquals("INR", record.currency());
+        assertNull(record.paymentMethod());
+    }
+
+    @Test
+    void keepsExplicitStatusAndFinalAmount() {
+        OrderIngestRecord record = parser.parse("{\"orderNumber\":\"ORD-2\",\"userId\":7,\"status\":\"CANCELLED\"," +
+                "\"orderDate\":\"2026-03-15T10:15:30Z\",\"totalAmount\":10,\"finalAmount\":9.99,\"currency\":\"USD\"}");
+
+        assertEquals(OrderStatus.CANCELLED, record.status());
+        assertEquals(new BigDecimal("9.99"), record.finalAmount());
+        assertEquals("USD", record.currency());
+        assertNotNull(record.orderDate());
+    }
+
+    @Test
+    void rejectsInvalidLinesWithTheReason() {
+        assertRejected("not json", "Malformed JSON");
+        assertRejected("[1,2]", "not a JSON object");
+        assertRejected("{\"userId\":1,\"orderDate\":\"2026-03-15T10:15:30\",\"totalAmount\":1}", "orderNumber");
+        assertRejected("{\"orderNumber\":\"A\",\"userId\":\"1\",\"orderDate\":\"2026-03-15T10:15:30\",\"totalAmount\":1}", "userId");
+        assertRejected("{\"orderNumber\":\"A\",\"userId\":1,\"orderDate\":\"yesterday\",\"totalAmount\":1}", "orderDate");
+        assertRejected("{\"orderNumber\":\"A\",\"userId\":1,\"orderDate\":\"2026-03-15T10:15:30\",\"totalAmount\":0}", "totalAmount");
+        assertRejected("{\"orderNumber\":\"A\",\"userId\":1,\"orderDate\":\"2026-03-15T10:15:30\",\"totalAmount\":1.001}", "totalAmount");
+        assertRejected("{\"orderNumber\":\"A\",\"userId\":1,\"orderDate\":\"2026-03-15T10:15:30\",\"totalAmount\":1,\"status\":\"LOST\"}", "Unknown status");
+        assertRejected("{\"orderNumber\":\"A\",\"userId\":1,\"orderDate\":\"2026-03-15T10:15:30\",\"totalAmount\":1} {}", "Unexpected content");
+    }
+
+    private void assertRejected(String line, String reason) {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> parser.parse(line));
+        assertTrue(e.getMessage().contains(reason), e.getMessage());
+    }
+}
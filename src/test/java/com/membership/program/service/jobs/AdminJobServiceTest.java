@@ -0,0 +1,142 @@
+package com.membership.program.service.jobs;
+
+import com.membership.program.dto.enums.AdminJobStatus;
+import com.membership.program.dto.request.AdminJobRequestDTO;
+import com.membership.program.dto.response.AdminJobResponseDTO;
+import com.membership.program.dto.response.JobRunSummaryResponseDTO;
+import com.membership.program.exception.MembershipException;
+import com.membership.program.repository.UserRepository;
+import com.membership.program.service.TierUpgradeService;
+import com.membership.program.service.cluster.JobRunLedger;
+import com.membership.program.service.cluster.ShardedJobRunner;
+import com.membership.program.service.throttle.AdaptiveBatchThrottle;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AdminJobServiceTest {
+
+    private final ShardedJobRunner shardedJobRunner = mock(ShardedJobRunner.class);
+    private final JobRunLedger jobRunLedger = mock(JobRunLedger.class);
+    private final AdminJobService adminJobService = new AdminJobService(shardedJobRunner, jobRunLedger,
+            mock(UserRepository.class), mock(TierUpgradeService.class), mock(AdaptiveBatchThrottle.class), 1, 1, 100, 24);
+
+    @AfterEach
+    void tearDown() {
+        adminJobService.shutdown();
+    }
+
+    @Test
+    void jobIsCompletedOnceEveryShardOfItsRunIsCompleted() throws InterruptedException {
+        when(jobRunLedger.getRun(anyString(), anyBoolean())).thenReturn(Optional.of(summary(true)));
+
+        AdminJobResponseDTO submitted = adminJobService.submitTierReevaluation(new AdminJobRequestDTO(" "), "admin");
+
+        assertNull(submitted.getCohort());
+        AdminJobResponseDTO finished = awaitFinished(submitted.getJobId());
+        assertEquals(AdminJobStatus.COMPLETED, finished.getStatus());
+        assertNotNull(finished.getStartedAt());
+        assertNotNull(finished.getFinishedAt());
+    }
+
+    @Test
+    void jobWithUnfinishedShardsFailsAndAsksForAResubmit() throws InterruptedException {
+        when(jobRunLedger.getRun(anyString(), anyBoolean())).thenReturn(Optional.of(summary(false)));
+
+        String jobId = adminJobService.submitTierReevaluation(new AdminJobRequestDTO("spring-2026"), "admin").getJobId();
+
+        AdminJobResponseDTO finished = awaitFinished(jobId);
+        assertEquals(AdminJobStatus.FAILED, finished.getStatus());
+        assertTrue(finished.getError().contains("resubmit"));
+    }
+
+    @Test
+    void runnerExceptionFailsTheJobWithItsMessage() throws InterruptedException {
+        doThrow(new IllegalStateException("cluster membership unavailable"))
+                .when(shardedJobRunner).run(eq(AdminJobService.TIER_REEVALUATION), anyString(), any(), any());
+
+        String jobId = adminJobService.submitTierReevaluation(new AdminJobRequestDTO(), "admin").getJobId();
+
+        AdminJobResponseDTO finished = awaitFinished(jobId);
+        assertEquals(AdminJobStatus.FAILED, finished.getStatus());
+        assertEquals("cluster membership unavailable", finished.getError());
+    }
+
+    @Test
+    void runningJobIsCancelledAfterItsCurrentPage() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch cancelled = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            BooleanSupplier cancelRequested = invocation.getArgument(3);
+            // Stands in for the shard loop noticing the request at the end of a page
+            while (!cancelRequested.getAsBoolean()) {
+                cancelled.await(10, TimeUnit.MILLISECONDS);
+            }
+            return null;
+        }).when(shardedJobRunner).run(anyString(), anyString(), any(), any());
+
+        String jobId = adminJobService.submitTierReevaluation(new AdminJobRequestDTO(), "admin").getJobId();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        assertEquals(AdminJobStatus.RUNNING, adminJobService.getJob(jobId).orElseThrow().getStatus());
+
+        adminJobService.cancel(jobId);
+
+        assertEquals(AdminJobStatus.CANCELLED, awaitFinished(jobId).getStatus());
+        assertThrows(MembershipException.class, () -> adminJobService.cancel(jobId));
+    }
+
+    @Test
+    void queuedJobIsCancelledImmediatelyAndAFullQueueRejectsNewJobs() throws InterruptedException {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            running.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(shardedJobRunner).run(anyString(), anyString(), any(), any());
+        when(jobRunLedger.getRun(anyString(), anyBoolean())).thenReturn(Optional.of(summary(true)));
+
+        String first = adminJobService.submitTierReevaluation(new AdminJobRequestDTO(), "admin").getJobId();
+        assertTrue(running.await(5, TimeUnit.SECONDS));
+        String queued = adminJobService.submitTierReevaluation(new AdminJobRequestDTO(), "admin").getJobId();
+        assertThrows(RejectedExecutionException.class,
+                () -> adminJobService.submitTierReevaluation(new AdminJobRequestDTO(), "admin"));
+
+        assertEquals(AdminJobStatus.QUEUED, adminJobService.getJob(queued).orElseThrow().getStatus());
+        assertEquals(AdminJobStatus.CANCELLED, adminJobService.cancel(queued).orElseThrow().getStatus());
+        assertEquals(2, adminJobService.getJobs().size());
+
+        release.countDown();
+        assertEquals(AdminJobStatus.COMPLETED, awaitFinished(first).getStatus());
+    }
+
+    private AdminJobResponseDTO awaitFinished(String jobId) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        AdminJobResponseDTO job;
+        while ((job = adminJobService.getJob(jobId).orElseThrow()).getFinishedAt() == null) {
+            assertTrue(System.nanoTime() < deadline, "job " + jobId + " did not finish");
+            Thread.sleep(10);
+        }
+        return job;
+    }
+
+    private static JobRunSummaryResponseDTO summary(boolean completed) {
+        return JobRunSummaryResponseDTO.builder().jobName(AdminJobService.TIER_REEVALUATION).completed(completed).build();
+    }
+}
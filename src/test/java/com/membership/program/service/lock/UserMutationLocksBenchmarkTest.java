@@ -0,0 +1,67 @@
+package com.membership.program.service.lock;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static com.membership.program.service.lock.UserMutationLocksTest.inTransaction;
+import static com.membership.program.service.lock.UserMutationLocksTest.runConcurrently;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contention benchmark comparing striped locks with a single global lock. Throughput is logged
+ * rather than asserted; excluded from the default build, run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@Slf4j
+class UserMutationLocksBenchmarkTest {
+
+    private static final int THREADS = 16;
+    private static final int MUTATIONS = 8_000;
+    private static final int USERS = 5_000;
+    private static final long TRANSACTION_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Test
+    void stripedLocksKeepThroughputUnderContention() throws Exception {
+        UserMutationLocks striped = new UserMutationLocks(1024, 60_000);
+        UserMutationLocks global = new UserMutationLocks(1, 60_000);
+
+        // Warm up both paths
+        measure(striped, MUTATIONS / 4);
+        measure(global, MUTATIONS / 4);
+
+        double stripedRate = measure(striped, MUTATIONS);
+        double globalRate = measure(global, MUTATIONS);
+
+        log.info(String.format("User mutation locks: %d threads, %d users, %dus transactions | striped=%.0f ops/s"
+                        + " | single lock=%.0f ops/s (%.1fx)",
+                THREADS, USERS, TimeUnit.NANOSECONDS.toMicros(TRANSACTION_NANOS),
+                stripedRate, globalRate, stripedRate / globalRate));
+    }
+
+    /**
+     * Run mutations against random users, checking that no two mutations for a user overlap
+     *
+     * @return mutations per second
+     */
+    private double measure(UserMutationLocks locks, int mutations) throws Exception {
+        Map<Long, AtomicInteger> inside = new ConcurrentHashMap<>();
+        long start = System.nanoTime();
+        runConcurrently(THREADS, mutations, i -> inTransaction(() -> {
+            long userId = ThreadLocalRandom.current().nextLong(USERS);
+            locks.lockForTransaction(userId);
+            AtomicInteger holders = inside.computeIfAbsent(userId, id -> new AtomicInteger());
+            assertEquals(1, holders.incrementAndGet(), "two mutations for user " + userId + " overlapped");
+            LockSupport.parkNanos(TRANSACTION_NANOS);
+            holders.decrementAndGet();
+        }));
+        return mutations / ((System.nanoTime() - start) / 1_000_000_000.0);
+    }
+}
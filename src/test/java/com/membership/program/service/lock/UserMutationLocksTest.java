@@ -0,0 +1,172 @@
+package com.membership.program.service.lock;
+
+import com.membership.program.exception.SubscriptionException;
+import com.membership.program.utility.StripedLocks;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Per-user serialization of membership changes. Each simulated mutation holds its lock for a short
+ * "transaction".
+ */
+class UserMutationLocksTest {
+
+    private static final int THREADS = 16;
+    private static final int MUTATIONS = 2_000;
+    private static final int USERS = 200;
+    private static final long TRANSACTION_NANOS = TimeUnit.MICROSECONDS.toNanos(200);
+
+    @Test
+    void concurrentSubscribesForOneUserCreateOneSubscription() throws Exception {
+        UserMutationLocks locks = new UserMutationLocks(1024, 5_000);
+        Map<Long, Integer> activeSubscriptions = new ConcurrentHashMap<>();
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(THREADS, THREADS, i -> inTransaction(() -> {
+            locks.lockForTransaction(1L);
+            // Check-then-insert, as in subscribeToPlan
+            if (activeSubscriptions.containsKey(1L)) {
+                rejected.incrementAndGet();
+                return;
+            }
+            LockSupport.parkNanos(TRANSACTION_NANOS);
+            activeSubscriptions.put(1L, i);
+            created.incrementAndGet();
+        }));
+
+        assertEquals(1, created.get());
+        assertEquals(THREADS - 1, rejected.get());
+    }
+
+    @Test
+    void lockIsHeldUntilTheTransactionCompletes() throws Exception {
+        UserMutationLocks locks = new UserMutationLocks(16, 50);
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> inTransaction(() -> {
+            locks.lockForTransaction(7L);
+            locked.countDown();
+            awaitQuietly(release);
+        }));
+        holder.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        assertThrows(SubscriptionException.class, () -> inTransaction(() -> locks.lockForTransaction(7L)));
+        release.countDown();
+        holder.join(5_000);
+        inTransaction(() -> locks.lockForTransaction(7L));
+
+        assertThrows(IllegalStateException.class, () -> locks.lockForTransaction(7L));
+    }
+
+    @Test
+    void mutationsForOneUserNeverOverlap() throws Exception {
+        UserMutationLocks locks = new UserMutationLocks(64, 60_000);
+        Map<Long, AtomicInteger> inside = new ConcurrentHashMap<>();
+
+        runConcurrently(THREADS, MUTATIONS, i -> inTransaction(() -> {
+            long userId = ThreadLocalRandom.current().nextLong(USERS);
+            locks.lockForTransaction(userId);
+            AtomicInteger holders = inside.computeIfAbsent(userId, id -> new AtomicInteger());
+            assertEquals(1, holders.incrementAndGet(), "two mutations for user " + userId + " overlapped");
+            LockSupport.parkNanos(TRANSACTION_NANOS);
+            holders.decrementAndGet();
+        }));
+    }
+
+    @Test
+    void usersOnAnotherStripeAreNotBlocked() throws Exception {
+        UserMutationLocks locks = new UserMutationLocks(1024, 50);
+        StripedLocks stripes = new StripedLocks(1024);
+        long otherUserId = 8L;
+        while (stripes.get(otherUserId) == stripes.get(7L)) {
+            otherUserId++;
+        }
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Thread holder = new Thread(() -> inTransaction(() -> {
+            locks.lockForTransaction(7L);
+            locked.countDown();
+            awaitQuietly(release);
+        }));
+        holder.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+
+        long unrelatedUserId = otherUserId;
+        try {
+            runConcurrently(1, 1, i -> inTransaction(() -> locks.lockForTransaction(unrelatedUserId)));
+        } finally {
+            release.countDown();
+            holder.join(5_000);
+        }
+    }
+
+    static void runConcurrently(int threads, int tasks, IntTask task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>(tasks);
+            for (int i = 0; i < tasks; i++) {
+                int index = i;
+                futures.add(executor.submit(() -> task.run(index)));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Stand-in for a transaction: runs the body with synchronization active, then completes the
+     * registered synchronizations as a commit or rollback would
+     */
+    static void inTransaction(Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        int status = TransactionSynchronization.STATUS_COMMITTED;
+        try {
+            body.run();
+        } catch (RuntimeException | Error e) {
+            status = TransactionSynchronization.STATUS_ROLLED_BACK;
+            throw e;
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            for (TransactionSynchronization synchronization : synchronizations) {
+                synchronization.afterCompletion(status);
+            }
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @FunctionalInterface
+    interface IntTask {
+        void run(int index);
+    }
+}
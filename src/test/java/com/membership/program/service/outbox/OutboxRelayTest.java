@@ -0,0 +1,141 @@
+package com.membership.program.service.outbox;
+
+import com.membership.program.entity.OutboxEvent;
+import com.membership.program.repository.OutboxEventRepository;
+import com.membership.program.service.cluster.LeaderElection;
+import com.membership.program.service.cluster.LeaderLease;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    private static final Comparator<OutboxEvent> BY_USER_THEN_ID =
+            Comparator.comparing(OutboxEvent::getUserId).thenComparing(OutboxEvent::getId);
+
+    private final TreeMap<Long, OutboxEvent> pending = new TreeMap<>();
+    private final FlakySink sink = new FlakySink();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxRelay relay = new OutboxRelay(outboxEventRepository, sink, mock(LeaderElection.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)), meterRegistry, 2, 10, 1_000);
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        when(outboxEventRepository.findPendingAfter(anyLong(), anyLong(), any(Pageable.class))).thenAnswer(invocation -> {
+            OutboxEvent after = OutboxEvent.builder()
+                    .userId(invocation.getArgument(0, Long.class))
+                    .id(invocation.getArgument(1, Long.class))
+                    .build();
+            Pageable page = invocation.getArgument(2);
+            return pending.values().stream()
+                    .filter(event -> BY_USER_THEN_ID.compare(event, after) > 0)
+                    .sorted(BY_USER_THEN_ID)
+                    .limit(page.getPageSize())
+                    .toList();
+        });
+        when(outboxEventRepository.deleteByIds(any())).thenAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(0);
+            ids.forEach(pending::remove);
+            return ids.size();
+        });
+    }
+
+    @Test
+    void pendingEventsAreRelayedInIdOrderPerUserAndDeleted() {
+        add(3L, 10L);
+        add(1L, 10L);
+        add(2L, 11L);
+        add(5L, 10L);
+
+        assertEquals(4, relay.drainPass(lease()));
+
+        assertEquals(List.of(1L, 3L, 5L, 2L), sink.deliveredIds());
+        assertTrue(pending.isEmpty());
+        assertEquals(4, meterRegistry.counter("membership.outbox.relayed").count());
+    }
+
+    @Test
+    void rejectedPageStopsThePassAndIsRetriedInFullByTheNextOne() {
+        for (long id = 2; id <= 6; id++) {
+            add(id, 10L);
+        }
+        sink.failOnCall = 2;
+
+        assertEquals(2, relay.drainPass(lease()));
+        assertEquals(List.of(2L, 3L), sink.deliveredIds());
+        assertEquals(List.of(4L, 5L, 6L), List.copyOf(pending.keySet()));
+        assertEquals(1, meterRegistry.counter("membership.outbox.failures").count());
+
+        // An event committed late with a lower id than the failed page is still delivered first
+        add(1L, 10L);
+        assertEquals(4, relay.drainPass(lease()));
+        assertEquals(List.of(2L, 3L, 1L, 4L, 5L, 6L), sink.deliveredIds());
+        assertTrue(pending.isEmpty());
+    }
+
+    @Test
+    void passStopsOnceTheLeaseIsLost() {
+        add(1L, 10L);
+        add(2L, 10L);
+        add(3L, 10L);
+        LeaderLease lease = mock(LeaderLease.class);
+        // Renewal fails while the first page is being published
+        when(lease.isValid()).thenReturn(true, false);
+
+        assertEquals(2, relay.drainPass(lease));
+        assertEquals(List.of(3L), List.copyOf(pending.keySet()));
+    }
+
+    private void add(Long id, Long userId) {
+        pending.put(id, OutboxEvent.builder()
+                .id(id)
+                .userId(userId)
+                .eventType("UserTierChanged")
+                .payload("{}")
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private static LeaderLease lease() {
+        return new LeaderLease("outbox-relay", "node-a", 1L, Instant.now(), false);
+    }
+
+    private static class FlakySink implements OutboxSink {
+
+        private final List<OutboxMessage> delivered = new ArrayList<>();
+        private int calls;
+        private int failOnCall = -1;
+
+        @Override
+        public void publish(List<OutboxMessage> messages) throws IOException {
+            if (++calls == failOnCall) {
+                throw new IOException("broker unavailable");
+            }
+            delivered.addAll(messages);
+        }
+
+        List<Long> deliveredIds() {
+            return delivered.stream().map(OutboxMessage::id).toList();
+        }
+    }
+}
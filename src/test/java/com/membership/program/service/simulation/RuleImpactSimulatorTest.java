@@ -0,0 +1,142 @@
+package com.membership.program.service.simulation;
+
+import com.membership.program.dto.evaluation.CriteriaDefinition;
+import com.membership.program.dto.evaluation.RollingWindowThreshold;
+import com.membership.program.dto.evaluation.TierUpgradeRuleDefinition;
+import com.membership.program.dto.response.RuleSimulationResponseDTO;
+import com.membership.program.service.evaluation.TierUpgradeRuleCatalog;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+
+class RuleImpactSimulatorTest {
+
+    private final RuleImpactSimulator simulator = new RuleImpactSimulator(
+            mock(MetricsSnapshotService.class), mock(TierUpgradeRuleCatalog.class), 4);
+
+    @AfterEach
+    void tearDown() {
+        simulator.shutdown();
+    }
+
+    @Test
+    void candidateRulesAreComparedWithTheActiveRules() {
+        MetricsSnapshot snapshot = MetricsSnapshot.builder(LocalDateTime.now(), 4)
+                .add(1L, 1, null, 12, 5_000, 100)      // eligible under both rule sets
+                .add(2L, 1, "VIP", 3, 25_000, 100)     // only meets the candidate
+                .add(3L, 1, "STANDARD", 3, 18_500, 100) // 7.5% short of the candidate's value, wrong cohort
+                .add(4L, 2, "VIP", 50, 90_000, 400)    // no rules for tier 2
+                .build();
+        TierUpgradeRuleDefinition active = rule(1L, 1, 2, criterion("ORDER_COUNT", 10));
+        TierUpgradeRuleDefinition candidate = rule(null, 1, 3,
+                criterion("MONTHLY_ORDER_VALUE", new BigDecimal("200.00")), criterion("USER_COHORT", "VIP"));
+
+        RuleSimulationResponseDTO response = simulator.simulate(snapshot, List.of(active),
+                List.of(active, candidate), List.of(candidate));
+
+        assertEquals(4, response.getUsersEvaluated());
+        assertEquals(1, response.getEligibleUnderActiveRules());
+        assertEquals(2, response.getEligibleUnderSimulatedRules());
+        assertEquals(1, response.getNewlyEligible());
+        assertEquals(0, response.getNoLongerEligible());
+        assertEquals(List.of(transition(1, 2, 1), transition(1, 3, 1)), response.getUpgradesByTier());
+        assertEquals(Map.of("NONE", 1L, "VIP", 1L), response.getUpgradesByCohort());
+
+        Map<String, Long> distances = response.getDistanceToThreshold().get(0).getMembers();
+        assertEquals(3, response.getDistanceToThreshold().get(0).getMembersOnSourceTier());
+        assertEquals(1L, distances.get("QUALIFIES"));
+        assertEquals(2L, distances.get("UNREACHABLE"));
+        assertEquals(0L, distances.get("WITHIN_10_PERCENT"));
+    }
+
+    @Test
+    void replacingAnActiveRuleCanMakeUsersIneligible() {
+        MetricsSnapshot snapshot = MetricsSnapshot.builder(LocalDateTime.now(), 2)
+                .add(1L, 1, null, 12, 0, 10)
+                .add(2L, 1, null, 9, 0, 10)
+                .build();
+        TierUpgradeRuleDefinition active = rule(1L, 1, 2, criterion("ORDER_COUNT", 10));
+        TierUpgradeRuleDefinition stricter = rule(1L, 1, 2, criterion("ORDER_COUNT", 10), criterion("MEMBERSHIP_DURATION", 30));
+
+        RuleSimulationResponseDTO response = simulator.simulate(snapshot, List.of(active), List.of(stricter), List.of(stricter));
+
+        assertEquals(1, response.getEligibleUnderActiveRules());
+        assertEquals(0, response.getEligibleUnderSimulatedRules());
+        assertEquals(1, response.getNoLongerEligible());
+        assertEquals(List.of(), response.getUpgradesByTier());
+        // 12 orders but only 10 of 30 days: two thirds short; 9 orders: also two thirds short on duration
+        assertEquals(2L, response.getDistanceToThreshold().get(0).getMembers().get("BEYOND_50_PERCENT"));
+    }
+
+    @Test
+    void rulesWithRollingCriteriaAreReportedAsUnsimulated() {
+        MetricsSnapshot snapshot = MetricsSnapshot.builder(LocalDateTime.now(), 1)
+                .add(1L, 1, null, 12, 50_000, 100)
+                .build();
+        TierUpgradeRuleDefinition active = rule(1L, 1, 2,
+                criterion("ROLLING_ORDER_VALUE", new RollingWindowThreshold(30, new BigDecimal("100.00"))));
+        TierUpgradeRuleDefinition candidate = rule(null, 1, 3, criterion("ORDER_COUNT", 10));
+
+        RuleSimulationResponseDTO response = simulator.simulate(snapshot, List.of(active),
+                List.of(active, candidate), List.of(candidate));
+
+        assertEquals(0, response.getEligibleUnderActiveRules());
+        assertEquals(1, response.getEligibleUnderSimulatedRules());
+        assertEquals(1, response.getUnsimulatedRules().size());
+        assertEquals(1L, response.getUnsimulatedRules().get(0).getRuleId());
+        assertEquals(List.of("ROLLING_ORDER_VALUE"), response.getUnsimulatedRules().get(0).getCriteriaTypes());
+    }
+
+    @Test
+    void chunkedParallelTallyMatchesEveryUser() {
+        int users = RuleImpactSimulator.CHUNK_SIZE * 3 + 17;
+        MetricsSnapshot.Builder builder = MetricsSnapshot.builder(LocalDateTime.now(), 0);
+        for (int i = 0; i < users; i++) {
+            builder.add(i, 1 + i % 3, "C" + (i % 5), i % 20, i % 1_000L * 100, i % 365);
+        }
+        MetricsSnapshot snapshot = builder.build();
+        List<TierUpgradeRuleDefinition> rules = new ArrayList<>(List.of(
+                rule(1L, 1, 2, criterion("ORDER_COUNT", 10)),
+                rule(2L, 2, 3, criterion("MONTHLY_ORDER_VALUE", 500), criterion("USER_COHORT", "C1"))));
+
+        RuleSimulationResponseDTO response = simulator.simulate(snapshot, List.of(), rules, rules);
+
+        long expected = 0;
+        for (int i = 0; i < users; i++) {
+            int tier = 1 + i % 3;
+            if ((tier == 1 && i % 20 >= 10) || (tier == 2 && i % 1_000 >= 500 && i % 5 == 1)) {
+                expected++;
+            }
+        }
+        assertEquals(users, response.getUsersEvaluated());
+        assertEquals(expected, response.getEligibleUnderSimulatedRules());
+        assertEquals(expected, response.getNewlyEligible());
+    }
+
+    private static RuleSimulationResponseDTO.TierTransition transition(long source, long target, long users) {
+        return RuleSimulationResponseDTO.TierTransition.builder().sourceTierId(source).targetTierId(target).users(users).build();
+    }
+
+    private static TierUpgradeRuleDefinition rule(Long id, long sourceTier, long targetTier, CriteriaDefinition... criteria) {
+        return TierUpgradeRuleDefinition.builder()
+                .id(id)
+                .ruleName("rule-" + sourceTier + "-" + targetTier)
+                .sourceTierId(sourceTier)
+                .targetTierId(targetTier)
+                .active(true)
+                .criteria(List.of(criteria))
+                .build();
+    }
+
+    private static CriteriaDefinition criterion(String type, Object value) {
+        return CriteriaDefinition.builder().criteriaType(type).value(value).logicalCondition("AND").build();
+    }
+}
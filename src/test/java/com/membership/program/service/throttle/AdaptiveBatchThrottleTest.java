@@ -0,0 +1,54 @@
+package com.membership.program.service.throttle;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveBatchThrottleTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AdaptiveBatchThrottle throttle = new AdaptiveBatchThrottle(meterRegistry, true, 5_000,
+            50, 500, 200, 200, 20, 500, 2, 4, 200, 20, 2_000);
+
+    @AfterEach
+    void tearDown() {
+        throttle.shutdown();
+    }
+
+    @Test
+    void slowStreamingEndpointsDoNotLowerTheBatchLimits() {
+        recordRequests("/api/v1/tier-upgrade/admin/evaluate/bulk", Duration.ofMinutes(5));
+        recordRequests("/api/v1/orders/admin/ingest", Duration.ofMinutes(2));
+        recordRequests("/api/v1/membership/subscription/history/export", Duration.ofSeconds(40));
+        recordRequests("/api/v1/membership/plans", Duration.ofMillis(20));
+
+        throttle.adjust();
+
+        assertEquals(200, throttle.chunkSize());
+    }
+
+    @Test
+    void slowOnlineRequestsLowerTheBatchLimits() {
+        recordRequests("/api/v1/tier-upgrade/admin/evaluate/bulk", Duration.ofMillis(20));
+        recordRequests("/api/v1/membership/plans", Duration.ofSeconds(2));
+
+        throttle.adjust();
+
+        assertEquals(100, throttle.chunkSize());
+    }
+
+    private void recordRequests(String uri, Duration latency) {
+        Timer timer = Timer.builder("http.server.requests")
+                .tag("uri", uri)
+                .publishPercentiles(0.99)
+                .register(meterRegistry);
+        for (int i = 0; i < 20; i++) {
+            timer.record(latency);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.membership.program.utility;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AimdControllerTest {
+
+    @Test
+    void increasesAdditivelyUpToTheMaximum() {
+        AimdController controller = new AimdController(100, 10, 130, 20, 0.5);
+
+        assertEquals(120, controller.increase());
+        assertEquals(130, controller.increase());
+        assertEquals(130, controller.increase());
+    }
+
+    @Test
+    void decreasesMultiplicativelyDownToTheMinimum() {
+        AimdController controller = new AimdController(100, 10, 500, 20, 0.5);
+
+        assertEquals(50, controller.decrease());
+        assertEquals(25, controller.decrease());
+        assertEquals(12.5, controller.decrease());
+        assertEquals(10, controller.decrease());
+        assertEquals(10, controller.currentAsInt());
+    }
+
+    @Test
+    void clampsTheInitialValueAndRejectsInvalidBounds() {
+        assertEquals(500, new AimdController(1_000, 10, 500, 20, 0.5).current());
+        assertThrows(IllegalArgumentException.class, () -> new AimdController(100, 10, 500, 20, 1.0));
+        assertThrows(IllegalArgumentException.class, () -> new AimdController(100, 50, 10, 20, 0.5));
+    }
+}
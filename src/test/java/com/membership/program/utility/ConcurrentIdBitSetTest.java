@@ -0,0 +1,65 @@
+package com.membership.program.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrentIdBitSetTest {
+
+    @Test
+    void drainsInAscendingOrderAndRespectsLimit() {
+        ConcurrentIdBitSet set = new ConcurrentIdBitSet();
+        assertTrue(set.add(70_000));
+        assertTrue(set.add(3));
+        assertTrue(set.add(64));
+        assertFalse(set.add(3));
+
+        assertEquals(List.of(3L, 64L), set.drain(2));
+        assertEquals(1, set.size());
+        assertEquals(List.of(70_000L), set.drain(10));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void concurrentAddsDuringDrainAreNeverLost() throws Exception {
+        ConcurrentIdBitSet set = new ConcurrentIdBitSet();
+        int producers = 4;
+        int idsPerProducer = 50_000;
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        for (int p = 0; p < producers; p++) {
+            int offset = p;
+            executor.submit(() -> {
+                start.await();
+                for (int i = 0; i < idsPerProducer; i++) {
+                    set.add((long) i * producers + offset);
+                }
+                return null;
+            });
+        }
+
+        Set<Long> drained = new HashSet<>();
+        start.countDown();
+        executor.shutdown();
+        while (!executor.awaitTermination(1, TimeUnit.MILLISECONDS)) {
+            for (Long id : set.drain(1_000)) {
+                assertTrue(drained.add(id), "id drained twice: " + id);
+            }
+        }
+        for (Long id : set.drain(Integer.MAX_VALUE)) {
+            assertTrue(drained.add(id), "id drained twice: " + id);
+        }
+
+        assertEquals(producers * idsPerProducer, drained.size());
+        assertEquals(0, set.size());
+    }
+}
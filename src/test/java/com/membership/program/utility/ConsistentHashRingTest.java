@@ -0,0 +1,45 @@
+package com.membership.program.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int SHARDS = 64;
+
+    @Test
+    void spreadsShardsAcrossNodes() {
+        ConsistentHashRing ring = new ConsistentHashRing(List.of("a", "b", "c", "d"), 64);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int shard = 0; shard < 4_000; shard++) {
+            counts.merge(ring.nodeFor("shard:" + shard), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        counts.values().forEach(count -> assertTrue(count > 600 && count < 1_400, counts.toString()));
+    }
+
+    @Test
+    void removingANodeOnlyMovesItsOwnShards() {
+        ConsistentHashRing before = new ConsistentHashRing(List.of("a", "b", "c"), 64);
+        ConsistentHashRing after = new ConsistentHashRing(List.of("a", "c"), 64);
+
+        for (int shard = 0; shard < SHARDS; shard++) {
+            String owner = before.nodeFor("shard:" + shard);
+            if (!owner.equals("b")) {
+                assertEquals(owner, after.nodeFor("shard:" + shard));
+            }
+        }
+    }
+
+    @Test
+    void emptyRingHasNoOwner() {
+        assertNull(new ConsistentHashRing(List.of(), 64).nodeFor("shard:1"));
+    }
+}
@@ -0,0 +1,120 @@
+package com.membership.program.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EventRingBufferTest {
+
+    @Test
+    void deliversEveryEventToEveryConsumerInBatches() {
+        EventRingBuffer<Integer> ring = new EventRingBuffer<>(8);
+        EventRingBuffer<Integer>.Consumer first = ring.addConsumer();
+        EventRingBuffer<Integer>.Consumer second = ring.addConsumer();
+        for (int i = 0; i < 5; i++) {
+            assertTrue(ring.tryPublish(i));
+        }
+
+        List<Integer> events = new ArrayList<>();
+        List<Boolean> endOfBatch = new ArrayList<>();
+        assertEquals(3, first.drain((event, sequence, end) -> {
+            events.add(event);
+            endOfBatch.add(end);
+        }, 3));
+        assertEquals(List.of(0, 1, 2), events);
+        assertEquals(List.of(false, false, true), endOfBatch);
+        assertEquals(2, first.drain((event, sequence, end) -> events.add(event), 10));
+        assertEquals(List.of(0, 1, 2, 3, 4), events);
+
+        assertEquals(5, second.lag());
+        assertEquals(5, ring.backlog());
+    }
+
+    @Test
+    void rejectsEventsOnceTheSlowestConsumerIsAFullBufferBehind() {
+        EventRingBuffer<Integer> ring = new EventRingBuffer<>(4);
+        EventRingBuffer<Integer>.Consumer fast = ring.addConsumer();
+        EventRingBuffer<Integer>.Consumer slow = ring.addConsumer();
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.tryPublish(i));
+        }
+        fast.drain((event, sequence, end) -> { }, 10);
+        assertFalse(ring.tryPublish(4));
+
+        slow.drain((event, sequence, end) -> { }, 1);
+        assertTrue(ring.tryPublish(4));
+        assertFalse(ring.tryPublish(5));
+    }
+
+    @Test
+    void skipsAnEventWhoseHandlerThrowsAndKeepsTheRest() {
+        EventRingBuffer<Integer> ring = new EventRingBuffer<>(8);
+        EventRingBuffer<Integer>.Consumer consumer = ring.addConsumer();
+        for (int i = 0; i < 4; i++) {
+            ring.tryPublish(i);
+        }
+
+        assertThrows(IllegalStateException.class, () -> consumer.drain((event, sequence, end) -> {
+            if (event == 1) {
+                throw new IllegalStateException("boom");
+            }
+        }, 10));
+        List<Integer> rest = new ArrayList<>();
+        consumer.drain((event, sequence, end) -> rest.add(event), 10);
+        assertEquals(List.of(2, 3), rest);
+    }
+
+    @Test
+    void concurrentProducersLoseNothingAndKeepEachProducersOrder() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        EventRingBuffer<long[]> ring = new EventRingBuffer<>(1024);
+        EventRingBuffer<long[]>.Consumer consumer = ring.addConsumer();
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            long producer = p;
+            executor.submit(() -> {
+                start.await();
+                for (long i = 0; i < perProducer; i++) {
+                    while (!ring.tryPublish(new long[]{producer, i})) {
+                        Thread.onSpinWait();
+                    }
+                }
+                return null;
+            });
+        }
+
+        long[] lastSeen = new long[producers];
+        Arrays.fill(lastSeen, -1);
+        AtomicInteger received = new AtomicInteger();
+        start.countDown();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received.get() < producers * perProducer && System.nanoTime() < deadline) {
+            consumer.drain((event, sequence, end) -> {
+                assertEquals(lastSeen[(int) event[0]] + 1, event[1]);
+                lastSeen[(int) event[0]] = event[1];
+                received.incrementAndGet();
+            }, 256);
+        }
+        executor.shutdown();
+
+        assertEquals(producers * perProducer, received.get());
+        assertEquals(0, ring.backlog());
+    }
+
+    @Test
+    void rejectsCapacitiesThatAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new EventRingBuffer<>(100));
+        assertThrows(IllegalArgumentException.class, () -> new EventRingBuffer<>(1));
+    }
+}
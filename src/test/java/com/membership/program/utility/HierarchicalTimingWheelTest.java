@@ -0,0 +1,91 @@
+package com.membership.program.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void firesEachKeyOnItsTickAcrossLevels() {
+        HierarchicalTimingWheel<String> wheel = new HierarchicalTimingWheel<>(1_000, 8, 3, 0);
+        wheel.schedule("soon", 3_000);
+        wheel.schedule("next-level", 20_000);
+        wheel.schedule("top-level", 300_000);
+        wheel.schedule("overflow", 2_000_000);
+
+        assertEquals(List.of(), wheel.advance(2_999));
+        assertEquals(List.of("soon"), wheel.advance(3_000));
+        assertEquals(List.of(), wheel.advance(19_999));
+        assertEquals(List.of("next-level"), wheel.advance(20_500));
+        assertEquals(List.of("top-level"), wheel.advance(300_000));
+        assertEquals(List.of(), wheel.advance(1_999_999));
+        assertEquals(List.of("overflow"), wheel.advance(2_000_000));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void reschedulingReplacesTheDeadlineAndCancelRemovesIt() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1_000, 8, 3, 0);
+        assertTrue(wheel.schedule(1L, 5_000));
+        assertFalse(wheel.schedule(1L, 4_400));
+        assertTrue(wheel.schedule(1L, 9_000));
+        wheel.schedule(2L, 6_000);
+        assertTrue(wheel.cancel(2L));
+
+        assertEquals(List.of(), wheel.advance(8_000));
+        assertEquals(List.of(1L), wheel.advance(9_000));
+    }
+
+    @Test
+    void deadlinesBetweenTicksNeverFireEarly() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1_000, 8, 3, 0);
+        wheel.schedule(1L, 3_250);
+        wheel.schedule(2L, 40_001);
+
+        assertEquals(List.of(), wheel.advance(3_249));
+        assertEquals(List.of(), wheel.advance(3_999));
+        assertEquals(List.of(1L), wheel.advance(4_000));
+        assertEquals(List.of(), wheel.advance(40_999));
+        assertEquals(List.of(2L), wheel.advance(41_000));
+    }
+
+    @Test
+    void pastDeadlinesFireOnTheNextAdvance() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1_000, 8, 2, 50_000);
+        wheel.schedule(7L, 10_000);
+
+        assertEquals(List.of(7L), wheel.advance(50_000));
+    }
+
+    @Test
+    void matchesASortedReferenceForRandomDeadlines() {
+        Random random = new Random(42);
+        HierarchicalTimingWheel<Integer> wheel = new HierarchicalTimingWheel<>(10, 16, 3, 0);
+        TreeMap<Long, List<Integer>> expected = new TreeMap<>();
+        for (int key = 0; key < 5_000; key++) {
+            long deadline = random.nextInt(200_000);
+            wheel.schedule(key, deadline);
+            expected.computeIfAbsent(Math.floorDiv(deadline + 9, 10), tick -> new ArrayList<>()).add(key);
+        }
+
+        for (long now = 0; now <= 200_000; now = Math.min(200_000, now + 10 + random.nextInt(500))) {
+            List<Integer> fired = wheel.advance(now);
+            List<Integer> due = new ArrayList<>();
+            expected.headMap(now / 10, true).values().forEach(due::addAll);
+            expected.headMap(now / 10, true).clear();
+            assertEquals(due.size(), fired.size(), "at " + now);
+            assertTrue(fired.containsAll(due), "at " + now);
+            if (now == 200_000) {
+                break;
+            }
+        }
+        assertTrue(expected.isEmpty());
+        assertEquals(0, wheel.size());
+    }
+}
@@ -0,0 +1,28 @@
+package com.membership.program.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class KeysetCursorTest {
+
+    @Test
+    void cursorSurvivesARoundTripThroughItsToken() {
+        KeysetCursor cursor = new KeysetCursor(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123_456_000), 987_654_321L);
+
+        String token = cursor.encode();
+
+        assertTrue(token.matches("[A-Za-z0-9_-]+"), "token should be URL-safe: " + token);
+        assertEquals(cursor, KeysetCursor.decode(token));
+    }
+
+    @Test
+    void tamperedTokensAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("not a cursor!"));
+        assertThrows(IllegalArgumentException.class, () -> KeysetCursor.decode("MjAyNS0wMy0wMQ"));
+        assertThrows(IllegalArgumentException.class,
+                () -> KeysetCursor.decode(new KeysetCursor(LocalDateTime.now(), 1).encode().substring(4)));
+    }
+}
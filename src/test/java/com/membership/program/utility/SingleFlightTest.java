@@ -0,0 +1,98 @@
+package com.membership.program.utility;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final Semaphore joined = new Semaphore(0);
+    private final SingleFlight<Long, Integer> flights = new SingleFlight<>(key -> joined.release());
+
+    @Test
+    void concurrentCallersShareOneExecution() throws Exception {
+        AtomicInteger executions = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        try {
+            Future<Integer> leader = callers.submit(() -> flights.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                return executions.incrementAndGet();
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<Integer>> followers = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                followers.add(callers.submit(() -> flights.execute(1L, executions::incrementAndGet)));
+            }
+            // Followers are parked on the leader's flight; none of them runs its own work
+            assertTrue(joined.tryAcquire(7, 5, TimeUnit.SECONDS));
+            assertEquals(0, executions.get());
+            release.countDown();
+
+            assertEquals(1, leader.get(5, TimeUnit.SECONDS));
+            for (Future<Integer> follower : followers) {
+                assertEquals(1, follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            assertEquals(0, flights.inFlightCount());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    void callsAfterTheFlightLandsRunAgainAndOtherKeysRunIndependently() {
+        AtomicInteger executions = new AtomicInteger();
+
+        assertEquals(1, flights.execute(1L, executions::incrementAndGet));
+        assertEquals(2, flights.execute(1L, executions::incrementAndGet));
+        assertEquals(30, flights.execute(2L, () -> flights.execute(3L, () -> 30)));
+    }
+
+    @Test
+    void failuresAreSharedWithJoinedCallersAndClearTheKey() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> leader = callers.submit(() -> flights.execute(1L, () -> {
+                started.countDown();
+                await(release);
+                throw new IllegalStateException("boom");
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            Future<Integer> follower = callers.submit(() -> flights.execute(1L, () -> 2));
+            assertTrue(joined.tryAcquire(1, 5, TimeUnit.SECONDS));
+            release.countDown();
+
+            Exception leaderFailure = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+            Exception followerFailure = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(IllegalStateException.class, leaderFailure.getCause());
+            assertInstanceOf(IllegalStateException.class, followerFailure.getCause());
+            assertEquals(3, flights.execute(1L, () -> 3));
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}